@@ -1,5 +1,13 @@
 package com.redhat.service.bridge.actions;
 
+import java.util.concurrent.CompletionStage;
+
 public interface ActionInvoker {
-    void onEvent(String event);
+
+    /**
+     * @param event - The event to hand over to the Action.
+     * @return - Completes once the Action has handled the event, e.g. once the broker has acknowledged it, or
+     *         exceptionally if the Action failed to handle it.
+     */
+    CompletionStage<Void> onEvent(String event);
 }
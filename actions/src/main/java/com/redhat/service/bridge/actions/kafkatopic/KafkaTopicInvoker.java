@@ -1,5 +1,8 @@
 package com.redhat.service.bridge.actions.kafkatopic;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 import org.eclipse.microprofile.reactive.messaging.Emitter;
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.slf4j.Logger;
@@ -7,6 +10,8 @@ import org.slf4j.LoggerFactory;
 
 import com.redhat.service.bridge.actions.ActionInvoker;
 import com.redhat.service.bridge.infra.models.dto.ProcessorDTO;
+import com.redhat.service.bridge.infra.trace.Span;
+import com.redhat.service.bridge.infra.trace.TraceContext;
 
 import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
 
@@ -27,17 +32,32 @@ public class KafkaTopicInvoker implements ActionInvoker {
     }
 
     @Override
-    public void onEvent(String event) {
+    public CompletionStage<Void> onEvent(String event) {
 
         /*
          * As the user can specify their target topic in the Action configuration, we set
          * it in the metadata of the message we are sending.
          *
          */
-        OutgoingKafkaRecordMetadata<?> metadata = OutgoingKafkaRecordMetadata.builder()
-                .withTopic(topic)
-                .build();
-        emitter.send(Message.of(event).addMetadata(metadata));
-        LOG.info("Emitted CloudEvent to target topic '{}' for Action on Processor '{}' on Bridge '{}'", topic, processor.getId(), processor.getBridge().getId());
+        OutgoingKafkaRecordMetadata.OutgoingKafkaRecordMetadataBuilder<Object> metadata = OutgoingKafkaRecordMetadata.builder()
+                .withTopic(topic);
+        // The consumers of the topic can follow the trace of the event from the headers of the record
+        TraceContext traceContext = Span.current().getContext();
+        if (traceContext != null) {
+            metadata.withHeaders(traceContext.toHeaders());
+        }
+        // The Action has handled the event once the broker has acknowledged the record
+        CompletableFuture<Void> acknowledged = new CompletableFuture<>();
+        emitter.send(Message.of(event).addMetadata(metadata.build())
+                .withAck(() -> {
+                    acknowledged.complete(null);
+                    return CompletableFuture.completedFuture(null);
+                })
+                .withNack(t -> {
+                    acknowledged.completeExceptionally(t);
+                    return CompletableFuture.completedFuture(null);
+                }));
+        LOG.debug("[executor] Emitted CloudEvent to target topic '{}' for Action on Processor '{}' on Bridge '{}'", topic, processor.getId(), processor.getBridge().getId());
+        return acknowledged;
     }
 }
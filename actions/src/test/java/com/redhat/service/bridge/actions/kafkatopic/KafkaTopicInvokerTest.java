@@ -1,5 +1,9 @@
 package com.redhat.service.bridge.actions.kafkatopic;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
 import org.eclipse.microprofile.reactive.messaging.Emitter;
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.eclipse.microprofile.reactive.messaging.Metadata;
@@ -8,11 +12,17 @@ import org.mockito.ArgumentCaptor;
 
 import com.redhat.service.bridge.infra.models.dto.BridgeDTO;
 import com.redhat.service.bridge.infra.models.dto.ProcessorDTO;
+import com.redhat.service.bridge.infra.trace.EventTracer;
+import com.redhat.service.bridge.infra.trace.InMemorySpanExporter;
+import com.redhat.service.bridge.infra.trace.Span;
+import com.redhat.service.bridge.infra.trace.TraceContext;
+import com.redhat.service.bridge.infra.trace.Tracing;
 
 import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 public class KafkaTopicInvokerTest {
@@ -47,4 +57,39 @@ public class KafkaTopicInvokerTest {
         OutgoingKafkaRecordMetadata recordMetadata = metadata.get(OutgoingKafkaRecordMetadata.class).get();
         assertThat(recordMetadata.getTopic()).isEqualTo(topic);
     }
+
+    @Test
+    public void onEvent_completesOnceAcknowledged() {
+        ArgumentCaptor<Message<String>> captor = ArgumentCaptor.forClass(Message.class);
+        Emitter<String> emitter = mock(Emitter.class);
+        KafkaTopicInvoker invoker = new KafkaTopicInvoker(emitter, createProcessor(), "myTestTopic");
+
+        CompletableFuture<Void> acknowledged = invoker.onEvent("{\"key\": \"value\"}").toCompletableFuture();
+        CompletableFuture<Void> notAcknowledged = invoker.onEvent("{\"key\": \"value\"}").toCompletableFuture();
+
+        verify(emitter, times(2)).send(captor.capture());
+        assertThat(acknowledged).isNotDone();
+        captor.getAllValues().get(0).ack();
+        captor.getAllValues().get(1).nack(new IllegalStateException("Broker failure"));
+        assertThat(acknowledged).isCompleted();
+        assertThat(notAcknowledged).hasFailedWithThrowableThat().hasMessage("Broker failure");
+    }
+
+    @Test
+    public void onEvent_propagatesTheTrace() {
+        ArgumentCaptor<Message<String>> captor = ArgumentCaptor.forClass(Message.class);
+        Emitter<String> emitter = mock(Emitter.class);
+        KafkaTopicInvoker invoker = new KafkaTopicInvoker(emitter, createProcessor(), "myTestTopic");
+        Tracing tracing = new Tracing(new EventTracer("executor", 0, id -> Optional.empty()), new InMemorySpanExporter());
+        Span action = tracing.continueSpan("action", TraceContext.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01", null));
+
+        try (Span.Scope scope = action.makeCurrent()) {
+            invoker.onEvent("{\"key\": \"value\"}");
+        }
+
+        verify(emitter).send(captor.capture());
+        OutgoingKafkaRecordMetadata recordMetadata = captor.getValue().getMetadata().get(OutgoingKafkaRecordMetadata.class).get();
+        assertThat(new String(recordMetadata.getHeaders().lastHeader(TraceContext.TRACEPARENT).value(), StandardCharsets.UTF_8))
+                .isEqualTo(action.getContext().getTraceparent());
+    }
 }
@@ -0,0 +1,88 @@
+package com.redhat.service.bridge.benchmarks;
+
+import java.net.URI;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.redhat.service.bridge.infra.BridgeCloudEventExtension;
+import com.redhat.service.bridge.infra.utils.CloudEventUtils;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.SpecVersion;
+
+/**
+ * Representative events for the benchmarks: a few hundred bytes of JSON data, with the attributes and the extensions set
+ * by the ingress. Deeply nested and large payloads are available as well, for the benchmarks sensitive to the shape of
+ * the data.
+ */
+public class BenchmarkEvents {
+
+    public static final int BRIDGES = 10;
+
+    private static final String[] CUSTOMERS = { "alice", "bob", "carol", "dave", "eve" };
+
+    private BenchmarkEvents() {
+    }
+
+    public static String bridgeId(int index) {
+        return "bridge-" + (index % BRIDGES);
+    }
+
+    /**
+     * @param payload - <code>order</code> for the events of {@link #event(int)}, <code>nested</code> for data nested 32
+     *        levels deep or <code>large</code> for about 64 KB of data.
+     * @param index - The index of the event.
+     * @return - The event.
+     */
+    public static CloudEvent event(String payload, int index) {
+        switch (payload) {
+            case "order":
+                return event(index);
+            case "nested":
+                ObjectNode root = CloudEventUtils.getMapper().createObjectNode();
+                ObjectNode level = root;
+                for (int i = 0; i < 32; i++) {
+                    level.put("name", "level-" + i);
+                    level.putArray("tags").add("a").add("b");
+                    level = level.putObject("child");
+                }
+                return event(index, root);
+            case "large":
+                ObjectNode data = CloudEventUtils.getMapper().createObjectNode();
+                ArrayNode orders = data.putArray("orders");
+                for (int i = 0; i < 200; i++) {
+                    orders.add(orderData(index + i));
+                }
+                return event(index, data);
+            default:
+                throw new IllegalArgumentException("Unknown payload " + payload);
+        }
+    }
+
+    public static CloudEvent event(int index) {
+        return event(index, orderData(index));
+    }
+
+    private static ObjectNode orderData(int index) {
+        ObjectNode data = CloudEventUtils.getMapper().createObjectNode();
+        data.put("orderId", "order-" + index);
+        data.put("customer", CUSTOMERS[index % CUSTOMERS.length]);
+        data.put("status", index % 3 == 0 ? "CREATED" : "SHIPPED");
+        data.put("total", 10.5 * (index % 100));
+        ArrayNode items = data.putArray("items");
+        for (int i = 0; i < 1 + index % 4; i++) {
+            ObjectNode item = items.addObject();
+            item.put("sku", "sku-" + ((index + i) % 50));
+            item.put("quantity", 1 + i);
+            item.put("description", "An item of the order with a description of a few words");
+        }
+        return data;
+    }
+
+    private static CloudEvent event(int index, ObjectNode data) {
+        return CloudEventUtils.builderFor("event-" + index, SpecVersion.V1, URI.create("/orders"), "order-" + index, data)
+                .withType("com.example.OrderUpdated")
+                .withExtension(BridgeCloudEventExtension.BRIDGE_ID, bridgeId(index))
+                .build();
+    }
+}
@@ -0,0 +1,23 @@
+package com.redhat.service.bridge.benchmarks;
+
+import java.util.logging.Level;
+
+import org.jboss.logmanager.LogContext;
+import org.jboss.logmanager.Logger;
+
+/**
+ * The logging of the benchmarks. Outside of Quarkus the log manager is never configured and queues the records until it
+ * overflows, so the benchmarks of the components logging for each event only keep the warnings.
+ */
+public class BenchmarkLogging {
+
+    // The level of a logger is lost if the logger is garbage collected
+    private static final Logger ROOT = LogContext.getLogContext().getLogger("");
+
+    private BenchmarkLogging() {
+    }
+
+    public static void warningsOnly() {
+        ROOT.setLevel(Level.WARNING);
+    }
+}
@@ -0,0 +1,88 @@
+package com.redhat.service.bridge.benchmarks;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import com.redhat.service.bridge.actions.kafkatopic.KafkaTopicAction;
+import com.redhat.service.bridge.infra.BridgeCloudEventExtension;
+import com.redhat.service.bridge.infra.models.actions.BaseAction;
+import com.redhat.service.bridge.infra.models.dto.BridgeDTO;
+import com.redhat.service.bridge.infra.models.dto.BridgeStatus;
+import com.redhat.service.bridge.infra.models.dto.ProcessorDTO;
+import com.redhat.service.bridge.infra.models.filters.BaseFilter;
+import com.redhat.service.bridge.infra.models.filters.StringBeginsWith;
+import com.redhat.service.bridge.infra.models.filters.StringContains;
+import com.redhat.service.bridge.infra.models.filters.StringEquals;
+
+/**
+ * Processors for the benchmarks of the executor, with filters on the attributes of the first event of
+ * {@link BenchmarkEvents}.
+ */
+public class BenchmarkProcessors {
+
+    /**
+     * A template rendering a few attributes of the event, as opposed to no template that renders the whole event.
+     */
+    public static final String ATTRIBUTES_TEMPLATE = "{\"id\": \"{id}\", \"type\": \"{type}\", \"subject\": \"{subject}\", \"bridge\": \"{" + BridgeCloudEventExtension.BRIDGE_ID + "}\"}";
+
+    // The attributes of the first event and their value
+    private static final String[][] ATTRIBUTES = {
+            { "type", "com.example.OrderUpdated" },
+            { "source", "/orders" },
+            { "subject", "order-0" },
+            { "id", "event-0" },
+            { BridgeCloudEventExtension.BRIDGE_ID, BenchmarkEvents.bridgeId(0) }
+    };
+
+    public static final int MAX_FILTERS = ATTRIBUTES.length;
+
+    private BenchmarkProcessors() {
+    }
+
+    /**
+     * @param mix - The type of the filters: <code>equals</code>, <code>contains</code>, <code>beginsWith</code> or
+     *        <code>mixed</code> for the three of them in turn.
+     * @param count - The number of filters, at most {@link #MAX_FILTERS}. Each filter is on a different attribute.
+     * @param matching - true if the filters match the first event, false if none of them does.
+     * @return - The filters.
+     */
+    public static Set<BaseFilter> filters(String mix, int count, boolean matching) {
+        if (count > MAX_FILTERS) {
+            throw new IllegalArgumentException("At most " + MAX_FILTERS + " filters are supported");
+        }
+        Set<BaseFilter> filters = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            String key = ATTRIBUTES[i][0];
+            String value = matching ? ATTRIBUTES[i][1] : "no-match";
+            String type = "mixed".equals(mix) ? new String[] { "equals", "contains", "beginsWith" }[i % 3] : mix;
+            switch (type) {
+                case "equals":
+                    filters.add(new StringEquals(key, value));
+                    break;
+                case "contains":
+                    filters.add(new StringContains(key, "[\"" + value.substring(1, value.length() - 1) + "\"]"));
+                    break;
+                case "beginsWith":
+                    filters.add(new StringBeginsWith(key, "[\"" + value.substring(0, 3) + "\"]"));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown filter mix " + mix);
+            }
+        }
+        return filters;
+    }
+
+    /**
+     * @param index - The index of the Processor.
+     * @param filters - The filters of the Processor.
+     * @param template - The transformation template of the Processor, or null.
+     * @return - A Processor sending the events to a Kafka topic.
+     */
+    public static ProcessorDTO processor(int index, Set<BaseFilter> filters, String template) {
+        BridgeDTO bridge = new BridgeDTO(BenchmarkEvents.bridgeId(0), "bridge", "http://localhost:8080", "benchmarks", BridgeStatus.AVAILABLE);
+        BaseAction action = new BaseAction();
+        action.setType(KafkaTopicAction.TYPE);
+        action.setName("action-" + index);
+        return new ProcessorDTO("processor-" + index, "processor-" + index, bridge, BridgeStatus.AVAILABLE, filters, template, action);
+    }
+}
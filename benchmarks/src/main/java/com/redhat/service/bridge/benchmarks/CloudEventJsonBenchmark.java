@@ -0,0 +1,79 @@
+package com.redhat.service.bridge.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.service.bridge.infra.format.CloudEventJsonCodec;
+import com.redhat.service.bridge.infra.utils.CloudEventUtils;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.jackson.JsonFormat;
+
+/**
+ * Compares {@link CloudEventJsonCodec}, used by {@link CloudEventUtils#encode(CloudEvent)} and
+ * {@link CloudEventUtils#decode(String)}, with the generic CloudEvents Jackson module they used before, e.g.
+ * <code>java -jar benchmarks/target/benchmarks.jar CloudEventJsonBenchmark</code>.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CloudEventJsonBenchmark {
+
+    private static final ObjectMapper GENERIC = new ObjectMapper().registerModule(JsonFormat.getCloudEventJacksonModule());
+
+    @Param({ "order", "nested", "large" })
+    String payload;
+
+    private CloudEvent event;
+    private String json;
+    private byte[] jsonBytes;
+
+    @Setup
+    public void setup() {
+        event = BenchmarkEvents.event(payload, 0);
+        json = CloudEventUtils.encode(event);
+        jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String encode() {
+        return CloudEventUtils.encode(event);
+    }
+
+    @Benchmark
+    public String encodeGeneric() throws JsonProcessingException {
+        return GENERIC.writeValueAsString(event);
+    }
+
+    @Benchmark
+    public CloudEvent decode() {
+        return CloudEventUtils.decode(json);
+    }
+
+    @Benchmark
+    public CloudEvent decodeBytes() {
+        return CloudEventUtils.decode(jsonBytes);
+    }
+
+    @Benchmark
+    public CloudEvent decodeGeneric() throws JsonProcessingException {
+        return GENERIC.readValue(json, CloudEvent.class);
+    }
+}
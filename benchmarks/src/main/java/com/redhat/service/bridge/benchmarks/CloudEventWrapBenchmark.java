@@ -0,0 +1,71 @@
+package com.redhat.service.bridge.benchmarks;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.redhat.service.bridge.infra.utils.CloudEventUtils;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.SpecVersion;
+import io.cloudevents.core.builder.CloudEventBuilder;
+import io.cloudevents.jackson.JsonCloudEventData;
+
+/**
+ * Compares the wrapping of an event into the data of another one, as done by
+ * {@link CloudEventUtils#build(String, SpecVersion, URI, String, CloudEvent)}, with the previous implementation that
+ * encoded the event to a string and parsed it back, e.g.
+ * <code>java -jar benchmarks/target/benchmarks.jar CloudEventWrapBenchmark</code>.
+ *
+ * The data of the event is either a JSON tree, as for the events received by the ingress, or raw bytes, as for the
+ * events read from the events topic by the executor.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CloudEventWrapBenchmark {
+
+    private static final URI SOURCE = URI.create("/wrapper");
+
+    @Param({ "order", "nested", "large" })
+    String payload;
+
+    @Param({ "tree", "bytes" })
+    String data;
+
+    private CloudEvent event;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        event = BenchmarkEvents.event(payload, 0);
+        if ("bytes".equals(data)) {
+            byte[] bytes = CloudEventUtils.getMapper().writeValueAsBytes(((JsonCloudEventData) event.getData()).getNode());
+            event = CloudEventBuilder.from(event).withData("application/json", bytes).build();
+        }
+    }
+
+    @Benchmark
+    public CloudEvent wrap() {
+        return CloudEventUtils.build("wrapper", SpecVersion.V1, SOURCE, null, event);
+    }
+
+    @Benchmark
+    public CloudEvent wrapThroughString() throws JsonProcessingException {
+        return CloudEventUtils.build("wrapper", SpecVersion.V1, SOURCE, null, CloudEventUtils.getMapper().readTree(CloudEventUtils.encode(event)));
+    }
+}
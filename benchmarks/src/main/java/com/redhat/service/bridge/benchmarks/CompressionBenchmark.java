@@ -0,0 +1,102 @@
+package com.redhat.service.bridge.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.CompressionType;
+import org.apache.kafka.common.record.MemoryRecords;
+import org.apache.kafka.common.record.MemoryRecordsBuilder;
+import org.apache.kafka.common.record.Record;
+import org.apache.kafka.common.record.TimestampType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.cloudevents.core.message.Encoding;
+import io.cloudevents.kafka.CloudEventSerializer;
+
+/**
+ * Compares the compression codecs of the Kafka producers on batches of events in the binary content mode, as written to
+ * the events topic by the ingress.
+ *
+ * The time spent by the producer is measured by {@link #compress()} and the time spent by the consumers by
+ * {@link #decompress(Blackhole)}. The size of the batches is printed when the benchmark is set up, e.g.
+ * <code>java -jar benchmarks/target/benchmarks.jar CompressionBenchmark</code>.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompressionBenchmark {
+
+    private static final String TOPIC = "events";
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    @Param({ "none", "gzip", "snappy", "lz4", "zstd" })
+    String codec;
+
+    @Param({ "100" })
+    int batchSize;
+
+    private CompressionType compressionType;
+    private final List<byte[]> keys = new ArrayList<>();
+    private final List<byte[]> values = new ArrayList<>();
+    private final List<Header[]> headers = new ArrayList<>();
+    private ByteBuffer batch;
+
+    @Setup
+    public void setup() {
+        compressionType = CompressionType.forName(codec);
+        CloudEventSerializer serializer = new CloudEventSerializer();
+        serializer.configure(Collections.singletonMap(CloudEventSerializer.ENCODING_CONFIG, Encoding.BINARY), false);
+        for (int i = 0; i < batchSize; i++) {
+            RecordHeaders recordHeaders = new RecordHeaders();
+            values.add(serializer.serialize(TOPIC, recordHeaders, BenchmarkEvents.event(i)));
+            headers.add(recordHeaders.toArray());
+            keys.add(BenchmarkEvents.bridgeId(i).getBytes(StandardCharsets.UTF_8));
+        }
+        batch = write(compressionType).buffer();
+
+        int uncompressedSize = write(CompressionType.NONE).sizeInBytes();
+        System.out.printf("%n[%s] batch of %d events: %d bytes (%.1f bytes per event, %.2f of the uncompressed batch)%n", codec, batchSize, batch.remaining(),
+                (double) batch.remaining() / batchSize, (double) batch.remaining() / uncompressedSize);
+    }
+
+    @Benchmark
+    public MemoryRecords compress() {
+        return write(compressionType);
+    }
+
+    @Benchmark
+    public void decompress(Blackhole blackhole) {
+        for (Record record : MemoryRecords.readableRecords(batch.duplicate()).records()) {
+            blackhole.consume(record.value());
+            blackhole.consume(record.headers());
+        }
+    }
+
+    private MemoryRecords write(CompressionType type) {
+        MemoryRecordsBuilder builder = MemoryRecords.builder(ByteBuffer.allocate(INITIAL_BUFFER_SIZE), type, TimestampType.CREATE_TIME, 0L);
+        for (int i = 0; i < values.size(); i++) {
+            builder.append(0L, keys.get(i), values.get(i), headers.get(i));
+        }
+        return builder.build();
+    }
+}
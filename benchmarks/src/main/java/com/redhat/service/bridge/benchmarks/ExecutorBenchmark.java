@@ -0,0 +1,125 @@
+package com.redhat.service.bridge.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.redhat.service.bridge.actions.ActionInvoker;
+import com.redhat.service.bridge.actions.ActionParameterValidator;
+import com.redhat.service.bridge.actions.ActionProvider;
+import com.redhat.service.bridge.actions.ActionProviderFactory;
+import com.redhat.service.bridge.actions.kafkatopic.KafkaTopicAction;
+import com.redhat.service.bridge.executor.Executor;
+import com.redhat.service.bridge.executor.circuitbreaker.CircuitBreaker;
+import com.redhat.service.bridge.executor.filters.FilterEvaluatorFactoryFEEL;
+import com.redhat.service.bridge.executor.metrics.ProcessorMetrics;
+import com.redhat.service.bridge.executor.ratelimit.RateLimiter;
+import com.redhat.service.bridge.executor.transformations.TransformationEvaluatorFactoryQute;
+import com.redhat.service.bridge.infra.models.actions.BaseAction;
+import com.redhat.service.bridge.infra.models.dto.ProcessorDTO;
+import com.redhat.service.bridge.infra.trace.EventTracer;
+import com.redhat.service.bridge.infra.utils.CloudEventUtils;
+
+import io.cloudevents.CloudEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Measures the processing of an event by the executors of a Bridge, as done by the <code>ExecutorsService</code>: the
+ * data of the event is parsed once, then each Processor evaluates its filters and, when they match, renders the event
+ * and invokes its Action. The Action does nothing, so that only the executor is measured, e.g.
+ * <code>java -jar benchmarks/target/benchmarks.jar ExecutorBenchmark -prof gc</code>.
+ *
+ * Each Processor has three filters of different types, which either all match the event or all do not. Only the
+ * warnings are logged, as the logs of each event would otherwise dominate the results.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExecutorBenchmark {
+
+    private static final CompletableFuture<Void> HANDLED = CompletableFuture.completedFuture(null);
+
+    @Param({ "1", "10", "50" })
+    int processors;
+
+    @Param({ "true", "false" })
+    boolean matching;
+
+    @Param({ "none", "attributes" })
+    String template;
+
+    @Param({ "order", "large" })
+    String payload;
+
+    private final List<Executor> executors = new ArrayList<>();
+    private CloudEvent event;
+    private long renderedBytes;
+
+    @Setup
+    public void setup() {
+        BenchmarkLogging.warningsOnly();
+
+        MeterRegistry registry = new SimpleMeterRegistry();
+        ActionProviderFactory actionProviderFactory = new ActionProviderFactory() {
+            @Override
+            public ActionProvider getActionProvider(String actionType) {
+                return new NoOpActionProvider();
+            }
+        };
+        for (int i = 0; i < processors; i++) {
+            ProcessorDTO processor = BenchmarkProcessors.processor(i, BenchmarkProcessors.filters("mixed", 3, matching),
+                    "none".equals(template) ? null : BenchmarkProcessors.ATTRIBUTES_TEMPLATE);
+            executors.add(new Executor(processor, new FilterEvaluatorFactoryFEEL(), new TransformationEvaluatorFactoryQute(), actionProviderFactory,
+                    RateLimiter.unlimited(), new CircuitBreaker(processor.getId(), 5, TimeUnit.SECONDS.toNanos(30)), EventTracer.disabled(), ProcessorMetrics.detailed(processor, registry)));
+        }
+        event = BenchmarkEvents.event(payload, 0);
+    }
+
+    @Benchmark
+    public long onEvent() {
+        CloudEvent withJsonData = CloudEventUtils.withJsonData(event);
+        long delay = 0;
+        for (Executor executor : executors) {
+            delay += executor.onEvent(withJsonData);
+        }
+        return delay + renderedBytes;
+    }
+
+    private class NoOpActionProvider implements ActionProvider {
+
+        @Override
+        public String getType() {
+            return KafkaTopicAction.TYPE;
+        }
+
+        @Override
+        public ActionParameterValidator getParameterValidator() {
+            return null;
+        }
+
+        @Override
+        public ActionInvoker getActionInvoker(ProcessorDTO processor, BaseAction baseAction) {
+            return rendered -> {
+                renderedBytes += rendered.length();
+                return HANDLED;
+            };
+        }
+    }
+}
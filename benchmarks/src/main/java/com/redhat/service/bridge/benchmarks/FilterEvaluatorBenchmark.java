@@ -0,0 +1,64 @@
+package com.redhat.service.bridge.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.redhat.service.bridge.executor.filters.FilterEvaluator;
+import com.redhat.service.bridge.executor.filters.FilterEvaluatorFactoryFEEL;
+import com.redhat.service.bridge.infra.utils.CloudEventUtils;
+
+/**
+ * Measures the evaluation of the FEEL filters of a Processor on an event, for an increasing number of filters of each
+ * type, e.g. <code>java -jar benchmarks/target/benchmarks.jar FilterEvaluatorBenchmark -prof gc</code> to report the
+ * allocations as well.
+ *
+ * All the filters match, so that all of them are evaluated.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FilterEvaluatorBenchmark {
+
+    @Param({ "1", "3", "5" })
+    int filters;
+
+    @Param({ "equals", "contains", "beginsWith", "mixed" })
+    String mix;
+
+    @Param({ "order", "large" })
+    String payload;
+
+    private FilterEvaluator evaluator;
+    private Map<String, Object> event;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        BenchmarkLogging.warningsOnly();
+        evaluator = new FilterEvaluatorFactoryFEEL().build(BenchmarkProcessors.filters(mix, filters, true));
+        event = CloudEventUtils.getMapper().convertValue(CloudEventUtils.withJsonData(BenchmarkEvents.event(payload, 0)), Map.class);
+        if (!evaluator.evaluateFilters(event)) {
+            throw new IllegalStateException("The filters do not match the event");
+        }
+    }
+
+    @Benchmark
+    public boolean evaluateFilters() {
+        return evaluator.evaluateFilters(event);
+    }
+}
@@ -0,0 +1,58 @@
+package com.redhat.service.bridge.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.redhat.service.bridge.executor.transformations.TransformationEvaluator;
+import com.redhat.service.bridge.executor.transformations.TransformationEvaluatorFactoryQute;
+import com.redhat.service.bridge.infra.utils.CloudEventUtils;
+
+/**
+ * Measures the rendering of the event sent to the Action of a Processor, e.g.
+ * <code>java -jar benchmarks/target/benchmarks.jar TransformationBenchmark -prof gc</code>.
+ *
+ * Without a template the whole event is written as JSON, otherwise the Qute template
+ * {@link BenchmarkProcessors#ATTRIBUTES_TEMPLATE} is rendered.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransformationBenchmark {
+
+    @Param({ "none", "attributes" })
+    String template;
+
+    @Param({ "order", "nested", "large" })
+    String payload;
+
+    private TransformationEvaluator evaluator;
+    private Map<String, Object> event;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        BenchmarkLogging.warningsOnly();
+        evaluator = new TransformationEvaluatorFactoryQute().build("none".equals(template) ? null : BenchmarkProcessors.ATTRIBUTES_TEMPLATE);
+        event = CloudEventUtils.getMapper().convertValue(CloudEventUtils.withJsonData(BenchmarkEvents.event(payload, 0)), Map.class);
+    }
+
+    @Benchmark
+    public String render() {
+        return evaluator.render(event);
+    }
+}
@@ -0,0 +1,24 @@
+package com.redhat.service.bridge.executor;
+
+/**
+ * Raised when the Action of a Processor fails to handle an event, carrying the event as it was sent to the Action so
+ * that the invocation can be retried.
+ */
+public class ActionInvocationException extends RuntimeException {
+
+    private final String event;
+
+    public ActionInvocationException(String message, String event) {
+        super(message);
+        this.event = event;
+    }
+
+    public ActionInvocationException(String message, String event, Throwable cause) {
+        super(message, cause);
+        this.event = event;
+    }
+
+    public String getEvent() {
+        return event;
+    }
+}
@@ -0,0 +1,22 @@
+package com.redhat.service.bridge.executor;
+
+/**
+ * Raised when the Action of a Processor is not invoked because its circuit breaker is open. The invocation can be
+ * retried once the circuit breaker lets a probe through, it is not a failure of the Action.
+ */
+public class CircuitBreakerOpenException extends ActionInvocationException {
+
+    private final long retryAfterNanos;
+
+    public CircuitBreakerOpenException(String event, long retryAfterNanos) {
+        super("The circuit breaker of the Action is open", event);
+        this.retryAfterNanos = retryAfterNanos;
+    }
+
+    /**
+     * @return - The time in nanoseconds until the circuit breaker lets a probe through.
+     */
+    public long getRetryAfterNanos() {
+        return retryAfterNanos;
+    }
+}
@@ -1,9 +1,14 @@
 package com.redhat.service.bridge.executor;
 
-import java.util.Arrays;
-import java.util.List;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,17 +16,23 @@ import org.slf4j.LoggerFactory;
 import com.redhat.service.bridge.actions.ActionInvoker;
 import com.redhat.service.bridge.actions.ActionProvider;
 import com.redhat.service.bridge.actions.ActionProviderFactory;
+import com.redhat.service.bridge.executor.circuitbreaker.CircuitBreaker;
 import com.redhat.service.bridge.executor.filters.FilterEvaluator;
 import com.redhat.service.bridge.executor.filters.FilterEvaluatorFactory;
+import com.redhat.service.bridge.executor.metrics.ProcessorMeters;
+import com.redhat.service.bridge.executor.metrics.ProcessorMetrics;
+import com.redhat.service.bridge.executor.ratelimit.RateLimiter;
 import com.redhat.service.bridge.executor.transformations.TransformationEvaluator;
 import com.redhat.service.bridge.executor.transformations.TransformationEvaluatorFactory;
+import com.redhat.service.bridge.infra.jfr.ActionEvent;
+import com.redhat.service.bridge.infra.jfr.FilterEvent;
+import com.redhat.service.bridge.infra.jfr.TransformationEvent;
 import com.redhat.service.bridge.infra.models.dto.ProcessorDTO;
+import com.redhat.service.bridge.infra.trace.EventTracer;
+import com.redhat.service.bridge.infra.trace.Span;
 import com.redhat.service.bridge.infra.utils.CloudEventUtils;
 
 import io.cloudevents.CloudEvent;
-import io.micrometer.core.instrument.MeterRegistry;
-import io.micrometer.core.instrument.Tag;
-import io.micrometer.core.instrument.Timer;
 
 public class Executor {
 
@@ -31,46 +42,200 @@ public class Executor {
     private final FilterEvaluator filterEvaluator;
     private final TransformationEvaluator transformationEvaluator;
     private final ActionInvoker actionInvoker;
-    private Timer processorProcessingTime;
-    private Timer filterTimer;
-    private Timer actionTimer;
-    private Timer transformationTimer;
+    private final RateLimiter rateLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final EventTracer tracer;
+    private final ProcessorMetrics metrics;
+    private final Consumer<ActionInvocationException> logActionFailure = this::logActionFailure;
 
     public Executor(ProcessorDTO processor, FilterEvaluatorFactory filterEvaluatorFactory, TransformationEvaluatorFactory transformationFactory, ActionProviderFactory actionProviderFactory,
-            MeterRegistry registry) {
+            RateLimiter rateLimiter, CircuitBreaker circuitBreaker, EventTracer tracer, ProcessorMetrics metrics) {
         this.processor = processor;
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.tracer = tracer;
+        this.metrics = metrics;
         this.filterEvaluator = filterEvaluatorFactory.build(processor.getFilters());
 
         this.transformationEvaluator = transformationFactory.build(processor.getTransformationTemplate());
 
         ActionProvider actionProvider = actionProviderFactory.getActionProvider(processor.getAction().getType());
         this.actionInvoker = actionProvider.getActionInvoker(processor, processor.getAction());
+    }
 
-        initMetricFields(processor, registry);
+    /**
+     * @param cloudEvent - The event to process.
+     * @return - The time in nanoseconds to wait before handing over the next event, as requested by the rate limit of
+     *         the Processor.
+     */
+    public long onEvent(CloudEvent cloudEvent) {
+        return onEvent(cloudEvent, null);
     }
 
-    public void onEvent(CloudEvent cloudEvent) {
-        processorProcessingTime.record(() -> process(cloudEvent));
+    /**
+     * @param cloudEvent - The event to process.
+     * @param arrivalTime - The time the event arrived at the ingress, or null if it is not known.
+     * @return - The time in nanoseconds to wait before handing over the next event, as requested by the rate limit of
+     *         the Processor.
+     */
+    public long onEvent(CloudEvent cloudEvent, OffsetDateTime arrivalTime) {
+        return onEvent(cloudEvent, arrivalTime, logActionFailure);
     }
 
-    @SuppressWarnings("unchecked")
-    private void process(CloudEvent cloudEvent) {
-        LOG.info("[executor] Received event with id '{}' for Processor with name '{}' on Bridge '{}", cloudEvent.getId(), processor.getName(), processor.getBridge().getId());
+    /**
+     * @param cloudEvent - The event to process.
+     * @param arrivalTime - The time the event arrived at the ingress, or null if it is not known. The time from then
+     *        until the Action is invoked is recorded as the end-to-end latency of the event.
+     * @param onActionFailure - Called with the failure of the Action when it failed to handle the event after it was
+     *        invoked, e.g. when the broker did not acknowledge it: the invocation can be retried with
+     *        {@link #redeliver(String)}.
+     * @return - The time in nanoseconds to wait before handing over the next event, as requested by the rate limit of
+     *         the Processor.
+     * @throws ActionInvocationException - If the invocation of the Action failed, or the Action was not invoked because
+     *         its circuit breaker is open: the invocation can be retried with {@link #redeliver(String)}.
+     */
+    public long onEvent(CloudEvent cloudEvent, OffsetDateTime arrivalTime, Consumer<ActionInvocationException> onActionFailure) {
+        ProcessorMeters meters = metrics.meters();
+        long start = System.nanoTime();
+        try {
+            return process(cloudEvent, arrivalTime, onActionFailure, meters);
+        } finally {
+            metrics.recordProcessingTime(meters, System.nanoTime() - start);
+        }
+    }
 
+    @SuppressWarnings("unchecked")
+    private long process(CloudEvent cloudEvent, OffsetDateTime arrivalTime, Consumer<ActionInvocationException> onActionFailure, ProcessorMeters meters) {
         Map<String, Object> cloudEventData = CloudEventUtils.getMapper().convertValue(cloudEvent, Map.class);
 
         // Filter evaluation
-        if (Boolean.TRUE.equals(filterTimer.record(() -> filterEvaluator.evaluateFilters(cloudEventData)))) {
-            LOG.info("[executor] Filters of processor '{}' matched for event with id '{}'", processor.getId(), cloudEvent.getId());
+        FilterEvent filterEvent = new FilterEvent();
+        filterEvent.begin();
+        Span filterSpan = Span.current().startChild("filter").setAttribute(Span.PROCESSOR_ATTRIBUTE, processor.getId());
+        boolean matched = Boolean.TRUE.equals(meters.getFilterTime().record(() -> filterEvaluator.evaluateFilters(cloudEventData)));
+        filterSpan.setAttribute("matched", matched).end();
+        filterEvent.matched = matched;
+        filterEvent.commit(processor.getBridge().getId(), processor.getId(), cloudEvent.getId());
+        if (matched) {
+            tracer.trace("matched", processor.getBridge().getId(), processor.getId(), cloudEvent.getId());
+
+            // Rate limit
+            long delay = rateLimiter.admit(cloudEvent);
+            if (delay == RateLimiter.REJECTED) {
+                LOG.debug("[executor] Rate limit of processor '{}' exceeded for event with id '{}'", processor.getId(), cloudEvent.getId());
+                return 0;
+            }
 
             // Transformation
-            String eventToSend = transformationTimer.record(() -> transformationEvaluator.render(cloudEventData));
+            String eventToSend;
+            TransformationEvent transformationEvent = new TransformationEvent();
+            transformationEvent.begin();
+            Span transformationSpan = Span.current().startChild("transformation").setAttribute(Span.PROCESSOR_ATTRIBUTE, processor.getId());
+            try {
+                eventToSend = meters.getTransformationTime().record(() -> transformationEvaluator.render(cloudEventData));
+            } catch (RuntimeException e) {
+                transformationSpan.setError(e).end();
+                throw e;
+            }
+            transformationSpan.end();
+            transformationEvent.commit(processor.getBridge().getId(), processor.getId(), cloudEvent.getId());
+
+            // The Action is known to be failing: fail fast, the event is handed over to the retries. Only the invocations
+            // of the Action are reported to the circuit breaker, a transformation that fails is not a failure of the Action
+            if (!circuitBreaker.tryAcquirePermission()) {
+                meters.getSkippedActions().increment();
+                LOG.debug("[executor] Circuit breaker of processor '{}' is open, deferring the Action for event with id '{}'", processor.getId(), cloudEvent.getId());
+                throw new CircuitBreakerOpenException(eventToSend, circuitBreaker.getRemainingOpenNanos());
+            }
 
             // Action
-            actionTimer.record(() -> actionInvoker.onEvent(eventToSend));
+            invokeAction(eventToSend, cloudEvent.getId(), false, meters).whenComplete((ignored, failure) -> {
+                if (failure != null) {
+                    onActionFailure.accept((ActionInvocationException) failure);
+                }
+            });
+            recordEndToEndLatency(arrivalTime, meters);
+            tracer.trace("invoked", processor.getBridge().getId(), processor.getId(), cloudEvent.getId());
+            return delay;
         } else {
             LOG.debug("[executor] Filters of processor '{}' did not match for event with id '{}'", processor.getId(), cloudEvent.getId());
             // DO NOTHING;
+            return 0;
+        }
+    }
+
+    /**
+     * Invokes the Action again for an event whose previous invocation failed.
+     *
+     * @param eventToSend - The event as it was sent to the Action.
+     * @return - Completes once the Action has handled the event, or exceptionally with an
+     *         {@link ActionInvocationException} if it failed to.
+     * @throws ActionInvocationException - If the invocation of the Action failed again.
+     * @throws CircuitBreakerOpenException - If the circuit breaker of the Action is open.
+     */
+    public CompletionStage<Void> redeliver(String eventToSend) {
+        ProcessorMeters meters = metrics.meters();
+        if (!circuitBreaker.tryAcquirePermission()) {
+            meters.getSkippedActions().increment();
+            throw new CircuitBreakerOpenException(eventToSend, circuitBreaker.getRemainingOpenNanos());
+        }
+        return invokeAction(eventToSend, null, true, meters);
+    }
+
+    /*
+     * The span of the Action is current while it is invoked, so that the Action can hand the trace over, e.g. in the
+     * headers of the records it sends. The outcome is reported to the circuit breaker once the Action has handled the
+     * event, and the returned stage only ever fails with an ActionInvocationException
+     */
+    private CompletionStage<Void> invokeAction(String eventToSend, String eventId, boolean redelivery, ProcessorMeters meters) {
+        ActionEvent actionEvent = new ActionEvent();
+        actionEvent.begin();
+        actionEvent.redelivery = redelivery;
+        Span actionSpan = Span.current().startChild("action")
+                .setAttribute(Span.PROCESSOR_ATTRIBUTE, processor.getId())
+                .setAttribute("type", processor.getAction().getType());
+        CompletionStage<Void> handled;
+        try (Span.Scope scope = actionSpan.makeCurrent()) {
+            handled = meters.getActionTime().record(() -> actionInvoker.onEvent(eventToSend));
+        } catch (RuntimeException e) {
+            throw onActionFailure(eventToSend, eventId, actionEvent, actionSpan, e);
+        }
+        CompletableFuture<Void> outcome = new CompletableFuture<>();
+        handled.whenComplete((ignored, failure) -> {
+            if (failure != null) {
+                Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+                outcome.completeExceptionally(onActionFailure(eventToSend, eventId, actionEvent, actionSpan, cause));
+                return;
+            }
+            actionSpan.end();
+            circuitBreaker.onSuccess();
+            actionEvent.commit(processor.getBridge().getId(), processor.getId(), eventId);
+            outcome.complete(null);
+        });
+        return outcome;
+    }
+
+    private ActionInvocationException onActionFailure(String eventToSend, String eventId, ActionEvent actionEvent, Span actionSpan, Throwable failure) {
+        actionEvent.failed = true;
+        actionSpan.setError(failure).end();
+        circuitBreaker.onFailure();
+        actionEvent.commit(processor.getBridge().getId(), processor.getId(), eventId);
+        return new ActionInvocationException("The Action failed to handle the event", eventToSend, failure);
+    }
+
+    private void logActionFailure(ActionInvocationException e) {
+        LOG.warn("[executor] The Action of Processor with id '{}' on bridge '{}' failed to handle Event.", processor.getId(), processor.getBridge().getId(), e);
+    }
+
+    /*
+     * The clocks of the ingress and of the executor are not synchronized: a negative latency is not recorded
+     */
+    private void recordEndToEndLatency(OffsetDateTime arrivalTime, ProcessorMeters meters) {
+        if (arrivalTime != null) {
+            Duration latency = Duration.between(arrivalTime.toInstant(), Instant.now());
+            if (!latency.isNegative()) {
+                meters.getEndToEndLatency().record(latency);
+            }
         }
     }
 
@@ -78,6 +243,14 @@ public class Executor {
         return processor;
     }
 
+    public ProcessorMetrics getMetrics() {
+        return metrics;
+    }
+
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -94,13 +267,4 @@ public class Executor {
     public int hashCode() {
         return Objects.hash(processor);
     }
-
-    private void initMetricFields(ProcessorDTO processor, MeterRegistry registry) {
-        List<Tag> tags = Arrays.asList(
-                Tag.of(MetricsConstants.BRIDGE_ID_TAG, processor.getBridge().getId()), Tag.of(MetricsConstants.PROCESSOR_ID_TAG, processor.getId()));
-        this.processorProcessingTime = registry.timer(MetricsConstants.PROCESSOR_PROCESSING_TIME_METRIC_NAME, tags);
-        this.filterTimer = registry.timer(MetricsConstants.FILTER_PROCESSING_TIME_METRIC_NAME, tags);
-        this.actionTimer = registry.timer(MetricsConstants.ACTION_PROCESSING_TIME_METRIC_NAME, tags);
-        this.transformationTimer = registry.timer(MetricsConstants.TRANSFORMATION_PROCESSING_TIME_METRIC_NAME, tags);
-    }
 }
@@ -9,13 +9,15 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
 import com.redhat.service.bridge.actions.ActionProviderFactory;
+import com.redhat.service.bridge.executor.circuitbreaker.CircuitBreakerFactory;
 import com.redhat.service.bridge.executor.filters.FilterEvaluatorFactory;
 import com.redhat.service.bridge.executor.filters.FilterEvaluatorFactoryFEEL;
+import com.redhat.service.bridge.executor.metrics.ProcessorMetricsFactory;
+import com.redhat.service.bridge.executor.ratelimit.RateLimiterFactory;
 import com.redhat.service.bridge.executor.transformations.TransformationEvaluatorFactory;
 import com.redhat.service.bridge.executor.transformations.TransformationEvaluatorFactoryQute;
 import com.redhat.service.bridge.infra.models.dto.ProcessorDTO;
-
-import io.micrometer.core.instrument.MeterRegistry;
+import com.redhat.service.bridge.infra.trace.EventTracer;
 
 // TODO: This class has to be removed when we switch to ExecutorConfigProviderImpl
 @ApplicationScoped
@@ -31,7 +33,16 @@ public class ExecutorsProviderMock implements ExecutorsProvider,
     ActionProviderFactory actionProviderFactory;
 
     @Inject
-    MeterRegistry registry;
+    RateLimiterFactory rateLimiterFactory;
+
+    @Inject
+    CircuitBreakerFactory circuitBreakerFactory;
+
+    @Inject
+    EventTracer tracer;
+
+    @Inject
+    ProcessorMetricsFactory processorMetricsFactory;
 
     @Override
     public Set<Executor> getExecutors() {
@@ -46,7 +57,8 @@ public class ExecutorsProviderMock implements ExecutorsProvider,
     @Override
     public void deploy(ProcessorDTO processorDTO) {
 
-        Executor executor = new Executor(processorDTO, filterEvaluatorFactory, transformationEvaluatorFactory, actionProviderFactory, registry);
+        Executor executor = new Executor(processorDTO, filterEvaluatorFactory, transformationEvaluatorFactory, actionProviderFactory,
+                rateLimiterFactory.forProcessor(processorDTO), circuitBreakerFactory.forProcessor(processorDTO), tracer, processorMetricsFactory.forProcessor(processorDTO));
 
         synchronized (bridgeToProcessorMap) {
             Set<Executor> executors = bridgeToProcessorMap.get(processorDTO.getBridge().getId());
@@ -67,7 +79,15 @@ public class ExecutorsProviderMock implements ExecutorsProvider,
                     .stream()
                     .filter(x -> x.getProcessor().getId().equals(processorId))
                     .findFirst()
-                    .ifPresent(executors::remove);
+                    .ifPresent(executor -> {
+                        executors.remove(executor);
+                        processorMetricsFactory.remove(executor.getMetrics());
+                        rateLimiterFactory.remove(executor.getRateLimiter());
+                    });
+            if (executors.isEmpty()) {
+                bridgeToProcessorMap.remove(bridgeId);
+                rateLimiterFactory.removeBridge(bridgeId);
+            }
         }
     }
 }
@@ -1,7 +1,9 @@
 package com.redhat.service.bridge.executor;
 
+import java.time.Duration;
 import java.util.Set;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
@@ -12,12 +14,22 @@ import org.eclipse.microprofile.reactive.messaging.Message;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.redhat.service.bridge.executor.ratelimit.RateLimiter;
+import com.redhat.service.bridge.executor.ratelimit.RateLimiterFactory;
+import com.redhat.service.bridge.executor.retry.RetryScheduler;
 import com.redhat.service.bridge.infra.BridgeCloudEventExtension;
+import com.redhat.service.bridge.infra.jfr.BridgeLookupEvent;
+import com.redhat.service.bridge.infra.trace.EventTracer;
+import com.redhat.service.bridge.infra.trace.Span;
+import com.redhat.service.bridge.infra.trace.TraceContext;
+import com.redhat.service.bridge.infra.trace.Tracing;
 import com.redhat.service.bridge.infra.utils.CloudEventUtils;
 
 import io.cloudevents.CloudEvent;
 import io.cloudevents.core.provider.ExtensionProvider;
 import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.reactive.messaging.kafka.api.IncomingKafkaRecordMetadata;
 
 @ApplicationScoped
 public class ExecutorsService {
@@ -32,35 +44,116 @@ public class ExecutorsService {
     @Inject
     ExecutorsProvider executorsProvider;
 
+    @Inject
+    RateLimiterFactory rateLimiterFactory;
+
+    @Inject
+    RetryScheduler retryScheduler;
+
+    @Inject
+    EventTracer tracer;
+
+    @Inject
+    Tracing tracing;
+
     public void init(@Observes StartupEvent ev) {
         ExtensionProvider.getInstance().registerExtension(BridgeCloudEventExtension.class, BridgeCloudEventExtension::new);
     }
 
     @Incoming(EVENTS_IN_TOPIC)
-    public CompletionStage<Void> processBridgeEvent(final Message<String> message) {
+    public CompletionStage<Void> processBridgeEvent(final Message<CloudEvent> message) {
+        long delay = 0;
         try {
-            CloudEvent cloudEvent = CloudEventUtils.decode(message.getPayload());
+            CloudEvent cloudEvent = message.getPayload();
+            if (cloudEvent == null) {
+                LOG.error("[executor] A message that is not a Cloud Event has been received. The message is acked anyway.");
+                return message.ack();
+            }
+            // The Bridge is read from the headers of the record: the data is only parsed when there are executors for it
             BridgeCloudEventExtension bridgeCloudEventExtension = ExtensionProvider.getInstance().parseExtension(BridgeCloudEventExtension.class, cloudEvent);
             String bridgeId = bridgeCloudEventExtension.getBridgeId();
-            Set<Executor> executors = executorsProvider.getExecutors(bridgeId);
-            if (executors == null) {
-                LOG.info("[executor] A message for BridgeID {} has been received, but no executors were found.", bridgeId);
-            }
-            if (executors != null) {
-                for (Executor e : executors) {
-                    try {
-                        e.onEvent(cloudEvent);
-                    } catch (Throwable t) {
-                        // Inner Throwable catch is to provide more specific context around which Executor failed to handle the Event, rather than a generic failure
-                        LOG.error("[executor] Processor with id '{}' on bridge '{}' failed to handle Event. The message is acked anyway.", e.getProcessor().getId(),
-                                e.getProcessor().getBridge().getId(), t);
+            tracer.trace("received", bridgeId, null, cloudEvent.getId());
+            // The stages of the executors are started as children of the span of the event
+            Span span = startSpan(message, cloudEvent, bridgeId);
+            try (Span.Scope scope = span.makeCurrent()) {
+                BridgeLookupEvent jfrEvent = new BridgeLookupEvent();
+                jfrEvent.begin();
+                Set<Executor> executors = executorsProvider.getExecutors(bridgeId);
+                jfrEvent.processors = executors == null ? 0 : executors.size();
+                jfrEvent.commit(bridgeId, null, cloudEvent.getId());
+                if (executors == null) {
+                    LOG.debug("[executor] A message for BridgeID {} has been received, but no executors were found.", bridgeId);
+                }
+                if (executors != null) {
+                    delay = rateLimiterFactory.forBridge(bridgeId).admit(cloudEvent);
+                    if (delay == RateLimiter.REJECTED) {
+                        LOG.debug("[executor] Rate limit of bridge '{}' exceeded for event with id '{}'", bridgeId, cloudEvent.getId());
+                        span.setAttribute("throttled", true);
+                        return message.ack();
+                    }
+                    cloudEvent = CloudEventUtils.withJsonData(cloudEvent);
+                    for (Executor e : executors) {
+                        try {
+                            // The Action may fail once the event has been handed over, e.g. when the broker does not acknowledge it
+                            delay = Math.max(delay, e.onEvent(cloudEvent, bridgeCloudEventExtension.getArrivalTime(), aie -> retry(e, aie)));
+                        } catch (CircuitBreakerOpenException cboe) {
+                            retryScheduler.schedule(e, cboe.getEvent());
+                        } catch (ActionInvocationException aie) {
+                            retry(e, aie);
+                        } catch (Throwable t) {
+                            // Inner Throwable catch is to provide more specific context around which Executor failed to handle the Event, rather than a generic failure
+                            LOG.error("[executor] Processor with id '{}' on bridge '{}' failed to handle Event. The message is acked anyway.", e.getProcessor().getId(),
+                                    e.getProcessor().getBridge().getId(), t);
+                        }
                     }
                 }
+            } finally {
+                span.end();
             }
         } catch (Throwable t) {
             LOG.error("[executor] Failed to handle Event received on Bridge. The message is acked anyway.", t);
         }
 
+        if (delay > 0) {
+            // The next message is not delivered until this one is acked: delaying the ack slows down the consumption without blocking the thread
+            return Uni.createFrom().voidItem()
+                    .onItem().delayIt().by(Duration.ofNanos(delay))
+                    .subscribeAsCompletionStage()
+                    .thenCompose(x -> message.ack());
+        }
         return message.ack();
     }
+
+    private void retry(Executor executor, ActionInvocationException aie) {
+        LOG.warn("[executor] The Action of Processor with id '{}' on bridge '{}' failed to handle Event. The invocation will be retried.", executor.getProcessor().getId(),
+                executor.getProcessor().getBridge().getId(), aie);
+        retryScheduler.schedule(executor, aie.getEvent());
+    }
+
+    /*
+     * The trace of the event is read from the distributed tracing extension of the event, or from the headers of the
+     * record. The time the event spent in the events topic is recorded from the timestamp of the record: the clocks of
+     * the producer and of the executor are not synchronized, it is an estimate
+     */
+    private Span startSpan(Message<CloudEvent> message, CloudEvent cloudEvent, String bridgeId) {
+        TraceContext traceContext = TraceContext.fromEvent(cloudEvent);
+        IncomingKafkaRecordMetadata<?, ?> record = message.getMetadata(IncomingKafkaRecordMetadata.class).orElse(null);
+        if (traceContext == null && record != null) {
+            traceContext = TraceContext.fromHeaders(record.getHeaders());
+        }
+        if (traceContext == null) {
+            return tracing.continueSpan("process", null);
+        }
+        if (record != null && traceContext.isSampled()) {
+            Span topicSpan = tracing.continueSpan(EVENTS_IN_TOPIC, traceContext, TimeUnit.MILLISECONDS.toNanos(record.getTimestamp().toEpochMilli()))
+                    .setAttribute("topic", record.getTopic())
+                    .setAttribute("partition", record.getPartition())
+                    .setAttribute("offset", record.getOffset());
+            topicSpan.end();
+            traceContext = topicSpan.getContext();
+        }
+        return tracing.continueSpan("process", traceContext)
+                .setAttribute(Span.BRIDGE_ATTRIBUTE, bridgeId)
+                .setAttribute(Span.EVENT_ATTRIBUTE, cloudEvent.getId());
+    }
 }
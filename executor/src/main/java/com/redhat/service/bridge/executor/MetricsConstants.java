@@ -3,8 +3,22 @@ package com.redhat.service.bridge.executor;
 public class MetricsConstants {
     public static final String BRIDGE_ID_TAG = "bridgeId";
     public static final String PROCESSOR_ID_TAG = "processorId";
+    public static final String OUTCOME_TAG = "outcome";
+    public static final String OTHER_TAG_VALUE = "other";
+    public static final String OUTCOME_DELAYED = "delayed";
+    public static final String OUTCOME_DROPPED = "dropped";
+    public static final String OUTCOME_DIVERTED = "diverted";
+    public static final String OUTCOME_SUCCEEDED = "succeeded";
+    public static final String OUTCOME_FAILED = "failed";
+    public static final String OUTCOME_EXHAUSTED = "exhausted";
     public static final String PROCESSOR_PROCESSING_TIME_METRIC_NAME = "executor.entire.processing.evaluation";
     public static final String FILTER_PROCESSING_TIME_METRIC_NAME = "executor.filter.evaluation";
     public static final String ACTION_PROCESSING_TIME_METRIC_NAME = "executor.action.evaluation";
     public static final String TRANSFORMATION_PROCESSING_TIME_METRIC_NAME = "executor.transformation.evaluation";
+    public static final String END_TO_END_LATENCY_METRIC_NAME = "executor.event.end.to.end.latency";
+    public static final String BRIDGE_THROTTLED_EVENTS_METRIC_NAME = "executor.bridge.throttled.events";
+    public static final String PROCESSOR_THROTTLED_EVENTS_METRIC_NAME = "executor.processor.throttled.events";
+    public static final String ACTION_SKIPPED_INVOCATIONS_METRIC_NAME = "executor.action.skipped.invocations";
+    public static final String ACTION_RETRIES_METRIC_NAME = "executor.action.retries";
+    public static final String ACTION_PENDING_RETRIES_METRIC_NAME = "executor.action.retries.pending";
 }
\ No newline at end of file
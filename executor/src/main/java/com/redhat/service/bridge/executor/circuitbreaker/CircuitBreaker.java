@@ -0,0 +1,109 @@
+package com.redhat.service.bridge.executor.circuitbreaker;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Circuit breaker protecting the Action of a Processor.
+ *
+ * The circuit opens after a number of consecutive failures: while it is open the Action is not invoked at all. Once
+ * the open duration is elapsed a single probe invocation is let through (half-open state): the circuit closes if it
+ * succeeds and opens again if it fails. If the outcome of the probe is never reported, a new probe is allowed after
+ * another open duration.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final LongSupplier clock;
+
+    private final AtomicInteger state = new AtomicInteger(State.CLOSED.ordinal());
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong nextProbeTime = new AtomicLong();
+
+    public CircuitBreaker(String name, int failureThreshold, long openDurationNanos) {
+        this(name, failureThreshold, openDurationNanos, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int failureThreshold, long openDurationNanos, LongSupplier clock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("The failure threshold of a circuit breaker must be at least 1");
+        }
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDurationNanos;
+        this.clock = clock;
+    }
+
+    /**
+     * @return - true if the protected call can be attempted, false if it must fail fast. When true is returned the
+     *         caller must report the outcome with {@link #onSuccess()} or {@link #onFailure()}.
+     */
+    public boolean tryAcquirePermission() {
+        if (state.get() == State.CLOSED.ordinal()) {
+            return true;
+        }
+        long now = clock.getAsLong();
+        long probeTime = nextProbeTime.get();
+        if (now - probeTime >= 0 && nextProbeTime.compareAndSet(probeTime, now + openDurationNanos)) {
+            state.set(State.HALF_OPEN.ordinal());
+            LOG.info("[executor] Circuit breaker of {} is half-open, probing the Action", name);
+            return true;
+        }
+        return false;
+    }
+
+    public void onSuccess() {
+        if (consecutiveFailures.get() != 0) {
+            consecutiveFailures.set(0);
+        }
+        if (state.get() != State.CLOSED.ordinal()) {
+            state.set(State.CLOSED.ordinal());
+            LOG.info("[executor] Circuit breaker of {} is closed, the Action recovered", name);
+        }
+    }
+
+    public void onFailure() {
+        int current = state.get();
+        if (current == State.HALF_OPEN.ordinal()) {
+            open(current);
+        } else if (current == State.CLOSED.ordinal() && consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            open(current);
+        }
+    }
+
+    /**
+     * @return - The time in nanoseconds until a probe is let through, 0 if the circuit is closed.
+     */
+    public long getRemainingOpenNanos() {
+        if (state.get() == State.CLOSED.ordinal()) {
+            return 0;
+        }
+        return Math.max(nextProbeTime.get() - clock.getAsLong(), 0);
+    }
+
+    public State getState() {
+        return State.values()[state.get()];
+    }
+
+    private void open(int expectedState) {
+        nextProbeTime.set(clock.getAsLong() + openDurationNanos);
+        if (state.compareAndSet(expectedState, State.OPEN.ordinal())) {
+            consecutiveFailures.set(0);
+            LOG.warn("[executor] Circuit breaker of {} is open, the Action is not invoked for the next {} ms", name, openDurationNanos / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.redhat.service.bridge.executor.circuitbreaker;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.redhat.service.bridge.infra.models.dto.ProcessorDTO;
+
+@ApplicationScoped
+public class CircuitBreakerFactory {
+
+    @ConfigProperty(name = "event-bridge.executor.circuit-breaker.failure-threshold", defaultValue = "5")
+    int failureThreshold;
+
+    @ConfigProperty(name = "event-bridge.executor.circuit-breaker.open-duration-ms", defaultValue = "30000")
+    long openDurationMillis;
+
+    public CircuitBreaker forProcessor(ProcessorDTO processor) {
+        return new CircuitBreaker(String.format("Processor '%s' on Bridge '%s'", processor.getId(), processor.getBridge().getId()), failureThreshold,
+                TimeUnit.MILLISECONDS.toNanos(openDurationMillis));
+    }
+}
@@ -0,0 +1,73 @@
+package com.redhat.service.bridge.executor.metrics;
+
+import java.time.Duration;
+
+import com.redhat.service.bridge.executor.MetricsConstants;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * The meters of the processing of the events by a Processor, or by a group of Processors sharing the same tags.
+ */
+public class ProcessorMeters {
+
+    private final Timer processingTime;
+    private final Timer filterTime;
+    private final Timer actionTime;
+    private final Timer transformationTime;
+    private final Timer endToEndLatency;
+    private final Counter skippedActions;
+
+    ProcessorMeters(MeterRegistry registry, String bridgeId, String processorId) {
+        Tags tags = Tags.of(Tag.of(MetricsConstants.BRIDGE_ID_TAG, bridgeId), Tag.of(MetricsConstants.PROCESSOR_ID_TAG, processorId));
+        this.processingTime = registry.timer(MetricsConstants.PROCESSOR_PROCESSING_TIME_METRIC_NAME, tags);
+        this.filterTime = registry.timer(MetricsConstants.FILTER_PROCESSING_TIME_METRIC_NAME, tags);
+        this.actionTime = registry.timer(MetricsConstants.ACTION_PROCESSING_TIME_METRIC_NAME, tags);
+        this.transformationTime = registry.timer(MetricsConstants.TRANSFORMATION_PROCESSING_TIME_METRIC_NAME, tags);
+        this.skippedActions = registry.counter(MetricsConstants.ACTION_SKIPPED_INVOCATIONS_METRIC_NAME, tags);
+        // Includes the time the event waited in the event queue, which can be long: published as a histogram
+        this.endToEndLatency = Timer.builder(MetricsConstants.END_TO_END_LATENCY_METRIC_NAME)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(10))
+                .register(registry);
+    }
+
+    public Timer getProcessingTime() {
+        return processingTime;
+    }
+
+    public Timer getFilterTime() {
+        return filterTime;
+    }
+
+    public Timer getActionTime() {
+        return actionTime;
+    }
+
+    public Timer getTransformationTime() {
+        return transformationTime;
+    }
+
+    public Timer getEndToEndLatency() {
+        return endToEndLatency;
+    }
+
+    public Counter getSkippedActions() {
+        return skippedActions;
+    }
+
+    void remove(MeterRegistry registry) {
+        registry.remove(processingTime);
+        registry.remove(filterTime);
+        registry.remove(actionTime);
+        registry.remove(transformationTime);
+        registry.remove(endToEndLatency);
+        registry.remove(skippedActions);
+    }
+}
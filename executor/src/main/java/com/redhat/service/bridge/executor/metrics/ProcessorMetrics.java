@@ -0,0 +1,72 @@
+package com.redhat.service.bridge.executor.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.redhat.service.bridge.infra.models.dto.ProcessorDTO;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Where the processing of the events by a Processor is recorded: its own meters, or the meters shared by the Processors
+ * that are not busy enough to be tracked one by one (see {@link ProcessorMetricsFactory}).
+ */
+public class ProcessorMetrics {
+
+    private final ProcessorDTO processor;
+    private final ProcessorMetricsFactory factory;
+    private volatile ProcessorMeters meters;
+    // The processing time not folded into the ranking of the factory yet
+    private final LongAdder processingTime = new LongAdder();
+
+    ProcessorMetrics(ProcessorDTO processor, ProcessorMeters meters, ProcessorMetricsFactory factory) {
+        this.processor = processor;
+        this.meters = meters;
+        this.factory = factory;
+    }
+
+    /**
+     * @param processor - The Processor.
+     * @param registry - Where its meters are registered.
+     * @return - Metrics with meters of the Processor, tagged with its id and the id of its Bridge.
+     */
+    public static ProcessorMetrics detailed(ProcessorDTO processor, MeterRegistry registry) {
+        return new ProcessorMetrics(processor, new ProcessorMeters(registry, processor.getBridge().getId(), processor.getId()), null);
+    }
+
+    /**
+     * @return - The meters where the stages of an event are recorded. Read once per event, as they can be swapped.
+     */
+    public ProcessorMeters meters() {
+        return meters;
+    }
+
+    /**
+     * @param meters - The meters returned by {@link #meters()} for the event.
+     * @param nanos - The time spent processing the event.
+     */
+    public void recordProcessingTime(ProcessorMeters meters, long nanos) {
+        meters.getProcessingTime().record(nanos, TimeUnit.NANOSECONDS);
+        if (factory != null) {
+            processingTime.add(nanos);
+            factory.recorded();
+        }
+    }
+
+    /*
+     * The time recorded concurrently is left for the next call, rather than lost by a reset
+     */
+    long drainProcessingTime() {
+        long nanos = processingTime.sum();
+        processingTime.add(-nanos);
+        return nanos;
+    }
+
+    ProcessorDTO getProcessor() {
+        return processor;
+    }
+
+    void setMeters(ProcessorMeters meters) {
+        this.meters = meters;
+    }
+}
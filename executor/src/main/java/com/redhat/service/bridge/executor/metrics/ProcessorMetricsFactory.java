@@ -0,0 +1,129 @@
+package com.redhat.service.bridge.executor.metrics;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.redhat.service.bridge.executor.MetricsConstants;
+import com.redhat.service.bridge.infra.metrics.SpaceSaving;
+import com.redhat.service.bridge.infra.models.dto.ProcessorDTO;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Builds the {@link ProcessorMetrics} of the Processors.
+ *
+ * By default every Processor has its own meters, tagged with its id and the id of its Bridge, so that the number of
+ * series grows with the number of Processors. With {@code event-bridge.executor.metrics.top-k} set, only the K
+ * Processors that spent the most time processing events have their own meters: the others share meters whose tags are
+ * {@value MetricsConstants#OTHER_TAG_VALUE}. The busiest Processors are found with a {@link SpaceSaving} sketch of the
+ * processing time of {@value #SKETCH_CAPACITY_PER_TOP_PROCESSOR} * K Processors, which is re-ranked every
+ * {@code rebalance-interval-ms}. The weights are halved at every re-ranking, so that the ranking follows the recent
+ * load. The meters of a Processor leaving the top are removed, they start over if it enters it again.
+ *
+ * The processing time is not offered to the sketch event by event, which would serialize the threads processing the
+ * events: each {@link ProcessorMetrics} sums it in a {@link java.util.concurrent.atomic.LongAdder}, and the sums are
+ * folded into the sketch when it is re-ranked.
+ */
+@ApplicationScoped
+public class ProcessorMetricsFactory {
+
+    static final int SKETCH_CAPACITY_PER_TOP_PROCESSOR = 10;
+    static final double DECAY_FACTOR = 0.5;
+
+    @ConfigProperty(name = "event-bridge.executor.metrics.top-k")
+    Optional<Integer> topK;
+
+    @ConfigProperty(name = "event-bridge.executor.metrics.rebalance-interval-ms", defaultValue = "60000")
+    long rebalanceIntervalMillis;
+
+    @Inject
+    MeterRegistry registry;
+
+    // Guarded by this
+    private final Map<String, ProcessorMetrics> processorMetrics = new HashMap<>();
+    private final Set<String> detailedProcessors = new HashSet<>();
+    private SpaceSaving<String> sketch;
+    private ProcessorMeters otherMeters;
+    // Read without the lock by the threads recording the events, only written with it
+    private volatile long nextRebalanceNanos;
+
+    public synchronized ProcessorMetrics forProcessor(ProcessorDTO processor) {
+        if (!topK.isPresent()) {
+            return ProcessorMetrics.detailed(processor, registry);
+        }
+        if (sketch == null) {
+            sketch = new SpaceSaving<>(topK.get() * SKETCH_CAPACITY_PER_TOP_PROCESSOR);
+            otherMeters = new ProcessorMeters(registry, MetricsConstants.OTHER_TAG_VALUE, MetricsConstants.OTHER_TAG_VALUE);
+            nextRebalanceNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(rebalanceIntervalMillis);
+        }
+        ProcessorMetrics metrics = new ProcessorMetrics(processor, otherMeters, this);
+        processorMetrics.put(processor.getId(), metrics);
+        return metrics;
+    }
+
+    /**
+     * Removes the meters of a Processor that is not deployed anymore.
+     */
+    public synchronized void remove(ProcessorMetrics metrics) {
+        String processorId = metrics.getProcessor().getId();
+        if (sketch != null && processorMetrics.remove(processorId, metrics)) {
+            sketch.remove(processorId);
+            detailedProcessors.remove(processorId);
+        }
+        if (metrics.meters() != otherMeters) {
+            metrics.meters().remove(registry);
+        }
+    }
+
+    void recorded() {
+        if (System.nanoTime() - nextRebalanceNanos >= 0) {
+            rebalanceIfDue();
+        }
+    }
+
+    private synchronized void rebalanceIfDue() {
+        // Another thread may have re-ranked the sketch while this one was waiting for the lock
+        long now = System.nanoTime();
+        if (now - nextRebalanceNanos >= 0) {
+            nextRebalanceNanos = now + TimeUnit.MILLISECONDS.toNanos(rebalanceIntervalMillis);
+            rebalance();
+        }
+    }
+
+    synchronized void rebalance() {
+        for (Map.Entry<String, ProcessorMetrics> entry : processorMetrics.entrySet()) {
+            long nanos = entry.getValue().drainProcessingTime();
+            if (nanos > 0) {
+                sketch.offer(entry.getKey(), nanos);
+            }
+        }
+        Set<String> top = new HashSet<>(sketch.top(topK.get()));
+        for (Iterator<String> iterator = detailedProcessors.iterator(); iterator.hasNext();) {
+            String processorId = iterator.next();
+            if (!top.contains(processorId)) {
+                ProcessorMetrics metrics = processorMetrics.get(processorId);
+                ProcessorMeters meters = metrics.meters();
+                metrics.setMeters(otherMeters);
+                meters.remove(registry);
+                iterator.remove();
+            }
+        }
+        for (String processorId : top) {
+            ProcessorMetrics metrics = processorMetrics.get(processorId);
+            if (metrics != null && detailedProcessors.add(processorId)) {
+                metrics.setMeters(new ProcessorMeters(registry, metrics.getProcessor().getBridge().getId(), processorId));
+            }
+        }
+        sketch.decay(DECAY_FACTOR);
+    }
+}
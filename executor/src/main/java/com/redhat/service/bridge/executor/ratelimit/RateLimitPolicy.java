@@ -0,0 +1,22 @@
+package com.redhat.service.bridge.executor.ratelimit;
+
+/**
+ * What to do with the events that exceed the rate limit of a Bridge or of a Processor.
+ */
+public enum RateLimitPolicy {
+
+    /**
+     * Slow down the consumption of the events topic until the rate is back within the limit.
+     */
+    DELAY,
+
+    /**
+     * Discard the events.
+     */
+    DROP,
+
+    /**
+     * Send the events to the spill topic, so that they can be replayed later.
+     */
+    DIVERT
+}
@@ -0,0 +1,126 @@
+package com.redhat.service.bridge.executor.ratelimit;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.redhat.service.bridge.infra.ratelimit.TokenBucket;
+
+import io.cloudevents.CloudEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Enforces the rate limit of a Bridge or of a Processor and applies the configured {@link RateLimitPolicy} to the
+ * events that exceed it.
+ */
+public class RateLimiter {
+
+    /**
+     * Returned by {@link #admit(CloudEvent)} when the event exceeded the rate limit and must not be processed.
+     */
+    public static final long REJECTED = -1L;
+
+    private static final Logger LOG = LoggerFactory.getLogger(RateLimiter.class);
+
+    private static final RateLimiter UNLIMITED = new RateLimiter(null, null, 0, null, null, null, null);
+
+    private final TokenBucket bucket;
+    private final RateLimitPolicy policy;
+    private final long maxDelayNanos;
+    private final Function<CloudEvent, CompletionStage<Void>> spill;
+    private final Counter delayedCounter;
+    private final Counter droppedCounter;
+    private final Counter divertedCounter;
+
+    /**
+     * @param spill - Sends an event to the spill topic, the stage completes once the event is acknowledged.
+     */
+    public RateLimiter(TokenBucket bucket, RateLimitPolicy policy, long maxDelayNanos, Function<CloudEvent, CompletionStage<Void>> spill, Counter delayedCounter,
+            Counter droppedCounter, Counter divertedCounter) {
+        this.bucket = bucket;
+        this.policy = policy;
+        this.maxDelayNanos = maxDelayNanos;
+        this.spill = spill;
+        this.delayedCounter = delayedCounter;
+        this.droppedCounter = droppedCounter;
+        this.divertedCounter = divertedCounter;
+    }
+
+    public static RateLimiter unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * Checks whether an event can be processed. Events exceeding the limit are dropped or diverted to the spill topic
+     * according to the policy, in which case {@link #REJECTED} is returned. A diverted event is counted once the spill
+     * topic has acknowledged it, as dropped if the topic failed to.
+     *
+     * With the {@link RateLimitPolicy#DELAY} policy the event is admitted in debt of the bucket: the returned value is
+     * the time the caller must wait before handing over the next event, so that the consumption is slowed down without
+     * blocking the current thread. Events that would require waiting longer than the maximum delay are dropped.
+     *
+     * @param event - The event to admit.
+     * @return - The time in nanoseconds to wait before the next event, or {@link #REJECTED}.
+     */
+    public long admit(CloudEvent event) {
+        if (bucket == null) {
+            return 0;
+        }
+
+        if (policy == RateLimitPolicy.DELAY) {
+            long wait = bucket.reserve(1, maxDelayNanos);
+            if (wait > 0) {
+                delayedCounter.increment();
+            } else if (wait == TokenBucket.NOT_AVAILABLE) {
+                droppedCounter.increment();
+                return REJECTED;
+            }
+            return wait;
+        }
+
+        if (bucket.tryAcquire()) {
+            return 0;
+        }
+        if (policy == RateLimitPolicy.DIVERT) {
+            divert(event);
+        } else {
+            droppedCounter.increment();
+        }
+        return REJECTED;
+    }
+
+    /*
+     * The unlimited rate limiter has no counters
+     */
+    void remove(MeterRegistry registry) {
+        if (bucket != null) {
+            registry.remove(delayedCounter);
+            registry.remove(droppedCounter);
+            registry.remove(divertedCounter);
+        }
+    }
+
+    private void divert(CloudEvent event) {
+        CompletionStage<Void> sent;
+        try {
+            sent = spill.apply(event);
+        } catch (RuntimeException e) {
+            // e.g. the buffer of the emitter is full
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            sent = failed;
+        }
+        sent.whenComplete((x, t) -> {
+            if (t == null) {
+                divertedCounter.increment();
+            } else {
+                LOG.debug("[executor] Failed to divert event with id '{}' to the spill topic, the event is dropped", event.getId(), t);
+                droppedCounter.increment();
+            }
+        });
+    }
+}
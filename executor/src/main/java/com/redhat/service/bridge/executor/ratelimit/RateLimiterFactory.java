@@ -0,0 +1,134 @@
+package com.redhat.service.bridge.executor.ratelimit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.reactive.messaging.Channel;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.redhat.service.bridge.executor.MetricsConstants;
+import com.redhat.service.bridge.infra.models.dto.ProcessorDTO;
+import com.redhat.service.bridge.infra.ratelimit.TokenBucket;
+
+import io.cloudevents.CloudEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+
+/**
+ * Builds the {@link RateLimiter} of Bridges and Processors from the configuration.
+ *
+ * Limits are configured under {@code event-bridge.executor.rate-limit.bridge} and
+ * {@code event-bridge.executor.rate-limit.processor} with the keys {@code events-per-second}, {@code burst} and
+ * {@code policy}. The values apply to every Bridge (or Processor) and can be overridden for a single one by adding its
+ * id to the key, e.g. {@code event-bridge.executor.rate-limit.bridge.<bridgeId>.events-per-second}. Without a rate
+ * there is no limit.
+ */
+@ApplicationScoped
+public class RateLimiterFactory {
+
+    /**
+     * Kafka Topic where the events exceeding a limit with the {@link RateLimitPolicy#DIVERT} policy are sent.
+     */
+    public static final String EVENTS_SPILL_TOPIC = "events-spill";
+
+    static final String CONFIG_PREFIX = "event-bridge.executor.rate-limit.";
+    static final String BRIDGE_SCOPE = "bridge";
+    static final String PROCESSOR_SCOPE = "processor";
+    static final String EVENTS_PER_SECOND = "events-per-second";
+    static final String BURST = "burst";
+    static final String POLICY = "policy";
+
+    private static final Logger LOG = LoggerFactory.getLogger(RateLimiterFactory.class);
+
+    private final Map<String, RateLimiter> bridgeRateLimiters = new ConcurrentHashMap<>();
+
+    @ConfigProperty(name = "event-bridge.executor.rate-limit.max-delay-ms", defaultValue = "1000")
+    long maxDelayMillis;
+
+    @Inject
+    Config config;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Channel(EVENTS_SPILL_TOPIC)
+    Emitter<CloudEvent> spillEmitter;
+
+    public RateLimiter forBridge(String bridgeId) {
+        RateLimiter rateLimiter = bridgeRateLimiters.get(bridgeId);
+        if (rateLimiter == null) {
+            rateLimiter = bridgeRateLimiters.computeIfAbsent(bridgeId,
+                    id -> build(BRIDGE_SCOPE, id, MetricsConstants.BRIDGE_THROTTLED_EVENTS_METRIC_NAME, Tag.of(MetricsConstants.BRIDGE_ID_TAG, id)));
+        }
+        return rateLimiter;
+    }
+
+    /**
+     * Forgets the rate limiter of a Bridge that has no Processor anymore, and removes its meters: it is built again,
+     * with a full bucket, if the Bridge gets a Processor again.
+     */
+    public void removeBridge(String bridgeId) {
+        RateLimiter rateLimiter = bridgeRateLimiters.remove(bridgeId);
+        if (rateLimiter != null) {
+            rateLimiter.remove(registry);
+        }
+    }
+
+    /**
+     * Removes the meters of the rate limiter of a Processor that is not deployed anymore.
+     */
+    public void remove(RateLimiter rateLimiter) {
+        rateLimiter.remove(registry);
+    }
+
+    public RateLimiter forProcessor(ProcessorDTO processor) {
+        return build(PROCESSOR_SCOPE, processor.getId(), MetricsConstants.PROCESSOR_THROTTLED_EVENTS_METRIC_NAME,
+                Tag.of(MetricsConstants.BRIDGE_ID_TAG, processor.getBridge().getId()), Tag.of(MetricsConstants.PROCESSOR_ID_TAG, processor.getId()));
+    }
+
+    private RateLimiter build(String scope, String id, String metricName, Tag... tags) {
+        Optional<Double> eventsPerSecond = getValue(scope, id, EVENTS_PER_SECOND, Double.class);
+        if (!eventsPerSecond.isPresent()) {
+            return RateLimiter.unlimited();
+        }
+
+        long burst = getValue(scope, id, BURST, Long.class).orElse((long) Math.ceil(eventsPerSecond.get()));
+        RateLimitPolicy policy = getValue(scope, id, POLICY, String.class).map(RateLimitPolicy::valueOf).orElse(RateLimitPolicy.DROP);
+        LOG.info("[executor] Rate limit of {} events per second (burst {}, policy {}) configured for {} '{}'", eventsPerSecond.get(), burst, policy, scope, id);
+
+        return new RateLimiter(new TokenBucket(eventsPerSecond.get(), burst), policy, TimeUnit.MILLISECONDS.toNanos(maxDelayMillis), this::spill,
+                registry.counter(metricName, withOutcome(tags, MetricsConstants.OUTCOME_DELAYED)),
+                registry.counter(metricName, withOutcome(tags, MetricsConstants.OUTCOME_DROPPED)),
+                registry.counter(metricName, withOutcome(tags, MetricsConstants.OUTCOME_DIVERTED)));
+    }
+
+    private <T> Optional<T> getValue(String scope, String id, String key, Class<T> type) {
+        Optional<T> value = config.getOptionalValue(CONFIG_PREFIX + scope + "." + id + "." + key, type);
+        return value.isPresent() ? value : config.getOptionalValue(CONFIG_PREFIX + scope + "." + key, type);
+    }
+
+    private CompletionStage<Void> spill(CloudEvent event) {
+        return spillEmitter.send(event);
+    }
+
+    private static List<Tag> withOutcome(Tag[] tags, String outcome) {
+        List<Tag> result = new ArrayList<>(tags.length + 1);
+        for (Tag tag : tags) {
+            result.add(tag);
+        }
+        result.add(Tag.of(MetricsConstants.OUTCOME_TAG, outcome));
+        return result;
+    }
+}
@@ -0,0 +1,386 @@
+package com.redhat.service.bridge.executor.retry;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.redhat.service.bridge.executor.ActionInvocationException;
+import com.redhat.service.bridge.executor.CircuitBreakerOpenException;
+import com.redhat.service.bridge.executor.Executor;
+import com.redhat.service.bridge.executor.ExecutorsProvider;
+import com.redhat.service.bridge.executor.MetricsConstants;
+import com.redhat.service.bridge.infra.wal.SegmentedLog;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.Startup;
+
+/**
+ * Retries the invocations of Actions that failed, without blocking the consumption of new events.
+ *
+ * Every failed delivery is appended to a local memory-mapped spill log and scheduled on a timer wheel with an
+ * exponential backoff. Each attempt appends a new record for the delivery and a completed (or abandoned) delivery
+ * appends a tombstone, so that the pending deliveries can be recovered from the spill log when the executor restarts.
+ * The spill log is periodically committed up to the oldest pending delivery. The timer wheel only hands the due
+ * deliveries over to a pool of workers, which invoke the Actions.
+ *
+ * A redelivery rejected by the circuit breaker of the Action is not an attempt: it is scheduled again once the circuit
+ * breaker lets a probe through, so that the attempts are not used up while the Action is known to be failing. It is
+ * abandoned once it has waited for the circuit breaker longer than the configured maximum.
+ *
+ * The pending deliveries are bounded, in total and for each Processor, so that an Action failing for a long time does
+ * not fill the heap and the spill log: the failed deliveries above the bounds are dropped and counted.
+ */
+@Startup
+@ApplicationScoped
+public class RetryScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RetryScheduler.class);
+
+    private static final byte PENDING = 0;
+    private static final byte DONE = 1;
+    private static final long NEW_DELIVERY = -1L;
+    private static final long NOT_DEFERRED = 0L;
+    private static final long COMMIT_INTERVAL_MILLIS = 1000L;
+
+    @ConfigProperty(name = "event-bridge.executor.retry.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "event-bridge.executor.retry.max-attempts", defaultValue = "5")
+    int maxAttempts;
+
+    @ConfigProperty(name = "event-bridge.executor.retry.initial-backoff-ms", defaultValue = "1000")
+    long initialBackoffMillis;
+
+    @ConfigProperty(name = "event-bridge.executor.retry.max-backoff-ms", defaultValue = "60000")
+    long maxBackoffMillis;
+
+    @ConfigProperty(name = "event-bridge.executor.retry.max-pending", defaultValue = "100000")
+    int maxPending;
+
+    @ConfigProperty(name = "event-bridge.executor.retry.max-pending-per-processor", defaultValue = "10000")
+    int maxPendingPerProcessor;
+
+    @ConfigProperty(name = "event-bridge.executor.retry.max-open-circuit-wait-ms", defaultValue = "600000")
+    long maxOpenCircuitWaitMillis;
+
+    @ConfigProperty(name = "event-bridge.executor.retry.workers", defaultValue = "4")
+    int workers;
+
+    @ConfigProperty(name = "event-bridge.executor.retry.tick-ms", defaultValue = "100")
+    long tickMillis;
+
+    @ConfigProperty(name = "event-bridge.executor.retry.spill-log.directory")
+    String spillLogDirectory;
+
+    @ConfigProperty(name = "event-bridge.executor.retry.spill-log.segment-size", defaultValue = "16777216")
+    int spillLogSegmentSize;
+
+    @Inject
+    ExecutorsProvider executorsProvider;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final NavigableSet<Long> pendingPositions = new ConcurrentSkipListSet<>();
+    private final AtomicInteger pendingDeliveries = new AtomicInteger();
+    private final Map<String, Integer> pendingDeliveriesByProcessor = new ConcurrentHashMap<>();
+    private SegmentedLog spillLog;
+    private TimerWheel timerWheel;
+    private ExecutorService redeliveryExecutor;
+    private Counter succeededCounter;
+    private Counter failedCounter;
+    private Counter exhaustedCounter;
+    private Counter droppedCounter;
+
+    /*
+     * The scheduler is initialized when it is first used, possibly by a message delivered before the application has
+     * started, and at startup at the latest so that the pending deliveries are recovered
+     */
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        succeededCounter = registry.counter(MetricsConstants.ACTION_RETRIES_METRIC_NAME, MetricsConstants.OUTCOME_TAG, MetricsConstants.OUTCOME_SUCCEEDED);
+        failedCounter = registry.counter(MetricsConstants.ACTION_RETRIES_METRIC_NAME, MetricsConstants.OUTCOME_TAG, MetricsConstants.OUTCOME_FAILED);
+        exhaustedCounter = registry.counter(MetricsConstants.ACTION_RETRIES_METRIC_NAME, MetricsConstants.OUTCOME_TAG, MetricsConstants.OUTCOME_EXHAUSTED);
+        droppedCounter = registry.counter(MetricsConstants.ACTION_RETRIES_METRIC_NAME, MetricsConstants.OUTCOME_TAG, MetricsConstants.OUTCOME_DROPPED);
+        registry.gauge(MetricsConstants.ACTION_PENDING_RETRIES_METRIC_NAME, pendingDeliveries);
+
+        spillLog = SegmentedLog.open(Paths.get(spillLogDirectory), spillLogSegmentSize);
+        timerWheel = new TimerWheel("executor-retry", tickMillis, TimeUnit.MILLISECONDS, 512);
+        AtomicInteger workerCount = new AtomicInteger();
+        redeliveryExecutor = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "executor-retry-worker-" + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        recover();
+        timerWheel.schedule(this::commit, COMMIT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    void shutdown(@Observes ShutdownEvent ev) {
+        if (!enabled) {
+            return;
+        }
+        timerWheel.close();
+        redeliveryExecutor.shutdown();
+        try {
+            redeliveryExecutor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            spillLog.close();
+        }
+    }
+
+    /**
+     * Schedules the redelivery of an event that the Action of a Processor failed to handle.
+     *
+     * @param executor - The Executor of the Processor.
+     * @param eventToSend - The event as it was sent to the Action.
+     */
+    public void schedule(Executor executor, String eventToSend) {
+        if (!enabled) {
+            LOG.warn("[executor] Retries are disabled, the event for Processor '{}' on Bridge '{}' is lost", executor.getProcessor().getId(),
+                    executor.getProcessor().getBridge().getId());
+            return;
+        }
+        Delivery delivery = new Delivery(NEW_DELIVERY, executor.getProcessor().getBridge().getId(), executor.getProcessor().getId(), 1, eventToSend);
+        if (!reserve(delivery)) {
+            LOG.warn("[executor] Too many deliveries are pending, the event for Processor '{}' on Bridge '{}' is dropped", delivery.processorId, delivery.bridgeId);
+            droppedCounter.increment();
+            return;
+        }
+        persist(delivery);
+        scheduleAttempt(delivery);
+    }
+
+    private void scheduleAttempt(Delivery delivery) {
+        long backoff = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(delivery.attempt - 1, 30));
+        timerWheel.schedule(() -> redeliveryExecutor.execute(() -> redeliver(delivery)), backoff, TimeUnit.MILLISECONDS);
+    }
+
+    private void redeliver(Delivery delivery) {
+        try {
+            Executor executor = findExecutor(delivery);
+            if (executor == null) {
+                throw new ActionInvocationException("The Processor is not deployed", delivery.event);
+            }
+            executor.redeliver(delivery.event).whenComplete((ignored, failure) -> {
+                if (failure != null) {
+                    onAttemptFailure(delivery, (ActionInvocationException) failure);
+                    return;
+                }
+                succeededCounter.increment();
+                complete(delivery);
+            });
+        } catch (CircuitBreakerOpenException e) {
+            long now = System.nanoTime();
+            if (delivery.deferredSince == NOT_DEFERRED) {
+                delivery.deferredSince = now;
+            } else if (now - delivery.deferredSince > TimeUnit.MILLISECONDS.toNanos(maxOpenCircuitWaitMillis)) {
+                LOG.error("[executor] Giving up the delivery of an event to the Action of Processor '{}' on Bridge '{}' after waiting {} ms for its circuit breaker",
+                        delivery.processorId, delivery.bridgeId, maxOpenCircuitWaitMillis);
+                droppedCounter.increment();
+                complete(delivery);
+                return;
+            }
+            LOG.debug("[executor] Circuit breaker of Processor '{}' on Bridge '{}' is open, deferring attempt {} to deliver an event", delivery.processorId, delivery.bridgeId,
+                    delivery.attempt);
+            long delay = Math.max(TimeUnit.NANOSECONDS.toMillis(e.getRetryAfterNanos()), tickMillis);
+            timerWheel.schedule(() -> redeliveryExecutor.execute(() -> redeliver(delivery)), delay, TimeUnit.MILLISECONDS);
+        } catch (ActionInvocationException e) {
+            onAttemptFailure(delivery, e);
+        }
+    }
+
+    private void onAttemptFailure(Delivery delivery, ActionInvocationException e) {
+        delivery.deferredSince = NOT_DEFERRED;
+        failedCounter.increment();
+        if (delivery.attempt >= maxAttempts) {
+            LOG.error("[executor] Giving up the delivery of an event to the Action of Processor '{}' on Bridge '{}' after {} attempts", delivery.processorId, delivery.bridgeId,
+                    delivery.attempt, e);
+            exhaustedCounter.increment();
+            complete(delivery);
+            return;
+        }
+        LOG.debug("[executor] Attempt {} to deliver an event to the Action of Processor '{}' on Bridge '{}' failed", delivery.attempt, delivery.processorId, delivery.bridgeId, e);
+        delivery.attempt++;
+        persist(delivery);
+        scheduleAttempt(delivery);
+    }
+
+    private Executor findExecutor(Delivery delivery) {
+        Set<Executor> executors = executorsProvider.getExecutors(delivery.bridgeId);
+        if (executors == null) {
+            return null;
+        }
+        for (Executor executor : executors) {
+            if (executor.getProcessor().getId().equals(delivery.processorId)) {
+                return executor;
+            }
+        }
+        return null;
+    }
+
+    /*
+     * The recovered deliveries are not bounded: they were accepted before the restart
+     */
+    private boolean reserve(Delivery delivery) {
+        if (pendingDeliveries.incrementAndGet() > maxPending) {
+            pendingDeliveries.decrementAndGet();
+            return false;
+        }
+        if (pendingDeliveriesByProcessor.merge(delivery.processorId, 1, Integer::sum) > maxPendingPerProcessor) {
+            release(delivery);
+            return false;
+        }
+        return true;
+    }
+
+    private void release(Delivery delivery) {
+        pendingDeliveries.decrementAndGet();
+        pendingDeliveriesByProcessor.computeIfPresent(delivery.processorId, (processorId, count) -> count == 1 ? null : count - 1);
+    }
+
+    private synchronized void persist(Delivery delivery) {
+        long position = spillLog.append(delivery.toRecord());
+        if (delivery.id == NEW_DELIVERY) {
+            delivery.id = position;
+        } else {
+            pendingPositions.remove(delivery.position);
+        }
+        delivery.position = position;
+        pendingPositions.add(position);
+    }
+
+    private synchronized void complete(Delivery delivery) {
+        spillLog.append(Delivery.toTombstone(delivery.id));
+        pendingPositions.remove(delivery.position);
+        release(delivery);
+    }
+
+    private void commit() {
+        try {
+            synchronized (this) {
+                spillLog.commit(pendingPositions.isEmpty() ? spillLog.getEndPosition() : pendingPositions.first());
+            }
+        } finally {
+            timerWheel.schedule(this::commit, COMMIT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void recover() {
+        Map<Long, Delivery> deliveries = new LinkedHashMap<>();
+        spillLog.read(spillLog.getCommittedPosition(), Integer.MAX_VALUE, (position, record) -> {
+            try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(record))) {
+                byte type = input.readByte();
+                long id = input.readLong();
+                if (type == DONE) {
+                    deliveries.remove(id);
+                } else {
+                    Delivery delivery = Delivery.fromRecord(id, input);
+                    delivery.position = position;
+                    deliveries.put(id, delivery);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        for (Delivery delivery : deliveries.values()) {
+            pendingPositions.add(delivery.position);
+            pendingDeliveries.incrementAndGet();
+            pendingDeliveriesByProcessor.merge(delivery.processorId, 1, Integer::sum);
+            scheduleAttempt(delivery);
+        }
+        if (!deliveries.isEmpty()) {
+            LOG.info("[executor] Recovered {} pending deliveries from the retry spill log", deliveries.size());
+        }
+    }
+
+    private static class Delivery {
+
+        private long id;
+        private long position;
+        private final String bridgeId;
+        private final String processorId;
+        private int attempt;
+        private final String event;
+        // When the circuit breaker first rejected the current attempt, not persisted: the wait starts again on restart
+        private long deferredSince = NOT_DEFERRED;
+
+        Delivery(long id, String bridgeId, String processorId, int attempt, String event) {
+            this.id = id;
+            this.bridgeId = bridgeId;
+            this.processorId = processorId;
+            this.attempt = attempt;
+            this.event = event;
+        }
+
+        byte[] toRecord() {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream output = new DataOutputStream(bytes)) {
+                output.writeByte(PENDING);
+                output.writeLong(id);
+                output.writeUTF(bridgeId);
+                output.writeUTF(processorId);
+                output.writeInt(attempt);
+                byte[] payload = event.getBytes(StandardCharsets.UTF_8);
+                output.writeInt(payload.length);
+                output.write(payload);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return bytes.toByteArray();
+        }
+
+        static byte[] toTombstone(long id) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream output = new DataOutputStream(bytes)) {
+                output.writeByte(DONE);
+                output.writeLong(id);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return bytes.toByteArray();
+        }
+
+        static Delivery fromRecord(long id, DataInputStream input) throws IOException {
+            String bridgeId = input.readUTF();
+            String processorId = input.readUTF();
+            int attempt = input.readInt();
+            byte[] payload = new byte[input.readInt()];
+            input.readFully(payload);
+            return new Delivery(id, bridgeId, processorId, attempt, new String(payload, StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.redhat.service.bridge.executor.retry;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hashed timing wheel running delayed tasks with the precision of a tick.
+ *
+ * Scheduling a task only adds it to a lock-free queue: a single worker thread moves the new tasks into the buckets of
+ * the wheel and runs the expired ones at every tick, so scheduling and expiring are both O(1) regardless of the number
+ * of pending tasks. Tasks are run on the worker thread and must not block.
+ */
+public class TimerWheel implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TimerWheel.class);
+
+    private final long tickNanos;
+    private final List<List<Timeout>> buckets;
+    private final int mask;
+    private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private final long startTime;
+    private volatile boolean running = true;
+    private long tick;
+
+    /**
+     * @param name - The name of the worker thread.
+     * @param tickDuration - The duration of a tick.
+     * @param unit - The unit of the tick duration.
+     * @param wheelSize - The number of buckets of the wheel, rounded up to a power of 2.
+     */
+    public TimerWheel(String name, long tickDuration, TimeUnit unit, int wheelSize) {
+        this.tickNanos = unit.toNanos(tickDuration);
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.mask = size - 1;
+        this.startTime = System.nanoTime();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public void schedule(Runnable task, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("The timer wheel has been closed");
+        }
+        newTimeouts.add(new Timeout(task, System.nanoTime() - startTime + unit.toNanos(delay)));
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = (tick + 1) * tickNanos;
+            long sleep = deadline - (System.nanoTime() - startTime);
+            if (sleep > 0) {
+                LockSupport.parkNanos(this, sleep);
+                continue;
+            }
+            transferNewTimeouts();
+            expire(buckets.get((int) (tick & mask)));
+            tick++;
+        }
+    }
+
+    private void transferNewTimeouts() {
+        Timeout timeout;
+        while ((timeout = newTimeouts.poll()) != null) {
+            long expirationTick = Math.max(timeout.deadline / tickNanos, tick);
+            timeout.remainingRounds = (expirationTick - tick) / buckets.size();
+            buckets.get((int) (expirationTick & mask)).add(timeout);
+        }
+    }
+
+    private void expire(List<Timeout> bucket) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+                continue;
+            }
+            iterator.remove();
+            try {
+                timeout.task.run();
+            } catch (RuntimeException e) {
+                LOG.error("[executor] A task scheduled on the timer wheel failed", e);
+            }
+        }
+    }
+
+    private static class Timeout {
+
+        private final Runnable task;
+        private final long deadline;
+        private long remainingRounds;
+
+        Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+    }
+}
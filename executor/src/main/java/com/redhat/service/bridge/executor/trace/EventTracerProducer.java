@@ -0,0 +1,27 @@
+package com.redhat.service.bridge.executor.trace;
+
+import javax.enterprise.context.Dependent;
+import javax.enterprise.inject.Produces;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.redhat.service.bridge.infra.trace.EventTracer;
+
+@Dependent
+public class EventTracerProducer {
+
+    @ConfigProperty(name = EventTracer.SAMPLE_RATE_CONFIG, defaultValue = "0")
+    double sampleRate;
+
+    @Inject
+    Config config;
+
+    @Produces
+    @Singleton
+    public EventTracer produce() {
+        return EventTracer.fromConfig("executor", sampleRate, config);
+    }
+}
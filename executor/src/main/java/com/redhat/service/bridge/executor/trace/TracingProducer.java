@@ -0,0 +1,24 @@
+package com.redhat.service.bridge.executor.trace;
+
+import javax.enterprise.context.Dependent;
+import javax.enterprise.inject.Produces;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.eclipse.microprofile.config.Config;
+
+import com.redhat.service.bridge.infra.trace.EventTracer;
+import com.redhat.service.bridge.infra.trace.Tracing;
+
+@Dependent
+public class TracingProducer {
+
+    @Inject
+    Config config;
+
+    @Produces
+    @Singleton
+    public Tracing produce(EventTracer tracer) {
+        return Tracing.fromConfig(tracer, config);
+    }
+}
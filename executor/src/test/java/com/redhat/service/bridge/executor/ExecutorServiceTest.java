@@ -1,28 +1,46 @@
 package com.redhat.service.bridge.executor;
 
 import java.net.URI;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import javax.inject.Inject;
 
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
 import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
 import com.redhat.service.bridge.infra.BridgeCloudEventExtension;
-import com.redhat.service.bridge.infra.utils.CloudEventUtils;
+import com.redhat.service.bridge.infra.models.dto.BridgeDTO;
+import com.redhat.service.bridge.infra.models.dto.BridgeStatus;
+import com.redhat.service.bridge.infra.models.dto.ProcessorDTO;
+import com.redhat.service.bridge.infra.trace.InMemorySpanExporter;
+import com.redhat.service.bridge.infra.trace.Span;
+import com.redhat.service.bridge.infra.trace.TraceContext;
+import com.redhat.service.bridge.infra.trace.Tracing;
 
 import io.cloudevents.CloudEvent;
 import io.cloudevents.core.builder.CloudEventBuilder;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.mockito.InjectMock;
+import io.smallrye.reactive.messaging.kafka.api.IncomingKafkaRecordMetadata;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -35,6 +53,9 @@ public class ExecutorServiceTest {
     @InjectMock
     ExecutorsProvider executorsProvider;
 
+    @Inject
+    Tracing tracing;
+
     Executor executor;
 
     @BeforeEach
@@ -46,6 +67,7 @@ public class ExecutorServiceTest {
     public void handleEvent() {
 
         String bridgeId = "myBridge";
+        OffsetDateTime arrivalTime = OffsetDateTime.now(ZoneOffset.UTC);
         ArgumentCaptor<CloudEvent> cap = ArgumentCaptor.forClass(CloudEvent.class);
         when(executorsProvider.getExecutors(any(String.class))).thenReturn(Collections.singleton(executor));
 
@@ -54,16 +76,51 @@ public class ExecutorServiceTest {
                 .withId("foo")
                 .withSource(URI.create("bar"))
                 .withType("myType")
-                .withExtension(new BridgeCloudEventExtension(bridgeId)).build();
+                .withExtension(new BridgeCloudEventExtension(bridgeId, arrivalTime)).build();
 
-        executorsService.processBridgeEvent(Message.of(CloudEventUtils.encode(cloudEvent)));
+        executorsService.processBridgeEvent(Message.of(cloudEvent));
 
-        verify(executor).onEvent(cap.capture());
+        verify(executor).onEvent(cap.capture(), eq(arrivalTime), any());
         CloudEvent invokedWith = cap.getValue();
 
         assertThat(invokedWith.getExtension(BridgeCloudEventExtension.BRIDGE_ID)).isEqualTo("myBridge");
     }
 
+    @Test
+    public void handleEvent_isTraced() {
+        String bridgeId = "myTracedBridge";
+        InMemorySpanExporter exporter = (InMemorySpanExporter) tracing.getExporter();
+        Span[] processSpan = new Span[1];
+        when(executor.onEvent(any(CloudEvent.class), any(), any())).thenAnswer(invocation -> {
+            processSpan[0] = Span.current();
+            return 0L;
+        });
+        when(executorsProvider.getExecutors(eq(bridgeId))).thenReturn(Collections.singleton(executor));
+
+        CloudEvent cloudEvent = CloudEventBuilder
+                .v1()
+                .withId("foo")
+                .withSource(URI.create("bar"))
+                .withType("myType")
+                .withExtension(new BridgeCloudEventExtension(bridgeId)).build();
+        // The context of the trace is read from the headers of the record when the event does not have it
+        TraceContext parent = TraceContext.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01", null);
+        RecordHeaders headers = new RecordHeaders();
+        parent.toHeaders().forEach(headers::add);
+        ConsumerRecord<String, CloudEvent> record = new ConsumerRecord<>("events", 0, 42, System.currentTimeMillis(), TimestampType.CREATE_TIME, null, 0, 0, bridgeId, cloudEvent,
+                headers);
+
+        executorsService.processBridgeEvent(Message.of(cloudEvent, Metadata.of(new IncomingKafkaRecordMetadata<>(record))));
+
+        List<Span> spans = exporter.getFinishedSpans(parent.getTraceId());
+        assertThat(spans).extracting(Span::getName).containsExactly(ExecutorsService.EVENTS_IN_TOPIC, "process");
+        assertThat(spans.get(0).getParentSpanId()).isEqualTo(parent.getSpanId());
+        assertThat(spans.get(0).getAttributes()).containsEntry("offset", 42L);
+        assertThat(spans.get(1).getParentSpanId()).isEqualTo(spans.get(0).getContext().getSpanId());
+        assertThat(spans.get(1).getAttributes()).containsEntry(Span.BRIDGE_ATTRIBUTE, bridgeId);
+        assertThat(processSpan[0]).isSameAs(spans.get(1));
+    }
+
     @Test
     public void handleEvent_processorNotInvokedIfEventForDifferentBridgeInstance() {
         String bridgeId = "myBridge";
@@ -76,8 +133,48 @@ public class ExecutorServiceTest {
                 .withType("myType")
                 .withExtension(BridgeCloudEventExtension.BRIDGE_ID, "anotherBridge").build();
 
-        executorsService.processBridgeEvent(Message.of(CloudEventUtils.encode(cloudEvent)));
+        executorsService.processBridgeEvent(Message.of(cloudEvent));
+
+        verify(executor, never()).onEvent(any(CloudEvent.class), any(), any());
+    }
+
+    @Test
+    public void handleEvent_processorNotInvokedIfBridgeRateLimitExceeded() {
+        // The rate limit of this bridge is configured in the test application.properties
+        String bridgeId = "myRateLimitedBridge";
+        when(executorsProvider.getExecutors(eq(bridgeId))).thenReturn(Collections.singleton(executor));
+
+        CloudEvent cloudEvent = CloudEventBuilder
+                .v1()
+                .withId("foo")
+                .withSource(URI.create("bar"))
+                .withType("myType")
+                .withExtension(new BridgeCloudEventExtension(bridgeId)).build();
+
+        executorsService.processBridgeEvent(Message.of(cloudEvent));
+        executorsService.processBridgeEvent(Message.of(cloudEvent));
+
+        verify(executor, times(1)).onEvent(any(CloudEvent.class), any(), any());
+    }
+
+    @Test
+    public void handleEvent_failedActionIsRetried() {
+        String bridgeId = "myRetriedBridge";
+        BridgeDTO bridgeDTO = new BridgeDTO(bridgeId, "bridgeName", "test", "jrota", BridgeStatus.AVAILABLE);
+        when(executor.getProcessor()).thenReturn(new ProcessorDTO("processorId", "processorName", bridgeDTO, BridgeStatus.AVAILABLE, null, null, null));
+        when(executor.onEvent(any(CloudEvent.class), any(), any())).thenThrow(new ActionInvocationException("Action failure", "event"));
+        doThrow(new ActionInvocationException("Action failure", "event")).doReturn(CompletableFuture.completedFuture(null)).when(executor).redeliver("event");
+        when(executorsProvider.getExecutors(eq(bridgeId))).thenReturn(Collections.singleton(executor));
+
+        CloudEvent cloudEvent = CloudEventBuilder
+                .v1()
+                .withId("foo")
+                .withSource(URI.create("bar"))
+                .withType("myType")
+                .withExtension(new BridgeCloudEventExtension(bridgeId)).build();
+
+        executorsService.processBridgeEvent(Message.of(cloudEvent));
 
-        verify(executor, never()).onEvent(any(CloudEvent.class));
+        verify(executor, timeout(5000).times(2)).redeliver("event");
     }
 }
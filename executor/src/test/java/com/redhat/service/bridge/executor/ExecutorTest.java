@@ -1,8 +1,15 @@
 package com.redhat.service.bridge.executor;
 
 import java.net.URI;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,8 +19,12 @@ import com.redhat.service.bridge.actions.ActionInvoker;
 import com.redhat.service.bridge.actions.ActionProvider;
 import com.redhat.service.bridge.actions.ActionProviderFactory;
 import com.redhat.service.bridge.actions.kafkatopic.KafkaTopicAction;
+import com.redhat.service.bridge.executor.circuitbreaker.CircuitBreaker;
 import com.redhat.service.bridge.executor.filters.FilterEvaluatorFactory;
 import com.redhat.service.bridge.executor.filters.FilterEvaluatorFactoryFEEL;
+import com.redhat.service.bridge.executor.metrics.ProcessorMetrics;
+import com.redhat.service.bridge.executor.ratelimit.RateLimitPolicy;
+import com.redhat.service.bridge.executor.ratelimit.RateLimiter;
 import com.redhat.service.bridge.executor.transformations.TransformationEvaluatorFactory;
 import com.redhat.service.bridge.executor.transformations.TransformationEvaluatorFactoryQute;
 import com.redhat.service.bridge.infra.models.actions.BaseAction;
@@ -22,17 +33,29 @@ import com.redhat.service.bridge.infra.models.dto.BridgeStatus;
 import com.redhat.service.bridge.infra.models.dto.ProcessorDTO;
 import com.redhat.service.bridge.infra.models.filters.BaseFilter;
 import com.redhat.service.bridge.infra.models.filters.StringEquals;
+import com.redhat.service.bridge.infra.ratelimit.TokenBucket;
+import com.redhat.service.bridge.infra.trace.EventTracer;
+import com.redhat.service.bridge.infra.trace.InMemorySpanExporter;
+import com.redhat.service.bridge.infra.trace.Span;
+import com.redhat.service.bridge.infra.trace.TraceContext;
+import com.redhat.service.bridge.infra.trace.Tracing;
 import com.redhat.service.bridge.infra.utils.CloudEventUtils;
 
 import io.cloudevents.CloudEvent;
 import io.cloudevents.SpecVersion;
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -43,6 +66,8 @@ public class ExecutorTest {
 
     private static final TransformationEvaluatorFactory transformationEvaluatorFactory = new TransformationEvaluatorFactoryQute();
 
+    private static final int FAILURE_THRESHOLD = 3;
+
     private MeterRegistry meterRegistry;
 
     private ActionProviderFactory actionProviderFactoryMock;
@@ -56,6 +81,7 @@ public class ExecutorTest {
         ActionProvider actionProvider = mock(ActionProvider.class);
 
         when(actionProvider.getActionInvoker(any(), any())).thenReturn(actionInvokerMock);
+        when(actionInvokerMock.onEvent(any())).thenReturn(CompletableFuture.completedFuture(null));
 
         when(actionProviderFactoryMock.getActionProvider(eq(KafkaTopicAction.TYPE))).thenReturn(actionProvider);
 
@@ -74,7 +100,7 @@ public class ExecutorTest {
 
         ProcessorDTO processorDTO = createProcessor(filters, transformationTemplate, action);
 
-        Executor executor = new Executor(processorDTO, filterEvaluatorFactory, transformationEvaluatorFactory, actionProviderFactoryMock, meterRegistry);
+        Executor executor = createExecutor(processorDTO, RateLimiter.unlimited());
 
         CloudEvent cloudEvent = createCloudEvent();
 
@@ -83,6 +109,85 @@ public class ExecutorTest {
         verify(actionInvokerMock, times(1)).onEvent(any());
     }
 
+    @Test
+    public void testOnEventRecordsEndToEndLatency() throws JsonProcessingException {
+        BaseAction action = new BaseAction();
+        action.setType(KafkaTopicAction.TYPE);
+        Set<BaseFilter> filters = new HashSet<>();
+        filters.add(new StringEquals("data.key", "value"));
+        Executor executor = createExecutor(createProcessor(filters, null, action), RateLimiter.unlimited());
+
+        executor.onEvent(createCloudEvent(), OffsetDateTime.now(ZoneOffset.UTC).minusSeconds(2));
+        // Unknown arrival, or arrival in the future because of a clock skew
+        executor.onEvent(createCloudEvent());
+        executor.onEvent(createCloudEvent(), OffsetDateTime.now(ZoneOffset.UTC).plusSeconds(2));
+
+        Timer endToEnd = meterRegistry.timer(MetricsConstants.END_TO_END_LATENCY_METRIC_NAME, MetricsConstants.BRIDGE_ID_TAG, "bridgeId-1", MetricsConstants.PROCESSOR_ID_TAG,
+                "processorId-1");
+        assertThat(endToEnd.count()).isEqualTo(1);
+        assertThat(endToEnd.totalTime(TimeUnit.SECONDS)).isBetween(2.0, 60.0);
+    }
+
+    @Test
+    public void testOnEventWithNoMatchingFiltersDoesNotRecordEndToEndLatency() throws JsonProcessingException {
+        BaseAction action = new BaseAction();
+        action.setType(KafkaTopicAction.TYPE);
+        Set<BaseFilter> filters = new HashSet<>();
+        filters.add(new StringEquals("data.key", "notTheValue"));
+        Executor executor = createExecutor(createProcessor(filters, null, action), RateLimiter.unlimited());
+
+        executor.onEvent(createCloudEvent(), OffsetDateTime.now(ZoneOffset.UTC));
+
+        assertThat(meterRegistry.timer(MetricsConstants.END_TO_END_LATENCY_METRIC_NAME, MetricsConstants.BRIDGE_ID_TAG, "bridgeId-1", MetricsConstants.PROCESSOR_ID_TAG,
+                "processorId-1").count()).isZero();
+    }
+
+    @Test
+    public void testOnEventIsTraced() throws JsonProcessingException {
+        BaseAction action = new BaseAction();
+        action.setType(KafkaTopicAction.TYPE);
+        Set<BaseFilter> filters = new HashSet<>();
+        filters.add(new StringEquals("data.key", "value"));
+        EventTracer tracer = mock(EventTracer.class);
+        Executor executor = createExecutor(createProcessor(filters, null, action), RateLimiter.unlimited(), tracer);
+
+        executor.onEvent(createCloudEvent());
+
+        verify(tracer).trace("matched", "bridgeId-1", "processorId-1", "myId");
+        verify(tracer).trace("invoked", "bridgeId-1", "processorId-1", "myId");
+    }
+
+    @Test
+    public void testOnEventRecordsTheSpansOfTheStages() throws JsonProcessingException {
+        BaseAction action = new BaseAction();
+        action.setType(KafkaTopicAction.TYPE);
+        Set<BaseFilter> filters = new HashSet<>();
+        filters.add(new StringEquals("data.key", "value"));
+        Executor executor = createExecutor(createProcessor(filters, "{\"test\": \"{data.key}\"}", action), RateLimiter.unlimited());
+        InMemorySpanExporter exporter = new InMemorySpanExporter();
+        Tracing tracing = new Tracing(new EventTracer("executor", 0, id -> Optional.empty()), exporter);
+        Span process = tracing.continueSpan("process", TraceContext.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01", null));
+        Span[] actionSpan = new Span[1];
+        doAnswer(invocation -> {
+            actionSpan[0] = Span.current();
+            return CompletableFuture.completedFuture(null);
+        }).when(actionInvokerMock).onEvent(any());
+
+        try (Span.Scope scope = process.makeCurrent()) {
+            executor.onEvent(createCloudEvent());
+        }
+
+        List<Span> spans = exporter.getFinishedSpans();
+        assertThat(spans).extracting(Span::getName).containsExactly("filter", "transformation", "action");
+        assertThat(spans).allSatisfy(span -> {
+            assertThat(span.getParentSpanId()).isEqualTo(process.getContext().getSpanId());
+            assertThat(span.getAttributes()).containsEntry(Span.PROCESSOR_ATTRIBUTE, "processorId-1");
+        });
+        assertThat(spans.get(0).getAttributes()).containsEntry("matched", true);
+        // The Action hands over the context of its own span
+        assertThat(actionSpan[0]).isSameAs(spans.get(2));
+    }
+
     @Test
     public void testOnEventWithNoMatchingFilters() throws JsonProcessingException {
         Set<BaseFilter> filters = new HashSet<>();
@@ -93,7 +198,7 @@ public class ExecutorTest {
 
         ProcessorDTO processorDTO = createProcessor(filters, null, action);
 
-        Executor executor = new Executor(processorDTO, filterEvaluatorFactory, transformationEvaluatorFactory, actionProviderFactoryMock, meterRegistry);
+        Executor executor = createExecutor(processorDTO, RateLimiter.unlimited());
 
         CloudEvent cloudEvent = createCloudEvent();
 
@@ -112,7 +217,7 @@ public class ExecutorTest {
 
         ProcessorDTO processorDTO = createProcessor(filters, null, action);
 
-        Executor executor = new Executor(processorDTO, filterEvaluatorFactory, transformationEvaluatorFactory, actionProviderFactoryMock, meterRegistry);
+        Executor executor = createExecutor(processorDTO, RateLimiter.unlimited());
 
         CloudEvent cloudEvent = createCloudEvent();
 
@@ -133,7 +238,7 @@ public class ExecutorTest {
 
         ProcessorDTO processorDTO = createProcessor(filters, transformationTemplate, action);
 
-        Executor executor = new Executor(processorDTO, filterEvaluatorFactory, transformationEvaluatorFactory, actionProviderFactoryMock, meterRegistry);
+        Executor executor = createExecutor(processorDTO, RateLimiter.unlimited());
 
         CloudEvent cloudEvent = createCloudEvent();
 
@@ -145,6 +250,109 @@ public class ExecutorTest {
         assertThat(meterRegistry.getMeters().stream().anyMatch(x -> x.getId().getName().equals(MetricsConstants.ACTION_PROCESSING_TIME_METRIC_NAME))).isTrue();
     }
 
+    @Test
+    public void testOnEventWithRateLimitExceeded() throws JsonProcessingException {
+        Set<BaseFilter> filters = new HashSet<>();
+        filters.add(new StringEquals("data.key", "value"));
+
+        BaseAction action = new BaseAction();
+        action.setType(KafkaTopicAction.TYPE);
+
+        ProcessorDTO processorDTO = createProcessor(filters, null, action);
+
+        Counter dropped = meterRegistry.counter("dropped");
+        RateLimiter rateLimiter = new RateLimiter(new TokenBucket(0.001, 1), RateLimitPolicy.DROP, 0, null, meterRegistry.counter("delayed"), dropped, meterRegistry.counter("diverted"));
+        Executor executor = createExecutor(processorDTO, rateLimiter);
+
+        CloudEvent cloudEvent = createCloudEvent();
+
+        executor.onEvent(cloudEvent);
+        executor.onEvent(cloudEvent);
+
+        verify(actionInvokerMock, times(1)).onEvent(any());
+        assertThat(dropped.count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testOnEventWithOpenCircuitBreaker() throws JsonProcessingException {
+        Set<BaseFilter> filters = new HashSet<>();
+        filters.add(new StringEquals("data.key", "value"));
+
+        BaseAction action = new BaseAction();
+        action.setType(KafkaTopicAction.TYPE);
+
+        ProcessorDTO processorDTO = createProcessor(filters, null, action);
+
+        Executor executor = createExecutor(processorDTO, RateLimiter.unlimited());
+
+        CloudEvent cloudEvent = createCloudEvent();
+
+        doThrow(new IllegalStateException("Action failure")).when(actionInvokerMock).onEvent(any());
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThatExceptionOfType(ActionInvocationException.class).isThrownBy(() -> executor.onEvent(cloudEvent));
+        }
+
+        // The events are handed over to the retries, with the time until the circuit breaker lets a probe through
+        assertThatExceptionOfType(CircuitBreakerOpenException.class).isThrownBy(() -> executor.onEvent(cloudEvent))
+                .satisfies(e -> assertThat(e.getEvent()).isNotNull())
+                .satisfies(e -> assertThat(e.getRetryAfterNanos()).isPositive());
+        assertThatExceptionOfType(CircuitBreakerOpenException.class).isThrownBy(() -> executor.onEvent(cloudEvent));
+        assertThatExceptionOfType(CircuitBreakerOpenException.class).isThrownBy(() -> executor.redeliver("event"));
+
+        verify(actionInvokerMock, times(FAILURE_THRESHOLD)).onEvent(any());
+        assertThat(meterRegistry.counter(MetricsConstants.ACTION_SKIPPED_INVOCATIONS_METRIC_NAME, MetricsConstants.BRIDGE_ID_TAG, "bridgeId-1", MetricsConstants.PROCESSOR_ID_TAG,
+                "processorId-1").count()).isEqualTo(3);
+    }
+
+    @Test
+    public void testFailedTransformationDoesNotOpenTheCircuitBreaker() throws JsonProcessingException {
+        BaseAction action = new BaseAction();
+        action.setType(KafkaTopicAction.TYPE);
+        // The data of the event is not iterable
+        Executor executor = createExecutor(createProcessor(new HashSet<>(), "{#for item in data.key}{item}{/for}", action), RateLimiter.unlimited());
+        CloudEvent cloudEvent = createCloudEvent();
+
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThatExceptionOfType(RuntimeException.class).isThrownBy(() -> executor.onEvent(cloudEvent))
+                    .isNotInstanceOf(ActionInvocationException.class);
+        }
+
+        verify(actionInvokerMock, never()).onEvent(any());
+        assertThatExceptionOfType(RuntimeException.class).isThrownBy(() -> executor.onEvent(cloudEvent))
+                .isNotInstanceOf(CircuitBreakerOpenException.class);
+    }
+
+    @Test
+    public void testOnEventReportsTheFailureOfTheActionOnceHandled() throws JsonProcessingException {
+        BaseAction action = new BaseAction();
+        action.setType(KafkaTopicAction.TYPE);
+        Executor executor = createExecutor(createProcessor(new HashSet<>(), null, action), RateLimiter.unlimited());
+        CloudEvent cloudEvent = createCloudEvent();
+        CompletableFuture<Void> handled = new CompletableFuture<>();
+        when(actionInvokerMock.onEvent(any())).thenReturn(handled);
+        List<ActionInvocationException> failures = new ArrayList<>();
+
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            executor.onEvent(cloudEvent, null, failures::add);
+        }
+        assertThat(failures).isEmpty();
+        handled.completeExceptionally(new IllegalStateException("Not acknowledged"));
+
+        // The failures are reported to the circuit breaker once the Action has handled the events
+        assertThat(failures).hasSize(FAILURE_THRESHOLD).allSatisfy(e -> assertThat(e.getEvent()).isNotNull());
+        assertThatExceptionOfType(CircuitBreakerOpenException.class).isThrownBy(() -> executor.onEvent(cloudEvent));
+    }
+
+    protected Executor createExecutor(ProcessorDTO processorDTO, RateLimiter rateLimiter) {
+        return createExecutor(processorDTO, rateLimiter, EventTracer.disabled());
+    }
+
+    protected Executor createExecutor(ProcessorDTO processorDTO, RateLimiter rateLimiter, EventTracer tracer) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(processorDTO.getId(), FAILURE_THRESHOLD, TimeUnit.MINUTES.toNanos(1));
+        return new Executor(processorDTO, filterEvaluatorFactory, transformationEvaluatorFactory, actionProviderFactoryMock, rateLimiter, circuitBreaker, tracer,
+                ProcessorMetrics.detailed(processorDTO, meterRegistry));
+    }
+
     protected CloudEvent createCloudEvent() throws JsonProcessingException {
         String jsonString = "{\"key\":\"value\"}";
         return CloudEventUtils.build("myId", SpecVersion.V1, URI.create("mySource"), "subject",
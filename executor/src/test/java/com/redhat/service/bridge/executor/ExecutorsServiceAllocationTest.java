@@ -0,0 +1,187 @@
+package com.redhat.service.bridge.executor;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.redhat.service.bridge.actions.ActionProvider;
+import com.redhat.service.bridge.actions.ActionProviderFactory;
+import com.redhat.service.bridge.actions.kafkatopic.KafkaTopicAction;
+import com.redhat.service.bridge.executor.circuitbreaker.CircuitBreaker;
+import com.redhat.service.bridge.executor.filters.FilterEvaluatorFactoryFEEL;
+import com.redhat.service.bridge.executor.metrics.ProcessorMetrics;
+import com.redhat.service.bridge.executor.ratelimit.RateLimiter;
+import com.redhat.service.bridge.executor.ratelimit.RateLimiterFactory;
+import com.redhat.service.bridge.executor.retry.RetryScheduler;
+import com.redhat.service.bridge.executor.transformations.TransformationEvaluatorFactoryQute;
+import com.redhat.service.bridge.infra.BridgeCloudEventExtension;
+import com.redhat.service.bridge.infra.models.actions.BaseAction;
+import com.redhat.service.bridge.infra.models.dto.BridgeDTO;
+import com.redhat.service.bridge.infra.models.dto.BridgeStatus;
+import com.redhat.service.bridge.infra.models.dto.ProcessorDTO;
+import com.redhat.service.bridge.infra.models.filters.BaseFilter;
+import com.redhat.service.bridge.infra.models.filters.StringEquals;
+import com.redhat.service.bridge.infra.trace.EventTracer;
+import com.redhat.service.bridge.infra.trace.Tracing;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.core.builder.CloudEventBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Guards the number of bytes allocated to process an event, from the record read from the event queue to the
+ * invocation of the Actions, for representative Bridges.
+ *
+ * The allocations of the calling thread are measured with the {@link com.sun.management.ThreadMXBean}, once the code
+ * has been warmed up so that it is compiled and the lazy initializations are done. A scenario fails when it allocates
+ * more than its budget per event: a budget is about 1.15 times the largest allocations measured over a few runs when it
+ * was set, which leaves room for the noise of the measures but not for a regression. Raise it only when the extra
+ * allocations are expected.
+ */
+public class ExecutorsServiceAllocationTest {
+
+    private static final int WARM_UP_EVENTS = 2_000;
+    private static final int MEASURED_EVENTS = 500;
+
+    private static final String BRIDGE_ID = "myBridge";
+    private static final CompletableFuture<Void> HANDLED = CompletableFuture.completedFuture(null);
+    private static final String TEMPLATE = "{\"order\": \"{data.orderId}\", \"customer\": \"{data.customer}\", \"bridge\": \"{ebbridgeid}\"}";
+
+    private final Map<String, Set<Executor>> executors = new HashMap<>();
+    private ExecutorsService executorsService;
+    private MeterRegistry registry;
+
+    @BeforeEach
+    public void before() {
+        registry = new SimpleMeterRegistry();
+        executorsService = new ExecutorsService();
+        executorsService.executorsProvider = new ExecutorsProvider() {
+            @Override
+            public Set<Executor> getExecutors() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Set<Executor> getExecutors(String bridgeId) {
+                return executors.get(bridgeId);
+            }
+        };
+        executorsService.rateLimiterFactory = new RateLimiterFactory() {
+            @Override
+            public RateLimiter forBridge(String bridgeId) {
+                return RateLimiter.unlimited();
+            }
+        };
+        executorsService.retryScheduler = mock(RetryScheduler.class);
+        executorsService.tracer = EventTracer.disabled();
+        executorsService.tracing = Tracing.disabled();
+        executorsService.init(null);
+    }
+
+    @Test
+    public void bridgeWithoutProcessors() {
+        assertAllocationPerEvent("bridgeWithoutProcessors", 900);
+    }
+
+    // Evaluating the filters of a Processor with FEEL allocates most of the bytes: see ExecutorBenchmark
+    @Test
+    public void processorNotMatching() {
+        deploy(1, false, null);
+        assertAllocationPerEvent("processorNotMatching", 260_000);
+    }
+
+    @Test
+    public void processorMatching() {
+        deploy(1, true, null);
+        assertAllocationPerEvent("processorMatching", 280_000);
+    }
+
+    @Test
+    public void processorMatchingWithTemplate() {
+        deploy(1, true, TEMPLATE);
+        assertAllocationPerEvent("processorMatchingWithTemplate", 260_000);
+    }
+
+    @Test
+    public void tenProcessors() {
+        // Half of them match the event
+        for (int i = 0; i < 10; i++) {
+            deploy(i, i % 2 == 0, TEMPLATE);
+        }
+        assertAllocationPerEvent("tenProcessors", 2_500_000);
+    }
+
+    private void assertAllocationPerEvent(String scenario, long budget) {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported(), "The allocations of a thread can not be measured on this JVM");
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        Message<CloudEvent> message = Message.of(createCloudEvent());
+        for (int i = 0; i < WARM_UP_EVENTS; i++) {
+            executorsService.processBridgeEvent(message);
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_EVENTS; i++) {
+            executorsService.processBridgeEvent(message);
+        }
+        long perEvent = (threadMXBean.getThreadAllocatedBytes(threadId) - before) / MEASURED_EVENTS;
+
+        assertThat(perEvent).as("Bytes allocated per event by scenario %s", scenario).isLessThanOrEqualTo(budget);
+    }
+
+    private void deploy(int index, boolean matching, String template) {
+        Set<BaseFilter> filters = new HashSet<>();
+        filters.add(new StringEquals("data.customer", matching ? "alice" : "bob"));
+        BaseAction action = new BaseAction();
+        action.setType(KafkaTopicAction.TYPE);
+        action.setParameters(Collections.singletonMap(KafkaTopicAction.TOPIC_PARAM, "myTopic"));
+        BridgeDTO bridge = new BridgeDTO(BRIDGE_ID, "myBridgeName", "test", "jrota", BridgeStatus.AVAILABLE);
+        ProcessorDTO processor = new ProcessorDTO("processor-" + index, "processorName-" + index, bridge, BridgeStatus.AVAILABLE, filters, template, action);
+
+        // The Action does nothing: only the allocations of the executor are measured
+        ActionProvider actionProvider = mock(ActionProvider.class);
+        when(actionProvider.getActionInvoker(any(), any())).thenReturn(event -> HANDLED);
+        ActionProviderFactory actionProviderFactory = mock(ActionProviderFactory.class);
+        when(actionProviderFactory.getActionProvider(any())).thenReturn(actionProvider);
+
+        Executor executor = new Executor(processor, new FilterEvaluatorFactoryFEEL(), new TransformationEvaluatorFactoryQute(), actionProviderFactory, RateLimiter.unlimited(),
+                new CircuitBreaker(processor.getId(), 5, TimeUnit.MINUTES.toNanos(1)), EventTracer.disabled(), ProcessorMetrics.detailed(processor, registry));
+        executors.computeIfAbsent(BRIDGE_ID, id -> new HashSet<>()).add(executor);
+    }
+
+    // As read from the event queue: in the binary content mode, with the data as raw bytes
+    private static CloudEvent createCloudEvent() {
+        String data = "{\"orderId\": \"order-1\", \"customer\": \"alice\", \"status\": \"CREATED\", \"total\": 42.5, \"items\": ["
+                + "{\"sku\": \"sku-1\", \"quantity\": 1, \"description\": \"An item of the order with a description of a few words\"},"
+                + "{\"sku\": \"sku-2\", \"quantity\": 2, \"description\": \"An item of the order with a description of a few words\"}]}";
+        return CloudEventBuilder.v1()
+                .withId("event-1")
+                .withSource(URI.create("/orders"))
+                .withType("com.example.OrderUpdated")
+                .withSubject("order-1")
+                .withData("application/json", data.getBytes(StandardCharsets.UTF_8))
+                .withExtension(new BridgeCloudEventExtension(BRIDGE_ID, OffsetDateTime.now(ZoneOffset.UTC)))
+                .build();
+    }
+}
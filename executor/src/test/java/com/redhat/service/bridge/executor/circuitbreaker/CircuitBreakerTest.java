@@ -0,0 +1,95 @@
+package com.redhat.service.bridge.executor.circuitbreaker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CircuitBreakerTest {
+
+    private static final long OPEN_DURATION = 1000L;
+
+    private AtomicLong clock;
+
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setup() {
+        clock = new AtomicLong();
+        circuitBreaker = new CircuitBreaker("test", 2, OPEN_DURATION, clock::get);
+    }
+
+    @Test
+    public void testOpensAfterConsecutiveFailures() {
+        circuitBreaker.onFailure();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+
+        circuitBreaker.onFailure();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    public void testRemainingOpenTime() {
+        assertThat(circuitBreaker.getRemainingOpenNanos()).isZero();
+        open();
+
+        clock.addAndGet(OPEN_DURATION / 4);
+        assertThat(circuitBreaker.getRemainingOpenNanos()).isEqualTo(OPEN_DURATION - OPEN_DURATION / 4);
+        clock.addAndGet(OPEN_DURATION);
+        assertThat(circuitBreaker.getRemainingOpenNanos()).isZero();
+    }
+
+    @Test
+    public void testClosesWhenTheProbeSucceeds() {
+        open();
+
+        clock.addAndGet(OPEN_DURATION);
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        // Only one probe at a time
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+
+        circuitBreaker.onSuccess();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    public void testOpensAgainWhenTheProbeFails() {
+        open();
+
+        clock.addAndGet(OPEN_DURATION);
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        circuitBreaker.onFailure();
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+
+        clock.addAndGet(OPEN_DURATION);
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    public void testNewProbeIsAllowedIfTheOutcomeIsNeverReported() {
+        open();
+
+        clock.addAndGet(OPEN_DURATION);
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+
+        clock.addAndGet(OPEN_DURATION);
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+    }
+
+    private void open() {
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+}
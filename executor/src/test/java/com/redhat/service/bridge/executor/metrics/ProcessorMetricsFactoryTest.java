@@ -0,0 +1,100 @@
+package com.redhat.service.bridge.executor.metrics;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.redhat.service.bridge.executor.MetricsConstants;
+import com.redhat.service.bridge.infra.models.dto.BridgeDTO;
+import com.redhat.service.bridge.infra.models.dto.ProcessorDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProcessorMetricsFactoryTest {
+
+    private SimpleMeterRegistry registry;
+    private ProcessorMetricsFactory factory;
+
+    @BeforeEach
+    public void before() {
+        registry = new SimpleMeterRegistry();
+        factory = new ProcessorMetricsFactory();
+        factory.registry = registry;
+        factory.topK = Optional.empty();
+        factory.rebalanceIntervalMillis = TimeUnit.HOURS.toMillis(1);
+    }
+
+    @Test
+    public void detailedByDefault() {
+        ProcessorMetrics metrics = factory.forProcessor(createProcessor("p1"));
+        record(metrics, 10);
+
+        assertThat(processingTimeCount("p1")).isEqualTo(1);
+
+        factory.remove(metrics);
+        assertThat(registry.find(MetricsConstants.PROCESSOR_PROCESSING_TIME_METRIC_NAME).timers()).isEmpty();
+    }
+
+    @Test
+    public void onlyTheTopProcessorsAreDetailed() {
+        factory.topK = Optional.of(1);
+        ProcessorMetrics p1 = factory.forProcessor(createProcessor("p1"));
+        ProcessorMetrics p2 = factory.forProcessor(createProcessor("p2"));
+
+        // All the processors share the same meters until the first ranking
+        record(p1, 10);
+        record(p2, 1000);
+        assertThat(processingTimeCount(MetricsConstants.OTHER_TAG_VALUE)).isEqualTo(2);
+
+        factory.rebalance();
+        record(p1, 10);
+        record(p2, 1000);
+        assertThat(processingTimeCount("p2")).isEqualTo(1);
+        assertThat(processingTimeCount(MetricsConstants.OTHER_TAG_VALUE)).isEqualTo(3);
+        assertThat(registry.find(MetricsConstants.PROCESSOR_PROCESSING_TIME_METRIC_NAME).tag(MetricsConstants.PROCESSOR_ID_TAG, "p1").timer()).isNull();
+
+        // The ranking follows the recent load: p2 leaves the top and its meters are removed
+        for (int i = 0; i < 10; i++) {
+            factory.rebalance();
+            record(p1, 100);
+        }
+        assertThat(p1.meters()).isNotSameAs(p2.meters());
+        assertThat(registry.find(MetricsConstants.PROCESSOR_PROCESSING_TIME_METRIC_NAME).tag(MetricsConstants.PROCESSOR_ID_TAG, "p2").timer()).isNull();
+        assertThat(registry.find(MetricsConstants.FILTER_PROCESSING_TIME_METRIC_NAME).timers()).hasSize(2);
+    }
+
+    @Test
+    public void removeADetailedProcessor() {
+        factory.topK = Optional.of(1);
+        ProcessorMetrics p1 = factory.forProcessor(createProcessor("p1"));
+        record(p1, 10);
+        factory.rebalance();
+        assertThat(registry.find(MetricsConstants.PROCESSOR_PROCESSING_TIME_METRIC_NAME).tag(MetricsConstants.PROCESSOR_ID_TAG, "p1").timer()).isNotNull();
+
+        factory.remove(p1);
+        factory.rebalance();
+
+        assertThat(registry.find(MetricsConstants.PROCESSOR_PROCESSING_TIME_METRIC_NAME).tag(MetricsConstants.PROCESSOR_ID_TAG, "p1").timer()).isNull();
+    }
+
+    private static void record(ProcessorMetrics metrics, long nanos) {
+        metrics.recordProcessingTime(metrics.meters(), nanos);
+    }
+
+    private long processingTimeCount(String processorId) {
+        return registry.get(MetricsConstants.PROCESSOR_PROCESSING_TIME_METRIC_NAME).tag(MetricsConstants.PROCESSOR_ID_TAG, processorId).timer().count();
+    }
+
+    private static ProcessorDTO createProcessor(String id) {
+        ProcessorDTO processor = new ProcessorDTO();
+        processor.setId(id);
+        BridgeDTO bridge = new BridgeDTO();
+        bridge.setId("myBridge");
+        processor.setBridge(bridge);
+        return processor;
+    }
+}
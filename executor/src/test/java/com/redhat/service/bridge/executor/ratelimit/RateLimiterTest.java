@@ -0,0 +1,121 @@
+package com.redhat.service.bridge.executor.ratelimit;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.redhat.service.bridge.infra.ratelimit.TokenBucket;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.core.builder.CloudEventBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimiterTest {
+
+    private static final CloudEvent EVENT = CloudEventBuilder.v1()
+            .withId("foo")
+            .withSource(URI.create("bar"))
+            .withType("myType")
+            .build();
+
+    private MeterRegistry meterRegistry;
+
+    private List<CloudEvent> spilled;
+
+    private CompletableFuture<Void> spillAck;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        spilled = new ArrayList<>();
+        spillAck = new CompletableFuture<>();
+    }
+
+    @Test
+    public void testUnlimited() {
+        RateLimiter rateLimiter = RateLimiter.unlimited();
+        for (int i = 0; i < 100; i++) {
+            assertThat(rateLimiter.admit(EVENT)).isZero();
+        }
+    }
+
+    @Test
+    public void testDropPolicy() {
+        RateLimiter rateLimiter = build(RateLimitPolicy.DROP, 0);
+
+        assertThat(rateLimiter.admit(EVENT)).isZero();
+        assertThat(rateLimiter.admit(EVENT)).isEqualTo(RateLimiter.REJECTED);
+        assertThat(meterRegistry.counter("dropped").count()).isEqualTo(1);
+        assertThat(spilled).isEmpty();
+    }
+
+    @Test
+    public void testDivertPolicy() {
+        RateLimiter rateLimiter = build(RateLimitPolicy.DIVERT, 0);
+
+        assertThat(rateLimiter.admit(EVENT)).isZero();
+        assertThat(rateLimiter.admit(EVENT)).isEqualTo(RateLimiter.REJECTED);
+        assertThat(spilled).containsExactly(EVENT);
+
+        // The event is only diverted once the spill topic has acknowledged it
+        assertThat(meterRegistry.counter("diverted").count()).isZero();
+        spillAck.complete(null);
+        assertThat(meterRegistry.counter("diverted").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("dropped").count()).isZero();
+    }
+
+    @Test
+    public void testDivertPolicyDropsEventsTheSpillTopicFailedToAcknowledge() {
+        RateLimiter rateLimiter = build(RateLimitPolicy.DIVERT, 0);
+
+        assertThat(rateLimiter.admit(EVENT)).isZero();
+        assertThat(rateLimiter.admit(EVENT)).isEqualTo(RateLimiter.REJECTED);
+        spillAck.completeExceptionally(new IllegalStateException("The spill topic is not available"));
+
+        assertThat(meterRegistry.counter("diverted").count()).isZero();
+        assertThat(meterRegistry.counter("dropped").count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testDelayPolicy() {
+        RateLimiter rateLimiter = build(RateLimitPolicy.DELAY, Long.MAX_VALUE / 2);
+
+        assertThat(rateLimiter.admit(EVENT)).isZero();
+        assertThat(rateLimiter.admit(EVENT)).isPositive();
+        assertThat(meterRegistry.counter("delayed").count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testDelayPolicyDropsEventsBeyondTheMaximumDelay() {
+        RateLimiter rateLimiter = build(RateLimitPolicy.DELAY, 0);
+
+        assertThat(rateLimiter.admit(EVENT)).isZero();
+        assertThat(rateLimiter.admit(EVENT)).isEqualTo(RateLimiter.REJECTED);
+        assertThat(meterRegistry.counter("dropped").count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testMetersAreRemoved() {
+        RateLimiter rateLimiter = build(RateLimitPolicy.DROP, 0);
+
+        rateLimiter.remove(meterRegistry);
+        RateLimiter.unlimited().remove(meterRegistry);
+
+        assertThat(meterRegistry.getMeters()).isEmpty();
+    }
+
+    private RateLimiter build(RateLimitPolicy policy, long maxDelayNanos) {
+        return new RateLimiter(new TokenBucket(0.001, 1), policy, maxDelayNanos, event -> {
+            spilled.add(event);
+            return spillAck;
+        },
+                meterRegistry.counter("delayed"), meterRegistry.counter("dropped"), meterRegistry.counter("diverted"));
+    }
+}
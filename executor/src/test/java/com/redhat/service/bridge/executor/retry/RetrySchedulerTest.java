@@ -0,0 +1,167 @@
+package com.redhat.service.bridge.executor.retry;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.redhat.service.bridge.executor.ActionInvocationException;
+import com.redhat.service.bridge.executor.CircuitBreakerOpenException;
+import com.redhat.service.bridge.executor.Executor;
+import com.redhat.service.bridge.executor.ExecutorsProvider;
+import com.redhat.service.bridge.executor.MetricsConstants;
+import com.redhat.service.bridge.infra.models.dto.BridgeDTO;
+import com.redhat.service.bridge.infra.models.dto.BridgeStatus;
+import com.redhat.service.bridge.infra.models.dto.ProcessorDTO;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RetrySchedulerTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @TempDir
+    Path directory;
+
+    private Executor executor;
+    private ExecutorsProvider executorsProvider;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void before() {
+        BridgeDTO bridgeDTO = new BridgeDTO("bridgeId-1", "bridgeName-1", "test", "jrota", BridgeStatus.AVAILABLE);
+        executor = mock(Executor.class);
+        when(executor.getProcessor()).thenReturn(new ProcessorDTO("processorId-1", "processorName-1", bridgeDTO, BridgeStatus.AVAILABLE, null, null, null));
+        when(executor.redeliver(anyString())).thenReturn(CompletableFuture.completedFuture(null));
+        executorsProvider = mock(ExecutorsProvider.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void testFailedDeliveryIsRetried() {
+        when(executorsProvider.getExecutors("bridgeId-1")).thenReturn(Collections.singleton(executor));
+        doThrow(new ActionInvocationException("Action failure", "event")).doReturn(CompletableFuture.completedFuture(null)).when(executor).redeliver("event");
+        RetryScheduler retryScheduler = createRetryScheduler();
+
+        retryScheduler.schedule(executor, "event");
+
+        verify(executor, timeout(5000).times(2)).redeliver("event");
+        retryScheduler.shutdown(null);
+        assertThat(retryCount(MetricsConstants.OUTCOME_FAILED)).isEqualTo(1);
+        assertThat(retryCount(MetricsConstants.OUTCOME_SUCCEEDED)).isEqualTo(1);
+    }
+
+    @Test
+    public void testDeliveryIsAbandonedAfterMaxAttempts() {
+        when(executorsProvider.getExecutors("bridgeId-1")).thenReturn(Collections.singleton(executor));
+        doThrow(new ActionInvocationException("Action failure", "event")).when(executor).redeliver("event");
+        RetryScheduler retryScheduler = createRetryScheduler();
+
+        retryScheduler.schedule(executor, "event");
+
+        verify(executor, timeout(5000).times(MAX_ATTEMPTS)).redeliver("event");
+        retryScheduler.shutdown(null);
+        assertThat(retryCount(MetricsConstants.OUTCOME_EXHAUSTED)).isEqualTo(1);
+    }
+
+    @Test
+    public void testDeliveryRejectedByTheCircuitBreakerIsNotAnAttempt() {
+        when(executorsProvider.getExecutors("bridgeId-1")).thenReturn(Collections.singleton(executor));
+        CircuitBreakerOpenException open = new CircuitBreakerOpenException("event", TimeUnit.MILLISECONDS.toNanos(20));
+        doThrow(open, open, open, open).doReturn(CompletableFuture.completedFuture(null)).when(executor).redeliver("event");
+        RetryScheduler retryScheduler = createRetryScheduler();
+
+        retryScheduler.schedule(executor, "event");
+
+        verify(executor, timeout(5000).times(MAX_ATTEMPTS + 2)).redeliver("event");
+        retryScheduler.shutdown(null);
+        assertThat(retryCount(MetricsConstants.OUTCOME_SUCCEEDED)).isEqualTo(1);
+        assertThat(retryCount(MetricsConstants.OUTCOME_FAILED)).isZero();
+        assertThat(retryCount(MetricsConstants.OUTCOME_EXHAUSTED)).isZero();
+    }
+
+    @Test
+    public void testDeliveryIsAbandonedAfterWaitingForTheCircuitBreaker() {
+        when(executorsProvider.getExecutors("bridgeId-1")).thenReturn(Collections.singleton(executor));
+        doThrow(new CircuitBreakerOpenException("event", TimeUnit.MILLISECONDS.toNanos(20))).when(executor).redeliver("event");
+        RetryScheduler retryScheduler = createRetryScheduler();
+        retryScheduler.maxOpenCircuitWaitMillis = 100;
+
+        retryScheduler.schedule(executor, "event");
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> retryCount(MetricsConstants.OUTCOME_DROPPED) == 1);
+        retryScheduler.shutdown(null);
+        assertThat(retryCount(MetricsConstants.OUTCOME_FAILED)).isZero();
+    }
+
+    @Test
+    public void testDeliveriesAboveTheBoundAreDropped() {
+        // The processor is not deployed: the deliveries stay pending
+        RetryScheduler retryScheduler = createRetryScheduler();
+        retryScheduler.maxAttempts = Integer.MAX_VALUE;
+        retryScheduler.maxPendingPerProcessor = 2;
+
+        retryScheduler.schedule(executor, "event");
+        retryScheduler.schedule(executor, "event");
+        retryScheduler.schedule(executor, "event");
+
+        retryScheduler.shutdown(null);
+        assertThat(retryCount(MetricsConstants.OUTCOME_DROPPED)).isEqualTo(1);
+        assertThat(meterRegistry.get(MetricsConstants.ACTION_PENDING_RETRIES_METRIC_NAME).gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    public void testPendingDeliveriesAreRecoveredAfterRestart() {
+        RetryScheduler retryScheduler = createRetryScheduler();
+        retryScheduler.maxAttempts = Integer.MAX_VALUE;
+        // The processor is not deployed yet: the delivery stays pending
+        retryScheduler.schedule(executor, "event");
+        retryScheduler.shutdown(null);
+        verify(executor, never()).redeliver(anyString());
+
+        when(executorsProvider.getExecutors("bridgeId-1")).thenReturn(Collections.singleton(executor));
+        RetryScheduler restarted = createRetryScheduler();
+
+        verify(executor, timeout(5000)).redeliver("event");
+        restarted.shutdown(null);
+    }
+
+    private RetryScheduler createRetryScheduler() {
+        RetryScheduler retryScheduler = new RetryScheduler();
+        retryScheduler.enabled = true;
+        retryScheduler.maxAttempts = MAX_ATTEMPTS;
+        retryScheduler.initialBackoffMillis = 10;
+        retryScheduler.maxBackoffMillis = 100;
+        retryScheduler.maxPending = 100;
+        retryScheduler.maxPendingPerProcessor = 100;
+        retryScheduler.maxOpenCircuitWaitMillis = 60000;
+        retryScheduler.tickMillis = 10;
+        retryScheduler.spillLogDirectory = directory.toString();
+        retryScheduler.spillLogSegmentSize = 4096;
+        retryScheduler.executorsProvider = executorsProvider;
+        retryScheduler.registry = meterRegistry;
+        retryScheduler.workers = 2;
+        retryScheduler.init();
+        return retryScheduler;
+    }
+
+    private double retryCount(String outcome) {
+        return meterRegistry.counter(MetricsConstants.ACTION_RETRIES_METRIC_NAME, MetricsConstants.OUTCOME_TAG, outcome).count();
+    }
+}
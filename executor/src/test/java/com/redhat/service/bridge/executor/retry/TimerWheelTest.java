@@ -0,0 +1,68 @@
+package com.redhat.service.bridge.executor.retry;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class TimerWheelTest {
+
+    @Test
+    public void testTasksRunInOrderOfDeadline() throws InterruptedException {
+        List<Integer> executed = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(3);
+        try (TimerWheel timerWheel = new TimerWheel("test", 10, TimeUnit.MILLISECONDS, 8)) {
+            // The delays span several rounds of the wheel
+            timerWheel.schedule(() -> run(executed, 3, latch), 300, TimeUnit.MILLISECONDS);
+            timerWheel.schedule(() -> run(executed, 1, latch), 20, TimeUnit.MILLISECONDS);
+            timerWheel.schedule(() -> run(executed, 2, latch), 150, TimeUnit.MILLISECONDS);
+
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(executed).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    public void testTaskIsNotRunBeforeItsDelay() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        try (TimerWheel timerWheel = new TimerWheel("test", 10, TimeUnit.MILLISECONDS, 8)) {
+            long start = System.nanoTime();
+            timerWheel.schedule(latch::countDown, 200, TimeUnit.MILLISECONDS);
+
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+        }
+    }
+
+    @Test
+    public void testFailingTaskDoesNotStopTheWheel() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        try (TimerWheel timerWheel = new TimerWheel("test", 10, TimeUnit.MILLISECONDS, 8)) {
+            timerWheel.schedule(() -> {
+                throw new IllegalStateException("Task failure");
+            }, 10, TimeUnit.MILLISECONDS);
+            timerWheel.schedule(latch::countDown, 50, TimeUnit.MILLISECONDS);
+
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Test
+    public void testScheduleAfterClose() {
+        TimerWheel timerWheel = new TimerWheel("test", 10, TimeUnit.MILLISECONDS, 8);
+        timerWheel.close();
+
+        assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> timerWheel.schedule(() -> {
+        }, 10, TimeUnit.MILLISECONDS));
+    }
+
+    private static void run(List<Integer> executed, int id, CountDownLatch latch) {
+        executed.add(id);
+        latch.countDown();
+    }
+}
@@ -1,5 +1,7 @@
 package com.redhat.service.bridge.infra;
 
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
@@ -8,6 +10,7 @@ import java.util.function.Consumer;
 import io.cloudevents.CloudEventExtension;
 import io.cloudevents.CloudEventExtensions;
 import io.cloudevents.core.extensions.impl.ExtensionUtils;
+import io.cloudevents.types.Time;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.unmodifiableSet;
@@ -19,7 +22,12 @@ public class BridgeCloudEventExtension implements CloudEventExtension {
      */
     public static final String BRIDGE_ID = "ebbridgeid";
 
-    private static final Set<String> KEYS = unmodifiableSet(new HashSet<>(asList(BRIDGE_ID)));
+    /**
+     * An extension attribute added to incoming events with the time they arrived at the ingress
+     */
+    public static final String ARRIVAL_TIME = "ebarrivaltime";
+
+    private static final Set<String> KEYS = unmodifiableSet(new HashSet<>(asList(BRIDGE_ID, ARRIVAL_TIME)));
 
     private static void readStringExtension(CloudEventExtensions extensions, String key, Consumer<String> consumer) {
         Optional.ofNullable(extensions.getExtension(key))
@@ -30,7 +38,25 @@ public class BridgeCloudEventExtension implements CloudEventExtension {
                 .ifPresent(consumer);
     }
 
+    /*
+     * The timestamp is an OffsetDateTime in the events built by the ingress, and a string in the events read from the
+     * CloudEvents binary content mode
+     */
+    private static void readTimeExtension(CloudEventExtensions extensions, String key, Consumer<OffsetDateTime> consumer) {
+        Object value = extensions.getExtension(key);
+        if (value instanceof OffsetDateTime) {
+            consumer.accept((OffsetDateTime) value);
+        } else if (value instanceof String && !"null".equals(value)) {
+            try {
+                consumer.accept(Time.parseTime((String) value));
+            } catch (DateTimeParseException e) {
+                // Not set by the ingress, ignored
+            }
+        }
+    }
+
     private String bridgeId;
+    private OffsetDateTime arrivalTime;
 
     public BridgeCloudEventExtension() {
 
@@ -40,6 +66,11 @@ public class BridgeCloudEventExtension implements CloudEventExtension {
         this.bridgeId = bridgeId;
     }
 
+    public BridgeCloudEventExtension(String bridgeId, OffsetDateTime arrivalTime) {
+        this.bridgeId = bridgeId;
+        this.arrivalTime = arrivalTime;
+    }
+
     public String getBridgeId() {
         return bridgeId;
     }
@@ -48,9 +79,18 @@ public class BridgeCloudEventExtension implements CloudEventExtension {
         this.bridgeId = bridgeId;
     }
 
+    public OffsetDateTime getArrivalTime() {
+        return arrivalTime;
+    }
+
+    public void setArrivalTime(OffsetDateTime arrivalTime) {
+        this.arrivalTime = arrivalTime;
+    }
+
     @Override
     public void readFrom(CloudEventExtensions extensions) {
         readStringExtension(extensions, BRIDGE_ID, this::setBridgeId);
+        readTimeExtension(extensions, ARRIVAL_TIME, this::setArrivalTime);
     }
 
     @Override
@@ -58,6 +98,8 @@ public class BridgeCloudEventExtension implements CloudEventExtension {
         switch (key) {
             case BRIDGE_ID:
                 return this.getBridgeId();
+            case ARRIVAL_TIME:
+                return this.getArrivalTime();
             default:
                 throw ExtensionUtils.generateInvalidKeyException(this.getClass(), key);
         }
@@ -0,0 +1,107 @@
+package com.redhat.service.bridge.infra.dedup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter of strings.
+ *
+ * The filter is sized from the number of keys it is expected to hold and the false positive rate wanted at that size:
+ * it answers "maybe present" or "definitely absent" with a fixed amount of memory, regardless of the number and the size
+ * of the keys added. Bits are set with a compare-and-set on an {@link AtomicLongArray}, so that keys can be added and
+ * looked up concurrently.
+ */
+public class BloomFilter {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedKeys - The number of keys the filter is expected to hold.
+     * @param falsePositiveRate - The probability that a key is reported as present while it is not, once the filter
+     *        holds the expected number of keys.
+     */
+    public BloomFilter(long expectedKeys, double falsePositiveRate) {
+        if (expectedKeys < 1) {
+            throw new IllegalArgumentException("A Bloom filter must expect at least 1 key");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("The false positive rate of a Bloom filter must be between 0 and 1");
+        }
+        long optimalBits = (long) Math.ceil(-expectedKeys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE, Math.max(1L, (optimalBits + Long.SIZE - 1) / Long.SIZE));
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * Long.SIZE;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedKeys * Math.log(2)));
+    }
+
+    /**
+     * @param key - The key.
+     * @return - false if the key has definitely not been added to the filter, true if it might have been.
+     */
+    public boolean mightContain(String key) {
+        long hash = hash(key);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ FNV_OFFSET_BASIS) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param key - The key to add.
+     * @return - true if the filter has changed, i.e. the key had definitely not been added before.
+     */
+    public boolean put(String key) {
+        long hash = hash(key);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ FNV_OFFSET_BASIS) | 1L;
+        boolean changed = false;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word;
+            do {
+                word = bits.get(index);
+                if ((word & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(index, word, word | mask));
+            changed |= (word & mask) == 0;
+        }
+        return changed;
+    }
+
+    /**
+     * @return - The size of the filter in bytes.
+     */
+    public long getSizeInBytes() {
+        return bitCount / Byte.SIZE;
+    }
+
+    private static long hash(String key) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    // Finalizer of SplitMix64, spreads the bits of the FNV hash over the whole word
+    private static long mix(long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,100 @@
+package com.redhat.service.bridge.infra.dedup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers the keys seen during a sliding time window, with a bounded amount of memory.
+ *
+ * The window is split in time buckets, each one holding the keys added during its period in a {@link BloomFilter}. A
+ * key is reported as seen when one of the buckets of the window might contain it, and the oldest bucket is replaced by
+ * a new one when the window slides: keys are forgotten between {@code (buckets - 1) / buckets} of the window and the
+ * whole window after they have been added. As with any Bloom filter, a key that has not been seen can be reported as
+ * seen with the configured false positive rate, while a key that has been seen is always reported as such.
+ */
+public class DeduplicationWindow {
+
+    private final long bucketNanos;
+    private final long expectedKeysPerBucket;
+    private final double falsePositiveRatePerBucket;
+    private final LongSupplier clock;
+    private final AtomicReferenceArray<Bucket> buckets;
+
+    /**
+     * @param window - The duration of the window.
+     * @param unit - The unit of the duration.
+     * @param bucketCount - The number of time buckets the window is split in.
+     * @param expectedKeys - The number of keys expected during the duration of the window.
+     * @param falsePositiveRate - The probability that a key that has not been seen is reported as seen.
+     */
+    public DeduplicationWindow(long window, TimeUnit unit, int bucketCount, long expectedKeys, double falsePositiveRate) {
+        this(window, unit, bucketCount, expectedKeys, falsePositiveRate, System::nanoTime);
+    }
+
+    DeduplicationWindow(long window, TimeUnit unit, int bucketCount, long expectedKeys, double falsePositiveRate, LongSupplier clock) {
+        if (bucketCount < 2) {
+            throw new IllegalArgumentException("A deduplication window must have at least 2 buckets");
+        }
+        this.bucketNanos = Math.max(1L, unit.toNanos(window) / bucketCount);
+        this.expectedKeysPerBucket = Math.max(1L, (expectedKeys + bucketCount - 1) / bucketCount);
+        // A key is looked up in all the buckets, so the false positive rates of the buckets add up
+        this.falsePositiveRatePerBucket = falsePositiveRate / bucketCount;
+        this.clock = clock;
+        this.buckets = new AtomicReferenceArray<>(bucketCount);
+    }
+
+    /**
+     * @param key - The key.
+     * @return - true if the key might have been added during the window, false if it has definitely not been.
+     */
+    public boolean mightContain(String key) {
+        long epoch = currentEpoch();
+        for (int i = 0; i < buckets.length(); i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket != null && epoch - bucket.epoch < buckets.length() && bucket.filter.mightContain(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds a key to the current bucket of the window.
+     *
+     * @param key - The key.
+     */
+    public void put(String key) {
+        currentBucket().filter.put(key);
+    }
+
+    private Bucket currentBucket() {
+        long epoch = currentEpoch();
+        int index = (int) Math.floorMod(epoch, (long) buckets.length());
+        while (true) {
+            Bucket bucket = buckets.get(index);
+            if (bucket != null && bucket.epoch >= epoch) {
+                return bucket;
+            }
+            Bucket next = new Bucket(epoch, new BloomFilter(expectedKeysPerBucket, falsePositiveRatePerBucket));
+            if (buckets.compareAndSet(index, bucket, next)) {
+                return next;
+            }
+        }
+    }
+
+    private long currentEpoch() {
+        return Math.floorDiv(clock.getAsLong(), bucketNanos);
+    }
+
+    private static class Bucket {
+
+        private final long epoch;
+        private final BloomFilter filter;
+
+        Bucket(long epoch, BloomFilter filter) {
+            this.epoch = epoch;
+            this.filter = filter;
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.redhat.service.bridge.infra.format;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.CloudEventData;
+import io.cloudevents.SpecVersion;
+import io.cloudevents.core.builder.CloudEventBuilder;
+import io.cloudevents.core.data.BytesCloudEventData;
+import io.cloudevents.jackson.JsonCloudEventData;
+import io.cloudevents.jackson.JsonFormat;
+import io.cloudevents.types.Time;
+
+/**
+ * Streaming codec of the CloudEvents JSON format, specialized for the v1 envelope.
+ *
+ * The generic CloudEvents Jackson module goes through the data binding of an {@link ObjectMapper} and through the
+ * visitors of the CloudEvents SDK for each attribute. This codec reads and writes the envelope directly with the
+ * streaming API of Jackson instead:
+ * <ul>
+ * <li>the attribute names are written from {@link SerializedString} constants, their quoted UTF-8 bytes are computed
+ * once, and read back as the interned names canonicalized by the parser;</li>
+ * <li>the data is read and written with a prebuilt {@link ObjectReader} and {@link ObjectWriter}, and kept as a JSON
+ * tree when it is JSON;</li>
+ * <li>the generators write to a buffer reused by each thread, on top of the buffers Jackson already recycles.</li>
+ * </ul>
+ * The output is the same as the one of the CloudEvents Jackson module, except for the data of a media type with the
+ * <code>+json</code> suffix: it is JSON as per the CloudEvents JSON format, and written as such rather than in base64.
+ * Events of another spec version are handed over to the generic module.
+ */
+public class CloudEventJsonCodec {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().registerModule(JsonFormat.getCloudEventJacksonModule());
+    private static final ObjectReader TREE_READER = MAPPER.readerFor(JsonNode.class);
+    private static final ObjectWriter TREE_WRITER = MAPPER.writer();
+    private static final ObjectReader GENERIC_READER = MAPPER.readerFor(CloudEvent.class);
+
+    private static final int MAX_REUSED_BUFFER_SIZE = 64 * 1024;
+    private static final ThreadLocal<ByteArrayBuilder> BUFFERS = ThreadLocal.withInitial(ByteArrayBuilder::new);
+
+    private static final String SPEC_VERSION = "specversion";
+    private static final String ID = "id";
+    private static final String SOURCE = "source";
+    private static final String TYPE = "type";
+    private static final String DATA_CONTENT_TYPE = "datacontenttype";
+    private static final String DATA_SCHEMA = "dataschema";
+    private static final String SUBJECT = "subject";
+    private static final String TIME = "time";
+    private static final String DATA = "data";
+    private static final String DATA_BASE64 = "data_base64";
+
+    private static final SerializedString SPEC_VERSION_FIELD = new SerializedString(SPEC_VERSION);
+    private static final SerializedString ID_FIELD = new SerializedString(ID);
+    private static final SerializedString SOURCE_FIELD = new SerializedString(SOURCE);
+    private static final SerializedString TYPE_FIELD = new SerializedString(TYPE);
+    private static final SerializedString DATA_CONTENT_TYPE_FIELD = new SerializedString(DATA_CONTENT_TYPE);
+    private static final SerializedString DATA_SCHEMA_FIELD = new SerializedString(DATA_SCHEMA);
+    private static final SerializedString SUBJECT_FIELD = new SerializedString(SUBJECT);
+    private static final SerializedString TIME_FIELD = new SerializedString(TIME);
+    private static final SerializedString DATA_FIELD = new SerializedString(DATA);
+    private static final SerializedString DATA_BASE64_FIELD = new SerializedString(DATA_BASE64);
+    private static final SerializedString SPEC_VERSION_V1 = new SerializedString(SpecVersion.V1.toString());
+
+    private CloudEventJsonCodec() {
+        throw new IllegalStateException("Instantiation of utility class CloudEventJsonCodec is forbidden");
+    }
+
+    /**
+     * @param event - The event.
+     * @return - The event in the structured JSON format, as UTF-8 bytes.
+     * @throws IOException - If the event can not be written.
+     */
+    public static byte[] encode(CloudEvent event) throws IOException {
+        if (event.getSpecVersion() != SpecVersion.V1) {
+            return MAPPER.writeValueAsBytes(event);
+        }
+        ByteArrayBuilder buffer = BUFFERS.get();
+        try {
+            try (JsonGenerator generator = TREE_WRITER.createGenerator(buffer)) {
+                write(event, generator);
+            }
+            return buffer.toByteArray();
+        } finally {
+            release(buffer);
+        }
+    }
+
+    /**
+     * @param event - The event.
+     * @return - The event in the structured JSON format.
+     * @throws IOException - If the event can not be written.
+     */
+    public static String encodeToString(CloudEvent event) throws IOException {
+        return new String(encode(event), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param json - An event in the structured JSON format, as UTF-8 bytes.
+     * @return - The event.
+     * @throws IOException - If the JSON is malformed or is not a valid event.
+     */
+    public static CloudEvent decode(byte[] json) throws IOException {
+        try (JsonParser parser = TREE_READER.createParser(json)) {
+            CloudEvent event = read(parser);
+            return event != null ? event : GENERIC_READER.readValue(json);
+        }
+    }
+
+    /**
+     * @param json - An event in the structured JSON format.
+     * @return - The event.
+     * @throws IOException - If the JSON is malformed or is not a valid event.
+     */
+    public static CloudEvent decode(String json) throws IOException {
+        try (JsonParser parser = TREE_READER.createParser(json)) {
+            CloudEvent event = read(parser);
+            return event != null ? event : GENERIC_READER.readValue(json);
+        }
+    }
+
+    private static void write(CloudEvent event, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(SPEC_VERSION_FIELD);
+        generator.writeString(SPEC_VERSION_V1);
+        writeField(generator, ID_FIELD, event.getId());
+        writeField(generator, SOURCE_FIELD, event.getSource().toString());
+        writeField(generator, TYPE_FIELD, event.getType());
+        if (event.getDataContentType() != null) {
+            writeField(generator, DATA_CONTENT_TYPE_FIELD, event.getDataContentType());
+        }
+        if (event.getDataSchema() != null) {
+            writeField(generator, DATA_SCHEMA_FIELD, event.getDataSchema().toString());
+        }
+        if (event.getSubject() != null) {
+            writeField(generator, SUBJECT_FIELD, event.getSubject());
+        }
+        if (event.getTime() != null) {
+            writeField(generator, TIME_FIELD, Time.writeTime(event.getTime()));
+        }
+        for (String name : event.getExtensionNames()) {
+            writeExtension(generator, name, event.getExtension(name));
+        }
+
+        CloudEventData data = event.getData();
+        if (data instanceof JsonCloudEventData) {
+            generator.writeFieldName(DATA_FIELD);
+            generator.writeTree(((JsonCloudEventData) data).getNode());
+        } else if (data != null) {
+            byte[] bytes = data.toBytes();
+            if (isJsonContentType(event.getDataContentType())) {
+                generator.writeFieldName(DATA_FIELD);
+                generator.writeRawValue(new String(bytes, StandardCharsets.UTF_8));
+            } else {
+                generator.writeFieldName(DATA_BASE64_FIELD);
+                generator.writeBinary(bytes);
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeField(JsonGenerator generator, SerializedString name, String value) throws IOException {
+        generator.writeFieldName(name);
+        generator.writeString(value);
+    }
+
+    private static void writeExtension(JsonGenerator generator, String name, Object value) throws IOException {
+        generator.writeFieldName(name);
+        if (value instanceof Integer) {
+            generator.writeNumber((Integer) value);
+        } else if (value instanceof Boolean) {
+            generator.writeBoolean((Boolean) value);
+        } else if (value instanceof byte[]) {
+            generator.writeString(Base64.getEncoder().encodeToString((byte[]) value));
+        } else if (value instanceof OffsetDateTime) {
+            generator.writeString(Time.writeTime((OffsetDateTime) value));
+        } else {
+            generator.writeString(String.valueOf(value));
+        }
+    }
+
+    /*
+     * Returns null if the event is not a v1 event, it is then read by the generic module. The data is only wrapped once
+     * the whole envelope has been read, as the content type can come after it.
+     */
+    private static CloudEvent read(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "A CloudEvent must be a JSON object");
+        }
+        CloudEventBuilder builder = CloudEventBuilder.v1();
+        String dataContentType = null;
+        JsonNode data = null;
+        byte[] dataBase64 = null;
+        boolean hasSpecVersion = false;
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            JsonToken token = parser.nextToken();
+            switch (name) {
+                case SPEC_VERSION:
+                    if (!SpecVersion.V1.toString().equals(parser.getValueAsString())) {
+                        return null;
+                    }
+                    hasSpecVersion = true;
+                    break;
+                case ID:
+                    builder.withId(readString(parser, name));
+                    break;
+                case SOURCE:
+                    builder.withSource(readUri(parser, name));
+                    break;
+                case TYPE:
+                    builder.withType(readString(parser, name));
+                    break;
+                case DATA_CONTENT_TYPE:
+                    dataContentType = readString(parser, name);
+                    builder.withDataContentType(dataContentType);
+                    break;
+                case DATA_SCHEMA:
+                    builder.withDataSchema(readUri(parser, name));
+                    break;
+                case SUBJECT:
+                    builder.withSubject(readString(parser, name));
+                    break;
+                case TIME:
+                    builder.withTime(readTime(parser, name));
+                    break;
+                case DATA:
+                    data = TREE_READER.readTree(parser);
+                    break;
+                case DATA_BASE64:
+                    dataBase64 = parser.getBinaryValue();
+                    break;
+                default:
+                    readExtension(parser, token, builder, name);
+            }
+        }
+        if (!hasSpecVersion) {
+            throw new JsonParseException(parser, "Attribute \"specversion\" is required");
+        }
+
+        if (dataBase64 != null) {
+            builder.withData(BytesCloudEventData.wrap(dataBase64));
+        } else if (data != null && !data.isNull()) {
+            builder.withData(toCloudEventData(dataContentType, data));
+        }
+        try {
+            return builder.build();
+        } catch (IllegalStateException e) {
+            throw new JsonParseException(parser, e.getMessage(), e);
+        }
+    }
+
+    private static CloudEventData toCloudEventData(String dataContentType, JsonNode data) throws IOException {
+        if (isJsonContentType(dataContentType)) {
+            return JsonCloudEventData.wrap(data);
+        }
+        // Data that is not JSON is written as a JSON string
+        return BytesCloudEventData.wrap(data.isTextual() ? data.textValue().getBytes(StandardCharsets.UTF_8) : TREE_WRITER.writeValueAsBytes(data));
+    }
+
+    private static void readExtension(JsonParser parser, JsonToken token, CloudEventBuilder builder, String name) throws IOException {
+        switch (token) {
+            case VALUE_STRING:
+                builder.withExtension(name, parser.getText());
+                break;
+            case VALUE_NUMBER_INT:
+                builder.withExtension(name, parser.getIntValue());
+                break;
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                builder.withExtension(name, parser.getBooleanValue());
+                break;
+            case VALUE_NULL:
+                break;
+            default:
+                throw new JsonParseException(parser, "Extension \"" + name + "\" must be a string, an integer or a boolean");
+        }
+    }
+
+    private static String readString(JsonParser parser, String name) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            throw new JsonParseException(parser, "Attribute \"" + name + "\" must be a string");
+        }
+        return parser.getText();
+    }
+
+    // The invalid values are syntax errors of the event, as the other attributes of the wrong type
+    private static URI readUri(JsonParser parser, String name) throws IOException {
+        try {
+            return URI.create(readString(parser, name));
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException(parser, "Attribute \"" + name + "\" must be a URI reference", e);
+        }
+    }
+
+    private static OffsetDateTime readTime(JsonParser parser, String name) throws IOException {
+        try {
+            return Time.parseTime(readString(parser, name));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new JsonParseException(parser, "Attribute \"" + name + "\" must be an RFC 3339 timestamp", e);
+        }
+    }
+
+    /**
+     * @param contentType - The content type of the data of an event.
+     * @return - True if the data is JSON: data without content type is JSON, as per the CloudEvents JSON format.
+     */
+    public static boolean isJsonContentType(String contentType) {
+        return contentType == null || contentType.startsWith("application/json") || contentType.startsWith("text/json") || contentType.contains("+json");
+    }
+
+    private static void release(ByteArrayBuilder buffer) {
+        // A buffer grown by a large event is not kept by the thread. The size of the buffer can not tell, as it is reset
+        // by toByteArray(): the segment it keeps is the largest one allocated
+        if (buffer.getCurrentSegment().length > MAX_REUSED_BUFFER_SIZE) {
+            BUFFERS.remove();
+        } else {
+            buffer.reset();
+        }
+    }
+}
@@ -0,0 +1,508 @@
+package com.redhat.service.bridge.infra.format;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.CloudEventData;
+import io.cloudevents.SpecVersion;
+import io.cloudevents.core.builder.CloudEventBuilder;
+import io.cloudevents.core.data.BytesCloudEventData;
+import io.cloudevents.core.format.EventDeserializationException;
+import io.cloudevents.core.format.EventFormat;
+import io.cloudevents.core.format.EventSerializationException;
+import io.cloudevents.core.provider.EventFormatProvider;
+import io.cloudevents.rw.CloudEventDataMapper;
+
+/**
+ * Compact binary {@link EventFormat} for the events exchanged on the internal topics.
+ *
+ * Events are written with the Protobuf wire encoding of the <code>io.cloudevents.v1.CloudEvent</code> message defined
+ * by the CloudEvents Protobuf format, so that any Protobuf consumer of the topics can read them. The encoding is
+ * written by hand: the message is small and fixed, and this avoids generating code and pulling the Protobuf runtime.
+ * The data is copied as is, without being parsed.
+ *
+ * Extensions of type Integer that do not fit in 32 bits are written as strings, as the format does not have a type for
+ * them.
+ */
+public class ProtobufFormat implements EventFormat {
+
+    public static final String CONTENT_TYPE = "application/cloudevents+protobuf";
+
+    private static final ProtobufFormat INSTANCE = new ProtobufFormat();
+
+    // Fields of io.cloudevents.v1.CloudEvent
+    private static final int ID = 1;
+    private static final int SOURCE = 2;
+    private static final int SPEC_VERSION = 3;
+    private static final int TYPE = 4;
+    private static final int ATTRIBUTES = 5;
+    private static final int BINARY_DATA = 6;
+    private static final int TEXT_DATA = 7;
+
+    // Fields of a map entry
+    private static final int KEY = 1;
+    private static final int VALUE = 2;
+
+    // Fields of io.cloudevents.v1.CloudEvent.CloudEventAttributeValue
+    private static final int CE_BOOLEAN = 1;
+    private static final int CE_INTEGER = 2;
+    private static final int CE_STRING = 3;
+    private static final int CE_BYTES = 4;
+    private static final int CE_URI = 5;
+    private static final int CE_URI_REF = 6;
+    private static final int CE_TIMESTAMP = 7;
+
+    // Fields of google.protobuf.Timestamp
+    private static final int SECONDS = 1;
+    private static final int NANOS = 2;
+
+    private static final String DATA_CONTENT_TYPE = "datacontenttype";
+    private static final String DATA_SCHEMA = "dataschema";
+    private static final String SCHEMA_URL = "schemaurl";
+    private static final String SUBJECT = "subject";
+    private static final String TIME = "time";
+
+    /**
+     * Registers the format in the {@link EventFormatProvider}, so that the CloudEvents Kafka serializer and
+     * deserializer can resolve it from the content type of the records.
+     */
+    public static void register() {
+        EventFormatProvider.getInstance().registerFormat(INSTANCE);
+    }
+
+    @Override
+    public byte[] serialize(CloudEvent event) {
+        try {
+            ProtobufWriter out = new ProtobufWriter(256);
+            out.writeString(ID, event.getId());
+            out.writeString(SOURCE, event.getSource().toString());
+            out.writeString(SPEC_VERSION, event.getSpecVersion().toString());
+            out.writeString(TYPE, event.getType());
+            if (event.getDataContentType() != null) {
+                writeAttribute(out, DATA_CONTENT_TYPE, event.getDataContentType());
+            }
+            if (event.getDataSchema() != null) {
+                writeAttribute(out, event.getSpecVersion() == SpecVersion.V03 ? SCHEMA_URL : DATA_SCHEMA, event.getDataSchema());
+            }
+            if (event.getSubject() != null) {
+                writeAttribute(out, SUBJECT, event.getSubject());
+            }
+            if (event.getTime() != null) {
+                writeAttribute(out, TIME, event.getTime());
+            }
+            for (String name : event.getExtensionNames()) {
+                writeAttribute(out, name, event.getExtension(name));
+            }
+            CloudEventData data = event.getData();
+            if (data != null) {
+                out.writeBytes(isText(event.getDataContentType()) ? TEXT_DATA : BINARY_DATA, data.toBytes());
+            }
+            return out.toByteArray();
+        } catch (RuntimeException e) {
+            throw new EventSerializationException(e);
+        }
+    }
+
+    @Override
+    public CloudEvent deserialize(byte[] bytes, CloudEventDataMapper<? extends CloudEventData> mapper) {
+        try {
+            ProtobufReader in = new ProtobufReader(bytes);
+            String id = null;
+            String source = null;
+            String specVersion = null;
+            String type = null;
+            byte[] data = null;
+            Map<String, Object> attributes = new LinkedHashMap<>();
+            while (in.hasRemaining()) {
+                int tag = in.readTag();
+                switch (tag >>> 3) {
+                    case ID:
+                        id = in.readString();
+                        break;
+                    case SOURCE:
+                        source = in.readString();
+                        break;
+                    case SPEC_VERSION:
+                        specVersion = in.readString();
+                        break;
+                    case TYPE:
+                        type = in.readString();
+                        break;
+                    case ATTRIBUTES:
+                        readAttribute(in.readMessage(), attributes);
+                        break;
+                    case BINARY_DATA:
+                    case TEXT_DATA:
+                        data = in.readBytes();
+                        break;
+                    default:
+                        in.skip(tag);
+                }
+            }
+            if (specVersion == null || source == null) {
+                throw new IllegalArgumentException("The specversion and source attributes are required");
+            }
+
+            CloudEventBuilder builder = CloudEventBuilder.fromSpecVersion(SpecVersion.parse(specVersion))
+                    .withId(id)
+                    .withSource(URI.create(source))
+                    .withType(type);
+            attributes.forEach((name, value) -> withAttribute(builder, name, value));
+            if (data != null) {
+                builder.withData(mapper.map(BytesCloudEventData.wrap(data)));
+            }
+            return builder.build();
+        } catch (RuntimeException e) {
+            throw new EventDeserializationException(e);
+        }
+    }
+
+    @Override
+    public Set<String> deserializableContentTypes() {
+        return Collections.singleton(CONTENT_TYPE);
+    }
+
+    @Override
+    public String serializedContentType() {
+        return CONTENT_TYPE;
+    }
+
+    private static void writeAttribute(ProtobufWriter out, String name, Object value) {
+        int entry = out.beginMessage(ATTRIBUTES);
+        out.writeString(KEY, name);
+        int attributeValue = out.beginMessage(VALUE);
+        if (value instanceof Boolean) {
+            out.writeVarint(CE_BOOLEAN, (Boolean) value ? 1L : 0L);
+        } else if (value instanceof Number && isInt((Number) value)) {
+            out.writeVarint(CE_INTEGER, ((Number) value).intValue());
+        } else if (value instanceof byte[]) {
+            out.writeBytes(CE_BYTES, (byte[]) value);
+        } else if (value instanceof URI) {
+            out.writeString(((URI) value).isAbsolute() ? CE_URI : CE_URI_REF, value.toString());
+        } else if (value instanceof OffsetDateTime) {
+            OffsetDateTime time = (OffsetDateTime) value;
+            int timestamp = out.beginMessage(CE_TIMESTAMP);
+            out.writeVarint(SECONDS, time.toEpochSecond());
+            out.writeVarint(NANOS, time.getNano());
+            out.endMessage(timestamp);
+        } else {
+            out.writeString(CE_STRING, String.valueOf(value));
+        }
+        out.endMessage(attributeValue);
+        out.endMessage(entry);
+    }
+
+    private static void readAttribute(ProtobufReader entry, Map<String, Object> attributes) {
+        String name = null;
+        Object value = null;
+        while (entry.hasRemaining()) {
+            int tag = entry.readTag();
+            switch (tag >>> 3) {
+                case KEY:
+                    name = entry.readString();
+                    break;
+                case VALUE:
+                    value = readAttributeValue(entry.readMessage());
+                    break;
+                default:
+                    entry.skip(tag);
+            }
+        }
+        if (name == null || value == null) {
+            throw new IllegalArgumentException("Attribute without name or value");
+        }
+        attributes.put(name, value);
+    }
+
+    private static void withAttribute(CloudEventBuilder builder, String name, Object value) {
+        switch (name) {
+            case DATA_CONTENT_TYPE:
+                builder.withDataContentType(value.toString());
+                break;
+            case DATA_SCHEMA:
+            case SCHEMA_URL:
+                builder.withDataSchema(URI.create(value.toString()));
+                break;
+            case SUBJECT:
+                builder.withSubject(value.toString());
+                break;
+            case TIME:
+                builder.withTime((OffsetDateTime) value);
+                break;
+            default:
+                withExtension(builder, name, value);
+        }
+    }
+
+    private static Object readAttributeValue(ProtobufReader in) {
+        Object value = null;
+        while (in.hasRemaining()) {
+            int tag = in.readTag();
+            switch (tag >>> 3) {
+                case CE_BOOLEAN:
+                    value = in.readVarint() != 0;
+                    break;
+                case CE_INTEGER:
+                    value = (int) in.readVarint();
+                    break;
+                case CE_STRING:
+                    value = in.readString();
+                    break;
+                case CE_BYTES:
+                    value = in.readBytes();
+                    break;
+                case CE_URI:
+                case CE_URI_REF:
+                    value = URI.create(in.readString());
+                    break;
+                case CE_TIMESTAMP:
+                    value = readTimestamp(in.readMessage());
+                    break;
+                default:
+                    in.skip(tag);
+            }
+        }
+        return value;
+    }
+
+    private static OffsetDateTime readTimestamp(ProtobufReader in) {
+        long seconds = 0;
+        int nanos = 0;
+        while (in.hasRemaining()) {
+            int tag = in.readTag();
+            switch (tag >>> 3) {
+                case SECONDS:
+                    seconds = in.readVarint();
+                    break;
+                case NANOS:
+                    nanos = (int) in.readVarint();
+                    break;
+                default:
+                    in.skip(tag);
+            }
+        }
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(seconds, nanos), ZoneOffset.UTC);
+    }
+
+    private static void withExtension(CloudEventBuilder builder, String name, Object value) {
+        if (value instanceof Boolean) {
+            builder.withExtension(name, (Boolean) value);
+        } else if (value instanceof Integer) {
+            builder.withExtension(name, (Integer) value);
+        } else if (value instanceof byte[]) {
+            builder.withExtension(name, (byte[]) value);
+        } else if (value instanceof URI) {
+            builder.withExtension(name, (URI) value);
+        } else if (value instanceof OffsetDateTime) {
+            builder.withExtension(name, (OffsetDateTime) value);
+        } else {
+            builder.withExtension(name, value.toString());
+        }
+    }
+
+    private static boolean isInt(Number value) {
+        return (value instanceof Integer || value instanceof Short || value instanceof Byte)
+                || ((value instanceof Long) && value.longValue() == value.intValue());
+    }
+
+    private static boolean isText(String contentType) {
+        // Data without content type is JSON, as per the CloudEvents JSON format
+        return contentType == null || contentType.startsWith("text/") || contentType.startsWith("application/json") || contentType.contains("+json")
+                || contentType.startsWith("application/xml") || contentType.contains("+xml");
+    }
+
+    /**
+     * Writes the Protobuf wire encoding into a growing array.
+     */
+    private static class ProtobufWriter {
+
+        private static final int WIRE_TYPE_VARINT = 0;
+        private static final int WIRE_TYPE_LENGTH_DELIMITED = 2;
+
+        private byte[] buffer;
+        private int position;
+
+        ProtobufWriter(int initialCapacity) {
+            this.buffer = new byte[initialCapacity];
+        }
+
+        void writeVarint(int field, long value) {
+            writeRawVarint((long) field << 3 | WIRE_TYPE_VARINT);
+            writeRawVarint(value);
+        }
+
+        void writeString(int field, String value) {
+            writeBytes(field, value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        void writeBytes(int field, byte[] value) {
+            writeRawVarint((long) field << 3 | WIRE_TYPE_LENGTH_DELIMITED);
+            writeRawVarint(value.length);
+            ensureCapacity(value.length);
+            System.arraycopy(value, 0, buffer, position, value.length);
+            position += value.length;
+        }
+
+        /*
+         * A nested message is written in place: one byte is reserved for its length, and the message is moved if its
+         * length does not fit in it once it is known.
+         */
+        int beginMessage(int field) {
+            writeRawVarint((long) field << 3 | WIRE_TYPE_LENGTH_DELIMITED);
+            ensureCapacity(1);
+            return position++;
+        }
+
+        void endMessage(int lengthPosition) {
+            int length = position - lengthPosition - 1;
+            int extraBytes = varintSize(length) - 1;
+            if (extraBytes > 0) {
+                ensureCapacity(extraBytes);
+                System.arraycopy(buffer, lengthPosition + 1, buffer, lengthPosition + 1 + extraBytes, length);
+                position += extraBytes;
+            }
+            int end = position;
+            position = lengthPosition;
+            writeRawVarint(length);
+            position = end;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void writeRawVarint(long value) {
+            ensureCapacity(10);
+            long remaining = value;
+            while ((remaining & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((remaining & 0x7F) | 0x80);
+                remaining >>>= 7;
+            }
+            buffer[position++] = (byte) remaining;
+        }
+
+        private void ensureCapacity(int length) {
+            if (position + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+            }
+        }
+
+        private static int varintSize(int value) {
+            int size = 1;
+            long remaining = value & 0xFFFFFFFFL;
+            while ((remaining & ~0x7FL) != 0) {
+                size++;
+                remaining >>>= 7;
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Reads the Protobuf wire encoding from a slice of an array.
+     */
+    private static class ProtobufReader {
+
+        private final byte[] buffer;
+        private final int limit;
+        private int position;
+
+        ProtobufReader(byte[] buffer) {
+            this(buffer, 0, buffer.length);
+        }
+
+        ProtobufReader(byte[] buffer, int offset, int length) {
+            this.buffer = buffer;
+            this.position = offset;
+            this.limit = offset + length;
+        }
+
+        boolean hasRemaining() {
+            return position < limit;
+        }
+
+        int readTag() {
+            return (int) readVarint();
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= limit) {
+                    throw new IllegalArgumentException("Truncated varint");
+                }
+                byte b = buffer[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        String readString() {
+            int length = readLength();
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        byte[] readBytes() {
+            int length = readLength();
+            byte[] value = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return value;
+        }
+
+        ProtobufReader readMessage() {
+            int length = readLength();
+            ProtobufReader message = new ProtobufReader(buffer, position, length);
+            position += length;
+            return message;
+        }
+
+        // Skips the value of an unknown field
+        void skip(int tag) {
+            switch (tag & 0x7) {
+                case 0:
+                    readVarint();
+                    break;
+                case 1:
+                    skipBytes(8);
+                    break;
+                case 2:
+                    skipBytes(readLength());
+                    break;
+                case 5:
+                    skipBytes(4);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported wire type " + (tag & 0x7));
+            }
+        }
+
+        private int readLength() {
+            long length = readVarint();
+            if (length < 0 || length > limit - position) {
+                throw new IllegalArgumentException("Truncated field");
+            }
+            return (int) length;
+        }
+
+        private void skipBytes(int length) {
+            if (length > limit - position) {
+                throw new IllegalArgumentException("Truncated field");
+            }
+            position += length;
+        }
+    }
+}
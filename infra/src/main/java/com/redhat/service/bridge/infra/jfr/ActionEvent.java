@@ -0,0 +1,21 @@
+package com.redhat.service.bridge.infra.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(ActionEvent.NAME)
+@Label("Action Invocation")
+@Category({ "Event Bridge", "Executor" })
+@Description("Hand-off of an event to the Action of a Processor")
+public class ActionEvent extends PipelineEvent {
+
+    public static final String NAME = "com.redhat.service.bridge.Action";
+
+    @Label("Redelivery")
+    public boolean redelivery;
+
+    @Label("Failed")
+    public boolean failed;
+}
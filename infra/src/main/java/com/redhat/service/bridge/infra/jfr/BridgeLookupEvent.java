@@ -0,0 +1,18 @@
+package com.redhat.service.bridge.infra.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(BridgeLookupEvent.NAME)
+@Label("Bridge Lookup")
+@Category({ "Event Bridge", "Executor" })
+@Description("Lookup of the Processors of the Bridge of an event")
+public class BridgeLookupEvent extends PipelineEvent {
+
+    public static final String NAME = "com.redhat.service.bridge.BridgeLookup";
+
+    @Label("Processors")
+    public int processors;
+}
@@ -0,0 +1,23 @@
+package com.redhat.service.bridge.infra.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(DecodeEvent.NAME)
+@Label("Decode")
+@Category({ "Event Bridge", "Executor" })
+@Description("Deserialization of an event read from the event queue")
+public class DecodeEvent extends PipelineEvent {
+
+    public static final String NAME = "com.redhat.service.bridge.Decode";
+
+    @Label("Size")
+    @DataAmount
+    public int size;
+
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,18 @@
+package com.redhat.service.bridge.infra.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(FilterEvent.NAME)
+@Label("Filter Evaluation")
+@Category({ "Event Bridge", "Executor" })
+@Description("Evaluation of the filters of a Processor")
+public class FilterEvent extends PipelineEvent {
+
+    public static final String NAME = "com.redhat.service.bridge.Filter";
+
+    @Label("Matched")
+    public boolean matched;
+}
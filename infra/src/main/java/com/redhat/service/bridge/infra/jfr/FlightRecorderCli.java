@@ -0,0 +1,148 @@
+package com.redhat.service.bridge.infra.jfr;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMX;
+import javax.management.MBeanServerConnection;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+
+import com.sun.tools.attach.VirtualMachine;
+
+import jdk.management.jfr.ConfigurationInfo;
+import jdk.management.jfr.FlightRecorderMXBean;
+
+/**
+ * Records the {@link PipelineEvent}s of a running ingress or executor and streams the recording to a file, e.g. to see
+ * the time spent in each stage by the events of a single Bridge.
+ *
+ * The recording is made through the FlightRecorderMXBean of the process, either a local one attached with its pid (e.g.
+ * from a shell in the container) or a remote one whose JMX port is reachable:
+ *
+ * <pre>
+ * java -cp infra.jar com.redhat.service.bridge.infra.jfr.FlightRecorderCli --pid=1 --duration=30 --output=executor.jfr
+ * java -cp infra.jar com.redhat.service.bridge.infra.jfr.FlightRecorderCli --jmx=localhost:9010 --jdk-events=true
+ * </pre>
+ *
+ * The recording can then be opened with JDK Mission Control or printed with {@code jfr print --events Filter executor.jfr}.
+ */
+public class FlightRecorderCli {
+
+    static final List<String> EVENT_NAMES = Arrays.asList(DecodeEvent.NAME, BridgeLookupEvent.NAME, FilterEvent.NAME, TransformationEvent.NAME, ActionEvent.NAME,
+            PublishEvent.NAME);
+
+    private static final String USAGE = "Usage: FlightRecorderCli (--pid=<pid> | --jmx=<host>:<port>) [--duration=<seconds>] [--output=<file>] [--jdk-events=<true|false>]\n"
+            + "  --pid         the process to record, on the local host\n"
+            + "  --jmx         the JMX port of the process to record, on a remote host\n"
+            + "  --duration    the duration of the recording in seconds (default 30)\n"
+            + "  --output      the recording file (default event-bridge.jfr)\n"
+            + "  --jdk-events  also record the JDK events of the default profile: GC, allocations, locks... (default false)";
+
+    private FlightRecorderCli() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                exit("Invalid argument '" + arg + "'");
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        if (options.containsKey("pid") == options.containsKey("jmx")) {
+            exit("One of --pid or --jmx is required");
+        }
+        long durationMillis = TimeUnit.SECONDS.toMillis(Long.parseLong(options.getOrDefault("duration", "30")));
+        boolean jdkEvents = Boolean.parseBoolean(options.getOrDefault("jdk-events", "false"));
+        Path output = Paths.get(options.getOrDefault("output", "event-bridge.jfr"));
+
+        try (JMXConnector connector = JMXConnectorFactory.connect(serviceUrl(options));
+                OutputStream out = Files.newOutputStream(output)) {
+            System.out.println("Recording for " + TimeUnit.MILLISECONDS.toSeconds(durationMillis) + " seconds...");
+            record(connector.getMBeanServerConnection(), durationMillis, jdkEvents, out);
+        }
+        System.out.println("Recording written to " + output.toAbsolutePath());
+    }
+
+    /**
+     * Makes a recording with the {@link PipelineEvent}s enabled, without threshold.
+     *
+     * @param connection - The process to record.
+     * @param durationMillis - The duration of the recording.
+     * @param jdkEvents - true to also record the JDK events of the default profile.
+     * @param out - Where the recording is streamed once it is over.
+     */
+    static void record(MBeanServerConnection connection, long durationMillis, boolean jdkEvents, OutputStream out) throws IOException, InterruptedException {
+        FlightRecorderMXBean recorder = JMX.newMXBeanProxy(connection, objectName(), FlightRecorderMXBean.class);
+        long recording = recorder.newRecording();
+        try {
+            Map<String, String> settings = new HashMap<>();
+            if (jdkEvents) {
+                for (ConfigurationInfo configuration : recorder.getConfigurations()) {
+                    if ("default".equals(configuration.getName())) {
+                        settings.putAll(configuration.getSettings());
+                    }
+                }
+            }
+            for (String name : EVENT_NAMES) {
+                settings.put(name + "#enabled", "true");
+                settings.put(name + "#threshold", "0 ms");
+            }
+            recorder.setRecordingSettings(recording, settings);
+            recorder.startRecording(recording);
+            Thread.sleep(durationMillis);
+            recorder.stopRecording(recording);
+
+            long stream = recorder.openStream(recording, null);
+            try {
+                byte[] chunk;
+                while ((chunk = recorder.readStream(stream)) != null) {
+                    out.write(chunk);
+                }
+            } finally {
+                recorder.closeStream(stream);
+            }
+        } finally {
+            recorder.closeRecording(recording);
+        }
+    }
+
+    private static JMXServiceURL serviceUrl(Map<String, String> options) throws Exception {
+        if (options.containsKey("jmx")) {
+            return new JMXServiceURL("service:jmx:rmi:///jndi/rmi://" + options.get("jmx") + "/jmxrmi");
+        }
+        VirtualMachine vm = VirtualMachine.attach(options.get("pid"));
+        try {
+            return new JMXServiceURL(vm.startLocalManagementAgent());
+        } finally {
+            vm.detach();
+        }
+    }
+
+    private static ObjectName objectName() {
+        try {
+            return new ObjectName(FlightRecorderMXBean.MXBEAN_NAME);
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void exit(String message) {
+        System.err.println(message);
+        System.err.println(USAGE);
+        System.exit(1);
+    }
+}
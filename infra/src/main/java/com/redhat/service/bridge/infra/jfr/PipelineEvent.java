@@ -0,0 +1,52 @@
+package com.redhat.service.bridge.infra.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * A stage of the processing of an event, recorded with JDK Flight Recorder.
+ *
+ * The events are disabled unless a recording enables them, e.g. with the {@link FlightRecorderCli}. A disabled event is
+ * not allocated once the code is compiled: the stages are instrumented with
+ *
+ * <pre>
+ * FilterEvent jfrEvent = new FilterEvent();
+ * jfrEvent.begin();
+ * // the stage
+ * jfrEvent.commit(bridgeId, processorId, eventId);
+ * </pre>
+ */
+@Category("Event Bridge")
+@Enabled(false)
+@StackTrace(false)
+public abstract class PipelineEvent extends Event {
+
+    @Label("Bridge")
+    protected String bridgeId;
+
+    @Label("Processor")
+    protected String processorId;
+
+    @Label("Event")
+    protected String eventId;
+
+    /**
+     * Ends the stage and commits it, if the event is enabled and above its threshold.
+     *
+     * @param bridgeId - The Bridge of the event.
+     * @param processorId - The Processor handling the event, or null.
+     * @param eventId - The id of the event, or null if it is not known.
+     */
+    public void commit(String bridgeId, String processorId, String eventId) {
+        end();
+        if (shouldCommit()) {
+            this.bridgeId = bridgeId;
+            this.processorId = processorId;
+            this.eventId = eventId;
+            commit();
+        }
+    }
+}
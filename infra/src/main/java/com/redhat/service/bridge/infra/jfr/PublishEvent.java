@@ -0,0 +1,18 @@
+package com.redhat.service.bridge.infra.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(PublishEvent.NAME)
+@Label("Publish")
+@Category({ "Event Bridge", "Ingress" })
+@Description("Publication of an event to the event queue, until the broker acknowledged it")
+public class PublishEvent extends PipelineEvent {
+
+    public static final String NAME = "com.redhat.service.bridge.Publish";
+
+    @Label("Accepted")
+    public boolean accepted;
+}
@@ -0,0 +1,15 @@
+package com.redhat.service.bridge.infra.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(TransformationEvent.NAME)
+@Label("Transformation")
+@Category({ "Event Bridge", "Executor" })
+@Description("Rendering of the transformation template of a Processor")
+public class TransformationEvent extends PipelineEvent {
+
+    public static final String NAME = "com.redhat.service.bridge.Transformation";
+}
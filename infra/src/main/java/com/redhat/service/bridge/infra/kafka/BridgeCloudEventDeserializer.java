@@ -0,0 +1,92 @@
+package com.redhat.service.bridge.infra.kafka;
+
+import java.util.Map;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.redhat.service.bridge.infra.BridgeCloudEventExtension;
+import com.redhat.service.bridge.infra.format.ProtobufFormat;
+import com.redhat.service.bridge.infra.jfr.DecodeEvent;
+import com.redhat.service.bridge.infra.utils.CloudEventUtils;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.kafka.CloudEventDeserializer;
+
+/**
+ * Kafka deserializer of the events exchanged on the internal topic.
+ *
+ * Events are written in the CloudEvents binary content mode: attributes and extensions are read from the record headers
+ * while the data is kept as raw bytes. Records in the structured content mode are read with the format named by their
+ * <code>content-type</code> header, which can be the compact {@link ProtobufFormat}. Records written in the structured
+ * JSON mode without any header, as produced by the previous versions of the ingress, are still accepted. Records that
+ * can not be deserialized are returned as <code>null</code> instead of failing the consumer.
+ */
+public class BridgeCloudEventDeserializer implements Deserializer<CloudEvent> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BridgeCloudEventDeserializer.class);
+
+    private static final String SPEC_VERSION_HEADER = "ce_specversion";
+    private static final String CONTENT_TYPE_HEADER = "content-type";
+
+    static {
+        ProtobufFormat.register();
+    }
+
+    private final CloudEventDeserializer delegate = new CloudEventDeserializer();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public CloudEvent deserialize(String topic, byte[] data) {
+        return decodeStructured(data);
+    }
+
+    @Override
+    public CloudEvent deserialize(String topic, Headers headers, byte[] data) {
+        DecodeEvent jfrEvent = new DecodeEvent();
+        jfrEvent.begin();
+        CloudEvent event = null;
+        try {
+            event = decode(topic, headers, data);
+            return event;
+        } finally {
+            // The records that can not be decoded are recorded as well, without the Bridge and the id they might have
+            if (jfrEvent.isEnabled()) {
+                jfrEvent.size = data == null ? 0 : data.length;
+                jfrEvent.failed = event == null;
+                Object bridgeId = event == null ? null : event.getExtension(BridgeCloudEventExtension.BRIDGE_ID);
+                jfrEvent.commit(bridgeId == null ? null : bridgeId.toString(), null, event == null ? null : event.getId());
+            }
+        }
+    }
+
+    private CloudEvent decode(String topic, Headers headers, byte[] data) {
+        if (headers == null || (headers.lastHeader(SPEC_VERSION_HEADER) == null && headers.lastHeader(CONTENT_TYPE_HEADER) == null)) {
+            return decodeStructured(data);
+        }
+        try {
+            return delegate.deserialize(topic, headers, data);
+        } catch (RuntimeException e) {
+            LOG.error("Unable to deserialize CloudEvent from record of topic '{}'", topic, e);
+            return null;
+        }
+    }
+
+    private static CloudEvent decodeStructured(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return CloudEventUtils.decode(data);
+        } catch (RuntimeException e) {
+            // The failure has already been logged
+            return null;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.redhat.service.bridge.infra.kafka;
+
+import java.util.Map;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import com.redhat.service.bridge.infra.format.ProtobufFormat;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.kafka.CloudEventSerializer;
+
+/**
+ * Kafka serializer of the events exchanged on the internal topics, read back by {@link BridgeCloudEventDeserializer}.
+ *
+ * The serializer is configured as the CloudEvents one: events are written in the binary content mode when
+ * <code>cloudevents.serializer.encoding</code> is <code>BINARY</code>, and in the structured content mode with the format
+ * named by <code>cloudevents.serializer.event_format</code> when it is <code>STRUCTURED</code>. The compact
+ * {@link ProtobufFormat} is registered, so that <code>application/cloudevents+protobuf</code> can be used. The format of
+ * a record is told by its <code>content-type</code> header, so that producers can switch formats without coordinating
+ * with the consumers.
+ */
+public class BridgeCloudEventSerializer implements Serializer<CloudEvent> {
+
+    static {
+        ProtobufFormat.register();
+    }
+
+    private final CloudEventSerializer delegate = new CloudEventSerializer();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, CloudEvent event) {
+        return delegate.serialize(topic, event);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, CloudEvent event) {
+        return delegate.serialize(topic, headers, event);
+    }
+}
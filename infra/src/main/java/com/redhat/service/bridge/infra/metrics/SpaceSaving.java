@@ -0,0 +1,183 @@
+package com.redhat.service.bridge.infra.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-saving sketch of the heaviest keys of a stream of weighted keys (Metwally, Agrawal and El Abbadi).
+ *
+ * At most {@code capacity} keys are counted, in a min-heap of their weights. A key that is not counted takes the place
+ * of the lightest one and inherits its weight as the error of its own: the weight of a counted key is over-estimated by
+ * at most its error, and every key weighing more than {@code total / capacity} is counted. Updating a key already
+ * counted takes {@code O(log capacity)} and allocates nothing.
+ *
+ * Not thread-safe.
+ */
+public class SpaceSaving<K> {
+
+    private final Map<K, Counter<K>> counters;
+    private final Counter<K>[] heap;
+    private int size;
+
+    /**
+     * @param capacity - The maximum number of keys counted.
+     */
+    @SuppressWarnings("unchecked")
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity of a space-saving sketch must be at least 1");
+        }
+        this.counters = new HashMap<>(capacity * 2);
+        this.heap = new Counter[capacity];
+    }
+
+    /**
+     * @param key - The key.
+     * @param weight - The weight added to the key, e.g. 1 to count occurrences.
+     */
+    public void offer(K key, long weight) {
+        Counter<K> counter = counters.get(key);
+        if (counter != null) {
+            counter.weight += weight;
+            siftDown(counter.index);
+        } else if (size < heap.length) {
+            counter = new Counter<>(key, weight, size);
+            heap[size++] = counter;
+            counters.put(key, counter);
+            siftUp(counter.index);
+        } else {
+            // The lightest key is evicted: the new key might have weighed as much before it was counted
+            counter = heap[0];
+            counters.remove(counter.key);
+            counter.key = key;
+            counter.error = counter.weight;
+            counter.weight += weight;
+            counters.put(key, counter);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * @param k - The number of keys.
+     * @return - The (at most) k heaviest keys, from the heaviest.
+     */
+    public List<K> top(int k) {
+        Counter<K>[] sorted = Arrays.copyOf(heap, size);
+        Arrays.sort(sorted, Comparator.comparingLong((Counter<K> c) -> c.weight).reversed());
+        List<K> top = new ArrayList<>(Math.min(k, size));
+        for (int i = 0; i < sorted.length && i < k; i++) {
+            top.add(sorted[i].key);
+        }
+        return top;
+    }
+
+    /**
+     * @param key - The key.
+     * @return - The estimated weight of the key, 0 if it is not counted.
+     */
+    public long weight(K key) {
+        Counter<K> counter = counters.get(key);
+        return counter == null ? 0 : counter.weight;
+    }
+
+    /**
+     * @param key - The key.
+     * @return - The maximum over-estimation of the weight of the key, 0 if it is not counted.
+     */
+    public long error(K key) {
+        Counter<K> counter = counters.get(key);
+        return counter == null ? 0 : counter.error;
+    }
+
+    /**
+     * Multiplies the weights by the factor, so that the past weighs less than the recent keys. The order of the keys is
+     * preserved.
+     *
+     * @param factor - Between 0 and 1.
+     */
+    public void decay(double factor) {
+        for (int i = 0; i < size; i++) {
+            heap[i].weight = (long) (heap[i].weight * factor);
+            heap[i].error = (long) (heap[i].error * factor);
+        }
+    }
+
+    /**
+     * Stops counting the key, e.g. once it does not exist anymore.
+     */
+    public void remove(K key) {
+        Counter<K> counter = counters.remove(key);
+        if (counter == null) {
+            return;
+        }
+        int index = counter.index;
+        Counter<K> last = heap[--size];
+        heap[size] = null;
+        if (index < size) {
+            heap[index] = last;
+            last.index = index;
+            siftDown(index);
+            siftUp(last.index);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (heap[parent].weight <= heap[index].weight) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int lightest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && heap[left].weight < heap[lightest].weight) {
+                lightest = left;
+            }
+            if (right < size && heap[right].weight < heap[lightest].weight) {
+                lightest = right;
+            }
+            if (lightest == index) {
+                return;
+            }
+            swap(index, lightest);
+            index = lightest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        Counter<K> counter = heap[i];
+        heap[i] = heap[j];
+        heap[j] = counter;
+        heap[i].index = i;
+        heap[j].index = j;
+    }
+
+    private static class Counter<K> {
+
+        private K key;
+        private long weight;
+        private long error;
+        private int index;
+
+        Counter(K key, long weight, int index) {
+            this.key = key;
+            this.weight = weight;
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.redhat.service.bridge.infra.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket.
+ *
+ * The bucket is implemented with the Generic Cell Rate Algorithm: instead of a token count refilled by a timer, the
+ * whole state is the theoretical arrival time (TAT) of the next token, so that acquiring permits is a single
+ * compare-and-set on an {@link AtomicLong}. A bucket with capacity {@code n} allows bursts of up to {@code n} permits
+ * and then admits permits at the configured rate.
+ */
+public class TokenBucket {
+
+    /**
+     * Returned by {@link #reserve(long, long)} when the permits can not be granted within the maximum wait.
+     */
+    public static final long NOT_AVAILABLE = -1L;
+
+    private final long capacity;
+
+    private final long nanosPerPermit;
+
+    private final long burstNanos;
+
+    private final LongSupplier clock;
+
+    private final AtomicLong theoreticalArrivalTime;
+
+    public TokenBucket(double permitsPerSecond, long capacity) {
+        this(permitsPerSecond, capacity, System::nanoTime);
+    }
+
+    TokenBucket(double permitsPerSecond, long capacity, LongSupplier clock) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("The rate of a token bucket must be greater than zero");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity of a token bucket must be at least 1");
+        }
+        this.capacity = capacity;
+        this.nanosPerPermit = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstNanos = nanosPerPermit * capacity;
+        this.clock = clock;
+        this.theoreticalArrivalTime = new AtomicLong(clock.getAsLong());
+    }
+
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    /**
+     * Acquires the given number of permits if they are available right away.
+     *
+     * @param permits - The number of permits to acquire.
+     * @return - true if the permits have been acquired, false otherwise.
+     */
+    public boolean tryAcquire(long permits) {
+        return reserve(permits, 0) == 0;
+    }
+
+    /**
+     * Reserves the given number of permits, going into debt with the bucket if needed. The caller is expected to wait
+     * the returned amount of time before using the permits.
+     *
+     * @param permits - The number of permits to reserve.
+     * @param maxWaitNanos - The maximum time the caller is willing to wait for the permits.
+     * @return - The time in nanoseconds to wait before the permits can be used, or {@link #NOT_AVAILABLE} if the
+     *         permits are not available within the maximum wait. In the latter case nothing is reserved.
+     */
+    public long reserve(long permits, long maxWaitNanos) {
+        long increment = permits * nanosPerPermit;
+        while (true) {
+            long now = clock.getAsLong();
+            long tat = theoreticalArrivalTime.get();
+            long newTat = (tat - now > 0 ? tat : now) + increment;
+            long wait = newTat - now - burstNanos;
+            if (wait > maxWaitNanos) {
+                return NOT_AVAILABLE;
+            }
+            if (theoreticalArrivalTime.compareAndSet(tat, newTat)) {
+                return Math.max(0L, wait);
+            }
+        }
+    }
+
+    /**
+     * Gives back permits that have been acquired but not used, e.g. because another limit rejected the same request.
+     *
+     * @param permits - The number of permits to give back.
+     */
+    public void refund(long permits) {
+        long decrement = permits * nanosPerPermit;
+        while (true) {
+            long now = clock.getAsLong();
+            long tat = theoreticalArrivalTime.get();
+            long newTat = tat - decrement - now > 0 ? tat - decrement : now;
+            if (tat - now <= 0 || theoreticalArrivalTime.compareAndSet(tat, newTat)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param permits - The number of permits.
+     * @return - The time in nanoseconds until the given number of permits would be available, without reserving them.
+     */
+    public long nanosUntilAvailable(long permits) {
+        long now = clock.getAsLong();
+        long tat = theoreticalArrivalTime.get();
+        long newTat = (tat - now > 0 ? tat : now) + permits * nanosPerPermit;
+        return Math.max(0L, newTat - now - burstNanos);
+    }
+
+    /**
+     * @return - The maximum number of permits that can be acquired at once.
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+}
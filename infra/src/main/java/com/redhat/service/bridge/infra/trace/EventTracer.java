@@ -0,0 +1,141 @@
+package com.redhat.service.bridge.infra.trace;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.eclipse.microprofile.config.Config;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logs the progress of a sample of the events through the pipeline, instead of logging every event.
+ *
+ * Whether an event is traced only depends on its id, so that the ingress and the executor trace the same events. The
+ * sample rate applies to every Bridge and can be overridden for a single one, e.g. to trace all of its events while
+ * debugging. Traces are logged at INFO on the {@value #LOGGER_NAME} category as {@code key=value} pairs, so that they
+ * can be routed or silenced separately from the other logs.
+ *
+ * The same sample of the events starts the traces recorded by {@link Tracing}: see
+ * {@link #isSampled(String, String)}.
+ */
+public class EventTracer {
+
+    public static final String LOGGER_NAME = "com.redhat.service.bridge.trace";
+
+    /**
+     * The sample rate of all the Bridges, e.g. {@code event-bridge.trace.sample-rate=0.01}. A single Bridge is
+     * configured with its id, e.g. {@code event-bridge.trace.bridge.<bridgeId>.sample-rate=1}.
+     */
+    public static final String SAMPLE_RATE_CONFIG = "event-bridge.trace.sample-rate";
+    public static final String BRIDGE_CONFIG_PREFIX = "event-bridge.trace.bridge.";
+    public static final String BRIDGE_SAMPLE_RATE_CONFIG_SUFFIX = ".sample-rate";
+
+    private static final Logger LOG = LoggerFactory.getLogger(LOGGER_NAME);
+
+    private static final EventTracer DISABLED = new EventTracer("", 0, id -> Optional.empty());
+
+    private final String component;
+    private final double sampleRate;
+    private final Function<String, Optional<Double>> bridgeSampleRates;
+    private final Map<String, Double> sampleRates = new ConcurrentHashMap<>();
+
+    /**
+     * @param component - The component logging the traces, e.g. {@code ingress}.
+     * @param sampleRate - The fraction of the events traced, between 0 (none) and 1 (all).
+     * @param bridgeSampleRates - The sample rate of a Bridge, if it is overridden. Called once per Bridge.
+     */
+    public EventTracer(String component, double sampleRate, Function<String, Optional<Double>> bridgeSampleRates) {
+        this.component = component;
+        this.sampleRate = sampleRate;
+        this.bridgeSampleRates = bridgeSampleRates;
+    }
+
+    /**
+     * @param component - The component logging the traces, e.g. {@code ingress}.
+     * @param sampleRate - The value of {@value #SAMPLE_RATE_CONFIG}.
+     * @param config - Where the sample rates of the Bridges are read.
+     * @return - A tracer with the sample rates of the configuration.
+     */
+    public static EventTracer fromConfig(String component, double sampleRate, Config config) {
+        return new EventTracer(component, sampleRate, bridgeId -> config.getOptionalValue(BRIDGE_CONFIG_PREFIX + bridgeId + BRIDGE_SAMPLE_RATE_CONFIG_SUFFIX, Double.class));
+    }
+
+    public static EventTracer disabled() {
+        return DISABLED;
+    }
+
+    public String getComponent() {
+        return component;
+    }
+
+    /**
+     * @param bridgeId - The Bridge of the event.
+     * @param eventId - The id of the event.
+     * @return - true if the event is traced.
+     */
+    public boolean isTraced(String bridgeId, String eventId) {
+        return isSampled(bridgeId, eventId) && LOG.isInfoEnabled();
+    }
+
+    /**
+     * @param bridgeId - The Bridge of the event.
+     * @param eventId - The id of the event.
+     * @return - true if the event is in the sample of its Bridge, whether its traces are logged or not.
+     */
+    public boolean isSampled(String bridgeId, String eventId) {
+        double rate = getSampleRate(bridgeId);
+        if (rate <= 0 || eventId == null) {
+            return false;
+        }
+        return rate >= 1 || sample(eventId) < rate;
+    }
+
+    /**
+     * Logs a stage of an event, if the event is traced.
+     *
+     * @param stage - What happened to the event, e.g. {@code published}.
+     * @param bridgeId - The Bridge of the event.
+     * @param processorId - The Processor handling the event, or null.
+     * @param eventId - The id of the event.
+     */
+    public void trace(String stage, String bridgeId, String processorId, String eventId) {
+        if (isTraced(bridgeId, eventId)) {
+            if (processorId == null) {
+                LOG.info("[{}] stage={} bridge={} event={}", component, stage, bridgeId, eventId);
+            } else {
+                LOG.info("[{}] stage={} bridge={} processor={} event={}", component, stage, bridgeId, processorId, eventId);
+            }
+        }
+    }
+
+    /**
+     * @param bridgeId - The Bridge, or null.
+     * @return - The sample rate of the Bridge, the sample rate of all the Bridges if it is null.
+     */
+    public double getSampleRate(String bridgeId) {
+        if (bridgeId == null) {
+            return sampleRate;
+        }
+        Double rate = sampleRates.get(bridgeId);
+        if (rate == null) {
+            rate = sampleRates.computeIfAbsent(bridgeId, id -> bridgeSampleRates.apply(id).orElse(sampleRate));
+        }
+        return rate;
+    }
+
+    /*
+     * Maps the id of the event to [0, 1). The hash code of the id is mixed (the finalizer of MurmurHash3) so that ids
+     * sharing a prefix or a suffix are spread uniformly
+     */
+    static double sample(String eventId) {
+        long h = eventId.hashCode();
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (h >>> 11) * 0x1.0p-53;
+    }
+}
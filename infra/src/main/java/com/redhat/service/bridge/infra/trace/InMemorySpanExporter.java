@@ -0,0 +1,60 @@
+package com.redhat.service.bridge.infra.trace;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the last spans in memory, to check the traces locally (e.g. in tests) without a tracing backend.
+ */
+public class InMemorySpanExporter implements SpanExporter {
+
+    public static final int DEFAULT_CAPACITY = 10_000;
+
+    private final int capacity;
+    // Guarded by this
+    private final Deque<Span> spans = new ArrayDeque<>();
+
+    public InMemorySpanExporter() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity - The number of spans kept, the oldest ones are dropped.
+     */
+    public InMemorySpanExporter(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity of an in-memory span exporter must be at least 1");
+        }
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void export(Span span) {
+        if (spans.size() == capacity) {
+            spans.removeFirst();
+        }
+        spans.addLast(span);
+    }
+
+    /**
+     * @return - The spans kept, in the order they ended.
+     */
+    public synchronized List<Span> getFinishedSpans() {
+        return new ArrayList<>(spans);
+    }
+
+    /**
+     * @param traceId - The id of a trace.
+     * @return - The spans kept of the trace, in the order they ended.
+     */
+    public synchronized List<Span> getFinishedSpans(String traceId) {
+        return spans.stream().filter(span -> span.getContext().getTraceId().equals(traceId)).collect(Collectors.toList());
+    }
+
+    public synchronized void reset() {
+        spans.clear();
+    }
+}
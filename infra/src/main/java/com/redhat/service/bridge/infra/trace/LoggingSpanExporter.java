@@ -0,0 +1,31 @@
+package com.redhat.service.bridge.infra.trace;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logs the spans at INFO on the {@value EventTracer#LOGGER_NAME} category, as {@code key=value} pairs.
+ */
+public class LoggingSpanExporter implements SpanExporter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EventTracer.LOGGER_NAME);
+
+    @Override
+    public void export(Span span) {
+        if (!LOG.isInfoEnabled()) {
+            return;
+        }
+        StringBuilder attributes = new StringBuilder();
+        for (Map.Entry<String, Object> attribute : span.getAttributes().entrySet()) {
+            attributes.append(' ').append(attribute.getKey()).append('=').append(attribute.getValue());
+        }
+        if (span.getError() != null) {
+            attributes.append(" error=").append(span.getError());
+        }
+        LOG.info("[{}] span={} trace={} id={} parent={} duration={}us{}", span.getComponent(), span.getName(), span.getContext().getTraceId(), span.getContext().getSpanId(),
+                span.getParentSpanId(), TimeUnit.NANOSECONDS.toMicros(span.getDurationNanos()), attributes);
+    }
+}
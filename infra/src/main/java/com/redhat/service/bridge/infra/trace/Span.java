@@ -0,0 +1,175 @@
+package com.redhat.service.bridge.infra.trace;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A stage of the processing of an event, in a trace.
+ *
+ * Only the spans of sampled traces are recorded and exported when they end. The others still carry the context of the
+ * trace, so that it is handed over to the next stages, but their methods do nothing and allocate nothing. A span is made
+ * current on the thread processing the stage, so that the nested stages are started as its children without passing it
+ * around: see {@link #current()} and {@link #startChild(String)}.
+ *
+ * Not thread-safe: a span is started and ended by the same stage.
+ */
+public class Span {
+
+    public static final String BRIDGE_ATTRIBUTE = "bridge";
+    public static final String PROCESSOR_ATTRIBUTE = "processor";
+    public static final String EVENT_ATTRIBUTE = "event";
+
+    /**
+     * The span of the stages outside of a trace.
+     */
+    static final Span NONE = new Span(null, null, null, null, 0, 0);
+
+    private static final ThreadLocal<Span> CURRENT = ThreadLocal.withInitial(() -> NONE);
+
+    private static final Scope NO_SCOPE = () -> {
+    };
+
+    private final Tracing tracing;
+    private final String name;
+    private final TraceContext context;
+    private final String parentSpanId;
+    private final long startEpochNanos;
+    private final long startNanos;
+    private Map<String, Object> attributes;
+    private Throwable error;
+    private long durationNanos = -1;
+
+    Span(Tracing tracing, String name, TraceContext context, String parentSpanId, long startEpochNanos, long startNanos) {
+        this.tracing = tracing;
+        this.name = name;
+        this.context = context;
+        this.parentSpanId = parentSpanId;
+        this.startEpochNanos = startEpochNanos;
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * @param context - The context of a trace that is not recorded here.
+     * @return - A span handing over the context, without recording anything.
+     */
+    static Span nonRecording(TraceContext context) {
+        return new Span(null, null, context, null, 0, 0);
+    }
+
+    /**
+     * @return - The span current on this thread, a span without context if there is none.
+     */
+    public static Span current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Makes this span the current span of the thread, until the scope is closed.
+     */
+    public Scope makeCurrent() {
+        Span previous = CURRENT.get();
+        if (previous == this) {
+            return NO_SCOPE;
+        }
+        CURRENT.set(this);
+        return () -> CURRENT.set(previous);
+    }
+
+    /**
+     * @param name - The name of the nested stage.
+     * @return - The span of the nested stage, started now. This span if it is not recorded.
+     */
+    public Span startChild(String name) {
+        return tracing == null ? this : tracing.startChild(this, name);
+    }
+
+    public Span setAttribute(String key, Object value) {
+        if (tracing != null) {
+            if (attributes == null) {
+                attributes = new LinkedHashMap<>();
+            }
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    /**
+     * Marks the stage as failed.
+     */
+    public Span setError(Throwable error) {
+        if (tracing != null) {
+            this.error = error;
+        }
+        return this;
+    }
+
+    /**
+     * Ends the stage and exports the span, if it is recorded. Only the first call has an effect.
+     */
+    public void end() {
+        if (tracing != null && durationNanos < 0) {
+            durationNanos = Math.max(System.nanoTime() - startNanos, 0);
+            tracing.export(this);
+        }
+    }
+
+    public boolean isRecording() {
+        return tracing != null;
+    }
+
+    /**
+     * @return - The context of the trace, to hand over to the next stages. null outside of a trace.
+     */
+    public TraceContext getContext() {
+        return context;
+    }
+
+    public String getComponent() {
+        return tracing == null ? null : tracing.getComponent();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return - The id of the parent span, or null for the root span of the trace.
+     */
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public long getStartEpochNanos() {
+        return startEpochNanos;
+    }
+
+    /**
+     * @return - The duration of the stage, -1 until the span is ended.
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public Map<String, Object> getAttributes() {
+        return attributes == null ? Collections.emptyMap() : Collections.unmodifiableMap(attributes);
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "Span{name=" + name + ", context=" + context + ", parent=" + parentSpanId + ", durationNanos=" + durationNanos + "}";
+    }
+
+    /**
+     * Restores the span that was current when it was opened.
+     */
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
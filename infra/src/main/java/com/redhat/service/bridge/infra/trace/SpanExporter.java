@@ -0,0 +1,9 @@
+package com.redhat.service.bridge.infra.trace;
+
+/**
+ * Where the spans go once they are ended. Called on the thread ending the span: an exporter must not block.
+ */
+public interface SpanExporter {
+
+    void export(Span span);
+}
@@ -0,0 +1,177 @@
+package com.redhat.service.bridge.infra.trace;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeader;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.core.builder.CloudEventBuilder;
+import io.cloudevents.core.extensions.DistributedTracingExtension;
+
+/**
+ * The W3C trace context (https://www.w3.org/TR/trace-context/) of an event: the trace it belongs to, the span that
+ * handed it over, and whether the trace is sampled.
+ *
+ * The context travels with the event in the {@code traceparent} and {@code tracestate} attributes of the CloudEvents
+ * distributed tracing extension, and in the Kafka headers of the same names, so that the consumers of the records that
+ * do not read the events (e.g. of the topics of the Actions) can follow the trace as well.
+ */
+public final class TraceContext {
+
+    public static final String TRACEPARENT = DistributedTracingExtension.TRACEPARENT;
+    public static final String TRACESTATE = DistributedTracingExtension.TRACESTATE;
+
+    private static final String VERSION = "00";
+    private static final int TRACEPARENT_LENGTH = 55;
+
+    private final String traceId;
+    private final String spanId;
+    private final boolean sampled;
+    private final String traceState;
+
+    /**
+     * @param traceId - The id of the trace, 32 lowercase hexadecimal characters.
+     * @param spanId - The id of the span, 16 lowercase hexadecimal characters.
+     * @param sampled - true if the spans of the trace are recorded.
+     * @param traceState - The vendor specific state of the trace, or null.
+     */
+    public TraceContext(String traceId, String spanId, boolean sampled, String traceState) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.sampled = sampled;
+        this.traceState = traceState;
+    }
+
+    /**
+     * @param traceparent - The {@code traceparent}, e.g.
+     *        {@code 00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01}.
+     * @param tracestate - The {@code tracestate}, or null.
+     * @return - The context, or null if the {@code traceparent} is null or not valid.
+     */
+    public static TraceContext parse(String traceparent, String tracestate) {
+        if (traceparent == null || traceparent.length() < TRACEPARENT_LENGTH) {
+            return null;
+        }
+        // Later versions may append fields: only the ones of the version 00 are read
+        String version = traceparent.substring(0, 2);
+        if (!isHex(version) || "ff".equals(version) || (VERSION.equals(version) && traceparent.length() != TRACEPARENT_LENGTH)
+                || (traceparent.length() > TRACEPARENT_LENGTH && traceparent.charAt(TRACEPARENT_LENGTH) != '-')
+                || traceparent.charAt(2) != '-' || traceparent.charAt(35) != '-' || traceparent.charAt(52) != '-') {
+            return null;
+        }
+        String traceId = traceparent.substring(3, 35);
+        String spanId = traceparent.substring(36, 52);
+        String flags = traceparent.substring(53, 55);
+        if (!isHex(traceId) || isZero(traceId) || !isHex(spanId) || isZero(spanId) || !isHex(flags)) {
+            return null;
+        }
+        boolean sampled = (Character.digit(flags.charAt(1), 16) & 1) == 1;
+        return new TraceContext(traceId, spanId, sampled, tracestate == null || tracestate.isEmpty() ? null : tracestate);
+    }
+
+    /**
+     * @param event - The event.
+     * @return - The context in the distributed tracing extension of the event, or null if it has none.
+     */
+    public static TraceContext fromEvent(CloudEvent event) {
+        Object traceparent = event.getExtension(TRACEPARENT);
+        if (traceparent == null) {
+            return null;
+        }
+        Object tracestate = event.getExtension(TRACESTATE);
+        return parse(traceparent.toString(), tracestate == null ? null : tracestate.toString());
+    }
+
+    /**
+     * @param headers - The headers of a Kafka record.
+     * @return - The context in the headers, or null if they have none.
+     */
+    public static TraceContext fromHeaders(Headers headers) {
+        Header traceparent = headers.lastHeader(TRACEPARENT);
+        if (traceparent == null || traceparent.value() == null) {
+            return null;
+        }
+        Header tracestate = headers.lastHeader(TRACESTATE);
+        return parse(new String(traceparent.value(), StandardCharsets.UTF_8),
+                tracestate == null || tracestate.value() == null ? null : new String(tracestate.value(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Sets the context in the distributed tracing extension of the event being built.
+     */
+    public CloudEventBuilder writeTo(CloudEventBuilder builder) {
+        builder.withExtension(TRACEPARENT, getTraceparent());
+        if (traceState != null) {
+            builder.withExtension(TRACESTATE, traceState);
+        }
+        return builder;
+    }
+
+    /**
+     * @return - The Kafka headers of the context.
+     */
+    public List<RecordHeader> toHeaders() {
+        List<RecordHeader> headers = new ArrayList<>(2);
+        headers.add(new RecordHeader(TRACEPARENT, getTraceparent().getBytes(StandardCharsets.UTF_8)));
+        if (traceState != null) {
+            headers.add(new RecordHeader(TRACESTATE, traceState.getBytes(StandardCharsets.UTF_8)));
+        }
+        return headers;
+    }
+
+    /**
+     * @return - The same context, with the trace not sampled.
+     */
+    public TraceContext unsampled() {
+        return sampled ? new TraceContext(traceId, spanId, false, traceState) : this;
+    }
+
+    public String getTraceparent() {
+        return VERSION + '-' + traceId + '-' + spanId + (sampled ? "-01" : "-00");
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    public String getTraceState() {
+        return traceState;
+    }
+
+    @Override
+    public String toString() {
+        return getTraceparent();
+    }
+
+    // Only lowercase hexadecimal characters are valid
+    private static boolean isHex(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isZero(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
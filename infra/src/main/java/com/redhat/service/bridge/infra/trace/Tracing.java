@@ -0,0 +1,158 @@
+package com.redhat.service.bridge.infra.trace;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.config.Config;
+
+/**
+ * Starts the spans of the stages of the events, and hands them over to the {@link SpanExporter} once they end.
+ *
+ * Whether a trace is sampled is decided once, by the ingress, with the sample of the {@link EventTracer}: an event that
+ * does not have a {@link TraceContext} starts a trace if it is in the sample of its Bridge, so that the events whose
+ * stages are logged are the ones whose spans are recorded. An event sent with the context of a trace follows its
+ * sampling decision, unless the sample rate of its Bridge is 0. The decision is carried to the next stages by the
+ * {@code sampled} flag of the context: see {@link #startSpan(String, String, String, TraceContext)} and
+ * {@link #continueSpan(String, TraceContext)}.
+ */
+public class Tracing {
+
+    /**
+     * Where the spans are exported: {@value #LOG_EXPORTER} (default) or {@value #MEMORY_EXPORTER}. The sample rates are
+     * the ones of the {@link EventTracer}, e.g. {@value EventTracer#SAMPLE_RATE_CONFIG}.
+     */
+    public static final String EXPORTER_CONFIG = "event-bridge.trace.exporter";
+    public static final String LOG_EXPORTER = "log";
+    public static final String MEMORY_EXPORTER = "memory";
+
+    private static final Tracing DISABLED = new Tracing(EventTracer.disabled(), span -> {
+    });
+
+    private final EventTracer sampler;
+    private final SpanExporter exporter;
+
+    /**
+     * @param sampler - Decides which events start a trace, and which Bridges are not traced at all.
+     * @param exporter - Where the spans go.
+     */
+    public Tracing(EventTracer sampler, SpanExporter exporter) {
+        this.sampler = sampler;
+        this.exporter = exporter;
+    }
+
+    /**
+     * @param sampler - Decides which events start a trace, and which Bridges are not traced at all.
+     * @param config - Where the exporter is read.
+     * @return - The tracing of the configuration.
+     */
+    public static Tracing fromConfig(EventTracer sampler, Config config) {
+        String exporter = config.getOptionalValue(EXPORTER_CONFIG, String.class).orElse(LOG_EXPORTER);
+        return new Tracing(sampler, exporterFor(exporter));
+    }
+
+    public static Tracing disabled() {
+        return DISABLED;
+    }
+
+    private static SpanExporter exporterFor(String exporter) {
+        switch (exporter) {
+            case LOG_EXPORTER:
+                return new LoggingSpanExporter();
+            case MEMORY_EXPORTER:
+                return new InMemorySpanExporter();
+            default:
+                throw new IllegalArgumentException("Unknown span exporter '" + exporter + "' in " + EXPORTER_CONFIG + ", expected " + LOG_EXPORTER + " or " + MEMORY_EXPORTER);
+        }
+    }
+
+    /**
+     * Starts the span of an event entering the pipeline, deciding whether its trace is sampled.
+     *
+     * @param name - The name of the stage.
+     * @param bridgeId - The Bridge of the event.
+     * @param eventId - The id of the event.
+     * @param parent - The context the event was sent with, or null.
+     * @return - The span, recorded if the trace is sampled. Not recorded and without context if the event had none
+     *         and is not sampled.
+     */
+    public Span startSpan(String name, String bridgeId, String eventId, TraceContext parent) {
+        if (parent != null) {
+            return parent.isSampled() && sampler.getSampleRate(bridgeId) > 0 ? startSpan(name, parent, currentEpochNanos()) : Span.nonRecording(parent.unsampled());
+        }
+        if (!sampler.isSampled(bridgeId, eventId)) {
+            return Span.NONE;
+        }
+        return new Span(this, name, new TraceContext(randomId(2), randomId(1), true, null), null, currentEpochNanos(), System.nanoTime());
+    }
+
+    /**
+     * Starts the span of a stage following the sampling decision of the previous stages.
+     *
+     * @param name - The name of the stage.
+     * @param parent - The context of the previous stage, or null.
+     * @return - The span, recorded if the trace is sampled.
+     */
+    public Span continueSpan(String name, TraceContext parent) {
+        if (parent == null) {
+            return Span.NONE;
+        }
+        return parent.isSampled() ? startSpan(name, parent, currentEpochNanos()) : Span.nonRecording(parent);
+    }
+
+    /**
+     * Starts the span of a stage that started earlier, e.g. when the event was written to a topic.
+     *
+     * @param startEpochNanos - When the stage started, in nanoseconds since the epoch.
+     */
+    public Span continueSpan(String name, TraceContext parent, long startEpochNanos) {
+        if (parent == null) {
+            return Span.NONE;
+        }
+        return parent.isSampled() ? startSpan(name, parent, startEpochNanos) : Span.nonRecording(parent);
+    }
+
+    Span startChild(Span parent, String name) {
+        return startSpan(name, parent.getContext(), currentEpochNanos());
+    }
+
+    void export(Span span) {
+        exporter.export(span);
+    }
+
+    public String getComponent() {
+        return sampler.getComponent();
+    }
+
+    public SpanExporter getExporter() {
+        return exporter;
+    }
+
+    private Span startSpan(String name, TraceContext parent, long startEpochNanos) {
+        long now = currentEpochNanos();
+        TraceContext context = new TraceContext(parent.getTraceId(), randomId(1), true, parent.getTraceState());
+        return new Span(this, name, context, parent.getSpanId(), startEpochNanos, System.nanoTime() - Math.max(now - startEpochNanos, 0));
+    }
+
+    private static long currentEpochNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+    }
+
+    /*
+     * A random id of 8 bytes per long, in lowercase hexadecimal. An id can not be all zeros
+     */
+    private static String randomId(int longs) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] id = new char[longs * 16];
+        for (int i = 0; i < longs; i++) {
+            long value = random.nextLong();
+            while (i == 0 && value == 0) {
+                value = random.nextLong();
+            }
+            for (int j = 15; j >= 0; j--) {
+                id[i * 16 + j] = Character.forDigit((int) (value & 0xf), 16);
+                value >>>= 4;
+            }
+        }
+        return new String(id);
+    }
+}
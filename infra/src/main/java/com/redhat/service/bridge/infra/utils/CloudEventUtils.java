@@ -1,17 +1,20 @@
 package com.redhat.service.bridge.infra.utils;
 
+import java.io.IOException;
 import java.net.URI;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.redhat.service.bridge.infra.format.CloudEventJsonCodec;
 import com.redhat.service.bridge.infra.utils.exceptions.CloudEventDeserializationException;
 import com.redhat.service.bridge.infra.utils.exceptions.CloudEventSerializationException;
 
 import io.cloudevents.CloudEvent;
+import io.cloudevents.CloudEventData;
 import io.cloudevents.SpecVersion;
 import io.cloudevents.core.builder.CloudEventBuilder;
 import io.cloudevents.jackson.JsonCloudEventData;
@@ -40,18 +43,49 @@ public class CloudEventUtils {
         return builderFor(id, specVersion, source, subject, data).build();
     }
 
+    /**
+     * @param data - The event to wrap, it becomes the data of the new event as a JSON tree.
+     * @return - A builder of the event wrapping <code>data</code>.
+     */
+    public static CloudEventBuilder builderFor(String id, SpecVersion specVersion, URI source, String subject, CloudEvent data) {
+        return builderFor(id, specVersion, source, subject, toJsonNode(data));
+    }
+
     public static CloudEvent build(String id, SpecVersion specVersion, URI source, String subject, CloudEvent data) {
-        try {
-            return build(id, specVersion, source, subject, OBJECT_MAPPER.readTree(encode(data)));
-        } catch (JsonProcessingException e) {
-            throw new CloudEventDeserializationException("Failed to parse cloud event to wrap");
+        return builderFor(id, specVersion, source, subject, data).build();
+    }
+
+    /**
+     * Converts an event to the JSON tree of its structured JSON representation, as written by {@link #encode(CloudEvent)},
+     * without going through a string.
+     *
+     * The attributes are converted with {@link #getMapper()}, while JSON data is attached to the tree as is: data that is
+     * already a JSON tree is shared with the event instead of being copied, and data kept as raw bytes is parsed once.
+     *
+     * @param event - The event.
+     * @return - The JSON tree of the event.
+     */
+    public static ObjectNode toJsonNode(CloudEvent event) {
+        CloudEvent withJsonData = withJsonData(event);
+        CloudEventData data = withJsonData.getData();
+        if (!(data instanceof JsonCloudEventData)) {
+            ObjectNode node = OBJECT_MAPPER.valueToTree(withJsonData);
+            // Binary data is kept as bytes in the tree, while it is a base64 string once encoded
+            JsonNode base64 = node.get("data_base64");
+            if (base64 != null && base64.isBinary()) {
+                node.put("data_base64", base64.asText());
+            }
+            return node;
         }
+        ObjectNode node = OBJECT_MAPPER.valueToTree(CloudEventBuilder.from(withJsonData).withoutData().build());
+        node.set("data", ((JsonCloudEventData) data).getNode());
+        return node;
     }
 
     public static String encode(CloudEvent event) {
         try {
-            return OBJECT_MAPPER.writeValueAsString(event);
-        } catch (JsonProcessingException e) {
+            return CloudEventJsonCodec.encodeToString(event);
+        } catch (IOException e) {
             LOG.error("Unable to encode CloudEvent", e);
             throw new CloudEventSerializationException("Failed to encode CloudEvent");
         }
@@ -59,13 +93,46 @@ public class CloudEventUtils {
 
     public static CloudEvent decode(String json) {
         try {
-            return OBJECT_MAPPER.readValue(json, CloudEvent.class);
-        } catch (JsonProcessingException e) {
+            return CloudEventJsonCodec.decode(json);
+        } catch (IOException e) {
             LOG.error("Unable to decode CloudEvent", e);
             throw new CloudEventDeserializationException("Failed to decode Cloud Event");
         }
     }
 
+    /**
+     * @param json - An event in the structured JSON format, as UTF-8 bytes.
+     * @return - The event.
+     */
+    public static CloudEvent decode(byte[] json) {
+        try {
+            return CloudEventJsonCodec.decode(json);
+        } catch (IOException e) {
+            LOG.error("Unable to decode CloudEvent", e);
+            throw new CloudEventDeserializationException("Failed to decode Cloud Event");
+        }
+    }
+
+    /**
+     * Events received in the binary content mode keep their data as raw bytes. This parses JSON data into a tree, so
+     * that the data is part of the event when it is mapped with {@link #getMapper()}.
+     *
+     * @param event - The event.
+     * @return - The same event, with its data as a JSON tree when the data is JSON.
+     */
+    public static CloudEvent withJsonData(CloudEvent event) {
+        CloudEventData data = event.getData();
+        if (data == null || data instanceof JsonCloudEventData || !CloudEventJsonCodec.isJsonContentType(event.getDataContentType())) {
+            return event;
+        }
+        try {
+            return CloudEventBuilder.from(event).withData(JsonCloudEventData.wrap(OBJECT_MAPPER.readTree(data.toBytes()))).build();
+        } catch (IOException e) {
+            LOG.error("Unable to parse the data of CloudEvent", e);
+            throw new CloudEventDeserializationException("Failed to parse the data of Cloud Event");
+        }
+    }
+
     public static ObjectMapper getMapper() {
         return OBJECT_MAPPER;
     }
@@ -0,0 +1,285 @@
+package com.redhat.service.bridge.infra.wal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log made of memory-mapped segment files.
+ *
+ * Records are addressed by their position in the log. Each record is stored as its length, the CRC32 of its content
+ * and the content itself: a record that was not entirely written (e.g. because of a crash) is detected when the log is
+ * opened and everything after it is discarded. The log keeps a committed position: the records before it are not
+ * needed anymore and the segments that only contain such records are deleted.
+ *
+ * Appends are serialized, while reads can happen concurrently with appends.
+ */
+public class SegmentedLog implements Closeable {
+
+    /**
+     * Receives the records read from the log.
+     */
+    @FunctionalInterface
+    public interface RecordConsumer {
+        void accept(long position, byte[] record);
+    }
+
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String COMMITTED_POSITION_FILE = "committed";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private volatile long committedPosition;
+    private Segment activeSegment;
+
+    private SegmentedLog(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Opens the log stored in the given directory, creating it if needed.
+     *
+     * @param directory - The directory of the segment files.
+     * @param segmentSize - The size in bytes of each segment file, i.e. the maximum size of a record plus 8 bytes.
+     * @return - The log.
+     */
+    public static SegmentedLog open(Path directory, int segmentSize) {
+        SegmentedLog log = new SegmentedLog(directory, segmentSize);
+        try {
+            log.load();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open the log in " + directory, e);
+        }
+        return log;
+    }
+
+    /**
+     * @param record - The content of the record.
+     * @return - The position of the record.
+     */
+    public synchronized long append(byte[] record) {
+        int size = HEADER_SIZE + record.length;
+        if (record.length == 0) {
+            throw new IllegalArgumentException("Empty records can not be appended to the log");
+        }
+        if (size > segmentSize) {
+            throw new IllegalArgumentException("Record of " + record.length + " bytes does not fit in a segment of " + segmentSize + " bytes");
+        }
+        if (activeSegment.writePosition + size > segmentSize) {
+            activeSegment.buffer.force();
+            activeSegment = createSegment(activeSegment.basePosition + segmentSize);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(record, 0, record.length);
+
+        Segment segment = activeSegment;
+        int offset = segment.writePosition;
+        ByteBuffer buffer = segment.buffer.duplicate();
+        buffer.putInt(offset + Integer.BYTES, (int) crc.getValue());
+        buffer.position(offset + HEADER_SIZE);
+        buffer.put(record);
+        // The length is written last, so that a partially written record is never seen as valid
+        buffer.putInt(offset, record.length);
+        segment.writePosition = offset + size;
+        return segment.basePosition + offset;
+    }
+
+    /**
+     * Reads the records starting from the given position.
+     *
+     * @param fromPosition - The position of the first record to read. Positions before the start of the log are moved
+     *        to the start of the log.
+     * @param maxRecords - The maximum number of records to read.
+     * @param consumer - Receives the records.
+     * @return - The position after the last record read.
+     */
+    public long read(long fromPosition, int maxRecords, RecordConsumer consumer) {
+        long position = Math.max(fromPosition, getStartPosition());
+        int read = 0;
+        while (read < maxRecords) {
+            Map.Entry<Long, Segment> entry = segments.floorEntry(position);
+            if (entry == null) {
+                return position;
+            }
+            Segment segment = entry.getValue();
+            int offset = (int) (position - segment.basePosition);
+            if (offset >= segment.writePosition) {
+                Long next = segments.higherKey(segment.basePosition);
+                if (next == null) {
+                    return position;
+                }
+                position = next;
+                continue;
+            }
+            ByteBuffer buffer = segment.buffer.duplicate();
+            int length = buffer.getInt(offset);
+            byte[] record = new byte[length];
+            buffer.position(offset + HEADER_SIZE);
+            buffer.get(record);
+            consumer.accept(position, record);
+            position += HEADER_SIZE + length;
+            read++;
+        }
+        return position;
+    }
+
+    /**
+     * Marks the records before the given position as not needed anymore, deleting the segments that only contain such
+     * records.
+     *
+     * @param position - The new committed position.
+     */
+    public synchronized void commit(long position) {
+        if (position <= committedPosition) {
+            return;
+        }
+        try {
+            Path tmp = directory.resolve(COMMITTED_POSITION_FILE + ".tmp");
+            Files.write(tmp, ByteBuffer.allocate(Long.BYTES).putLong(0, position).array());
+            Files.move(tmp, directory.resolve(COMMITTED_POSITION_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committedPosition = position;
+
+            Long floor = segments.floorKey(position);
+            for (Long basePosition : segments.headMap(floor == null ? position : floor, false).keySet()) {
+                segments.remove(basePosition);
+                Files.deleteIfExists(segmentPath(basePosition));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to commit the log in " + directory, e);
+        }
+    }
+
+    public long getCommittedPosition() {
+        return committedPosition;
+    }
+
+    /**
+     * @return - The position of the first record still available in the log.
+     */
+    public long getStartPosition() {
+        return Math.max(committedPosition, segments.firstKey());
+    }
+
+    /**
+     * @return - The position of the next record to be appended.
+     */
+    public long getEndPosition() {
+        Segment segment = segments.lastEntry().getValue();
+        return segment.basePosition + segment.writePosition;
+    }
+
+    /**
+     * Forces the content of the log to the storage device.
+     */
+    public synchronized void flush() {
+        activeSegment.buffer.force();
+    }
+
+    @Override
+    public synchronized void close() {
+        flush();
+        segments.clear();
+    }
+
+    private void load() throws IOException {
+        Files.createDirectories(directory);
+        Path committedFile = directory.resolve(COMMITTED_POSITION_FILE);
+        if (Files.exists(committedFile)) {
+            committedPosition = ByteBuffer.wrap(Files.readAllBytes(committedFile)).getLong();
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long basePosition = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                if (basePosition + segmentSize <= committedPosition) {
+                    Files.delete(file);
+                } else {
+                    segments.put(basePosition, mapSegment(basePosition));
+                }
+            }
+        }
+
+        if (segments.isEmpty()) {
+            activeSegment = createSegment(committedPosition);
+        } else {
+            activeSegment = segments.lastEntry().getValue();
+        }
+    }
+
+    private Segment createSegment(long basePosition) {
+        try {
+            Segment segment = mapSegment(basePosition);
+            segments.put(basePosition, segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create a segment in " + directory, e);
+        }
+    }
+
+    private Segment mapSegment(long basePosition) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(basePosition), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            Segment segment = new Segment(basePosition, buffer);
+            segment.writePosition = recoverWritePosition(buffer);
+            return segment;
+        }
+    }
+
+    private int recoverWritePosition(ByteBuffer buffer) {
+        int offset = 0;
+        while (offset + HEADER_SIZE <= segmentSize) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + HEADER_SIZE + length > segmentSize) {
+                break;
+            }
+            CRC32 crc = new CRC32();
+            for (int i = 0; i < length; i++) {
+                crc.update(buffer.get(offset + HEADER_SIZE + i));
+            }
+            if ((int) crc.getValue() != buffer.getInt(offset + Integer.BYTES)) {
+                break;
+            }
+            offset += HEADER_SIZE + length;
+        }
+        // Whatever follows the last valid record is garbage from an interrupted write
+        if (offset + HEADER_SIZE <= segmentSize && buffer.getLong(offset) != 0) {
+            for (int i = offset; i < segmentSize; i++) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+        return offset;
+    }
+
+    private Path segmentPath(long basePosition) {
+        return directory.resolve(String.format("%020d%s", basePosition, SEGMENT_SUFFIX));
+    }
+
+    private static class Segment {
+
+        private final long basePosition;
+        private final MappedByteBuffer buffer;
+        private volatile int writePosition;
+
+        Segment(long basePosition, MappedByteBuffer buffer) {
+            this.basePosition = basePosition;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.redhat.service.bridge.infra;
 
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
@@ -33,4 +36,40 @@ public class BridgeCloudEventExtensionTest {
 
         assertThat(b.getValue(BridgeCloudEventExtension.BRIDGE_ID)).isEqualTo(bridgeId);
     }
+
+    @Test
+    public void readFrom_arrivalTime() {
+        OffsetDateTime arrivalTime = OffsetDateTime.of(2021, 10, 1, 12, 30, 15, 123456000, ZoneOffset.UTC);
+
+        CloudEventExtensions extensions = Mockito.mock(CloudEventExtensions.class);
+        when(extensions.getExtension(BridgeCloudEventExtension.ARRIVAL_TIME)).thenReturn(arrivalTime);
+        BridgeCloudEventExtension b = new BridgeCloudEventExtension();
+        b.readFrom(extensions);
+        assertThat(b.getArrivalTime()).isEqualTo(arrivalTime);
+
+        // As read from the headers of a record in the binary content mode
+        when(extensions.getExtension(BridgeCloudEventExtension.ARRIVAL_TIME)).thenReturn("2021-10-01T12:30:15.123456Z");
+        b = new BridgeCloudEventExtension();
+        b.readFrom(extensions);
+        assertThat(b.getArrivalTime()).isEqualTo(arrivalTime);
+    }
+
+    @Test
+    public void readFrom_invalidArrivalTime() {
+        CloudEventExtensions extensions = Mockito.mock(CloudEventExtensions.class);
+        when(extensions.getExtension(BridgeCloudEventExtension.ARRIVAL_TIME)).thenReturn("yesterday");
+
+        BridgeCloudEventExtension b = new BridgeCloudEventExtension();
+        b.readFrom(extensions);
+        assertThat(b.getArrivalTime()).isNull();
+    }
+
+    @Test
+    public void getValue_arrivalTime() {
+        OffsetDateTime arrivalTime = OffsetDateTime.now(ZoneOffset.UTC);
+
+        BridgeCloudEventExtension b = new BridgeCloudEventExtension("myBridgeId", arrivalTime);
+
+        assertThat(b.getValue(BridgeCloudEventExtension.ARRIVAL_TIME)).isEqualTo(arrivalTime);
+    }
 }
@@ -0,0 +1,48 @@
+package com.redhat.service.bridge.infra.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class BloomFilterTest {
+
+    @Test
+    public void testAddedKeysAreAlwaysFound() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put("key-" + i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertThat(filter.mightContain("key-" + i)).isTrue();
+        }
+        assertThat(filter.put("key-0")).isFalse();
+        assertThat(filter.put("another-key")).isTrue();
+    }
+
+    @Test
+    public void testFalsePositiveRateIsBounded() {
+        BloomFilter filter = new BloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            filter.put("key-" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(200);
+    }
+
+    @Test
+    public void testSizeDependsOnTheExpectedKeys() {
+        assertThat(new BloomFilter(100000, 0.001).getSizeInBytes()).isBetween(170000L, 190000L);
+    }
+
+    @Test
+    public void testInvalidSettings() {
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> new BloomFilter(0, 0.01));
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> new BloomFilter(10, 1));
+    }
+}
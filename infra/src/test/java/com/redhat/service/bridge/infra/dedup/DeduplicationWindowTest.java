@@ -0,0 +1,55 @@
+package com.redhat.service.bridge.infra.dedup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DeduplicationWindowTest {
+
+    @Test
+    public void testKeysAreRememberedDuringTheWindow() {
+        AtomicLong clock = new AtomicLong();
+        DeduplicationWindow window = new DeduplicationWindow(4, TimeUnit.SECONDS, 4, 1000, 0.001, clock::get);
+
+        assertThat(window.mightContain("key")).isFalse();
+        window.put("key");
+        assertThat(window.mightContain("key")).isTrue();
+        assertThat(window.mightContain("other")).isFalse();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(3));
+        assertThat(window.mightContain("key")).isTrue();
+    }
+
+    @Test
+    public void testKeysAreForgottenWhenTheWindowSlides() {
+        AtomicLong clock = new AtomicLong();
+        DeduplicationWindow window = new DeduplicationWindow(4, TimeUnit.SECONDS, 4, 1000, 0.001, clock::get);
+        window.put("first");
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        window.put("second");
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertThat(window.mightContain("first")).isFalse();
+        assertThat(window.mightContain("second")).isTrue();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertThat(window.mightContain("second")).isFalse();
+    }
+
+    @Test
+    public void testBucketsAreReused() {
+        AtomicLong clock = new AtomicLong(-TimeUnit.SECONDS.toNanos(10));
+        DeduplicationWindow window = new DeduplicationWindow(2, TimeUnit.SECONDS, 2, 1000, 0.001, clock::get);
+        for (int i = 0; i < 20; i++) {
+            window.put("key-" + i);
+            assertThat(window.mightContain("key-" + i)).isTrue();
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        }
+        assertThat(window.mightContain("key-0")).isFalse();
+        assertThat(window.mightContain("key-19")).isTrue();
+    }
+}
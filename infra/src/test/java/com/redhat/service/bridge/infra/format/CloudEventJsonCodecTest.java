@@ -0,0 +1,149 @@
+package com.redhat.service.bridge.infra.format;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.service.bridge.infra.BridgeCloudEventExtension;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.core.builder.CloudEventBuilder;
+import io.cloudevents.jackson.JsonCloudEventData;
+import io.cloudevents.jackson.JsonFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class CloudEventJsonCodecTest {
+
+    // The generic CloudEvents Jackson module, the codec must be interchangeable with it
+    private static final ObjectMapper GENERIC = new ObjectMapper().registerModule(JsonFormat.getCloudEventJacksonModule());
+
+    private static final String DATA = "{\"key\":\"value\",\"list\":[1,2.5,{\"nested\":true}]}";
+
+    @Test
+    public void testSameOutputAsTheGenericModule() throws IOException {
+        for (CloudEvent cloudEvent : events()) {
+            assertThat(CloudEventJsonCodec.encodeToString(cloudEvent)).isEqualTo(GENERIC.writeValueAsString(cloudEvent));
+        }
+    }
+
+    @Test
+    public void testSameEventsAsTheGenericModule() throws IOException {
+        for (CloudEvent cloudEvent : events()) {
+            String json = GENERIC.writeValueAsString(cloudEvent);
+
+            assertThat(CloudEventJsonCodec.decode(json)).isEqualTo(GENERIC.readValue(json, CloudEvent.class));
+            assertThat(CloudEventJsonCodec.decode(json.getBytes(StandardCharsets.UTF_8))).isEqualTo(GENERIC.readValue(json, CloudEvent.class));
+        }
+    }
+
+    @Test
+    public void testContentTypeAfterTheData() throws IOException {
+        CloudEvent cloudEvent = CloudEventJsonCodec.decode("{\"data\":\"some text\",\"specversion\":\"1.0\",\"id\":\"myId\",\"source\":\"mySource\","
+                + "\"type\":\"myType\",\"datacontenttype\":\"text/plain\"}");
+
+        assertThat(cloudEvent.getData().toBytes()).isEqualTo("some text".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testJsonDataIsATree() throws IOException {
+        CloudEvent cloudEvent = CloudEventJsonCodec.decode("{\"specversion\":\"1.0\",\"id\":\"myId\",\"source\":\"mySource\",\"type\":\"myType\",\"data\":" + DATA + "}");
+
+        assertThat(cloudEvent.getData()).isInstanceOf(JsonCloudEventData.class);
+        assertThat(((JsonCloudEventData) cloudEvent.getData()).getNode().get("key").asText()).isEqualTo("value");
+    }
+
+    @Test
+    public void testJsonSuffixDataIsJson() throws IOException {
+        CloudEvent cloudEvent = CloudEventBuilder.v1()
+                .withId("myId")
+                .withSource(URI.create("mySource"))
+                .withType("myType")
+                .withData("application/vnd.example+json", DATA.getBytes(StandardCharsets.UTF_8))
+                .build();
+
+        String json = CloudEventJsonCodec.encodeToString(cloudEvent);
+
+        assertThat(json).contains("\"data\":" + DATA).doesNotContain("data_base64");
+        assertThat(CloudEventJsonCodec.decode(json).getData()).isInstanceOf(JsonCloudEventData.class);
+    }
+
+    @Test
+    public void testLargeEventsAfterSmallOnes() throws IOException {
+        // The buffer grown by the large event is dropped, the next events are written to a new one
+        for (int size : new int[] { 10, 1_000_000, 10 }) {
+            char[] subject = new char[size];
+            Arrays.fill(subject, 'a');
+            CloudEvent cloudEvent = CloudEventBuilder.v1()
+                    .withId("myId")
+                    .withSource(URI.create("mySource"))
+                    .withType("myType")
+                    .withSubject(new String(subject))
+                    .build();
+
+            assertThat(CloudEventJsonCodec.encodeToString(cloudEvent)).isEqualTo(GENERIC.writeValueAsString(cloudEvent));
+        }
+    }
+
+    @Test
+    public void testInvalidEvents() {
+        assertThatExceptionOfType(IOException.class).isThrownBy(() -> CloudEventJsonCodec.decode("not a cloud event"));
+        assertThatExceptionOfType(IOException.class).isThrownBy(() -> CloudEventJsonCodec.decode("[]"));
+        assertThatExceptionOfType(IOException.class).isThrownBy(() -> CloudEventJsonCodec.decode("{\"specversion\":\"1.0\",\"id\":\"myId\"}"));
+        assertThatExceptionOfType(IOException.class).isThrownBy(() -> CloudEventJsonCodec.decode("{\"id\":\"myId\",\"source\":\"mySource\",\"type\":\"myType\"}"));
+        assertThatExceptionOfType(IOException.class)
+                .isThrownBy(() -> CloudEventJsonCodec.decode("{\"specversion\":\"1.0\",\"id\":1,\"source\":\"mySource\",\"type\":\"myType\"}"));
+        assertThatExceptionOfType(IOException.class)
+                .isThrownBy(() -> CloudEventJsonCodec.decode("{\"specversion\":\"1.0\",\"id\":\"myId\",\"source\":\"not a uri\",\"type\":\"myType\"}"));
+        assertThatExceptionOfType(IOException.class)
+                .isThrownBy(() -> CloudEventJsonCodec.decode("{\"specversion\":\"1.0\",\"id\":\"myId\",\"source\":\"mySource\",\"type\":\"myType\",\"time\":\"yesterday\"}"));
+    }
+
+    private static List<CloudEvent> events() throws JsonProcessingException {
+        return Arrays.asList(
+                CloudEventBuilder.v1()
+                        .withId("myId")
+                        .withSource(URI.create("/my/source"))
+                        .withType("myType")
+                        .build(),
+                CloudEventBuilder.v1()
+                        .withId("myId")
+                        .withSource(URI.create("/my/source"))
+                        .withType("com.example.OrderUpdated")
+                        .withSubject("mySubject")
+                        .withDataSchema(URI.create("http://example.com/schema"))
+                        .withTime(OffsetDateTime.of(2021, 10, 1, 12, 30, 15, 123000000, ZoneOffset.UTC))
+                        .withExtension(BridgeCloudEventExtension.BRIDGE_ID, "myBridge")
+                        .withExtension("myboolean", true)
+                        .withExtension("myinteger", 42)
+                        .withData(JsonCloudEventData.wrap(GENERIC.readTree(DATA)))
+                        .build(),
+                CloudEventBuilder.v1()
+                        .withId("myId")
+                        .withSource(URI.create("mySource"))
+                        .withType("myType")
+                        .withData("application/json", DATA.getBytes(StandardCharsets.UTF_8))
+                        .build(),
+                CloudEventBuilder.v1()
+                        .withId("myId")
+                        .withSource(URI.create("mySource"))
+                        .withType("myType")
+                        .withData("application/octet-stream", new byte[] { 0, -1, 2 })
+                        .build(),
+                CloudEventBuilder.v03()
+                        .withId("myId")
+                        .withSource(URI.create("mySource"))
+                        .withType("myType")
+                        .withSubject("mySubject")
+                        .build());
+    }
+}
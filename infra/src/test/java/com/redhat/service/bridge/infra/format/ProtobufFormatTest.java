@@ -0,0 +1,110 @@
+package com.redhat.service.bridge.infra.format;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.redhat.service.bridge.infra.BridgeCloudEventExtension;
+import com.redhat.service.bridge.infra.utils.CloudEventUtils;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.SpecVersion;
+import io.cloudevents.core.builder.CloudEventBuilder;
+import io.cloudevents.core.format.EventDeserializationException;
+import io.cloudevents.core.provider.EventFormatProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class ProtobufFormatTest {
+
+    private final ProtobufFormat format = new ProtobufFormat();
+
+    @Test
+    public void testRoundTrip() {
+        CloudEvent cloudEvent = CloudEventBuilder.v1()
+                .withId("myId")
+                .withSource(URI.create("/my/source"))
+                .withType("com.example.OrderUpdated")
+                .withSubject("mySubject")
+                .withDataSchema(URI.create("http://example.com/schema"))
+                .withTime(OffsetDateTime.of(2021, 10, 1, 12, 30, 15, 123456789, ZoneOffset.UTC))
+                .withExtension(BridgeCloudEventExtension.BRIDGE_ID, "myBridge")
+                .withExtension("myboolean", true)
+                .withExtension("myinteger", -42)
+                .withExtension("mybytes", new byte[] { 1, 2, 3 })
+                .withExtension("myuri", URI.create("http://example.com"))
+                .withData("application/octet-stream", new byte[] { 0, -1, 2 })
+                .build();
+
+        CloudEvent deserialized = format.deserialize(format.serialize(cloudEvent));
+
+        // Byte arrays are compared by reference by the events
+        assertThat(deserialized.getExtension("mybytes")).isEqualTo(new byte[] { 1, 2, 3 });
+        assertThat(CloudEventBuilder.v1(deserialized).withoutExtension("mybytes").build()).isEqualTo(CloudEventBuilder.v1(cloudEvent).withoutExtension("mybytes").build());
+    }
+
+    @Test
+    public void testJsonDataIsKeptAsIs() throws JsonProcessingException {
+        JsonNode data = CloudEventUtils.getMapper().readTree("{\"key\":\"value\"}");
+        CloudEvent cloudEvent = CloudEventUtils.build("myId", SpecVersion.V1, URI.create("mySource"), null, data);
+
+        CloudEvent deserialized = format.deserialize(format.serialize(cloudEvent));
+
+        assertThat(deserialized.getId()).isEqualTo("myId");
+        assertThat(deserialized.getSubject()).isNull();
+        assertThat(new String(deserialized.getData().toBytes(), StandardCharsets.UTF_8)).isEqualTo("{\"key\":\"value\"}");
+    }
+
+    @Test
+    public void testLargeAttributes() {
+        char[] subject = new char[100_000];
+        Arrays.fill(subject, 'a');
+        CloudEvent cloudEvent = CloudEventBuilder.v03()
+                .withId("myId")
+                .withSource(URI.create("mySource"))
+                .withType("myType")
+                .withSubject(new String(subject))
+                .withExtension("mylong", Long.MAX_VALUE)
+                .build();
+
+        CloudEvent deserialized = format.deserialize(format.serialize(cloudEvent));
+
+        assertThat(deserialized.getSpecVersion()).isEqualTo(SpecVersion.V03);
+        assertThat(deserialized.getSubject()).isEqualTo(cloudEvent.getSubject());
+        // Integers that do not fit in 32 bits are kept as strings
+        assertThat(deserialized.getExtension("mylong")).isEqualTo(String.valueOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testIsSmallerThanJson() {
+        CloudEvent cloudEvent = CloudEventBuilder.v1()
+                .withId("myId")
+                .withSource(URI.create("mySource"))
+                .withType("myType")
+                .withExtension(BridgeCloudEventExtension.BRIDGE_ID, "myBridge")
+                .withData("application/json", "{\"key\":\"value\"}".getBytes(StandardCharsets.UTF_8))
+                .build();
+
+        assertThat(format.serialize(cloudEvent).length).isLessThan(CloudEventUtils.encode(cloudEvent).getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    public void testInvalidInput() {
+        assertThatExceptionOfType(EventDeserializationException.class).isThrownBy(() -> format.deserialize("not a cloud event".getBytes(StandardCharsets.UTF_8)));
+        assertThatExceptionOfType(EventDeserializationException.class).isThrownBy(() -> format.deserialize(new byte[] { 0x0A, 0x10, 'a' }));
+    }
+
+    @Test
+    public void testIsRegistered() {
+        ProtobufFormat.register();
+
+        assertThat(EventFormatProvider.getInstance().resolveFormat(ProtobufFormat.CONTENT_TYPE)).isInstanceOf(ProtobufFormat.class);
+    }
+}
@@ -0,0 +1,62 @@
+package com.redhat.service.bridge.infra.jfr;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FlightRecorderCliTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void record() throws Exception {
+        Path file = directory.resolve("recording.jfr");
+        CompletableFuture<Void> recording = CompletableFuture.runAsync(() -> {
+            try (OutputStream out = Files.newOutputStream(file)) {
+                FlightRecorderCli.record(ManagementFactory.getPlatformMBeanServer(), 1000, false, out);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Awaitility.await().atMost(Duration.ofSeconds(5))
+                .until(() -> FlightRecorder.getFlightRecorder().getRecordings().stream().anyMatch(r -> r.getState() == RecordingState.RUNNING));
+
+        FilterEvent event = new FilterEvent();
+        event.begin();
+        event.matched = true;
+        event.commit("myBridge", "myProcessor", "myId");
+        recording.join();
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertThat(events).hasSize(1);
+        RecordedEvent recorded = events.get(0);
+        assertThat(recorded.getEventType().getName()).isEqualTo(FilterEvent.NAME);
+        assertThat(recorded.getString("bridgeId")).isEqualTo("myBridge");
+        assertThat(recorded.getString("processorId")).isEqualTo("myProcessor");
+        assertThat(recorded.getString("eventId")).isEqualTo("myId");
+        assertThat(recorded.getBoolean("matched")).isTrue();
+    }
+
+    @Test
+    public void eventsAreDisabledByDefault() {
+        FilterEvent event = new FilterEvent();
+
+        assertThat(event.isEnabled()).isFalse();
+    }
+}
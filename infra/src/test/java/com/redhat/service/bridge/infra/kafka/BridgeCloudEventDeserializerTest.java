@@ -0,0 +1,137 @@
+package com.redhat.service.bridge.infra.kafka;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.redhat.service.bridge.infra.BridgeCloudEventExtension;
+import com.redhat.service.bridge.infra.format.ProtobufFormat;
+import com.redhat.service.bridge.infra.jfr.DecodeEvent;
+import com.redhat.service.bridge.infra.utils.CloudEventUtils;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.SpecVersion;
+import io.cloudevents.core.builder.CloudEventBuilder;
+import io.cloudevents.core.provider.ExtensionProvider;
+import io.cloudevents.jackson.JsonCloudEventData;
+import io.cloudevents.kafka.CloudEventSerializer;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BridgeCloudEventDeserializerTest {
+
+    private static final String TOPIC = "events";
+
+    private BridgeCloudEventDeserializer deserializer;
+
+    @BeforeEach
+    public void before() {
+        ExtensionProvider.getInstance().registerExtension(BridgeCloudEventExtension.class, BridgeCloudEventExtension::new);
+        deserializer = new BridgeCloudEventDeserializer();
+        deserializer.configure(Collections.emptyMap(), false);
+    }
+
+    @Test
+    public void testBinaryMode() throws IOException {
+        CloudEvent cloudEvent = createCloudEvent();
+        Headers headers = new RecordHeaders();
+        byte[] data;
+        try (CloudEventSerializer serializer = new CloudEventSerializer()) {
+            serializer.configure(Collections.singletonMap(CloudEventSerializer.ENCODING_CONFIG, "BINARY"), false);
+            data = serializer.serialize(TOPIC, headers, cloudEvent);
+        }
+
+        // Attributes and extensions are in the headers, the data is the payload of the record
+        assertThat(headers.lastHeader("ce_ebbridgeid").value()).isEqualTo("myBridge".getBytes(StandardCharsets.UTF_8));
+        assertThat(CloudEventUtils.getMapper().readTree(data).get("key").asText()).isEqualTo("value");
+
+        CloudEvent deserialized = deserializer.deserialize(TOPIC, headers, data);
+        assertThat(deserialized.getId()).isEqualTo("myId");
+        assertThat(deserialized.getExtension(BridgeCloudEventExtension.BRIDGE_ID)).isEqualTo("myBridge");
+
+        CloudEvent withJsonData = CloudEventUtils.withJsonData(deserialized);
+        assertThat(withJsonData.getData()).isInstanceOf(JsonCloudEventData.class);
+        assertThat(((JsonCloudEventData) withJsonData.getData()).getNode().get("key").asText()).isEqualTo("value");
+    }
+
+    @Test
+    public void testProtobufFormat() throws JsonProcessingException {
+        CloudEvent cloudEvent = createCloudEvent();
+        Headers headers = new RecordHeaders();
+        byte[] data;
+        try (BridgeCloudEventSerializer serializer = new BridgeCloudEventSerializer()) {
+            Map<String, String> configs = new HashMap<>();
+            configs.put(CloudEventSerializer.ENCODING_CONFIG, "STRUCTURED");
+            configs.put(CloudEventSerializer.EVENT_FORMAT_CONFIG, ProtobufFormat.CONTENT_TYPE);
+            serializer.configure(configs, false);
+            data = serializer.serialize(TOPIC, headers, cloudEvent);
+        }
+
+        // The format is negotiated with the content type of the record
+        assertThat(headers.lastHeader("content-type").value()).isEqualTo(ProtobufFormat.CONTENT_TYPE.getBytes(StandardCharsets.UTF_8));
+        assertThat(data.length).isLessThan(CloudEventUtils.encode(cloudEvent).length());
+
+        CloudEvent deserialized = deserializer.deserialize(TOPIC, headers, data);
+        assertThat(deserialized.getId()).isEqualTo("myId");
+        assertThat(deserialized.getSubject()).isEqualTo("subject");
+        assertThat(deserialized.getExtension(BridgeCloudEventExtension.BRIDGE_ID)).isEqualTo("myBridge");
+        assertThat(((JsonCloudEventData) CloudEventUtils.withJsonData(deserialized).getData()).getNode().get("key").asText()).isEqualTo("value");
+    }
+
+    @Test
+    public void testStructuredModeWithoutHeaders() throws JsonProcessingException {
+        CloudEvent cloudEvent = createCloudEvent();
+        byte[] data = CloudEventUtils.encode(cloudEvent).getBytes(StandardCharsets.UTF_8);
+
+        CloudEvent deserialized = deserializer.deserialize(TOPIC, new RecordHeaders(), data);
+
+        assertThat(deserialized.getId()).isEqualTo("myId");
+        assertThat(deserialized.getExtension(BridgeCloudEventExtension.BRIDGE_ID)).isEqualTo("myBridge");
+    }
+
+    @Test
+    public void testInvalidRecord() {
+        assertThat(deserializer.deserialize(TOPIC, new RecordHeaders(), "not a cloud event".getBytes(StandardCharsets.UTF_8))).isNull();
+    }
+
+    @Test
+    public void testInvalidRecordIsRecorded(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("recording.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(DecodeEvent.class).withoutThreshold();
+            recording.start();
+            deserializer.deserialize(TOPIC, new RecordHeaders(), "not a cloud event".getBytes(StandardCharsets.UTF_8));
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getBoolean("failed")).isTrue();
+        assertThat(events.get(0).getString("eventId")).isNull();
+    }
+
+    private CloudEvent createCloudEvent() throws JsonProcessingException {
+        JsonNode data = CloudEventUtils.getMapper().readTree("{\"key\":\"value\"}");
+        return CloudEventBuilder.v1(CloudEventUtils.build("myId", SpecVersion.V1, URI.create("mySource"), "subject", data))
+                .withExtension(new BridgeCloudEventExtension("myBridge"))
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.redhat.service.bridge.infra.metrics;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class SpaceSavingTest {
+
+    @Test
+    public void offer_countsExactlyBelowCapacity() {
+        SpaceSaving<String> sketch = new SpaceSaving<>(3);
+        sketch.offer("a", 1);
+        sketch.offer("b", 5);
+        sketch.offer("c", 3);
+        sketch.offer("a", 10);
+
+        assertThat(sketch.top(2)).containsExactly("a", "b");
+        assertThat(sketch.weight("a")).isEqualTo(11);
+        assertThat(sketch.error("a")).isZero();
+        assertThat(sketch.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void offer_evictsTheLightestKey() {
+        SpaceSaving<String> sketch = new SpaceSaving<>(2);
+        sketch.offer("a", 10);
+        sketch.offer("b", 2);
+        sketch.offer("c", 1);
+
+        assertThat(sketch.weight("b")).isZero();
+        assertThat(sketch.weight("c")).isEqualTo(3);
+        assertThat(sketch.error("c")).isEqualTo(2);
+        assertThat(sketch.top(2)).containsExactly("a", "c");
+    }
+
+    @Test
+    public void top_findsTheHeavyHittersOfALongTail() {
+        SpaceSaving<Integer> sketch = new SpaceSaving<>(50);
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            // 5 heavy keys get half of the weight, 10000 keys share the other half
+            int key = random.nextBoolean() ? random.nextInt(5) : 5 + random.nextInt(10_000);
+            sketch.offer(key, 1);
+        }
+
+        assertThat(sketch.top(5)).containsExactlyInAnyOrder(0, 1, 2, 3, 4);
+        assertThat(sketch.size()).isEqualTo(50);
+    }
+
+    @Test
+    public void decay_favoursRecentKeys() {
+        SpaceSaving<String> sketch = new SpaceSaving<>(2);
+        sketch.offer("old", 100);
+        sketch.decay(0.1);
+        sketch.offer("recent", 20);
+
+        assertThat(sketch.weight("old")).isEqualTo(10);
+        assertThat(sketch.top(1)).containsExactly("recent");
+    }
+
+    @Test
+    public void remove() {
+        SpaceSaving<String> sketch = new SpaceSaving<>(3);
+        sketch.offer("a", 1);
+        sketch.offer("b", 2);
+        sketch.offer("c", 3);
+        sketch.remove("a");
+        sketch.remove("unknown");
+        sketch.offer("d", 4);
+        sketch.offer("b", 5);
+
+        assertThat(sketch.size()).isEqualTo(3);
+        assertThat(sketch.weight("a")).isZero();
+        assertThat(sketch.top(3)).containsExactly("b", "d", "c");
+    }
+
+    @Test
+    public void invalidCapacity() {
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> new SpaceSaving<>(0));
+    }
+}
@@ -0,0 +1,73 @@
+package com.redhat.service.bridge.infra.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class TokenBucketTest {
+
+    @Test
+    public void testBurstIsAllowedUpToCapacity() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(10, 3, clock::get);
+
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+    }
+
+    @Test
+    public void testPermitsAreRefilledAtTheConfiguredRate() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(10, 1, clock::get);
+
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(50));
+        assertThat(bucket.tryAcquire()).isFalse();
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(50));
+        assertThat(bucket.tryAcquire()).isTrue();
+    }
+
+    @Test
+    public void testReserveReturnsTheTimeToWait() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(10, 1, clock::get);
+
+        assertThat(bucket.reserve(1, 0)).isZero();
+        assertThat(bucket.reserve(1, TimeUnit.MILLISECONDS.toNanos(50))).isEqualTo(TokenBucket.NOT_AVAILABLE);
+        assertThat(bucket.reserve(1, TimeUnit.SECONDS.toNanos(1))).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(bucket.nanosUntilAvailable(1)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    public void testRefundGivesPermitsBack() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(10, 2, clock::get);
+
+        assertThat(bucket.tryAcquire(2)).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+
+        bucket.refund(1);
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+
+        // Refunds never exceed the capacity of the bucket
+        bucket.refund(10);
+        assertThat(bucket.tryAcquire(2)).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+    }
+
+    @Test
+    public void testInvalidConfiguration() {
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> new TokenBucket(0, 1));
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> new TokenBucket(1, 0));
+    }
+}
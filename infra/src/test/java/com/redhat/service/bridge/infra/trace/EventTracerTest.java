@@ -0,0 +1,73 @@
+package com.redhat.service.bridge.infra.trace;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class EventTracerTest {
+
+    @Test
+    public void isTraced_disabled() {
+        EventTracer tracer = EventTracer.disabled();
+
+        assertThat(tracer.isTraced("myBridge", "myId")).isFalse();
+    }
+
+    @Test
+    public void isTraced_all() {
+        EventTracer tracer = new EventTracer("test", 1, id -> Optional.empty());
+
+        assertThat(tracer.isTraced("myBridge", "myId")).isTrue();
+        assertThat(tracer.isTraced("myBridge", null)).isFalse();
+    }
+
+    @Test
+    public void isTraced_sampleRate() {
+        EventTracer tracer = new EventTracer("test", 0.1, id -> Optional.empty());
+
+        int traced = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (tracer.isTraced("myBridge", UUID.randomUUID().toString())) {
+                traced++;
+            }
+        }
+        assertThat(traced / 100_000.0).isCloseTo(0.1, within(0.01));
+    }
+
+    @Test
+    public void isTraced_sameEventsForTheSameRate() {
+        EventTracer ingress = new EventTracer("ingress", 0.5, id -> Optional.empty());
+        EventTracer executor = new EventTracer("executor", 0.5, id -> Optional.empty());
+
+        for (int i = 0; i < 1000; i++) {
+            String eventId = UUID.randomUUID().toString();
+            assertThat(executor.isTraced("myBridge", eventId)).isEqualTo(ingress.isTraced("myBridge", eventId));
+        }
+    }
+
+    @Test
+    public void isTraced_bridgeOverride() {
+        AtomicInteger lookups = new AtomicInteger();
+        EventTracer tracer = new EventTracer("test", 0, id -> {
+            lookups.incrementAndGet();
+            return "debugged".equals(id) ? Optional.of(1.0) : Optional.empty();
+        });
+
+        assertThat(tracer.isTraced("debugged", "myId")).isTrue();
+        assertThat(tracer.isTraced("debugged", "otherId")).isTrue();
+        assertThat(tracer.isTraced("other", "myId")).isFalse();
+        assertThat(lookups.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void sample_isInRange() {
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(EventTracer.sample(Integer.toString(i))).isGreaterThanOrEqualTo(0).isLessThan(1);
+        }
+    }
+}
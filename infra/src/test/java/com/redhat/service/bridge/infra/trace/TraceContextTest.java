@@ -0,0 +1,73 @@
+package com.redhat.service.bridge.infra.trace;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.core.builder.CloudEventBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TraceContextTest {
+
+    private static final String TRACEPARENT = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+    @Test
+    public void parse() {
+        TraceContext context = TraceContext.parse(TRACEPARENT, "vendor=value");
+
+        assertThat(context.getTraceId()).isEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+        assertThat(context.getSpanId()).isEqualTo("00f067aa0ba902b7");
+        assertThat(context.isSampled()).isTrue();
+        assertThat(context.getTraceState()).isEqualTo("vendor=value");
+        assertThat(context.getTraceparent()).isEqualTo(TRACEPARENT);
+        assertThat(context.unsampled().getTraceparent()).isEqualTo("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-00");
+    }
+
+    @Test
+    public void parse_laterVersion() {
+        TraceContext context = TraceContext.parse("01-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-00-extra", null);
+
+        assertThat(context.getTraceId()).isEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+        assertThat(context.isSampled()).isFalse();
+    }
+
+    @Test
+    public void parse_invalid() {
+        assertThat(TraceContext.parse(null, null)).isNull();
+        assertThat(TraceContext.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7", null)).isNull();
+        assertThat(TraceContext.parse("00-4BF92F3577B34DA6A3CE929D0E0E4736-00f067aa0ba902b7-01", null)).isNull();
+        assertThat(TraceContext.parse("00-00000000000000000000000000000000-00f067aa0ba902b7-01", null)).isNull();
+        assertThat(TraceContext.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-0000000000000000-01", null)).isNull();
+        assertThat(TraceContext.parse("ff-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01", null)).isNull();
+        assertThat(TraceContext.parse(TRACEPARENT + "-extra", null)).isNull();
+    }
+
+    @Test
+    public void event() {
+        CloudEventBuilder builder = CloudEventBuilder.v1()
+                .withId("myId")
+                .withSource(URI.create("mySource"))
+                .withType("myType");
+        CloudEvent event = TraceContext.parse(TRACEPARENT, "vendor=value").writeTo(builder).build();
+
+        assertThat(event.getExtension(TraceContext.TRACEPARENT)).isEqualTo(TRACEPARENT);
+        assertThat(TraceContext.fromEvent(event).getTraceState()).isEqualTo("vendor=value");
+        assertThat(TraceContext.fromEvent(builder.withoutExtension(TraceContext.TRACEPARENT).build())).isNull();
+    }
+
+    @Test
+    public void headers() {
+        RecordHeaders headers = new RecordHeaders();
+        assertThat(TraceContext.fromHeaders(headers)).isNull();
+
+        TraceContext.parse(TRACEPARENT, null).toHeaders().forEach(headers::add);
+
+        assertThat(new String(headers.lastHeader(TraceContext.TRACEPARENT).value(), StandardCharsets.UTF_8)).isEqualTo(TRACEPARENT);
+        assertThat(headers.lastHeader(TraceContext.TRACESTATE)).isNull();
+        assertThat(TraceContext.fromHeaders(headers).getTraceparent()).isEqualTo(TRACEPARENT);
+    }
+}
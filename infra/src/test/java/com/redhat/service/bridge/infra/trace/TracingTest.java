@@ -0,0 +1,135 @@
+package com.redhat.service.bridge.infra.trace;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class TracingTest {
+
+    private static final TraceContext SAMPLED = TraceContext.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01", "vendor=value");
+    private static final TraceContext NOT_SAMPLED = SAMPLED.unsampled();
+
+    private final InMemorySpanExporter exporter = new InMemorySpanExporter();
+
+    @Test
+    public void startSpan_newTrace() {
+        Tracing tracing = new Tracing(new EventTracer("ingress", 1, id -> Optional.empty()), exporter);
+
+        Span span = tracing.startSpan("publish", "myBridge", "myId", null);
+        span.setAttribute(Span.BRIDGE_ATTRIBUTE, "myBridge").end();
+        span.end();
+
+        assertThat(span.getContext().isSampled()).isTrue();
+        assertThat(span.getContext().getTraceId()).hasSize(32);
+        assertThat(span.getContext().getSpanId()).hasSize(16);
+        assertThat(span.getParentSpanId()).isNull();
+        assertThat(TraceContext.parse(span.getContext().getTraceparent(), null)).isNotNull();
+        assertThat(exporter.getFinishedSpans()).containsExactly(span);
+        assertThat(span.getComponent()).isEqualTo("ingress");
+        assertThat(span.getAttributes()).containsEntry(Span.BRIDGE_ATTRIBUTE, "myBridge");
+    }
+
+    @Test
+    public void startSpan_sampleRate() {
+        Tracing tracing = new Tracing(new EventTracer("ingress", 0.1, id -> "debugged".equals(id) ? Optional.of(1.0) : Optional.empty()), exporter);
+
+        int sampled = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (tracing.startSpan("publish", "myBridge", UUID.randomUUID().toString(), null).isRecording()) {
+                sampled++;
+            }
+        }
+        assertThat(sampled / 100_000.0).isCloseTo(0.1, within(0.01));
+        assertThat(tracing.startSpan("publish", "debugged", "myId", null).isRecording()).isTrue();
+        assertThat(Tracing.disabled().startSpan("publish", "myBridge", "myId", null).getContext()).isNull();
+    }
+
+    @Test
+    public void startSpan_followsTheParent() {
+        Tracing tracing = new Tracing(new EventTracer("ingress", 0.01, id -> "disabled".equals(id) ? Optional.of(0.0) : Optional.empty()), exporter);
+
+        Span sampled = tracing.startSpan("publish", "myBridge", "myId", SAMPLED);
+        assertThat(sampled.isRecording()).isTrue();
+        assertThat(sampled.getContext().getTraceId()).isEqualTo(SAMPLED.getTraceId());
+        assertThat(sampled.getContext().getTraceState()).isEqualTo("vendor=value");
+        assertThat(sampled.getParentSpanId()).isEqualTo(SAMPLED.getSpanId());
+
+        // The context is handed over as it is, unless the Bridge is not traced
+        Span notSampled = tracing.startSpan("publish", "myBridge", "myId", NOT_SAMPLED);
+        assertThat(notSampled.isRecording()).isFalse();
+        assertThat(notSampled.getContext().getTraceparent()).isEqualTo(NOT_SAMPLED.getTraceparent());
+        Span disabled = tracing.startSpan("publish", "disabled", "myId", SAMPLED);
+        assertThat(disabled.isRecording()).isFalse();
+        assertThat(disabled.getContext().getTraceparent()).isEqualTo(NOT_SAMPLED.getTraceparent());
+    }
+
+    @Test
+    public void continueSpan() {
+        Tracing tracing = new Tracing(new EventTracer("executor", 0, id -> Optional.empty()), exporter);
+
+        assertThat(tracing.continueSpan("process", null).getContext()).isNull();
+        assertThat(tracing.continueSpan("process", NOT_SAMPLED).isRecording()).isFalse();
+
+        long startEpochNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - 100);
+        Span topic = tracing.continueSpan("events-in", SAMPLED, startEpochNanos);
+        topic.end();
+        assertThat(topic.getStartEpochNanos()).isEqualTo(startEpochNanos);
+        assertThat(topic.getDurationNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    public void children() {
+        Tracing tracing = new Tracing(new EventTracer("executor", 0, id -> Optional.empty()), exporter);
+
+        Span process = tracing.continueSpan("process", SAMPLED);
+        try (Span.Scope scope = process.makeCurrent()) {
+            Span filter = Span.current().startChild("filter");
+            filter.end();
+            Span action = Span.current().startChild("action");
+            try (Span.Scope actionScope = action.makeCurrent()) {
+                assertThat(Span.current()).isSameAs(action);
+            }
+            action.setError(new IllegalStateException("failure")).end();
+            assertThat(Span.current()).isSameAs(process);
+        }
+        process.end();
+
+        assertThat(Span.current().getContext()).isNull();
+        List<Span> spans = exporter.getFinishedSpans(SAMPLED.getTraceId());
+        assertThat(spans).extracting(Span::getName).containsExactly("filter", "action", "process");
+        assertThat(spans.get(0).getParentSpanId()).isEqualTo(process.getContext().getSpanId());
+        assertThat(spans.get(1).getError()).hasMessage("failure");
+        assertThat(spans.get(2).getParentSpanId()).isEqualTo(SAMPLED.getSpanId());
+    }
+
+    @Test
+    public void children_notRecorded() {
+        Span none = Span.current();
+        assertThat(none.startChild("filter")).isSameAs(none);
+        assertThat(none.makeCurrent()).isNotNull();
+
+        Span notSampled = new Tracing(new EventTracer("executor", 0, id -> Optional.empty()), exporter).continueSpan("process", NOT_SAMPLED);
+        assertThat(notSampled.startChild("filter")).isSameAs(notSampled);
+        notSampled.setAttribute(Span.EVENT_ATTRIBUTE, "myId").end();
+        assertThat(exporter.getFinishedSpans()).isEmpty();
+    }
+
+    @Test
+    public void inMemoryExporter_capacity() {
+        InMemorySpanExporter small = new InMemorySpanExporter(2);
+        Tracing tracing = new Tracing(new EventTracer("ingress", 1, id -> Optional.empty()), small);
+        for (int i = 0; i < 3; i++) {
+            tracing.startSpan("span" + i, "myBridge", "myId", null).end();
+        }
+
+        assertThat(small.getFinishedSpans()).extracting(Span::getName).containsExactly("span1", "span2");
+        small.reset();
+        assertThat(small.getFinishedSpans()).isEmpty();
+    }
+}
@@ -0,0 +1,71 @@
+package com.redhat.service.bridge.infra.utils;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.redhat.service.bridge.infra.BridgeCloudEventExtension;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.SpecVersion;
+import io.cloudevents.core.builder.CloudEventBuilder;
+import io.cloudevents.jackson.JsonCloudEventData;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CloudEventUtilsTest {
+
+    private static final String DATA = "{\"key\":\"value\",\"nested\":{\"list\":[1,2,{\"deep\":true}]}}";
+
+    @Test
+    public void testToJsonNodeWithJsonTreeData() throws JsonProcessingException {
+        CloudEvent cloudEvent = CloudEventBuilder.v1(CloudEventUtils.build("myId", SpecVersion.V1, URI.create("mySource"), "subject", readTree(DATA)))
+                .withTime(OffsetDateTime.of(2021, 10, 1, 12, 0, 0, 0, ZoneOffset.UTC))
+                .withExtension(BridgeCloudEventExtension.BRIDGE_ID, "myBridge")
+                .withExtension("myinteger", 42)
+                .build();
+
+        assertThat(CloudEventUtils.toJsonNode(cloudEvent)).isEqualTo(readTree(CloudEventUtils.encode(cloudEvent)));
+    }
+
+    @Test
+    public void testToJsonNodeWithRawData() throws JsonProcessingException {
+        CloudEvent json = event("application/json", DATA.getBytes(StandardCharsets.UTF_8));
+        CloudEvent text = event("text/plain", "some text".getBytes(StandardCharsets.UTF_8));
+        CloudEvent binary = event("application/octet-stream", new byte[] { 0, 1, 2 });
+
+        assertThat(CloudEventUtils.toJsonNode(json).get("data")).isEqualTo(readTree(DATA));
+        assertThat(CloudEventUtils.toJsonNode(text)).isEqualTo(readTree(CloudEventUtils.encode(text)));
+        assertThat(CloudEventUtils.toJsonNode(binary).get("data_base64").asText()).isEqualTo(readTree(CloudEventUtils.encode(binary)).get("data_base64").asText());
+    }
+
+    @Test
+    public void testWrappedEvent() throws JsonProcessingException {
+        CloudEvent wrapped = event("application/json", DATA.getBytes(StandardCharsets.UTF_8));
+
+        CloudEvent cloudEvent = CloudEventUtils.build("myWrapperId", SpecVersion.V1, URI.create("myWrapperSource"), null, wrapped);
+
+        JsonNode data = ((JsonCloudEventData) cloudEvent.getData()).getNode();
+        assertThat(data.get("id").asText()).isEqualTo("myId");
+        assertThat(data.get("data")).isEqualTo(readTree(DATA));
+        assertThat(CloudEventUtils.decode(CloudEventUtils.encode(cloudEvent))).isEqualTo(cloudEvent);
+    }
+
+    private static CloudEvent event(String contentType, byte[] data) {
+        return CloudEventBuilder.v1()
+                .withId("myId")
+                .withSource(URI.create("mySource"))
+                .withType("myType")
+                .withData(contentType, data)
+                .build();
+    }
+
+    private static JsonNode readTree(String json) throws JsonProcessingException {
+        return CloudEventUtils.getMapper().readTree(json);
+    }
+}
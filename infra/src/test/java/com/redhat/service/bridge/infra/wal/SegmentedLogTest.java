@@ -0,0 +1,126 @@
+package com.redhat.service.bridge.infra.wal;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class SegmentedLogTest {
+
+    private static final int SEGMENT_SIZE = 64;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testAppendAndRead() {
+        SegmentedLog log = SegmentedLog.open(directory, SEGMENT_SIZE);
+        long first = log.append(bytes("first"));
+        long second = log.append(bytes("second"));
+
+        assertThat(second).isGreaterThan(first);
+        assertThat(readAll(log, first)).containsExactly("first", "second");
+        assertThat(readAll(log, second)).containsExactly("second");
+        assertThat(readAll(log, log.getEndPosition())).isEmpty();
+    }
+
+    @Test
+    public void testRecordsAreSpreadOverSegments() throws IOException {
+        SegmentedLog log = SegmentedLog.open(directory, SEGMENT_SIZE);
+        for (int i = 0; i < 10; i++) {
+            log.append(bytes("record-" + i));
+        }
+
+        assertThat(segmentFiles()).hasSizeGreaterThan(1);
+        assertThat(readAll(log, 0)).hasSize(10).startsWith("record-0").endsWith("record-9");
+    }
+
+    @Test
+    public void testRecordsAreRecoveredWhenTheLogIsOpenedAgain() {
+        SegmentedLog log = SegmentedLog.open(directory, SEGMENT_SIZE);
+        for (int i = 0; i < 10; i++) {
+            log.append(bytes("record-" + i));
+        }
+        long end = log.getEndPosition();
+        log.close();
+
+        SegmentedLog reopened = SegmentedLog.open(directory, SEGMENT_SIZE);
+        assertThat(reopened.getEndPosition()).isEqualTo(end);
+        assertThat(readAll(reopened, 0)).hasSize(10);
+
+        reopened.append(bytes("record-10"));
+        assertThat(readAll(reopened, 0)).hasSize(11).endsWith("record-10");
+    }
+
+    @Test
+    public void testPartiallyWrittenRecordIsDiscarded() throws IOException {
+        SegmentedLog log = SegmentedLog.open(directory, SEGMENT_SIZE);
+        log.append(bytes("first"));
+        long second = log.append(bytes("second"));
+        log.close();
+
+        // Corrupt the content of the second record
+        try (RandomAccessFile file = new RandomAccessFile(segmentFiles().get(0).toFile(), "rw")) {
+            file.seek(second + 8);
+            file.write('X');
+        }
+
+        SegmentedLog reopened = SegmentedLog.open(directory, SEGMENT_SIZE);
+        assertThat(readAll(reopened, 0)).containsExactly("first");
+        assertThat(reopened.getEndPosition()).isEqualTo(second);
+    }
+
+    @Test
+    public void testCommitDeletesTheSegmentsBeforeTheCommittedPosition() throws IOException {
+        SegmentedLog log = SegmentedLog.open(directory, SEGMENT_SIZE);
+        List<Long> positions = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            positions.add(log.append(bytes("record-" + i)));
+        }
+        int segments = segmentFiles().size();
+
+        log.commit(positions.get(8));
+
+        assertThat(segmentFiles()).hasSizeLessThan(segments);
+        assertThat(readAll(log, 0)).containsExactly("record-8", "record-9");
+        log.close();
+
+        SegmentedLog reopened = SegmentedLog.open(directory, SEGMENT_SIZE);
+        assertThat(reopened.getCommittedPosition()).isEqualTo(positions.get(8));
+        assertThat(readAll(reopened, 0)).containsExactly("record-8", "record-9");
+    }
+
+    @Test
+    public void testRecordTooLarge() {
+        SegmentedLog log = SegmentedLog.open(directory, SEGMENT_SIZE);
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> log.append(new byte[SEGMENT_SIZE]));
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> log.append(new byte[0]));
+    }
+
+    private List<String> readAll(SegmentedLog log, long from) {
+        List<String> records = new ArrayList<>();
+        log.read(from, Integer.MAX_VALUE, (position, record) -> records.add(new String(record, StandardCharsets.UTF_8)));
+        return records;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(f -> f.toString().endsWith(".log")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,72 @@
+package com.redhat.service.bridge.ingress;
+
+import com.redhat.service.bridge.ingress.dedup.EventDeduplicator;
+import com.redhat.service.bridge.ingress.quota.BridgeQuota;
+
+/**
+ * A Bridge deployed on the ingress, along with its settings resolved at deployment time.
+ */
+public class IngressDeployment {
+
+    private final String bridgeId;
+    private final String endpoint;
+    private final int maxEventSize;
+    private final int maxBatchSize;
+    private final long maxBatchBytes;
+    private final EventDeduplicator deduplicator;
+    private final BridgeQuota quota;
+
+    public IngressDeployment(String bridgeId, String endpoint, int maxEventSize, int maxBatchSize, long maxBatchBytes, EventDeduplicator deduplicator,
+            BridgeQuota quota) {
+        this.bridgeId = bridgeId;
+        this.endpoint = endpoint;
+        this.maxEventSize = maxEventSize;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchBytes = maxBatchBytes;
+        this.deduplicator = deduplicator;
+        this.quota = quota;
+    }
+
+    public String getBridgeId() {
+        return bridgeId;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return - The maximum size in bytes of an event sent in the structured content mode.
+     */
+    public int getMaxEventSize() {
+        return maxEventSize;
+    }
+
+    /**
+     * @return - The maximum number of events in a batch.
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * @return - The maximum size in bytes of a batch of events, once decompressed.
+     */
+    public long getMaxBatchBytes() {
+        return maxBatchBytes;
+    }
+
+    /**
+     * @return - The deduplicator of the events of the Bridge, or null if the deduplication is disabled.
+     */
+    public EventDeduplicator getDeduplicator() {
+        return deduplicator;
+    }
+
+    /**
+     * @return - The quotas of the Bridge, or null if it has none.
+     */
+    public BridgeQuota getQuota() {
+        return quota;
+    }
+}
@@ -1,10 +1,32 @@
 package com.redhat.service.bridge.ingress;
 
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
 import io.cloudevents.CloudEvent;
 
 public interface IngressService {
 
-    void processEvent(String id, CloudEvent event);
+    /**
+     * @param id - The id of the Bridge.
+     * @param event - The event.
+     * @return - Completes when the event has been accepted by the event queue.
+     */
+    CompletionStage<Void> processEvent(String id, CloudEvent event);
+
+    /**
+     * @param id - The id of the Bridge.
+     * @param events - The batch of events.
+     * @return - The outcome of each event, in the order of the batch.
+     */
+    List<CompletionStage<Void>> processEvents(String id, List<CloudEvent> events);
+
+    /**
+     * @param id - The id of the Bridge.
+     * @return - The deployment of the Bridge.
+     * @throws com.redhat.service.bridge.ingress.api.exceptions.IngressException - If the Bridge is not deployed.
+     */
+    IngressDeployment getDeployment(String id);
 
     // TODO: remove after we move to k8s
     String deploy(String id);
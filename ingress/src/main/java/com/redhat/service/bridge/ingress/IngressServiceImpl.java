@@ -1,42 +1,235 @@
 package com.redhat.service.bridge.ingress;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.redhat.service.bridge.infra.dedup.DeduplicationWindow;
+import com.redhat.service.bridge.infra.ratelimit.TokenBucket;
 import com.redhat.service.bridge.ingress.api.exceptions.IngressException;
+import com.redhat.service.bridge.ingress.dedup.EventDeduplicator;
 import com.redhat.service.bridge.ingress.producer.KafkaEventPublisher;
+import com.redhat.service.bridge.ingress.quota.BridgeQuota;
 
 import io.cloudevents.CloudEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.configuration.MemorySize;
 
 @ApplicationScoped
 public class IngressServiceImpl implements IngressService {
 
-    private final List<String> deployments = new ArrayList<>();
+    private static final Logger LOGGER = LoggerFactory.getLogger(IngressServiceImpl.class);
+
+    private static final String BRIDGE_CONFIG_PREFIX = "event-bridge.ingress.bridge.";
+    private static final int DEDUPLICATION_BUCKETS = 4;
+
+    private final ConcurrentMap<String, IngressDeployment> deployments = new ConcurrentHashMap<>();
 
     @Inject
     KafkaEventPublisher kafkaEventPublisher;
 
+    @Inject
+    Config config;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "event-bridge.ingress.max-event-size", defaultValue = "1048576")
+    int maxEventSize;
+
+    @ConfigProperty(name = "event-bridge.ingress.batch.max-size", defaultValue = "1000")
+    int maxBatchSize;
+
+    // A batch decompressed by the ingress is bounded as the bodies decompressed by the HTTP server
+    @ConfigProperty(name = "quarkus.http.limits.max-body-size", defaultValue = "10240K")
+    MemorySize maxBodySize;
+
+    @ConfigProperty(name = "event-bridge.ingress.deduplication.enabled", defaultValue = "false")
+    boolean deduplicationEnabled;
+
+    @ConfigProperty(name = "event-bridge.ingress.deduplication.window-ms", defaultValue = "60000")
+    long deduplicationWindowMillis;
+
+    @ConfigProperty(name = "event-bridge.ingress.deduplication.expected-events", defaultValue = "100000")
+    long deduplicationExpectedEvents;
+
+    @ConfigProperty(name = "event-bridge.ingress.deduplication.false-positive-rate", defaultValue = "0.001")
+    double deduplicationFalsePositiveRate;
+
+    @ConfigProperty(name = "event-bridge.ingress.quota.events-per-second")
+    Optional<Double> quotaEventsPerSecond;
+
+    @ConfigProperty(name = "event-bridge.ingress.quota.events-burst")
+    Optional<Long> quotaEventsBurst;
+
+    @ConfigProperty(name = "event-bridge.ingress.quota.bytes-per-second")
+    Optional<Double> quotaBytesPerSecond;
+
+    @ConfigProperty(name = "event-bridge.ingress.quota.bytes-burst")
+    Optional<Long> quotaBytesBurst;
+
+    @Override
+    public CompletionStage<Void> processEvent(String id, CloudEvent event) {
+        IngressDeployment deployment = getDeployment(id);
+        BridgeQuota quota = deployment.getQuota();
+        if (quota != null) {
+            quota.acquire(1, quota.hasByteQuota() ? sizeOf(event) : 0L);
+        }
+        EventDeduplicator deduplicator = deployment.getDeduplicator();
+        if (deduplicator == null) {
+            return kafkaEventPublisher.sendEvent(id, event);
+        }
+        CompletionStage<Void> original = deduplicator.startPublishing(event);
+        if (original != null) {
+            LOGGER.debug("[ingress] Event '{}' from '{}' has already been published on Bridge '{}'", event.getId(), event.getSource(), id);
+            return original;
+        }
+        CompletionStage<Void> publication;
+        try {
+            publication = kafkaEventPublisher.sendEvent(id, event);
+        } catch (RuntimeException e) {
+            deduplicator.finishPublishing(event, failed(e));
+            throw e;
+        }
+        return deduplicator.finishPublishing(event, publication);
+    }
+
+    @Override
+    public List<CompletionStage<Void>> processEvents(String id, List<CloudEvent> events) {
+        IngressDeployment deployment = getDeployment(id);
+        BridgeQuota quota = deployment.getQuota();
+        if (quota != null) {
+            long size = 0L;
+            if (quota.hasByteQuota()) {
+                for (CloudEvent event : events) {
+                    size += sizeOf(event);
+                }
+            }
+            quota.acquire(events.size(), size);
+        }
+        EventDeduplicator deduplicator = deployment.getDeduplicator();
+        if (deduplicator == null) {
+            return kafkaEventPublisher.sendEvents(id, events);
+        }
+        // The copies of an event within the batch are answered with the outcome of the first one
+        List<CompletionStage<Void>> results = new ArrayList<>(events.size());
+        List<CloudEvent> eventsToSend = new ArrayList<>(events.size());
+        for (CloudEvent event : events) {
+            CompletionStage<Void> original = deduplicator.startPublishing(event);
+            results.add(original);
+            if (original == null) {
+                eventsToSend.add(event);
+            }
+        }
+        List<CompletionStage<Void>> sent;
+        try {
+            sent = kafkaEventPublisher.sendEvents(id, eventsToSend);
+        } catch (RuntimeException e) {
+            eventsToSend.forEach(event -> deduplicator.finishPublishing(event, failed(e)));
+            throw e;
+        }
+        Iterator<CompletionStage<Void>> publications = sent.iterator();
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                results.set(i, deduplicator.finishPublishing(events.get(i), publications.next()));
+            }
+        }
+        return results;
+    }
+
+    //TODO: remove after we move to k8s
     @Override
-    public void processEvent(String id, CloudEvent event) {
-        //TODO: remove after we move to k8s
-        if (!deployments.contains(id)) {
+    public IngressDeployment getDeployment(String id) {
+        IngressDeployment deployment = deployments.get(id);
+        if (deployment == null) {
             throw new IngressException("Ingress with name " + id + " is not deployed.");
         }
-        kafkaEventPublisher.sendEvent(id, event);
+        return deployment;
     }
 
     // TODO: remove after we move to k8s
     @Override
     public String deploy(String id) {
-        deployments.add(id);
-        return "/ingress/events/" + id;
+        return deployments.computeIfAbsent(id, this::createDeployment).getEndpoint();
     }
 
     @Override
     public boolean undeploy(String id) {
-        return deployments.remove(id);
+        return deployments.remove(id) != null;
+    }
+
+    // The settings of a Bridge default to the ones of the ingress, e.g. event-bridge.ingress.bridge.<id>.batch.max-size
+    // overrides event-bridge.ingress.batch.max-size
+    private IngressDeployment createDeployment(String id) {
+        String prefix = BRIDGE_CONFIG_PREFIX + id + ".";
+        int batchMaxSize = config.getOptionalValue(prefix + "batch.max-size", Integer.class).orElse(maxBatchSize);
+        int eventMaxSize = config.getOptionalValue(prefix + "max-event-size", Integer.class).orElse(maxEventSize);
+        return new IngressDeployment(id,
+                "/ingress/events/" + id,
+                eventMaxSize,
+                batchMaxSize,
+                Math.min((long) eventMaxSize * batchMaxSize, maxBodySize.asLongValue()),
+                createDeduplicator(id, prefix + "deduplication."),
+                createQuota(id, prefix + "quota.", batchMaxSize));
+    }
+
+    private BridgeQuota createQuota(String id, String prefix, int batchMaxSize) {
+        Optional<Double> eventsPerSecond = getOptionalValue(prefix + "events-per-second", Double.class, quotaEventsPerSecond);
+        Optional<Double> bytesPerSecond = getOptionalValue(prefix + "bytes-per-second", Double.class, quotaBytesPerSecond);
+        if (!eventsPerSecond.isPresent() && !bytesPerSecond.isPresent()) {
+            return null;
+        }
+        TokenBucket events = eventsPerSecond.map(rate -> new TokenBucket(rate,
+                getOptionalValue(prefix + "events-burst", Long.class, quotaEventsBurst).orElse((long) Math.ceil(rate)))).orElse(null);
+        TokenBucket bytes = bytesPerSecond.map(rate -> new TokenBucket(rate,
+                getOptionalValue(prefix + "bytes-burst", Long.class, quotaBytesBurst).orElse((long) Math.ceil(rate)))).orElse(null);
+        LOGGER.info("[ingress] Quotas of {} events and {} bytes per second configured for Bridge '{}'", eventsPerSecond.orElse(null), bytesPerSecond.orElse(null), id);
+        if (events != null && events.getCapacity() < batchMaxSize) {
+            LOGGER.warn("[ingress] The burst of {} events of the quota of Bridge '{}' is smaller than its maximum batch size of {}: larger batches are rejected",
+                    events.getCapacity(), id, batchMaxSize);
+        }
+        return new BridgeQuota(id, events, bytes, registry.counter(MetricsConstants.THROTTLED_EVENTS_METRIC_NAME, MetricsConstants.BRIDGE_ID_TAG, id));
+    }
+
+    private <T> Optional<T> getOptionalValue(String name, Class<T> type, Optional<T> defaultValue) {
+        Optional<T> value = config.getOptionalValue(name, type);
+        return value.isPresent() ? value : defaultValue;
+    }
+
+    // The byte quota applies to the data of the events, the attributes are bounded by the maximum size of an event
+    private static long sizeOf(CloudEvent event) {
+        return event.getData() == null ? 0L : event.getData().toBytes().length;
+    }
+
+    private EventDeduplicator createDeduplicator(String id, String prefix) {
+        if (!config.getOptionalValue(prefix + "enabled", Boolean.class).orElse(deduplicationEnabled)) {
+            return null;
+        }
+        DeduplicationWindow window = new DeduplicationWindow(config.getOptionalValue(prefix + "window-ms", Long.class).orElse(deduplicationWindowMillis),
+                TimeUnit.MILLISECONDS,
+                DEDUPLICATION_BUCKETS,
+                config.getOptionalValue(prefix + "expected-events", Long.class).orElse(deduplicationExpectedEvents),
+                config.getOptionalValue(prefix + "false-positive-rate", Double.class).orElse(deduplicationFalsePositiveRate));
+        return new EventDeduplicator(window, registry.counter(MetricsConstants.DUPLICATE_EVENTS_METRIC_NAME, MetricsConstants.BRIDGE_ID_TAG, id));
+    }
+
+    private static CompletionStage<Void> failed(Throwable t) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        result.completeExceptionally(t);
+        return result;
     }
 }
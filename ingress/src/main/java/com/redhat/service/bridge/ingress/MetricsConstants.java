@@ -0,0 +1,11 @@
+package com.redhat.service.bridge.ingress;
+
+public class MetricsConstants {
+    public static final String BRIDGE_ID_TAG = "bridgeId";
+    public static final String DUPLICATE_EVENTS_METRIC_NAME = "ingress.events.duplicates";
+    public static final String THROTTLED_EVENTS_METRIC_NAME = "ingress.events.throttled";
+    public static final String WAL_BACKLOG_EVENTS_METRIC_NAME = "ingress.wal.backlog.events";
+    public static final String WAL_BACKLOG_BYTES_METRIC_NAME = "ingress.wal.backlog.bytes";
+    public static final String WAL_BACKLOG_AGE_METRIC_NAME = "ingress.wal.backlog.age.seconds";
+    public static final String WAL_DROPPED_EVENTS_METRIC_NAME = "ingress.wal.dropped.events";
+}
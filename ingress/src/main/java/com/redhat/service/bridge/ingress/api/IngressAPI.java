@@ -1,6 +1,11 @@
 package com.redhat.service.bridge.ingress.api;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
 import javax.inject.Inject;
 import javax.validation.constraints.NotNull;
@@ -20,6 +25,8 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.redhat.service.bridge.infra.utils.CloudEventUtils;
 import com.redhat.service.bridge.ingress.IngressService;
 import com.redhat.service.bridge.ingress.api.exceptions.BadRequestException;
+import com.redhat.service.bridge.ingress.api.exceptions.IngressException;
+import com.redhat.service.bridge.ingress.api.models.responses.BatchEventResponse;
 
 import io.cloudevents.CloudEvent;
 import io.cloudevents.SpecVersion;
@@ -28,6 +35,8 @@ import io.cloudevents.SpecVersion;
 @Path("/ingress")
 public class IngressAPI {
 
+    public static final String CLOUD_EVENTS_BATCH_JSON = "application/cloudevents-batch+json";
+
     private static final Logger LOGGER = LoggerFactory.getLogger(IngressAPI.class);
 
     @Inject
@@ -37,17 +46,34 @@ public class IngressAPI {
     @Path("/events/{name}")
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
-    public Response publishEvent(@PathParam("name") @NotNull String name, @NotNull CloudEvent event) {
+    public CompletionStage<Response> publishEvent(@PathParam("name") @NotNull String name, @NotNull CloudEvent event) {
         LOGGER.debug("[ingress] new event has been uploaded to endpoint /ingress/events/{}", name);
-        ingressService.processEvent(name, event);
-        return Response.ok().build();
+        return ingressService.processEvent(name, event).thenApply(x -> Response.ok().build());
+    }
+
+    @POST
+    @Path("/events/{name}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes(CLOUD_EVENTS_BATCH_JSON)
+    public CompletionStage<Response> publishEvents(@PathParam("name") @NotNull String name, @NotNull List<CloudEvent> events) {
+        LOGGER.debug("[ingress] new batch of {} events has been uploaded to endpoint /ingress/events/{}", events.size(), name);
+        int maxBatchSize = ingressService.getDeployment(name).getMaxBatchSize();
+        if (events.isEmpty() || events.size() > maxBatchSize) {
+            throw new BadRequestException("A batch must contain between 1 and " + maxBatchSize + " events.");
+        }
+        List<CompletionStage<Void>> results = ingressService.processEvents(name, events);
+        CompletableFuture<?>[] outcomes = new CompletableFuture<?>[results.size()];
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] = results.get(i).toCompletableFuture().handle((x, t) -> t);
+        }
+        return CompletableFuture.allOf(outcomes).thenApply(x -> Response.ok(toBatchResponse(events, outcomes)).build());
     }
 
     @POST
     @Path("/events/{name}/plain")
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
-    public Response publishEvent(@PathParam("name") @NotNull String name,
+    public CompletionStage<Response> publishEvent(@PathParam("name") @NotNull String name,
             @HeaderParam("ce-specversion") @NotNull String cloudEventSpecVersion,
             @HeaderParam("ce-type") @NotNull String cloudEventType,
             @HeaderParam("ce-id") @NotNull String cloudEventId,
@@ -58,8 +84,26 @@ public class IngressAPI {
         validateHeaders(cloudEventSpecVersion, cloudEventSource);
         CloudEvent cloudEvent = CloudEventUtils.build(cloudEventId, SpecVersion.parse(cloudEventSpecVersion),
                 URI.create(cloudEventSource), cloudEventSubject, event);
-        ingressService.processEvent(name, cloudEvent);
-        return Response.ok().build();
+        return ingressService.processEvent(name, cloudEvent).thenApply(x -> Response.ok().build());
+    }
+
+    private static List<BatchEventResponse> toBatchResponse(List<CloudEvent> events, CompletableFuture<?>[] outcomes) {
+        List<BatchEventResponse> responses = new ArrayList<>(events.size());
+        for (int i = 0; i < outcomes.length; i++) {
+            Throwable failure = (Throwable) outcomes[i].join();
+            if (failure instanceof CompletionException && failure.getCause() != null) {
+                failure = failure.getCause();
+            }
+            String id = events.get(i).getId();
+            if (failure == null) {
+                responses.add(new BatchEventResponse(id, Response.Status.OK.getStatusCode(), null));
+            } else if (failure instanceof IngressException) {
+                responses.add(new BatchEventResponse(id, ((IngressException) failure).getStatusCode(), failure.getMessage()));
+            } else {
+                responses.add(new BatchEventResponse(id, Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), failure.getMessage()));
+            }
+        }
+        return responses;
     }
 
     private void validateHeaders(String cloudEventSpecVersion, String cloudEventSource) {
@@ -0,0 +1,137 @@
+package com.redhat.service.bridge.ingress.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.CompletionException;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.redhat.service.bridge.ingress.IngressService;
+import com.redhat.service.bridge.ingress.api.exceptions.BadRequestException;
+import com.redhat.service.bridge.ingress.api.exceptions.IngressException;
+import com.redhat.service.bridge.ingress.api.exceptions.PayloadTooLargeException;
+import com.redhat.service.bridge.ingress.api.exceptions.TooManyRequestsException;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Receives CloudEvents in the structured content mode (<code>application/cloudevents+json</code>) on the event loop.
+ *
+ * The body is parsed chunk by chunk as it is received, instead of being bound to a <code>CloudEvent</code> by RESTEasy,
+ * and the response is sent once the event queue has accepted the event. Requests with other content types are left to
+ * {@link IngressAPI}.
+ *
+ * Bodies compressed with gzip or deflate are decompressed by the HTTP server. Bodies compressed with zstd are buffered
+ * (up to the maximum size of an event) and decompressed chunk by chunk into the reader once they are complete, so that
+ * the maximum size of an event always applies to the decompressed event.
+ */
+@ApplicationScoped
+public class IngressRoute {
+
+    public static final String CLOUD_EVENTS_JSON = "application/cloudevents+json";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IngressRoute.class);
+
+    private static final int DECOMPRESSION_CHUNK_SIZE = 8192;
+
+    @Inject
+    IngressService ingressService;
+
+    void init(@Observes Router router) {
+        router.post("/ingress/events/:name").consumes(CLOUD_EVENTS_JSON).handler(this::publishEvent);
+    }
+
+    void publishEvent(RoutingContext context) {
+        String name = context.pathParam("name");
+        LOGGER.debug("[ingress] new event has been uploaded to endpoint /ingress/events/{}", name);
+
+        int maxEventSize;
+        try {
+            maxEventSize = ingressService.getDeployment(name).getMaxEventSize();
+        } catch (IngressException e) {
+            fail(context, e);
+            return;
+        }
+        StructuredCloudEventReader reader = new StructuredCloudEventReader(maxEventSize);
+        HttpServerRequest request = context.request();
+        Buffer compressed = ZstdReaderInterceptor.ZSTD.equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING)) ? Buffer.buffer() : null;
+        request.handler(chunk -> {
+            if (context.response().ended()) {
+                return;
+            }
+            try {
+                if (compressed == null) {
+                    reader.feed(chunk.getBytes());
+                } else if (compressed.length() + chunk.length() > maxEventSize) {
+                    throw new PayloadTooLargeException("The event exceeds the maximum size of " + maxEventSize + " bytes.");
+                } else {
+                    compressed.appendBuffer(chunk);
+                }
+            } catch (IngressException e) {
+                fail(context, e);
+            }
+        });
+        request.endHandler(v -> {
+            if (context.response().ended()) {
+                return;
+            }
+            try {
+                if (compressed != null) {
+                    decompress(compressed, reader);
+                }
+                ingressService.processEvent(name, reader.end()).whenComplete((x, t) -> {
+                    if (t == null) {
+                        context.response().setStatusCode(Response.Status.OK.getStatusCode()).end();
+                    } else {
+                        fail(context, t);
+                    }
+                });
+            } catch (IngressException e) {
+                fail(context, e);
+            }
+        });
+        request.exceptionHandler(t -> LOGGER.debug("[ingress] Failed to read the body of an event", t));
+        request.resume();
+    }
+
+    private static void decompress(Buffer compressed, StructuredCloudEventReader reader) {
+        byte[] chunk = new byte[DECOMPRESSION_CHUNK_SIZE];
+        try (InputStream input = new ZstdInputStream(new ByteArrayInputStream(compressed.getBytes()))) {
+            int read;
+            while ((read = input.read(chunk)) != -1) {
+                reader.feed(Arrays.copyOf(chunk, read));
+            }
+        } catch (IOException e) {
+            throw new BadRequestException("The body is not valid zstd compressed data.");
+        }
+    }
+
+    static void fail(RoutingContext context, Throwable t) {
+        Throwable failure = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+        int statusCode = failure instanceof IngressException ? ((IngressException) failure).getStatusCode() : Response.Status.INTERNAL_SERVER_ERROR.getStatusCode();
+        if (failure instanceof IngressException && ((IngressException) failure).isClientError()) {
+            LOGGER.debug("[ingress] Request rejected with status {}: {}", statusCode, failure.getMessage());
+        } else {
+            LOGGER.error("[ingress] Failed to handle a request", failure);
+        }
+        if (!context.response().ended()) {
+            if (failure instanceof TooManyRequestsException && ((TooManyRequestsException) failure).getRetryAfterSeconds() > 0) {
+                context.response().putHeader(HttpHeaders.RETRY_AFTER, String.valueOf(((TooManyRequestsException) failure).getRetryAfterSeconds()));
+            }
+            context.response().setStatusCode(statusCode).end(String.valueOf(failure.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.redhat.service.bridge.ingress.api;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.redhat.service.bridge.infra.utils.CloudEventUtils;
+import com.redhat.service.bridge.ingress.IngressService;
+import com.redhat.service.bridge.ingress.api.exceptions.IngressException;
+import com.redhat.service.bridge.ingress.api.exceptions.PayloadTooLargeException;
+import com.redhat.service.bridge.ingress.api.exceptions.TooManyRequestsException;
+import com.redhat.service.bridge.ingress.api.exceptions.UnsupportedMediaTypeException;
+
+import io.cloudevents.CloudEvent;
+import io.vertx.core.Context;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.parsetools.RecordParser;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Receives a continuous stream of CloudEvents on a single long-lived request, for the producers sending many small
+ * events.
+ *
+ * The body is newline delimited JSON (<code>application/x-ndjson</code>): each line is a CloudEvent in the structured
+ * content mode and is published as soon as it is received. The response is streamed as well, one JSON object per line:
+ * <ul>
+ * <li><code>{"ack":n}</code> is sent periodically and once the stream is complete: the first <code>n</code> events of
+ * the stream have been processed, and a producer reconnecting can resume from there.</li>
+ * <li><code>{"seq":i,"status":s,"error":"..."}</code> is sent when the event <code>i</code> (starting from 0) has been
+ * rejected, with the status code it would have been answered with by {@link IngressAPI}.</li>
+ * </ul>
+ * The flow is controlled by the event queue: the request is paused while too many events of the stream wait for the
+ * acknowledgement of the broker, or while the publisher has no capacity left, and resumed afterwards.
+ *
+ * A stream compressed with gzip or deflate is decompressed by the HTTP server. A stream compressed with zstd is answered
+ * with 415 (Unsupported Media Type): unlike a single event, it can not be buffered until it is complete.
+ */
+@ApplicationScoped
+public class IngressStreamRoute {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IngressStreamRoute.class);
+
+    @ConfigProperty(name = "event-bridge.ingress.stream.max-in-flight", defaultValue = "256")
+    int maxInFlight;
+
+    @ConfigProperty(name = "event-bridge.ingress.stream.ack-interval-ms", defaultValue = "1000")
+    long ackIntervalMillis;
+
+    @ConfigProperty(name = "event-bridge.ingress.stream.retry-delay-ms", defaultValue = "100")
+    long retryDelayMillis;
+
+    @Inject
+    IngressService ingressService;
+
+    void init(@Observes Router router) {
+        router.post("/ingress/events/:name/stream").consumes(NDJSON).handler(this::openStream);
+    }
+
+    void openStream(RoutingContext context) {
+        String name = context.pathParam("name");
+        LOGGER.debug("[ingress] new stream of events has been opened on endpoint /ingress/events/{}/stream", name);
+
+        int maxEventSize;
+        try {
+            maxEventSize = ingressService.getDeployment(name).getMaxEventSize();
+        } catch (IngressException e) {
+            IngressRoute.fail(context, e);
+            return;
+        }
+        if (ZstdReaderInterceptor.ZSTD.equalsIgnoreCase(context.request().getHeader(HttpHeaders.CONTENT_ENCODING))) {
+            IngressRoute.fail(context, new UnsupportedMediaTypeException("A stream of events can not be compressed with zstd, use gzip or deflate."));
+            return;
+        }
+        new EventStream(context, name, maxEventSize).start();
+    }
+
+    /**
+     * The state of a stream. All the methods run on the event loop of the request.
+     */
+    private class EventStream {
+
+        private final RoutingContext routingContext;
+        private final HttpServerRequest request;
+        private final HttpServerResponse response;
+        private final Context context;
+        private final String name;
+        private final int maxEventSize;
+        private final Deque<PendingEvent> waiting = new ArrayDeque<>();
+        // Sequence numbers of the events processed after an event that is still in flight
+        private final NavigableSet<Long> processed = new TreeSet<>();
+        private long nextSequence;
+        private long acknowledged;
+        private long lastSentAcknowledgement = -1L;
+        private int inFlight;
+        private boolean paused;
+        private boolean retryScheduled;
+        private boolean requestEnded;
+        private boolean closed;
+        private long ackTimer;
+
+        EventStream(RoutingContext routingContext, String name, int maxEventSize) {
+            this.routingContext = routingContext;
+            this.request = routingContext.request();
+            this.response = routingContext.response();
+            this.context = routingContext.vertx().getOrCreateContext();
+            this.name = name;
+            this.maxEventSize = maxEventSize;
+        }
+
+        void start() {
+            response.setChunked(true).setStatusCode(Response.Status.OK.getStatusCode()).putHeader(HttpHeaders.CONTENT_TYPE, NDJSON);
+            response.closeHandler(v -> close());
+
+            RecordParser parser = RecordParser.newDelimited("\n", this::onLine);
+            parser.maxRecordSize(maxEventSize);
+            parser.exceptionHandler(t -> abort(new PayloadTooLargeException("An event exceeds the maximum size of " + maxEventSize + " bytes.")));
+            request.handler(parser);
+            request.endHandler(v -> {
+                // The last event does not have to be followed by a new line
+                parser.handle(Buffer.buffer("\n"));
+                requestEnded = true;
+                finishIfComplete();
+            });
+            request.exceptionHandler(t -> LOGGER.debug("[ingress] Failed to read a stream of events", t));
+            ackTimer = routingContext.vertx().setPeriodic(ackIntervalMillis, id -> sendAcknowledgement());
+            request.resume();
+        }
+
+        private void onLine(Buffer line) {
+            if (closed || line.length() == 0 || (line.length() == 1 && line.getByte(0) == '\r')) {
+                return;
+            }
+            long sequence = nextSequence++;
+            try {
+                StructuredCloudEventReader reader = new StructuredCloudEventReader(maxEventSize);
+                reader.feed(line.getBytes());
+                waiting.add(new PendingEvent(sequence, reader.end()));
+            } catch (IngressException e) {
+                processed(sequence, e);
+                return;
+            }
+            publishWaitingEvents();
+        }
+
+        private void publishWaitingEvents() {
+            while (!closed && !retryScheduled && !waiting.isEmpty() && inFlight < maxInFlight) {
+                PendingEvent pending = waiting.peek();
+                CompletionStage<Void> stage;
+                try {
+                    stage = ingressService.processEvent(name, pending.event);
+                } catch (TooManyRequestsException e) {
+                    // The publisher (or the quota of the Bridge) has no capacity left: retry later, in order
+                    long delay = e.getRetryAfterSeconds() > 0 ? TimeUnit.SECONDS.toMillis(e.getRetryAfterSeconds()) : retryDelayMillis;
+                    retryScheduled = true;
+                    routingContext.vertx().setTimer(delay, id -> {
+                        retryScheduled = false;
+                        publishWaitingEvents();
+                    });
+                    break;
+                } catch (IngressException e) {
+                    waiting.poll();
+                    processed(pending.sequence, e);
+                    continue;
+                }
+                waiting.poll();
+                inFlight++;
+                stage.whenComplete((x, t) -> context.runOnContext(v -> {
+                    inFlight--;
+                    processed(pending.sequence, t);
+                    publishWaitingEvents();
+                }));
+            }
+            updateFlow();
+            finishIfComplete();
+        }
+
+        private void updateFlow() {
+            boolean full = inFlight + waiting.size() >= maxInFlight || retryScheduled;
+            if (full && !paused) {
+                paused = true;
+                request.pause();
+            } else if (!full && paused) {
+                paused = false;
+                request.resume();
+            }
+        }
+
+        private void processed(long sequence, Throwable failure) {
+            if (failure != null) {
+                sendError(sequence, failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure);
+            }
+            if (sequence != acknowledged) {
+                processed.add(sequence);
+                return;
+            }
+            acknowledged++;
+            while (!processed.isEmpty() && processed.first() == acknowledged) {
+                processed.pollFirst();
+                acknowledged++;
+            }
+        }
+
+        private void finishIfComplete() {
+            if (requestEnded && !closed && inFlight == 0 && waiting.isEmpty()) {
+                sendAcknowledgement();
+                close();
+                response.end();
+            }
+        }
+
+        private void abort(IngressException e) {
+            if (!closed) {
+                sendError(nextSequence, e);
+                sendAcknowledgement();
+                close();
+                response.end();
+            }
+        }
+
+        private void close() {
+            closed = true;
+            routingContext.vertx().cancelTimer(ackTimer);
+        }
+
+        private void sendAcknowledgement() {
+            if (closed || acknowledged == lastSentAcknowledgement) {
+                return;
+            }
+            lastSentAcknowledgement = acknowledged;
+            ObjectNode ack = CloudEventUtils.getMapper().createObjectNode();
+            ack.put("ack", acknowledged);
+            write(ack);
+        }
+
+        private void sendError(long sequence, Throwable failure) {
+            if (closed) {
+                return;
+            }
+            ObjectNode error = CloudEventUtils.getMapper().createObjectNode();
+            error.put("seq", sequence);
+            error.put("status", failure instanceof IngressException ? ((IngressException) failure).getStatusCode() : Response.Status.INTERNAL_SERVER_ERROR.getStatusCode());
+            error.put("error", String.valueOf(failure.getMessage()));
+            write(error);
+        }
+
+        private void write(ObjectNode line) {
+            try {
+                response.write(CloudEventUtils.getMapper().writeValueAsString(line) + "\n");
+            } catch (JsonProcessingException e) {
+                LOGGER.error("[ingress] Failed to write to a stream of events", e);
+            }
+        }
+    }
+
+    private static class PendingEvent {
+
+        private final long sequence;
+        private final CloudEvent event;
+
+        PendingEvent(long sequence, CloudEvent event) {
+            this.sequence = sequence;
+            this.event = event;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.redhat.service.bridge.ingress.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.redhat.service.bridge.infra.format.CloudEventJsonCodec;
+import com.redhat.service.bridge.infra.utils.CloudEventUtils;
+import com.redhat.service.bridge.ingress.api.exceptions.BadRequestException;
+import com.redhat.service.bridge.ingress.api.exceptions.PayloadTooLargeException;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.SpecVersion;
+import io.cloudevents.core.builder.CloudEventBuilder;
+
+/**
+ * Reads a CloudEvent in the structured JSON content mode from the chunks of a request body, as they are received.
+ *
+ * The body is tokenized by a non-blocking parser: attributes and extensions are collected on the fly, while the tokens
+ * of the data are written back to bytes as they come, without ever building the JSON tree of the event. A reader
+ * handles a single event and is not thread safe.
+ */
+public class StructuredCloudEventReader {
+
+    private static final JsonFactory JSON_FACTORY = CloudEventUtils.getMapper().getFactory();
+
+    private static final String SPEC_VERSION = "specversion";
+    private static final String ID = "id";
+    private static final String SOURCE = "source";
+    private static final String TYPE = "type";
+    private static final String DATA_CONTENT_TYPE = "datacontenttype";
+    private static final String DATA_SCHEMA = "dataschema";
+    private static final String SUBJECT = "subject";
+    private static final String TIME = "time";
+    private static final String DATA = "data";
+    private static final String DATA_BASE64 = "data_base64";
+
+    private final int maxSize;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    private int size;
+    private int depth;
+    private String fieldName;
+    private boolean completed;
+
+    // The data is written back to bytes while it is parsed
+    private ByteArrayOutputStream data;
+    private JsonGenerator dataGenerator;
+    private int dataDepth;
+    private String dataText;
+    private byte[] dataBase64;
+
+    /**
+     * @param maxSize - The maximum size in bytes of the event.
+     */
+    public StructuredCloudEventReader(int maxSize) {
+        this.maxSize = maxSize;
+        try {
+            this.parser = JSON_FACTORY.createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to create a non-blocking JSON parser", e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * @param chunk - The next chunk of the body.
+     * @throws BadRequestException - If the body is not a valid CloudEvent.
+     * @throws PayloadTooLargeException - If the body exceeds the maximum size.
+     */
+    public void feed(byte[] chunk) {
+        size += chunk.length;
+        if (size > maxSize) {
+            throw new PayloadTooLargeException("The event exceeds the maximum size of " + maxSize + " bytes.");
+        }
+        try {
+            feeder.feedInput(chunk, 0, chunk.length);
+            readAvailableTokens();
+        } catch (IOException e) {
+            throw new BadRequestException("The body is not a valid JSON document: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return - The event, once the whole body has been fed.
+     * @throws BadRequestException - If the body is not a valid CloudEvent.
+     */
+    public CloudEvent end() {
+        try {
+            feeder.endOfInput();
+            readAvailableTokens();
+        } catch (IOException e) {
+            throw new BadRequestException("The body is not a valid JSON document: " + e.getMessage(), e);
+        }
+        if (!completed) {
+            throw new BadRequestException("The body is not a complete JSON object.");
+        }
+        try {
+            return build();
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new BadRequestException("Attributes of the event are not valid: " + e.getMessage(), e);
+        }
+    }
+
+    private void readAvailableTokens() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if (completed) {
+                throw new BadRequestException("Unexpected content after the event.");
+            }
+            if (dataGenerator != null) {
+                readDataToken(token);
+            } else if (depth == 0) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new BadRequestException("The event must be a JSON object.");
+                }
+                depth = 1;
+            } else if (token == JsonToken.FIELD_NAME) {
+                fieldName = parser.getCurrentName();
+            } else if (token == JsonToken.END_OBJECT) {
+                completed = true;
+            } else {
+                readValue(token);
+            }
+        }
+    }
+
+    private void readValue(JsonToken token) throws IOException {
+        if (DATA.equals(fieldName)) {
+            data = new ByteArrayOutputStream();
+            dataGenerator = JSON_FACTORY.createGenerator(data);
+            if (token == JsonToken.VALUE_STRING) {
+                dataText = parser.getText();
+            }
+            readDataToken(token);
+        } else if (DATA_BASE64.equals(fieldName)) {
+            if (token != JsonToken.VALUE_STRING) {
+                throw new BadRequestException("Attribute \"" + DATA_BASE64 + "\" must be a string.");
+            }
+            // Invalid base64 fails with a JsonParseException, as the other syntax errors of the body
+            dataBase64 = parser.getBinaryValue();
+        } else if (token == JsonToken.VALUE_STRING) {
+            attributes.put(fieldName, parser.getText());
+        } else if (token == JsonToken.VALUE_NUMBER_INT) {
+            attributes.put(fieldName, parser.getIntValue());
+        } else if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+            attributes.put(fieldName, parser.getBooleanValue());
+        } else if (token != JsonToken.VALUE_NULL) {
+            throw new BadRequestException("Attribute \"" + fieldName + "\" must be a string, an integer or a boolean.");
+        }
+    }
+
+    private void readDataToken(JsonToken token) throws IOException {
+        dataGenerator.copyCurrentEvent(parser);
+        if (token.isStructStart()) {
+            dataDepth++;
+        } else if (token.isStructEnd()) {
+            dataDepth--;
+        }
+        if (dataDepth == 0) {
+            dataGenerator.close();
+            dataGenerator = null;
+        }
+    }
+
+    private CloudEvent build() {
+        CloudEventBuilder builder = CloudEventBuilder.fromSpecVersion(SpecVersion.parse(requiredAttribute(SPEC_VERSION)))
+                .withId(requiredAttribute(ID))
+                .withSource(URI.create(requiredAttribute(SOURCE)))
+                .withType(requiredAttribute(TYPE));
+        String dataSchema = optionalAttribute(DATA_SCHEMA);
+        if (dataSchema != null) {
+            builder.withDataSchema(URI.create(dataSchema));
+        }
+        String time = optionalAttribute(TIME);
+        if (time != null) {
+            builder.withTime(OffsetDateTime.parse(time));
+        }
+        String subject = optionalAttribute(SUBJECT);
+        if (subject != null) {
+            builder.withSubject(subject);
+        }
+        String dataContentType = optionalAttribute(DATA_CONTENT_TYPE);
+        byte[] dataBytes = dataBytes(dataContentType);
+        if (dataBytes != null) {
+            builder.withData(dataContentType, dataBytes);
+        } else if (dataContentType != null) {
+            builder.withDataContentType(dataContentType);
+        }
+
+        for (Map.Entry<String, Object> extension : attributes.entrySet()) {
+            Object value = extension.getValue();
+            if (value instanceof String) {
+                builder.withExtension(extension.getKey(), (String) value);
+            } else if (value instanceof Integer) {
+                builder.withExtension(extension.getKey(), (Integer) value);
+            } else {
+                builder.withExtension(extension.getKey(), (Boolean) value);
+            }
+        }
+        return builder.build();
+    }
+
+    private byte[] dataBytes(String dataContentType) {
+        if (dataBase64 != null) {
+            return dataBase64;
+        }
+        if (data == null) {
+            return null;
+        }
+        // A string is only JSON data with a JSON content type, otherwise it is the data itself
+        if (dataText != null && !CloudEventJsonCodec.isJsonContentType(dataContentType)) {
+            return dataText.getBytes(StandardCharsets.UTF_8);
+        }
+        return data.toByteArray();
+    }
+
+    private String optionalAttribute(String name) {
+        Object value = attributes.remove(name);
+        if (value != null && !(value instanceof String)) {
+            throw new BadRequestException("Attribute \"" + name + "\" must be a string.");
+        }
+        return (String) value;
+    }
+
+    private String requiredAttribute(String name) {
+        Object value = attributes.remove(name);
+        if (!(value instanceof String)) {
+            throw new BadRequestException("Attribute \"" + name + "\" is required and must be a string.");
+        }
+        return (String) value;
+    }
+}
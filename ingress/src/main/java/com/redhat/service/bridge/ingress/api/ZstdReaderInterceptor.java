@@ -0,0 +1,129 @@
+package com.redhat.service.bridge.ingress.api;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.annotation.Priority;
+import javax.inject.Inject;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.UriInfo;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.ReaderInterceptor;
+import javax.ws.rs.ext.ReaderInterceptorContext;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.redhat.service.bridge.ingress.IngressDeployment;
+import com.redhat.service.bridge.ingress.IngressService;
+import com.redhat.service.bridge.ingress.api.exceptions.PayloadTooLargeException;
+
+/**
+ * Decompresses the bodies sent with <code>Content-Encoding: zstd</code> to {@link IngressAPI}.
+ *
+ * The bodies compressed with gzip or deflate are decompressed by the HTTP server
+ * (<code>quarkus.http.enable-decompression</code>), which does not support zstd. The decompressed body is bounded by
+ * the maximum size of an event of the Bridge, or of a batch of events for {@value IngressAPI#CLOUD_EVENTS_BATCH_JSON}:
+ * the larger bodies are answered with 413 (Payload Too Large), as by {@link IngressRoute} and by the HTTP server.
+ */
+@Provider
+@Priority(Priorities.ENTITY_CODER)
+public class ZstdReaderInterceptor implements ReaderInterceptor {
+
+    public static final String ZSTD = "zstd";
+
+    private static final MediaType CLOUD_EVENTS_BATCH_JSON = MediaType.valueOf(IngressAPI.CLOUD_EVENTS_BATCH_JSON);
+
+    @Inject
+    IngressService ingressService;
+
+    @Context
+    UriInfo uriInfo;
+
+    @Override
+    public Object aroundReadFrom(ReaderInterceptorContext context) throws IOException {
+        if (!ZSTD.equalsIgnoreCase(context.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING))) {
+            return context.proceed();
+        }
+        long maxSize = maxSizeOf(context.getMediaType());
+        BoundedInputStream input = new BoundedInputStream(new ZstdInputStream(context.getInputStream()), maxSize);
+        context.getHeaders().remove(HttpHeaders.CONTENT_ENCODING);
+        context.setInputStream(input);
+        try {
+            return context.proceed();
+        } catch (IOException | RuntimeException e) {
+            // The readers may wrap the failure of the stream, e.g. Jackson with the position in a batch
+            if (input.isExceeded()) {
+                throw new PayloadTooLargeException("The decompressed body exceeds the maximum size of " + maxSize + " bytes.");
+            }
+            throw e;
+        }
+    }
+
+    private long maxSizeOf(MediaType mediaType) {
+        IngressDeployment deployment = ingressService.getDeployment(uriInfo.getPathParameters().getFirst("name"));
+        if (mediaType != null && mediaType.isCompatible(CLOUD_EVENTS_BATCH_JSON)) {
+            return deployment.getMaxBatchBytes();
+        }
+        return deployment.getMaxEventSize();
+    }
+
+    /*
+     * Fails the read of the byte following the maximum size, and remembers it
+     */
+    static class BoundedInputStream extends FilterInputStream {
+
+        private final long maxSize;
+        private long size;
+        private boolean exceeded;
+
+        BoundedInputStream(InputStream in, long maxSize) {
+            super(in);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        boolean isExceeded() {
+            return exceeded;
+        }
+
+        private void count(long read) throws IOException {
+            size += read;
+            if (size > maxSize) {
+                exceeded = true;
+                throw new IOException("The decompressed body exceeds " + maxSize + " bytes");
+            }
+        }
+    }
+}
@@ -21,4 +21,11 @@ public class IngressException extends RuntimeException {
     public int getStatusCode() {
         return Response.Status.INTERNAL_SERVER_ERROR.getStatusCode();
     }
+
+    /**
+     * @return - true if the request of the client is at fault (4xx), false if the ingress failed to handle it (5xx).
+     */
+    public boolean isClientError() {
+        return Response.Status.Family.familyOf(getStatusCode()) == Response.Status.Family.CLIENT_ERROR;
+    }
 }
@@ -0,0 +1,24 @@
+package com.redhat.service.bridge.ingress.api.exceptions;
+
+import javax.ws.rs.core.Response;
+
+public class PayloadTooLargeException extends IngressException {
+
+    public PayloadTooLargeException(String message) {
+        super(message);
+    }
+
+    public PayloadTooLargeException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    /**
+     * The status code to be returned to the client when this Exception is raised. Sub-classes should
+     * over-ride this.
+     *
+     * @return - The HTTP Status code to return to the client.
+     */
+    public int getStatusCode() {
+        return Response.Status.REQUEST_ENTITY_TOO_LARGE.getStatusCode();
+    }
+}
@@ -0,0 +1,41 @@
+package com.redhat.service.bridge.ingress.api.exceptions;
+
+import javax.ws.rs.core.Response;
+
+public class TooManyRequestsException extends IngressException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message) {
+        this(message, 0L);
+    }
+
+    public TooManyRequestsException(String message, Throwable cause) {
+        super(message, cause);
+        this.retryAfterSeconds = 0L;
+    }
+
+    /**
+     * @param message - The message.
+     * @param retryAfterSeconds - The number of seconds the client should wait before sending the request again, sent in
+     *        the <code>Retry-After</code> header when greater than zero.
+     */
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * The status code to be returned to the client when this Exception is raised. Sub-classes should
+     * over-ride this.
+     *
+     * @return - The HTTP Status code to return to the client.
+     */
+    public int getStatusCode() {
+        return Response.Status.TOO_MANY_REQUESTS.getStatusCode();
+    }
+}
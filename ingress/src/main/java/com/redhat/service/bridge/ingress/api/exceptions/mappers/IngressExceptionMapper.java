@@ -1,5 +1,6 @@
 package com.redhat.service.bridge.ingress.api.exceptions.mappers;
 
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.ext.ExceptionMapper;
 import javax.ws.rs.ext.Provider;
@@ -8,6 +9,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.redhat.service.bridge.ingress.api.exceptions.IngressException;
+import com.redhat.service.bridge.ingress.api.exceptions.TooManyRequestsException;
 
 @Provider
 public class IngressExceptionMapper implements ExceptionMapper<IngressException> {
@@ -17,7 +19,16 @@ public class IngressExceptionMapper implements ExceptionMapper<IngressException>
     //TODO - Extend this with support for Error codes and useful payload
     @Override
     public Response toResponse(IngressException e) {
-        LOGGER.error("Failure", e);
-        return Response.status(e.getStatusCode()).entity(e.getMessage()).build();
+        // The requests rejected because of the client are part of the normal operation: they are not errors of the ingress
+        if (e.isClientError()) {
+            LOGGER.debug("[ingress] Request rejected with status {}: {}", e.getStatusCode(), e.getMessage());
+        } else {
+            LOGGER.error("[ingress] Failed to handle a request", e);
+        }
+        Response.ResponseBuilder response = Response.status(e.getStatusCode()).entity(e.getMessage());
+        if (e instanceof TooManyRequestsException && ((TooManyRequestsException) e).getRetryAfterSeconds() > 0) {
+            response.header(HttpHeaders.RETRY_AFTER, ((TooManyRequestsException) e).getRetryAfterSeconds());
+        }
+        return response.build();
     }
 }
@@ -0,0 +1,54 @@
+package com.redhat.service.bridge.ingress.api.models.responses;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * The outcome of an event of a batch, with the HTTP status code the event would have been answered with if it had been
+ * sent alone.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchEventResponse {
+
+    @JsonProperty("id")
+    private String id;
+
+    @JsonProperty("status")
+    private int status;
+
+    @JsonProperty("error")
+    private String error;
+
+    public BatchEventResponse() {
+    }
+
+    public BatchEventResponse(String id, int status, String error) {
+        this.id = id;
+        this.status = status;
+        this.error = error;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
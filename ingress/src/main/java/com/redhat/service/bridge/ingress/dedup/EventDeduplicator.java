@@ -0,0 +1,88 @@
+package com.redhat.service.bridge.ingress.dedup;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.redhat.service.bridge.infra.dedup.DeduplicationWindow;
+
+import io.cloudevents.CloudEvent;
+import io.micrometer.core.instrument.Counter;
+
+/**
+ * Suppresses the copies of the events of a Bridge that are sent again, e.g. by clients retrying aggressively.
+ *
+ * Events are identified by their <code>source</code> and <code>id</code>, as mandated by the CloudEvents
+ * specification. An event is only remembered once the event queue has acknowledged it, so that the retries of an event
+ * that could not be published are never suppressed. The copies of an event that are sent while it is being published,
+ * in the same batch or in concurrent requests, are suppressed as well: they are answered with the outcome of the event.
+ */
+public class EventDeduplicator {
+
+    private final DeduplicationWindow window;
+    private final Counter duplicatesCounter;
+    private final Map<String, CompletableFuture<Void>> publishing = new ConcurrentHashMap<>();
+
+    public EventDeduplicator(DeduplicationWindow window, Counter duplicatesCounter) {
+        this.window = window;
+        this.duplicatesCounter = duplicatesCounter;
+    }
+
+    /**
+     * Starts publishing an event, unless it is a copy of an event that is being published or that has (most likely)
+     * been published during the deduplication window.
+     *
+     * @param event - The event.
+     * @return - null if the event must be published, in which case its outcome must be given to
+     *         {@link #finishPublishing(CloudEvent, CompletionStage)}. Otherwise, the outcome to answer the copy with.
+     */
+    public CompletionStage<Void> startPublishing(CloudEvent event) {
+        String key = keyOf(event);
+        CompletableFuture<Void> outcome = new CompletableFuture<>();
+        CompletableFuture<Void> original = publishing.putIfAbsent(key, outcome);
+        if (original != null) {
+            duplicatesCounter.increment();
+            return original;
+        }
+        // Checked once the event is marked as being published: an original finishing in between is in the window
+        if (window.mightContain(key)) {
+            publishing.remove(key, outcome);
+            outcome.complete(null);
+            duplicatesCounter.increment();
+            return outcome;
+        }
+        return null;
+    }
+
+    /**
+     * @param event - An event for which {@link #startPublishing(CloudEvent)} returned null.
+     * @param publication - The outcome of its publication.
+     * @return - The outcome of its publication.
+     */
+    public CompletionStage<Void> finishPublishing(CloudEvent event, CompletionStage<Void> publication) {
+        String key = keyOf(event);
+        CompletableFuture<Void> outcome = publishing.get(key);
+        publication.whenComplete((x, t) -> {
+            // Remembered before the copies stop waiting for it, so that the later copies are found in the window
+            if (t == null) {
+                window.put(key);
+            }
+            publishing.remove(key, outcome);
+            if (outcome == null) {
+                return;
+            }
+            if (t == null) {
+                outcome.complete(null);
+            } else {
+                outcome.completeExceptionally(t instanceof CompletionException && t.getCause() != null ? t.getCause() : t);
+            }
+        });
+        return publication;
+    }
+
+    private static String keyOf(CloudEvent event) {
+        return event.getSource() + "\u0000" + event.getId();
+    }
+}
@@ -0,0 +1,271 @@
+package com.redhat.service.bridge.ingress.producer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.apache.kafka.common.errors.RetriableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.redhat.service.bridge.infra.wal.SegmentedLog;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.jackson.JsonFormat;
+
+/**
+ * Buffers the events on the local disk while the event queue does not accept them, and drains them to the event queue
+ * in order once it does again.
+ *
+ * The events are appended to a memory-mapped {@link SegmentedLog}, along with the time they were received. As soon as
+ * an event has been buffered, the following events are buffered as well until the log has been drained, so that the
+ * events reach the event queue in the order they were received. The log is drained by a background thread: the events
+ * are sent in batches and the log is only committed once the whole batch has been acknowledged, so that events are
+ * delivered at least once, including when the ingress restarts before the log has been drained.
+ *
+ * A batch is sent again as long as the event queue fails with a retriable error (see {@link #isRetriable(Throwable)}).
+ * An event that the event queue rejects for good, e.g. because it is too large, would block the log forever: it is
+ * dropped from the log and counted in {@link #getDroppedEvents()}.
+ *
+ * The log is bounded by a maximum size: the events that do not fit are not appended, so that the callers answer them
+ * as if there were no log, instead of filling the disk while the event queue is not available.
+ */
+public class EventWriteAheadLog implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventWriteAheadLog.class);
+
+    private static final JsonFormat FORMAT = new JsonFormat();
+
+    private final SegmentedLog log;
+    private final Function<CloudEvent, CompletionStage<Void>> sender;
+    private final int drainBatchSize;
+    private final long retryIntervalMillis;
+    private final long ackTimeoutMillis;
+    private final long maxSizeBytes;
+    private final ScheduledExecutorService drainer;
+    private final AtomicLong backlogEvents = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private volatile boolean buffering;
+    private volatile long oldestTimestamp;
+
+    /**
+     * @param log - The log where the events are buffered.
+     * @param sender - Sends an event to the event queue, completes once the broker has acknowledged it.
+     * @param drainBatchSize - The maximum number of events sent before waiting for their acknowledgement.
+     * @param retryIntervalMillis - The time to wait before draining the log again when the event queue failed.
+     * @param ackTimeoutMillis - The maximum time to wait for the acknowledgement of a batch.
+     * @param maxSizeBytes - The maximum size of the events waiting in the log.
+     */
+    public EventWriteAheadLog(SegmentedLog log, Function<CloudEvent, CompletionStage<Void>> sender, int drainBatchSize, long retryIntervalMillis, long ackTimeoutMillis,
+            long maxSizeBytes) {
+        this.log = log;
+        this.sender = sender;
+        this.drainBatchSize = drainBatchSize;
+        this.retryIntervalMillis = retryIntervalMillis;
+        this.ackTimeoutMillis = ackTimeoutMillis;
+        this.maxSizeBytes = maxSizeBytes;
+        this.drainer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ingress-wal-drainer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        log.read(log.getCommittedPosition(), Integer.MAX_VALUE, (position, record) -> backlogEvents.incrementAndGet());
+        if (backlogEvents.get() > 0) {
+            LOGGER.info("[ingress] {} events buffered in the write-ahead log are waiting to be sent to the event queue", backlogEvents.get());
+            oldestTimestamp = readOldestTimestamp();
+            buffering = true;
+            scheduleDrain(0L);
+        }
+    }
+
+    /**
+     * @return - true if events are being buffered, in which case all the events must be appended to the log.
+     */
+    public boolean isBuffering() {
+        return buffering;
+    }
+
+    /**
+     * Appends an event to the log if events are being buffered.
+     *
+     * @param event - The event, as it would be sent to the event queue.
+     * @return - true if the event has been appended.
+     */
+    public synchronized boolean appendIfBuffering(CloudEvent event) {
+        return buffering && append(event);
+    }
+
+    /**
+     * Appends an event to the log, starting to buffer the events if they were not.
+     *
+     * @param event - The event, as it would be sent to the event queue.
+     * @return - true if the event has been appended, false if the log is full or the event could not be written to it.
+     */
+    public synchronized boolean append(CloudEvent event) {
+        long now = System.currentTimeMillis();
+        byte[] serialized = FORMAT.serialize(event);
+        byte[] record = ByteBuffer.allocate(Long.BYTES + serialized.length).putLong(now).put(serialized).array();
+        if (getBacklogBytes() + record.length > maxSizeBytes) {
+            LOGGER.warn("[ingress] The write-ahead log exceeds {} bytes, the event with id '{}' is not buffered", maxSizeBytes, event.getId());
+            return false;
+        }
+        try {
+            log.append(record);
+        } catch (RuntimeException | InternalError e) {
+            // A write to a memory-mapped file that the disk cannot hold fails with an InternalError (SIGBUS)
+            LOGGER.error("[ingress] Failed to buffer the event with id '{}' in the write-ahead log", event.getId(), e);
+            return false;
+        }
+        if (backlogEvents.getAndIncrement() == 0) {
+            oldestTimestamp = now;
+        }
+        if (!buffering) {
+            LOGGER.warn("[ingress] The event queue is not available, events are buffered in the write-ahead log");
+            buffering = true;
+            scheduleDrain(retryIntervalMillis);
+        }
+        return true;
+    }
+
+    /**
+     * @return - The number of events waiting in the log.
+     */
+    public long getBacklogEvents() {
+        return backlogEvents.get();
+    }
+
+    /**
+     * @return - The number of events dropped from the log because the event queue rejected them for good.
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * @return - The number of bytes of the log waiting to be sent.
+     */
+    public long getBacklogBytes() {
+        return log.getEndPosition() - log.getCommittedPosition();
+    }
+
+    /**
+     * @return - The time in seconds since the oldest event waiting in the log has been received, 0 if there is none.
+     */
+    public double getBacklogAgeSeconds() {
+        return backlogEvents.get() == 0 ? 0 : Math.max(0L, System.currentTimeMillis() - oldestTimestamp) / 1000.0;
+    }
+
+    @Override
+    public void close() {
+        drainer.shutdownNow();
+        synchronized (this) {
+            log.close();
+        }
+    }
+
+    private void scheduleDrain(long delayMillis) {
+        if (!drainer.isShutdown()) {
+            drainer.schedule(this::drain, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (drainBatch()) {
+                // Keep draining until the log is empty or the event queue fails
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn("[ingress] Failed to drain the write-ahead log to the event queue, retrying in {} ms", retryIntervalMillis, e);
+            scheduleDrain(retryIntervalMillis);
+        }
+    }
+
+    // Returns true if there might be more events to drain
+    private boolean drainBatch() {
+        List<String> ids = new ArrayList<>(drainBatchSize);
+        List<CompletableFuture<Void>> acks = new ArrayList<>(drainBatchSize);
+        long next = log.read(log.getCommittedPosition(), drainBatchSize, (position, record) -> {
+            ByteBuffer buffer = ByteBuffer.wrap(record);
+            buffer.getLong();
+            byte[] serialized = new byte[buffer.remaining()];
+            buffer.get(serialized);
+            CloudEvent event;
+            try {
+                event = FORMAT.deserialize(serialized);
+            } catch (RuntimeException e) {
+                ids.add(null);
+                acks.add(CompletableFuture.failedFuture(e));
+                return;
+            }
+            ids.add(event.getId());
+            acks.add(sender.apply(event).toCompletableFuture());
+        });
+
+        if (acks.isEmpty()) {
+            synchronized (this) {
+                if (log.getEndPosition() <= next) {
+                    buffering = false;
+                    LOGGER.info("[ingress] The write-ahead log has been drained to the event queue");
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ackTimeoutMillis);
+        int dropped = 0;
+        for (int i = 0; i < acks.size(); i++) {
+            try {
+                acks.get(i).get(Math.max(deadline - System.nanoTime(), 0L), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (ExecutionException e) {
+                if (isRetriable(e.getCause())) {
+                    throw new IllegalStateException("The event queue did not acknowledge the buffered events", e.getCause());
+                }
+                LOGGER.error("[ingress] The event queue rejected the buffered event with id '{}', it is dropped from the write-ahead log", ids.get(i), e.getCause());
+                dropped++;
+            } catch (TimeoutException e) {
+                throw new IllegalStateException("The event queue did not acknowledge the buffered events in time", e);
+            }
+        }
+        synchronized (this) {
+            log.commit(next);
+            backlogEvents.addAndGet(-acks.size());
+            droppedEvents.addAndGet(dropped);
+            oldestTimestamp = readOldestTimestamp();
+        }
+        return true;
+    }
+
+    private long readOldestTimestamp() {
+        long[] timestamp = { System.currentTimeMillis() };
+        log.read(log.getCommittedPosition(), 1, (position, record) -> timestamp[0] = ByteBuffer.wrap(record).getLong());
+        return timestamp[0];
+    }
+
+    /**
+     * @param failure - Why the event queue did not acknowledge an event.
+     * @return - true if the event might be acknowledged later (broker unreachable, acknowledgement timed out, etc.),
+     *         false if it is rejected for good.
+     */
+    static boolean isRetriable(Throwable failure) {
+        Throwable cause = failure;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof RetriableException || cause instanceof TimeoutException || cause instanceof io.smallrye.mutiny.TimeoutException;
+    }
+}
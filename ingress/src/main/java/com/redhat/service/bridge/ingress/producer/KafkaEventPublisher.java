@@ -1,46 +1,158 @@
 package com.redhat.service.bridge.ingress.producer;
 
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Semaphore;
+
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
+import javax.inject.Inject;
 
-import org.eclipse.microprofile.reactive.messaging.Outgoing;
-import org.reactivestreams.Publisher;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.reactive.messaging.Channel;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
+import org.eclipse.microprofile.reactive.messaging.OnOverflow;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.redhat.service.bridge.infra.BridgeCloudEventExtension;
-import com.redhat.service.bridge.infra.utils.CloudEventUtils;
-import com.redhat.service.bridge.infra.utils.exceptions.CloudEventSerializationException;
+import com.redhat.service.bridge.infra.jfr.PublishEvent;
+import com.redhat.service.bridge.infra.trace.EventTracer;
+import com.redhat.service.bridge.infra.trace.Span;
+import com.redhat.service.bridge.infra.trace.TraceContext;
+import com.redhat.service.bridge.infra.trace.Tracing;
+import com.redhat.service.bridge.infra.wal.SegmentedLog;
+import com.redhat.service.bridge.ingress.MetricsConstants;
 import com.redhat.service.bridge.ingress.api.exceptions.BadRequestException;
 import com.redhat.service.bridge.ingress.api.exceptions.IngressException;
+import com.redhat.service.bridge.ingress.api.exceptions.ServiceUnavailableException;
+import com.redhat.service.bridge.ingress.api.exceptions.TooManyRequestsException;
 
 import io.cloudevents.CloudEvent;
 import io.cloudevents.CloudEventExtension;
 import io.cloudevents.core.builder.CloudEventBuilder;
 import io.cloudevents.core.provider.ExtensionProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
 import io.quarkus.runtime.StartupEvent;
-import io.smallrye.mutiny.operators.multi.processors.BroadcastProcessor;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
+
+import jdk.jfr.EventType;
 
 @ApplicationScoped
 public class KafkaEventPublisher {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(KafkaEventPublisher.class);
 
-    private final BroadcastProcessor<String> eventSubject = BroadcastProcessor.create();
+    private static final EventType PUBLISH_EVENT_TYPE = EventType.getEventType(PublishEvent.class);
+
+    /**
+     * Kafka Topic that we expect to have configured for sending events.
+     */
+    public static final String EVENTS_OUT_TOPIC = "events-out";
+
+    // The number of messages waiting for the acknowledgement of the broker is bounded by the in-flight window
+    @Inject
+    @Channel(EVENTS_OUT_TOPIC)
+    @OnOverflow(OnOverflow.Strategy.UNBOUNDED_BUFFER)
+    Emitter<CloudEvent> emitter;
+
+    @ConfigProperty(name = "event-bridge.ingress.publisher.max-in-flight", defaultValue = "1024")
+    int maxInFlight;
+
+    @ConfigProperty(name = "event-bridge.ingress.publisher.ack-timeout-ms", defaultValue = "10000")
+    long ackTimeoutMillis;
+
+    @ConfigProperty(name = "event-bridge.ingress.publisher.key-attribute", defaultValue = BridgeCloudEventExtension.BRIDGE_ID)
+    String keyAttribute;
+
+    @ConfigProperty(name = "event-bridge.ingress.wal.enabled", defaultValue = "false")
+    boolean walEnabled;
+
+    @ConfigProperty(name = "event-bridge.ingress.wal.directory")
+    Optional<String> walDirectory;
+
+    @ConfigProperty(name = "event-bridge.ingress.wal.segment-size", defaultValue = "16777216")
+    int walSegmentSize;
+
+    @ConfigProperty(name = "event-bridge.ingress.wal.drain-batch-size", defaultValue = "256")
+    int walDrainBatchSize;
+
+    @ConfigProperty(name = "event-bridge.ingress.wal.retry-interval-ms", defaultValue = "1000")
+    long walRetryIntervalMillis;
+
+    @ConfigProperty(name = "event-bridge.ingress.wal.max-size", defaultValue = "1073741824")
+    long walMaxSize;
+
+    @ConfigProperty(name = EventTracer.SAMPLE_RATE_CONFIG, defaultValue = "0")
+    double traceSampleRate;
+
+    @Inject
+    Config config;
+
+    @Inject
+    MeterRegistry registry;
+
+    private Semaphore inFlight;
+    private EventTracer tracer;
+    private Tracing tracing;
+    private EventWriteAheadLog writeAheadLog;
 
     public void init(@Observes StartupEvent e) {
         ExtensionProvider.getInstance().registerExtension(BridgeCloudEventExtension.class, BridgeCloudEventExtension::new);
+        inFlight = new Semaphore(maxInFlight);
+        tracer = EventTracer.fromConfig("ingress", traceSampleRate, config);
+        tracing = Tracing.fromConfig(tracer, config);
+        if (walEnabled) {
+            String directory = walDirectory.orElseThrow(() -> new IllegalStateException("event-bridge.ingress.wal.directory must be set when the write-ahead log is enabled"));
+            writeAheadLog = new EventWriteAheadLog(SegmentedLog.open(Paths.get(directory), walSegmentSize), this::emit, walDrainBatchSize, walRetryIntervalMillis,
+                    ackTimeoutMillis, walMaxSize);
+            registry.gauge(MetricsConstants.WAL_BACKLOG_EVENTS_METRIC_NAME, writeAheadLog, EventWriteAheadLog::getBacklogEvents);
+            registry.gauge(MetricsConstants.WAL_BACKLOG_BYTES_METRIC_NAME, writeAheadLog, EventWriteAheadLog::getBacklogBytes);
+            registry.gauge(MetricsConstants.WAL_BACKLOG_AGE_METRIC_NAME, writeAheadLog, EventWriteAheadLog::getBacklogAgeSeconds);
+            registry.more().counter(MetricsConstants.WAL_DROPPED_EVENTS_METRIC_NAME, Collections.emptyList(), writeAheadLog, EventWriteAheadLog::getDroppedEvents);
+        }
+    }
+
+    void shutdown(@Observes ShutdownEvent e) {
+        if (writeAheadLog != null) {
+            writeAheadLog.close();
+        }
     }
 
     /*
-     * Add our specific metadata to the incoming event
+     * Add our specific metadata to the incoming event: the Bridge, the time the event arrived so that the executor can
+     * measure the end-to-end latency of the event, and the context of its trace
      */
-    private CloudEvent addMetadataToIncomingEvent(String bridgeId, CloudEvent cloudEvent) {
-        CloudEventExtension bridgeExtension = new BridgeCloudEventExtension(bridgeId);
-        validateIncomingEvent(cloudEvent, bridgeExtension);
-        return CloudEventBuilder.v1(cloudEvent)
-                .withExtension(bridgeExtension)
-                .build();
+    private CloudEvent addMetadataToIncomingEvent(CloudEventExtension bridgeExtension, Span span, CloudEvent cloudEvent) {
+        CloudEventBuilder builder = CloudEventBuilder.v1(cloudEvent)
+                .withExtension(bridgeExtension);
+        if (span.getContext() != null) {
+            span.getContext().writeTo(builder);
+        }
+        return builder.build();
+    }
+
+    /*
+     * The span of the event lasts until the broker has acknowledged it: the context the client sent the event with, if
+     * any, is its parent
+     */
+    private Span startSpan(String bridgeId, CloudEvent cloudEvent) {
+        return tracing.startSpan("publish", bridgeId, cloudEvent.getId(), TraceContext.fromEvent(cloudEvent))
+                .setAttribute(Span.BRIDGE_ATTRIBUTE, bridgeId)
+                .setAttribute(Span.EVENT_ATTRIBUTE, cloudEvent.getId());
     }
 
     private void validateIncomingEvent(CloudEvent cloudEvent, CloudEventExtension bridgeExtension) {
@@ -51,22 +163,208 @@ public class KafkaEventPublisher {
         }
     }
 
-    public void sendEvent(String bridgeId, CloudEvent cloudEvent) {
-        LOGGER.info("[ingress] Sending cloudEvent with id '{}' for bridge '{}' to event queue", cloudEvent.getId(), bridgeId);
+    /**
+     * Sends the event to the event queue.
+     *
+     * @param bridgeId - The id of the Bridge receiving the event.
+     * @param cloudEvent - The event.
+     * @return - Completes when the broker has acknowledged the event (or when the event has been buffered in the
+     *         write-ahead log, if enabled). Fails with a {@link ServiceUnavailableException} if the broker rejected the
+     *         event or did not acknowledge it in time.
+     * @throws TooManyRequestsException - If too many events are waiting for the acknowledgement of the broker.
+     */
+    public CompletionStage<Void> sendEvent(String bridgeId, CloudEvent cloudEvent) {
+        // The event is written in the CloudEvents binary content mode by the serializer of the channel
+        CloudEventExtension bridgeExtension = new BridgeCloudEventExtension(bridgeId, OffsetDateTime.now(ZoneOffset.UTC));
+        validateIncomingEvent(cloudEvent, bridgeExtension);
+        Span span = startSpan(bridgeId, cloudEvent);
+        CloudEvent eventToSend = addMetadataToIncomingEvent(bridgeExtension, span, cloudEvent);
+        tracer.trace("received", bridgeId, null, cloudEvent.getId());
+        if (writeAheadLog != null && writeAheadLog.appendIfBuffering(eventToSend)) {
+            return buffered(bridgeId, eventToSend, span);
+        }
+        if (!inFlight.tryAcquire()) {
+            if (writeAheadLog != null && writeAheadLog.append(eventToSend)) {
+                return buffered(bridgeId, eventToSend, span);
+            }
+            TooManyRequestsException e = new TooManyRequestsException("Too many events are waiting to be sent to the event queue, retry later.");
+            span.setError(e).end();
+            throw e;
+        }
+        return send(bridgeId, eventToSend, span);
+    }
+
+    /**
+     * Sends a batch of events to the event queue. The events are all handed over to the producer before waiting for any
+     * acknowledgement, so that they are pipelined to the broker.
+     *
+     * @param bridgeId - The id of the Bridge receiving the events.
+     * @param cloudEvents - The events.
+     * @return - The outcome of each event, in the order of the batch. Each one completes when the broker has
+     *         acknowledged the event, or fails with the {@link IngressException} describing why the event was not
+     *         sent.
+     */
+    public List<CompletionStage<Void>> sendEvents(String bridgeId, List<CloudEvent> cloudEvents) {
+        LOGGER.debug("[ingress] Sending a batch of {} cloudEvents for bridge '{}' to event queue", cloudEvents.size(), bridgeId);
+
+        CloudEventExtension bridgeExtension = new BridgeCloudEventExtension(bridgeId, OffsetDateTime.now(ZoneOffset.UTC));
+        List<CloudEvent> eventsToSend = new ArrayList<>(cloudEvents.size());
+        List<Span> spans = new ArrayList<>(cloudEvents.size());
+        List<CompletionStage<Void>> results = new ArrayList<>(cloudEvents.size());
+        int validEvents = 0;
+        for (CloudEvent cloudEvent : cloudEvents) {
+            try {
+                validateIncomingEvent(cloudEvent, bridgeExtension);
+                Span span = startSpan(bridgeId, cloudEvent);
+                eventsToSend.add(addMetadataToIncomingEvent(bridgeExtension, span, cloudEvent));
+                spans.add(span);
+                tracer.trace("received", bridgeId, null, cloudEvent.getId());
+                results.add(null);
+                validEvents++;
+            } catch (BadRequestException e) {
+                eventsToSend.add(null);
+                spans.add(null);
+                results.add(failed(e));
+            }
+        }
+
+        // The part of the batch that does not fit in the in-flight window is buffered in the write-ahead log, or rejected
+        boolean buffering = writeAheadLog != null && writeAheadLog.isBuffering();
+        int permits = buffering ? 0 : acquireUpTo(validEvents);
+        for (int i = 0; i < eventsToSend.size(); i++) {
+            CloudEvent eventToSend = eventsToSend.get(i);
+            if (eventToSend == null) {
+                continue;
+            }
+            Span span = spans.get(i);
+            if (permits > 0) {
+                permits--;
+                results.set(i, send(bridgeId, eventToSend, span));
+            } else if (writeAheadLog != null && writeAheadLog.append(eventToSend)) {
+                results.set(i, buffered(bridgeId, eventToSend, span));
+            } else {
+                TooManyRequestsException e = new TooManyRequestsException("Too many events are waiting to be sent to the event queue, retry later.");
+                span.setError(e).end();
+                results.set(i, failed(e));
+            }
+        }
+        return results;
+    }
+
+    private int acquireUpTo(int permits) {
+        int acquired = Math.min(permits, inFlight.availablePermits());
+        while (acquired > 0 && !inFlight.tryAcquire(acquired)) {
+            acquired = Math.min(acquired, inFlight.availablePermits());
+        }
+        return Math.max(acquired, 0);
+    }
 
-        cloudEvent = addMetadataToIncomingEvent(bridgeId, cloudEvent);
-        String serializedCloudEvent;
+    private CompletionStage<Void> send(String bridgeId, CloudEvent eventToSend, Span span) {
+        // The event spans threads, until the acknowledgement of the broker: it is only created when it is recorded
+        PublishEvent jfrEvent = PUBLISH_EVENT_TYPE.isEnabled() ? new PublishEvent() : null;
+        if (jfrEvent != null) {
+            jfrEvent.begin();
+        }
+        CompletableFuture<Void> ack;
         try {
-            serializedCloudEvent = CloudEventUtils.encode(cloudEvent);
-        } catch (CloudEventSerializationException e) {
-            throw new IngressException("Failed to encode cloud event", e);
+            ack = emit(eventToSend);
+        } catch (RuntimeException e) {
+            inFlight.release();
+            if (writeAheadLog != null && writeAheadLog.append(eventToSend)) {
+                return buffered(bridgeId, eventToSend, span);
+            }
+            span.setError(e).end();
+            return failed(new ServiceUnavailableException("Failed to send the event to the event queue", e));
+        }
+        // The window is only released once the broker has answered, even if the client stopped waiting for it
+        ack.whenComplete((x, t) -> inFlight.release());
+        if (jfrEvent != null) {
+            ack.whenComplete((x, t) -> {
+                jfrEvent.accepted = t == null;
+                jfrEvent.commit(bridgeId, null, eventToSend.getId());
+            });
+        }
+
+        return Uni.createFrom().completionStage(ack)
+                .ifNoItem().after(Duration.ofMillis(ackTimeoutMillis)).fail()
+                .onItem().invoke(x -> tracer.trace("published", bridgeId, null, eventToSend.getId()))
+                // An event the broker did not accept in time is buffered in the write-ahead log, and might be sent twice
+                .onFailure(this::isBufferable).recoverWithUni(t -> recover(bridgeId, eventToSend, span, t))
+                .onFailure().transform(t -> new ServiceUnavailableException("The event queue did not accept the event", t))
+                .onItemOrFailure().invoke((x, t) -> span.setError(t).end())
+                .subscribeAsCompletionStage();
+    }
+
+    Tracing getTracing() {
+        return tracing;
+    }
+
+    /*
+     * Only the events that the broker might accept later are buffered: an event rejected for good would be rejected
+     * again when the write-ahead log is drained
+     */
+    private boolean isBufferable(Throwable failure) {
+        return writeAheadLog != null && EventWriteAheadLog.isRetriable(failure);
+    }
+
+    private Uni<Void> recover(String bridgeId, CloudEvent eventToSend, Span span, Throwable failure) {
+        if (!writeAheadLog.append(eventToSend)) {
+            return Uni.createFrom().failure(failure);
+        }
+        tracer.trace("buffered", bridgeId, null, eventToSend.getId());
+        span.setAttribute("buffered", true);
+        return Uni.createFrom().voidItem();
+    }
+
+    /*
+     * The event is answered as accepted once it is in the write-ahead log, it is sent with the context of its trace
+     */
+    private CompletionStage<Void> buffered(String bridgeId, CloudEvent eventToSend, Span span) {
+        tracer.trace("buffered", bridgeId, null, eventToSend.getId());
+        span.setAttribute("buffered", true).end();
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /*
+     * Hands the event over to the producer, the result completes once the broker has acknowledged it
+     */
+    private CompletableFuture<Void> emit(CloudEvent eventToSend) {
+        CompletableFuture<Void> ack = new CompletableFuture<>();
+        Object bridgeId = eventToSend.getExtension(BridgeCloudEventExtension.BRIDGE_ID);
+        OutgoingKafkaRecordMetadata.OutgoingKafkaRecordMetadataBuilder<String> metadata = OutgoingKafkaRecordMetadata.<String> builder()
+                .withKey(keyFor(String.valueOf(bridgeId), eventToSend));
+        // The context of the trace is in the headers of the record as well, whatever the content mode of the event
+        TraceContext traceContext = TraceContext.fromEvent(eventToSend);
+        if (traceContext != null) {
+            metadata.withHeaders(traceContext.toHeaders());
+        }
+        Message<CloudEvent> message = Message.of(eventToSend, Metadata.of(metadata.build()),
+                () -> {
+                    ack.complete(null);
+                    return CompletableFuture.completedFuture(null);
+                },
+                t -> {
+                    ack.completeExceptionally(t);
+                    return CompletableFuture.completedFuture(null);
+                });
+        emitter.send(message);
+        return ack;
+    }
+
+    /*
+     * Records of the same key go to the same partition: keying by Bridge keeps the events of a Bridge together
+     */
+    private String keyFor(String bridgeId, CloudEvent eventToSend) {
+        Object value = eventToSend.getExtension(keyAttribute);
+        if (value == null && eventToSend.getSpecVersion().getAllAttributes().contains(keyAttribute)) {
+            value = eventToSend.getAttribute(keyAttribute);
         }
-        eventSubject.onNext(serializedCloudEvent);
-        LOGGER.info("[ingress] Sending cloudEvent with id '{}' for bridge '{}' to event queue - SUCCESS", cloudEvent.getId(), bridgeId);
+        return value == null ? bridgeId : value.toString();
     }
 
-    @Outgoing("events-out")
-    public Publisher<String> getEventPublisher() {
-        return eventSubject.toHotStream();
+    private static CompletionStage<Void> failed(IngressException e) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        result.completeExceptionally(e);
+        return result;
     }
 }
@@ -0,0 +1,79 @@
+package com.redhat.service.bridge.ingress.quota;
+
+import java.util.concurrent.TimeUnit;
+
+import com.redhat.service.bridge.infra.ratelimit.TokenBucket;
+import com.redhat.service.bridge.ingress.api.exceptions.PayloadTooLargeException;
+import com.redhat.service.bridge.ingress.api.exceptions.TooManyRequestsException;
+
+import io.micrometer.core.instrument.Counter;
+
+/**
+ * Enforces the quotas of a Bridge on the number of events and on the number of bytes it can send per second.
+ *
+ * Each quota is a {@link TokenBucket}, so that checking it is a compare-and-set and does not add any contention
+ * between the requests. Events exceeding a quota are rejected with a {@link TooManyRequestsException} telling the
+ * client when to send them again, unless they exceed the burst of the quota: they could never be admitted, they are
+ * rejected with a {@link PayloadTooLargeException} instead.
+ */
+public class BridgeQuota {
+
+    private final String bridgeId;
+    private final TokenBucket events;
+    private final TokenBucket bytes;
+    private final Counter throttledCounter;
+
+    /**
+     * @param bridgeId - The id of the Bridge.
+     * @param events - The quota on the number of events, or null if there is none.
+     * @param bytes - The quota on the number of bytes, or null if there is none.
+     * @param throttledCounter - Counts the events rejected.
+     */
+    public BridgeQuota(String bridgeId, TokenBucket events, TokenBucket bytes, Counter throttledCounter) {
+        this.bridgeId = bridgeId;
+        this.events = events;
+        this.bytes = bytes;
+        this.throttledCounter = throttledCounter;
+    }
+
+    /**
+     * @return - true if the size of the events must be given to {@link #acquire(int, long)}.
+     */
+    public boolean hasByteQuota() {
+        return bytes != null;
+    }
+
+    /**
+     * Takes events from the quotas of the Bridge.
+     *
+     * @param eventCount - The number of events.
+     * @param size - The size of the events in bytes, ignored when there is no quota on the bytes.
+     * @throws TooManyRequestsException - If the events exceed a quota. Nothing is taken from the quotas in this case.
+     * @throws PayloadTooLargeException - If the events exceed the burst of a quota, and can not be sent at once.
+     */
+    public void acquire(int eventCount, long size) {
+        if (events != null && eventCount > events.getCapacity()) {
+            throw new PayloadTooLargeException("The " + eventCount + " events exceed the burst of " + events.getCapacity() + " events of the quota of Bridge '" + bridgeId
+                    + "', send them in smaller batches.");
+        }
+        if (bytes != null && size > bytes.getCapacity()) {
+            throw new PayloadTooLargeException("The " + size + " bytes of data exceed the burst of " + bytes.getCapacity() + " bytes of the quota of Bridge '" + bridgeId
+                    + "', send them in smaller batches.");
+        }
+        if (events != null && !events.tryAcquire(eventCount)) {
+            reject(eventCount, events.nanosUntilAvailable(eventCount), "events");
+        }
+        if (bytes != null && !bytes.tryAcquire(size)) {
+            if (events != null) {
+                events.refund(eventCount);
+            }
+            reject(eventCount, bytes.nanosUntilAvailable(size), "bytes");
+        }
+    }
+
+    private void reject(int eventCount, long waitNanos, String quota) {
+        throttledCounter.increment(eventCount);
+        long retryAfterSeconds = Math.max(1L, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        throw new TooManyRequestsException("Bridge '" + bridgeId + "' exceeded its quota of " + quota + " per second.", retryAfterSeconds);
+    }
+}
@@ -1,22 +1,39 @@
 package com.redhat.service.bridge.ingress;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import javax.inject.Inject;
 
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.redhat.service.bridge.ingress.api.exceptions.IngressException;
+import com.redhat.service.bridge.ingress.api.exceptions.PayloadTooLargeException;
+import com.redhat.service.bridge.ingress.api.exceptions.TooManyRequestsException;
 import com.redhat.service.bridge.ingress.producer.KafkaEventPublisher;
 
 import io.cloudevents.CloudEvent;
+import io.cloudevents.core.builder.CloudEventBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.quarkus.test.junit.QuarkusMock;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.mockito.InjectMock;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -30,13 +47,21 @@ public class IngressServiceTest {
     @Inject
     IngressService ingressService;
 
+    @Inject
+    MeterRegistry registry;
+
     @BeforeAll
     public static void setup() {
         KafkaEventPublisher mock = Mockito.mock(KafkaEventPublisher.class);
-        Mockito.doNothing().when(mock).sendEvent(any(String.class), any(CloudEvent.class));
+        Mockito.when(mock.sendEvent(any(String.class), any(CloudEvent.class))).thenReturn(CompletableFuture.completedFuture(null));
         QuarkusMock.installMockForType(mock, KafkaEventPublisher.class);
     }
 
+    @BeforeEach
+    public void init() {
+        Mockito.when(kafkaEventPublisher.sendEvent(any(String.class), any(CloudEvent.class))).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
     @Test
     public void testSendEvent() throws JsonProcessingException {
         ingressService.deploy("topicName"); // TODO: remove after we move to k8s
@@ -52,4 +77,139 @@ public class IngressServiceTest {
         assertThatExceptionOfType(IngressException.class).isThrownBy(() -> ingressService.processEvent("topicName", TestUtils.buildTestCloudEvent()));
         verify(kafkaEventPublisher, times(0)).sendEvent(eq("topicName"), any(CloudEvent.class));
     }
+
+    @Test
+    public void testDeployIsIdempotent() {
+        ingressService.deploy("topicName");
+        ingressService.deploy("topicName");
+
+        assertThat(ingressService.undeploy("topicName")).isTrue();
+        assertThat(ingressService.undeploy("topicName")).isFalse();
+    }
+
+    @Test
+    public void testBridgeSettingsOverride() {
+        ingressService.deploy("topicName");
+        ingressService.deploy("mySmallBridge");
+
+        // Configured in the test application.properties
+        assertThat(ingressService.getDeployment("mySmallBridge").getMaxBatchSize()).isEqualTo(1);
+        assertThat(ingressService.getDeployment("topicName").getMaxBatchSize()).isEqualTo(1000);
+        assertThat(ingressService.getDeployment("topicName").getEndpoint()).isEqualTo("/ingress/events/topicName");
+
+        ingressService.undeploy("topicName");
+        ingressService.undeploy("mySmallBridge");
+    }
+
+    @Test
+    public void testDuplicateEventsAreSuppressed() throws JsonProcessingException {
+        // Deduplication is enabled for this bridge in the test application.properties
+        ingressService.deploy("myDeduplicatedBridge");
+        CloudEvent event = TestUtils.buildTestCloudEvent();
+        Counter duplicates = registry.counter(MetricsConstants.DUPLICATE_EVENTS_METRIC_NAME, MetricsConstants.BRIDGE_ID_TAG, "myDeduplicatedBridge");
+        double duplicatesBefore = duplicates.count();
+
+        ingressService.processEvent("myDeduplicatedBridge", event);
+        ingressService.processEvent("myDeduplicatedBridge", event);
+        ingressService.processEvent("myDeduplicatedBridge", CloudEventBuilder.v1(event).withId("anotherId").build());
+
+        verify(kafkaEventPublisher, times(2)).sendEvent(eq("myDeduplicatedBridge"), any(CloudEvent.class));
+        assertThat(duplicates.count() - duplicatesBefore).isEqualTo(1);
+        ingressService.undeploy("myDeduplicatedBridge");
+    }
+
+    @Test
+    public void testEventsThatWereNotPublishedAreNotSuppressed() throws JsonProcessingException {
+        ingressService.deploy("myDeduplicatedBridge");
+        CloudEvent event = CloudEventBuilder.v1(TestUtils.buildTestCloudEvent()).withId("notPublished").build();
+        CompletableFuture<Void> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException("Not acknowledged"));
+        Mockito.when(kafkaEventPublisher.sendEvent(any(String.class), any(CloudEvent.class))).thenReturn(failed);
+
+        ingressService.processEvent("myDeduplicatedBridge", event);
+        ingressService.processEvent("myDeduplicatedBridge", event);
+
+        verify(kafkaEventPublisher, times(2)).sendEvent(eq("myDeduplicatedBridge"), any(CloudEvent.class));
+        ingressService.undeploy("myDeduplicatedBridge");
+    }
+
+    @Test
+    public void testDuplicateEventsAreSuppressedInBatches() throws JsonProcessingException {
+        ingressService.deploy("myDeduplicatedBridge");
+        CloudEvent event = CloudEventBuilder.v1(TestUtils.buildTestCloudEvent()).withId("batched").build();
+        CloudEvent other = CloudEventBuilder.v1(event).withId("otherBatched").build();
+        Mockito.when(kafkaEventPublisher.sendEvents(any(String.class), anyList()))
+                .thenAnswer(invocation -> {
+                    List<CompletionStage<Void>> sent = new ArrayList<>();
+                    for (int i = 0; i < ((List<?>) invocation.getArgument(1)).size(); i++) {
+                        sent.add(CompletableFuture.completedFuture(null));
+                    }
+                    return sent;
+                });
+        ingressService.processEvent("myDeduplicatedBridge", event);
+
+        List<CompletionStage<Void>> results = ingressService.processEvents("myDeduplicatedBridge", Arrays.asList(event, other, other));
+
+        // The copy within the batch is not sent either
+        assertThat(results).hasSize(3);
+        verify(kafkaEventPublisher, times(1)).sendEvents(eq("myDeduplicatedBridge"), eq(Arrays.asList(other)));
+        ingressService.undeploy("myDeduplicatedBridge");
+    }
+
+    @Test
+    public void testCopiesOfAnEventBeingPublishedAreSuppressed() throws JsonProcessingException {
+        ingressService.deploy("myDeduplicatedBridge");
+        CloudEvent event = CloudEventBuilder.v1(TestUtils.buildTestCloudEvent()).withId("beingPublished").build();
+        CompletableFuture<Void> ack = new CompletableFuture<>();
+        Mockito.when(kafkaEventPublisher.sendEvent(any(String.class), any(CloudEvent.class))).thenReturn(ack);
+
+        CompletionStage<Void> original = ingressService.processEvent("myDeduplicatedBridge", event);
+        CompletionStage<Void> copy = ingressService.processEvent("myDeduplicatedBridge", event);
+
+        // The copy is answered once the original has been published
+        verify(kafkaEventPublisher, times(1)).sendEvent(eq("myDeduplicatedBridge"), any(CloudEvent.class));
+        assertThat(copy.toCompletableFuture()).isNotDone();
+        ack.complete(null);
+        assertThat(original.toCompletableFuture()).isCompleted();
+        assertThat(copy.toCompletableFuture()).isCompleted();
+        ingressService.undeploy("myDeduplicatedBridge");
+    }
+
+    @Test
+    public void testEventsExceedingTheQuotaAreRejected() throws JsonProcessingException {
+        // The quota of this bridge is configured in the test application.properties
+        ingressService.deploy("myThrottledBridge");
+        CloudEvent event = TestUtils.buildTestCloudEvent();
+
+        ingressService.processEvent("myThrottledBridge", event);
+        ingressService.processEvent("myThrottledBridge", event);
+        assertThatExceptionOfType(TooManyRequestsException.class).isThrownBy(() -> ingressService.processEvent("myThrottledBridge", event))
+                .satisfies(e -> assertThat(e.getRetryAfterSeconds()).isPositive());
+        assertThatExceptionOfType(TooManyRequestsException.class).isThrownBy(() -> ingressService.processEvents("myThrottledBridge", Arrays.asList(event, event)));
+        // A batch larger than the burst of the quota could never be admitted
+        assertThatExceptionOfType(PayloadTooLargeException.class).isThrownBy(() -> ingressService.processEvents("myThrottledBridge", Arrays.asList(event, event, event)));
+
+        verify(kafkaEventPublisher, times(2)).sendEvent(eq("myThrottledBridge"), any(CloudEvent.class));
+        verify(kafkaEventPublisher, times(0)).sendEvents(eq("myThrottledBridge"), anyList());
+        ingressService.undeploy("myThrottledBridge");
+    }
+
+    @Test
+    public void testConcurrentDeployments() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 1000; i++) {
+            String id = "bridge-" + (i % 10);
+            executor.execute(() -> {
+                ingressService.deploy(id);
+                ingressService.undeploy(id);
+                ingressService.deploy(id);
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(ingressService.undeploy("bridge-" + i)).isTrue();
+        }
+    }
 }
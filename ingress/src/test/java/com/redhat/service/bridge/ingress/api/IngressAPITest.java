@@ -1,5 +1,10 @@
 package com.redhat.service.bridge.ingress.api;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
 import javax.inject.Inject;
 
 import org.junit.jupiter.api.AfterEach;
@@ -9,12 +14,16 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.luben.zstd.Zstd;
 import com.redhat.service.bridge.infra.utils.CloudEventUtils;
 import com.redhat.service.bridge.ingress.IngressService;
 import com.redhat.service.bridge.ingress.TestUtils;
+import com.redhat.service.bridge.ingress.api.exceptions.ServiceUnavailableException;
+import com.redhat.service.bridge.ingress.api.exceptions.TooManyRequestsException;
 import com.redhat.service.bridge.ingress.producer.KafkaEventPublisher;
 
 import io.cloudevents.CloudEvent;
+import io.cloudevents.core.builder.CloudEventBuilder;
 import io.quarkus.test.junit.QuarkusMock;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.mockito.InjectMock;
@@ -24,6 +33,8 @@ import io.restassured.http.Header;
 import io.restassured.http.Headers;
 
 import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
@@ -48,12 +59,13 @@ public class IngressAPITest {
     @BeforeAll
     public static void setup() {
         KafkaEventPublisher mock = Mockito.mock(KafkaEventPublisher.class);
-        Mockito.doNothing().when(mock).sendEvent(any(String.class), any(CloudEvent.class));
+        Mockito.when(mock.sendEvent(any(String.class), any(CloudEvent.class))).thenReturn(CompletableFuture.completedFuture(null));
         QuarkusMock.installMockForType(mock, KafkaEventPublisher.class);
     }
 
     @BeforeEach
     public void init() {
+        Mockito.when(kafkaEventPublisher.sendEvent(any(String.class), any(CloudEvent.class))).thenReturn(CompletableFuture.completedFuture(null));
         ingressService.deploy(BRIDGE_ID);
     }
 
@@ -75,6 +87,112 @@ public class IngressAPITest {
         verify(kafkaEventPublisher, times(1)).sendEvent(eq(BRIDGE_ID), any(CloudEvent.class));
     }
 
+    @Test
+    public void testSendCloudEventWhenTooManyEventsAreInFlight() throws JsonProcessingException {
+        Mockito.when(kafkaEventPublisher.sendEvent(any(String.class), any(CloudEvent.class))).thenThrow(new TooManyRequestsException("Too many events"));
+        doApiCall(TestUtils.buildTestCloudEvent(), 429);
+    }
+
+    @Test
+    public void testSendCloudEventWhenTheQuotaIsExceeded() throws JsonProcessingException {
+        // The quota of this bridge is configured in the test application.properties
+        ingressService.deploy("myThrottledBridge");
+        for (int i = 0; i < 2; i++) {
+            given().contentType(ContentType.JSON).body(CloudEventUtils.encode(TestUtils.buildTestCloudEvent()))
+                    .post("/ingress/events/myThrottledBridge")
+                    .then().statusCode(200);
+        }
+        given().contentType(ContentType.JSON).body(CloudEventUtils.encode(TestUtils.buildTestCloudEvent()))
+                .post("/ingress/events/myThrottledBridge")
+                .then().statusCode(429).header("Retry-After", notNullValue());
+        ingressService.undeploy("myThrottledBridge");
+    }
+
+    @Test
+    public void testSendCloudEventNotAcknowledged() throws JsonProcessingException {
+        CompletableFuture<Void> ack = new CompletableFuture<>();
+        ack.completeExceptionally(new ServiceUnavailableException("Not acknowledged"));
+        Mockito.when(kafkaEventPublisher.sendEvent(any(String.class), any(CloudEvent.class))).thenReturn(ack);
+        doApiCall(TestUtils.buildTestCloudEvent(), 503);
+    }
+
+    @Test
+    public void testSendCloudEventBatch() throws JsonProcessingException {
+        CompletableFuture<Void> rejected = new CompletableFuture<>();
+        rejected.completeExceptionally(new TooManyRequestsException("Too many events"));
+        Mockito.when(kafkaEventPublisher.sendEvents(any(String.class), any()))
+                .thenReturn(Arrays.asList(CompletableFuture.completedFuture(null), rejected));
+        String body = "[" + CloudEventUtils.encode(TestUtils.buildTestCloudEvent()) + "," + CloudEventUtils.encode(TestUtils.buildTestCloudEvent()) + "]";
+
+        given()
+                .filter(new ResponseLoggingFilter())
+                .contentType(IngressAPI.CLOUD_EVENTS_BATCH_JSON)
+                .when()
+                .body(body)
+                .post("/ingress/events/" + BRIDGE_ID)
+                .then().statusCode(200)
+                .body("status", contains(200, 429))
+                .body("id", contains("myId", "myId"));
+        verify(kafkaEventPublisher, times(1)).sendEvents(eq(BRIDGE_ID), any());
+    }
+
+    @Test
+    public void testSendEmptyCloudEventBatch() {
+        given()
+                .contentType(IngressAPI.CLOUD_EVENTS_BATCH_JSON)
+                .when()
+                .body("[]")
+                .post("/ingress/events/" + BRIDGE_ID)
+                .then().statusCode(400);
+        verify(kafkaEventPublisher, times(0)).sendEvents(eq(BRIDGE_ID), any());
+    }
+
+    @Test
+    public void testSendZstdCompressedCloudEvent() throws JsonProcessingException {
+        given()
+                .contentType(ContentType.JSON)
+                .header("Content-Encoding", ZstdReaderInterceptor.ZSTD)
+                .when()
+                .body(Zstd.compress(CloudEventUtils.encode(TestUtils.buildTestCloudEvent()).getBytes(StandardCharsets.UTF_8)))
+                .post("/ingress/events/" + BRIDGE_ID)
+                .then().statusCode(200);
+        verify(kafkaEventPublisher, times(1)).sendEvent(eq(BRIDGE_ID), any(CloudEvent.class));
+    }
+
+    @Test
+    public void testZstdCompressedCloudEventDecompressedBeyondTheMaximumSize() throws JsonProcessingException {
+        char[] subject = new char[2 * 1024 * 1024];
+        Arrays.fill(subject, 'a');
+        CloudEvent cloudEvent = CloudEventBuilder.from(TestUtils.buildTestCloudEvent()).withSubject(new String(subject)).build();
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("Content-Encoding", ZstdReaderInterceptor.ZSTD)
+                .when()
+                .body(Zstd.compress(CloudEventUtils.encode(cloudEvent).getBytes(StandardCharsets.UTF_8)))
+                .post("/ingress/events/" + BRIDGE_ID)
+                .then().statusCode(413);
+        verify(kafkaEventPublisher, times(0)).sendEvent(eq(BRIDGE_ID), any(CloudEvent.class));
+    }
+
+    @Test
+    public void testZstdCompressedBatchDecompressedBeyondTheMaximumBodySize() throws JsonProcessingException {
+        // Each event is within the maximum size of an event, the batch exceeds the maximum size of a body
+        char[] subject = new char[1000 * 1000];
+        Arrays.fill(subject, 'a');
+        CloudEvent cloudEvent = CloudEventBuilder.from(TestUtils.buildTestCloudEvent()).withSubject(new String(subject)).build();
+        String batch = "[" + String.join(",", Collections.nCopies(11, CloudEventUtils.encode(cloudEvent))) + "]";
+
+        given()
+                .contentType(IngressAPI.CLOUD_EVENTS_BATCH_JSON)
+                .header("Content-Encoding", ZstdReaderInterceptor.ZSTD)
+                .when()
+                .body(Zstd.compress(batch.getBytes(StandardCharsets.UTF_8)))
+                .post("/ingress/events/" + BRIDGE_ID)
+                .then().statusCode(413);
+        verify(kafkaEventPublisher, times(0)).sendEvents(eq(BRIDGE_ID), any());
+    }
+
     @Test
     public void testNonCloudEvent() {
         doApiCall("{\"key\": \"not a cloud event\"}", 400);
@@ -0,0 +1,135 @@
+package com.redhat.service.bridge.ingress.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
+
+import javax.inject.Inject;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.luben.zstd.Zstd;
+import com.redhat.service.bridge.infra.utils.CloudEventUtils;
+import com.redhat.service.bridge.ingress.IngressService;
+import com.redhat.service.bridge.ingress.TestUtils;
+import com.redhat.service.bridge.ingress.api.exceptions.TooManyRequestsException;
+import com.redhat.service.bridge.ingress.producer.KafkaEventPublisher;
+
+import io.cloudevents.CloudEvent;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.mockito.InjectMock;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@QuarkusTest
+public class IngressRouteTest {
+
+    private static final String BRIDGE_ID = "bridgeId";
+
+    @InjectMock
+    KafkaEventPublisher kafkaEventPublisher;
+
+    @Inject
+    IngressService ingressService;
+
+    @BeforeEach
+    public void init() {
+        Mockito.when(kafkaEventPublisher.sendEvent(any(String.class), any(CloudEvent.class))).thenReturn(CompletableFuture.completedFuture(null));
+        ingressService.deploy(BRIDGE_ID);
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        ingressService.undeploy(BRIDGE_ID);
+    }
+
+    @Test
+    public void testSendCloudEvent() throws IOException {
+        doRouteCall(CloudEventUtils.encode(TestUtils.buildTestCloudEvent()), 200);
+
+        ArgumentCaptor<CloudEvent> captor = ArgumentCaptor.forClass(CloudEvent.class);
+        verify(kafkaEventPublisher, times(1)).sendEvent(eq(BRIDGE_ID), captor.capture());
+        assertThat(captor.getValue().getId()).isEqualTo("myId");
+        assertThat(CloudEventUtils.getMapper().readTree(captor.getValue().getData().toBytes()).get("k1").asText()).isEqualTo("v1");
+    }
+
+    @Test
+    public void testSendGzipCompressedCloudEvent() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+            output.write(CloudEventUtils.encode(TestUtils.buildTestCloudEvent()).getBytes(StandardCharsets.UTF_8));
+        }
+        doCompressedRouteCall(compressed.toByteArray(), "gzip", 200);
+
+        ArgumentCaptor<CloudEvent> captor = ArgumentCaptor.forClass(CloudEvent.class);
+        verify(kafkaEventPublisher, times(1)).sendEvent(eq(BRIDGE_ID), captor.capture());
+        assertThat(captor.getValue().getId()).isEqualTo("myId");
+    }
+
+    @Test
+    public void testSendZstdCompressedCloudEvent() throws IOException {
+        byte[] compressed = Zstd.compress(CloudEventUtils.encode(TestUtils.buildTestCloudEvent()).getBytes(StandardCharsets.UTF_8));
+        doCompressedRouteCall(compressed, ZstdReaderInterceptor.ZSTD, 200);
+
+        ArgumentCaptor<CloudEvent> captor = ArgumentCaptor.forClass(CloudEvent.class);
+        verify(kafkaEventPublisher, times(1)).sendEvent(eq(BRIDGE_ID), captor.capture());
+        assertThat(captor.getValue().getId()).isEqualTo("myId");
+        assertThat(CloudEventUtils.getMapper().readTree(captor.getValue().getData().toBytes()).get("k1").asText()).isEqualTo("v1");
+    }
+
+    @Test
+    public void testSendInvalidZstdCompressedCloudEvent() throws JsonProcessingException {
+        doCompressedRouteCall(CloudEventUtils.encode(TestUtils.buildTestCloudEvent()).getBytes(StandardCharsets.UTF_8), ZstdReaderInterceptor.ZSTD, 400);
+        verify(kafkaEventPublisher, times(0)).sendEvent(eq(BRIDGE_ID), any(CloudEvent.class));
+    }
+
+    @Test
+    public void testSendInvalidCloudEvent() {
+        doRouteCall("{\"key\": \"not a cloud event\"}", 400);
+        verify(kafkaEventPublisher, times(0)).sendEvent(eq(BRIDGE_ID), any(CloudEvent.class));
+    }
+
+    @Test
+    public void testSendCloudEventWhenTooManyEventsAreInFlight() throws JsonProcessingException {
+        Mockito.when(kafkaEventPublisher.sendEvent(any(String.class), any(CloudEvent.class))).thenThrow(new TooManyRequestsException("Too many events"));
+        doRouteCall(CloudEventUtils.encode(TestUtils.buildTestCloudEvent()), 429);
+    }
+
+    @Test
+    public void testSendCloudEventToUndeployedInstance() throws JsonProcessingException {
+        ingressService.undeploy(BRIDGE_ID);
+        doRouteCall(CloudEventUtils.encode(TestUtils.buildTestCloudEvent()), 500);
+        verify(kafkaEventPublisher, times(0)).sendEvent(eq(BRIDGE_ID), any(CloudEvent.class));
+    }
+
+    private void doRouteCall(String body, int expectedStatusCode) {
+        given()
+                .contentType(IngressRoute.CLOUD_EVENTS_JSON)
+                .when()
+                .body(body)
+                .post("/ingress/events/" + BRIDGE_ID)
+                .then().statusCode(expectedStatusCode);
+    }
+
+    private void doCompressedRouteCall(byte[] body, String contentEncoding, int expectedStatusCode) {
+        given()
+                .contentType(IngressRoute.CLOUD_EVENTS_JSON)
+                .header("Content-Encoding", contentEncoding)
+                .when()
+                .body(body)
+                .post("/ingress/events/" + BRIDGE_ID)
+                .then().statusCode(expectedStatusCode);
+    }
+}
@@ -0,0 +1,138 @@
+package com.redhat.service.bridge.ingress.api;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+import javax.inject.Inject;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.luben.zstd.Zstd;
+import com.redhat.service.bridge.infra.utils.CloudEventUtils;
+import com.redhat.service.bridge.ingress.IngressService;
+import com.redhat.service.bridge.ingress.TestUtils;
+import com.redhat.service.bridge.ingress.api.exceptions.ServiceUnavailableException;
+import com.redhat.service.bridge.ingress.api.exceptions.TooManyRequestsException;
+import com.redhat.service.bridge.ingress.producer.KafkaEventPublisher;
+
+import io.cloudevents.CloudEvent;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.mockito.InjectMock;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@QuarkusTest
+public class IngressStreamRouteTest {
+
+    private static final String BRIDGE_ID = "bridgeId";
+
+    @InjectMock
+    KafkaEventPublisher kafkaEventPublisher;
+
+    @Inject
+    IngressService ingressService;
+
+    @BeforeEach
+    public void init() {
+        Mockito.when(kafkaEventPublisher.sendEvent(any(String.class), any(CloudEvent.class))).thenReturn(CompletableFuture.completedFuture(null));
+        ingressService.deploy(BRIDGE_ID);
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        ingressService.undeploy(BRIDGE_ID);
+    }
+
+    @Test
+    public void testStreamOfEvents() throws JsonProcessingException {
+        String event = CloudEventUtils.encode(TestUtils.buildTestCloudEvent());
+        String[] lines = doStreamCall(event + "\n" + event + "\n\n" + event + "\n");
+
+        assertThat(lines).containsExactly("{\"ack\":3}");
+        verify(kafkaEventPublisher, times(3)).sendEvent(eq(BRIDGE_ID), any(CloudEvent.class));
+    }
+
+    @Test
+    public void testRejectedEventsAreReported() throws JsonProcessingException {
+        String event = CloudEventUtils.encode(TestUtils.buildTestCloudEvent());
+        CompletableFuture<Void> notAcknowledged = new CompletableFuture<>();
+        notAcknowledged.completeExceptionally(new ServiceUnavailableException("Not acknowledged"));
+        Mockito.when(kafkaEventPublisher.sendEvent(any(String.class), any(CloudEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(notAcknowledged);
+
+        String[] lines = doStreamCall(event + "\n{\"key\": \"not a cloud event\"}\n" + event);
+
+        assertThat(lines).containsExactly(
+                "{\"seq\":1,\"status\":400,\"error\":\"Attribute \\\"specversion\\\" is required and must be a string.\"}",
+                "{\"seq\":2,\"status\":503,\"error\":\"Not acknowledged\"}",
+                "{\"ack\":3}");
+    }
+
+    @Test
+    public void testEventWithInvalidBase64DataIsReported() throws JsonProcessingException {
+        String event = CloudEventUtils.encode(TestUtils.buildTestCloudEvent());
+        String invalid = "{\"specversion\":\"1.0\",\"id\":\"myId\",\"source\":\"mySource\",\"type\":\"myType\",\"data_base64\":\"not base64!\"}";
+
+        String[] lines = doStreamCall(event + "\n" + invalid + "\n" + event + "\n");
+
+        // The stream goes on after the invalid event
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("{\"seq\":1,\"status\":400,");
+        assertThat(lines[1]).isEqualTo("{\"ack\":3}");
+        verify(kafkaEventPublisher, times(2)).sendEvent(eq(BRIDGE_ID), any(CloudEvent.class));
+    }
+
+    @Test
+    public void testEventsAreRetriedWhenThePublisherIsFull() throws JsonProcessingException {
+        String event = CloudEventUtils.encode(TestUtils.buildTestCloudEvent());
+        Mockito.when(kafkaEventPublisher.sendEvent(any(String.class), any(CloudEvent.class)))
+                .thenThrow(new TooManyRequestsException("Too many events"))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        String[] lines = doStreamCall(event + "\n" + event + "\n");
+
+        assertThat(lines).containsExactly("{\"ack\":2}");
+        verify(kafkaEventPublisher, times(3)).sendEvent(eq(BRIDGE_ID), any(CloudEvent.class));
+    }
+
+    @Test
+    public void testZstdCompressedStreamIsRejected() throws JsonProcessingException {
+        given()
+                .contentType(IngressStreamRoute.NDJSON)
+                .header("Content-Encoding", ZstdReaderInterceptor.ZSTD)
+                .body(Zstd.compress((CloudEventUtils.encode(TestUtils.buildTestCloudEvent()) + "\n").getBytes(StandardCharsets.UTF_8)))
+                .post("/ingress/events/" + BRIDGE_ID + "/stream")
+                .then().statusCode(415);
+        verify(kafkaEventPublisher, times(0)).sendEvent(eq(BRIDGE_ID), any(CloudEvent.class));
+    }
+
+    @Test
+    public void testStreamToUndeployedInstance() {
+        ingressService.undeploy(BRIDGE_ID);
+        given()
+                .contentType(IngressStreamRoute.NDJSON)
+                .body("{}\n".getBytes(StandardCharsets.UTF_8))
+                .post("/ingress/events/" + BRIDGE_ID + "/stream")
+                .then().statusCode(500);
+    }
+
+    private String[] doStreamCall(String body) {
+        return given()
+                .contentType(IngressStreamRoute.NDJSON)
+                .when()
+                .body(body.getBytes(StandardCharsets.UTF_8))
+                .post("/ingress/events/" + BRIDGE_ID + "/stream")
+                .then().statusCode(200)
+                .extract().asString().split("\n");
+    }
+}
@@ -0,0 +1,108 @@
+package com.redhat.service.bridge.ingress.api;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.redhat.service.bridge.infra.utils.CloudEventUtils;
+import com.redhat.service.bridge.ingress.api.exceptions.BadRequestException;
+import com.redhat.service.bridge.ingress.api.exceptions.PayloadTooLargeException;
+
+import io.cloudevents.CloudEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class StructuredCloudEventReaderTest {
+
+    private static final int MAX_SIZE = 1024;
+    private static final String EVENT = "{\"specversion\":\"1.0\",\"id\":\"myId\",\"source\":\"mySource\",\"type\":\"myType\",\"subject\":\"mySubject\","
+            + "\"time\":\"2021-10-01T10:00:00Z\",\"myextension\":\"myValue\",\"mycount\":3,"
+            + "\"data\":{\"k1\":\"v1\",\"k2\":[1,2,{\"k3\":true}]}}";
+
+    @Test
+    public void testReadEvent() throws IOException {
+        CloudEvent cloudEvent = read(EVENT, EVENT.length());
+
+        assertThat(cloudEvent.getId()).isEqualTo("myId");
+        assertThat(cloudEvent.getSource().toString()).isEqualTo("mySource");
+        assertThat(cloudEvent.getType()).isEqualTo("myType");
+        assertThat(cloudEvent.getSubject()).isEqualTo("mySubject");
+        assertThat(cloudEvent.getTime()).isNotNull();
+        assertThat(cloudEvent.getExtension("myextension")).isEqualTo("myValue");
+        assertThat(cloudEvent.getExtension("mycount")).isEqualTo(3);
+
+        JsonNode data = CloudEventUtils.getMapper().readTree(cloudEvent.getData().toBytes());
+        assertThat(data).isEqualTo(CloudEventUtils.getMapper().readTree("{\"k1\":\"v1\",\"k2\":[1,2,{\"k3\":true}]}"));
+    }
+
+    @Test
+    public void testReadEventInSmallChunks() {
+        CloudEvent expected = read(EVENT, EVENT.length());
+        for (int chunkSize = 1; chunkSize < 16; chunkSize++) {
+            CloudEvent cloudEvent = read(EVENT, chunkSize);
+            assertThat(cloudEvent.getId()).isEqualTo(expected.getId());
+            assertThat(cloudEvent.getData().toBytes()).isEqualTo(expected.getData().toBytes());
+        }
+    }
+
+    @Test
+    public void testReadEventWithTextData() {
+        String event = "{\"specversion\":\"1.0\",\"id\":\"myId\",\"source\":\"mySource\",\"type\":\"myType\",\"datacontenttype\":\"text/plain\",\"data\":\"hello\"}";
+        CloudEvent cloudEvent = read(event, 7);
+
+        assertThat(cloudEvent.getDataContentType()).isEqualTo("text/plain");
+        assertThat(new String(cloudEvent.getData().toBytes(), StandardCharsets.UTF_8)).isEqualTo("hello");
+    }
+
+    @Test
+    public void testReadEventWithBase64Data() {
+        String event = "{\"specversion\":\"1.0\",\"id\":\"myId\",\"source\":\"mySource\",\"type\":\"myType\",\"data_base64\":\"aGVsbG8=\"}";
+        CloudEvent cloudEvent = read(event, 7);
+
+        assertThat(new String(cloudEvent.getData().toBytes(), StandardCharsets.UTF_8)).isEqualTo("hello");
+    }
+
+    @Test
+    public void testInvalidBase64Data() {
+        String event = "{\"specversion\":\"1.0\",\"id\":\"myId\",\"source\":\"mySource\",\"type\":\"myType\",\"data_base64\":\"not base64!\"}";
+        assertThatExceptionOfType(BadRequestException.class).isThrownBy(() -> read(event, 7));
+    }
+
+    @Test
+    public void testMissingRequiredAttribute() {
+        String event = "{\"specversion\":\"1.0\",\"id\":\"myId\",\"type\":\"myType\"}";
+        assertThatExceptionOfType(BadRequestException.class).isThrownBy(() -> read(event, event.length()));
+    }
+
+    @Test
+    public void testInvalidAttribute() {
+        String event = "{\"specversion\":\"1.0\",\"id\":\"myId\",\"source\":\"mySource\",\"type\":\"myType\",\"time\":\"yesterday\"}";
+        assertThatExceptionOfType(BadRequestException.class).isThrownBy(() -> read(event, event.length()));
+    }
+
+    @Test
+    public void testNotAnObject() {
+        assertThatExceptionOfType(BadRequestException.class).isThrownBy(() -> read("[1,2]", 5));
+        assertThatExceptionOfType(BadRequestException.class).isThrownBy(() -> read("{\"specversion\":", 5));
+        assertThatExceptionOfType(BadRequestException.class).isThrownBy(() -> read("{\"specversion\":\"1.0\"} {}", 5));
+    }
+
+    @Test
+    public void testEventTooLarge() {
+        StructuredCloudEventReader reader = new StructuredCloudEventReader(16);
+        assertThatExceptionOfType(PayloadTooLargeException.class).isThrownBy(() -> reader.feed(EVENT.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static CloudEvent read(String event, int chunkSize) {
+        byte[] bytes = event.getBytes(StandardCharsets.UTF_8);
+        StructuredCloudEventReader reader = new StructuredCloudEventReader(MAX_SIZE);
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+            reader.feed(Arrays.copyOfRange(bytes, i, Math.min(bytes.length, i + chunkSize)));
+        }
+        return reader.end();
+    }
+}
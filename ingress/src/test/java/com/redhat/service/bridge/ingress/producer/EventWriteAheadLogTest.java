@@ -0,0 +1,147 @@
+package com.redhat.service.bridge.ingress.producer;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.redhat.service.bridge.infra.wal.SegmentedLog;
+
+import io.cloudevents.CloudEvent;
+import io.cloudevents.core.builder.CloudEventBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventWriteAheadLogTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    private final List<CloudEvent> sentEvents = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean available = new AtomicBoolean();
+    private final Set<String> rejected = ConcurrentHashMap.newKeySet();
+
+    @Test
+    public void testEventsAreDrainedInOrderOnceTheEventQueueIsAvailable() {
+        try (EventWriteAheadLog wal = newWriteAheadLog()) {
+            assertThat(wal.isBuffering()).isFalse();
+            assertThat(wal.appendIfBuffering(event(0))).isFalse();
+
+            for (int i = 0; i < 5; i++) {
+                assertThat(wal.append(event(i))).isTrue();
+            }
+            assertThat(wal.isBuffering()).isTrue();
+            assertThat(wal.appendIfBuffering(event(5))).isTrue();
+            assertThat(wal.getBacklogEvents()).isEqualTo(6);
+            assertThat(wal.getBacklogBytes()).isPositive();
+
+            available.set(true);
+            Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> !wal.isBuffering());
+
+            // A batch that partially failed is sent again as a whole
+            assertThat(sentEvents.stream().map(CloudEvent::getId).collect(Collectors.toList())).endsWith("0", "1", "2", "3", "4", "5");
+            assertThat(wal.getBacklogEvents()).isZero();
+            assertThat(wal.getBacklogBytes()).isZero();
+            assertThat(wal.getBacklogAgeSeconds()).isZero();
+        }
+    }
+
+    @Test
+    public void testEventsAreDrainedAfterARestart() {
+        try (EventWriteAheadLog wal = newWriteAheadLog()) {
+            wal.append(event(0));
+            wal.append(event(1));
+        }
+        assertThat(sentEvents).isEmpty();
+
+        try (EventWriteAheadLog wal = newWriteAheadLog()) {
+            // The log starts draining as soon as it is opened, and keeps retrying while the event queue is not available
+            assertThat(wal.getBacklogEvents()).isEqualTo(2);
+            available.set(true);
+            Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> !wal.isBuffering());
+
+            assertThat(sentEvents.stream().map(CloudEvent::getId).collect(Collectors.toList())).containsExactly("0", "1");
+        }
+    }
+
+    @Test
+    public void testEventRejectedForGoodIsDropped() {
+        try (EventWriteAheadLog wal = newWriteAheadLog()) {
+            for (int i = 0; i < 3; i++) {
+                wal.append(event(i));
+            }
+            rejected.add("1");
+            available.set(true);
+            Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> !wal.isBuffering());
+
+            // The other events are not blocked by the rejected one
+            assertThat(sentEvents.stream().map(CloudEvent::getId).collect(Collectors.toList())).containsExactly("0", "2");
+            assertThat(wal.getBacklogEvents()).isZero();
+            assertThat(wal.getDroppedEvents()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testEventsBeyondTheMaximumSizeAreNotAppended() {
+        try (EventWriteAheadLog wal = newWriteAheadLog(400L)) {
+            int appended = 0;
+            while (wal.append(event(appended))) {
+                appended++;
+            }
+
+            assertThat(appended).isPositive();
+            assertThat(wal.getBacklogEvents()).isEqualTo(appended);
+            assertThat(wal.getBacklogBytes()).isLessThanOrEqualTo(400L);
+
+            available.set(true);
+            Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> !wal.isBuffering());
+
+            // The log accepts events again once it has been drained
+            assertThat(sentEvents).hasSize(appended);
+            assertThat(wal.append(event(appended))).isTrue();
+        }
+    }
+
+    private EventWriteAheadLog newWriteAheadLog() {
+        return newWriteAheadLog(Long.MAX_VALUE);
+    }
+
+    private EventWriteAheadLog newWriteAheadLog(long maxSizeBytes) {
+        return new EventWriteAheadLog(SegmentedLog.open(directory, SEGMENT_SIZE), this::send, 2, 10L, 1000L, maxSizeBytes);
+    }
+
+    private CompletableFuture<Void> send(CloudEvent event) {
+        CompletableFuture<Void> ack = new CompletableFuture<>();
+        if (!available.get()) {
+            ack.completeExceptionally(new TimeoutException("Broker unreachable"));
+        } else if (rejected.contains(event.getId())) {
+            ack.completeExceptionally(new RecordTooLargeException("Event too large"));
+        } else {
+            sentEvents.add(event);
+            ack.complete(null);
+        }
+        return ack;
+    }
+
+    private static CloudEvent event(int id) {
+        return CloudEventBuilder.v1()
+                .withId(String.valueOf(id))
+                .withSource(URI.create("mySource"))
+                .withType("myType")
+                .build();
+    }
+}
@@ -1,60 +1,285 @@
 package com.redhat.service.bridge.ingress.producer;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.awaitility.Awaitility;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import com.redhat.service.bridge.infra.BridgeCloudEventExtension;
-import com.redhat.service.bridge.infra.utils.CloudEventUtils;
+import com.redhat.service.bridge.infra.trace.InMemorySpanExporter;
+import com.redhat.service.bridge.infra.trace.Span;
+import com.redhat.service.bridge.infra.trace.TraceContext;
+import com.redhat.service.bridge.infra.trace.Tracing;
+import com.redhat.service.bridge.ingress.MetricsConstants;
 import com.redhat.service.bridge.ingress.TestUtils;
 import com.redhat.service.bridge.ingress.api.exceptions.BadRequestException;
+import com.redhat.service.bridge.ingress.api.exceptions.ServiceUnavailableException;
+import com.redhat.service.bridge.ingress.api.exceptions.TooManyRequestsException;
 
 import io.cloudevents.CloudEvent;
+import io.cloudevents.core.builder.CloudEventBuilder;
 import io.cloudevents.core.provider.ExtensionProvider;
-import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class KafkaEventPublisherTest {
 
+    private static final int MAX_IN_FLIGHT = 2;
+
+    @TempDir
+    Path walDirectory;
+
+    // The write-ahead log is drained from its own thread
+    private final List<Message<CloudEvent>> sentMessages = new CopyOnWriteArrayList<>();
+    private KafkaEventPublisher producer;
+
     @BeforeEach
+    @SuppressWarnings("unchecked")
     public void before() {
         ExtensionProvider.getInstance().registerExtension(BridgeCloudEventExtension.class, BridgeCloudEventExtension::new);
+        Emitter<CloudEvent> emitter = mock(Emitter.class);
+        doAnswer(invocation -> sentMessages.add(invocation.getArgument(0))).when(emitter).send(any(Message.class));
+        producer = new KafkaEventPublisher();
+        producer.emitter = emitter;
+        producer.maxInFlight = MAX_IN_FLIGHT;
+        producer.ackTimeoutMillis = 1000;
+        producer.keyAttribute = BridgeCloudEventExtension.BRIDGE_ID;
+        producer.walDirectory = Optional.of(walDirectory.toString());
+        producer.walSegmentSize = 4096;
+        producer.walDrainBatchSize = 10;
+        producer.walRetryIntervalMillis = 10;
+        producer.walMaxSize = 1048576;
+        producer.registry = new SimpleMeterRegistry();
+        producer.config = mock(Config.class);
+        when(producer.config.getOptionalValue(Tracing.EXPORTER_CONFIG, String.class)).thenReturn(Optional.of(Tracing.MEMORY_EXPORTER));
+        producer.init(null);
+    }
+
+    @AfterEach
+    public void after() {
+        producer.shutdown(null);
     }
 
     @Test
     void testEventIsProduced() throws IOException {
         String bridgeId = "myBridge";
-        AssertSubscriber<String> subscriber = AssertSubscriber.create(1);
+        OffsetDateTime before = OffsetDateTime.now();
 
-        KafkaEventPublisher producer = new KafkaEventPublisher();
-        producer.getEventPublisher().subscribe(subscriber);
+        CompletionStage<Void> result = producer.sendEvent(bridgeId, TestUtils.buildTestCloudEvent());
 
-        producer.sendEvent(bridgeId, TestUtils.buildTestCloudEvent());
-        List<String> sentEvents = subscriber.getItems();
-        assertThat(sentEvents.size()).isEqualTo(1);
+        assertThat(sentMessages).hasSize(1);
+        BridgeCloudEventExtension bridgeCloudEventExtension = ExtensionProvider.getInstance().parseExtension(BridgeCloudEventExtension.class, sentMessages.get(0).getPayload());
+        assertThat(bridgeCloudEventExtension.getBridgeId()).isEqualTo(bridgeId);
+        assertThat(bridgeCloudEventExtension.getArrivalTime()).isBetween(before, OffsetDateTime.now());
+        assertThat(keyOf(sentMessages.get(0))).isEqualTo(bridgeId);
 
-        CloudEvent cloudEvent = CloudEventUtils.decode(sentEvents.get(0));
-        BridgeCloudEventExtension bridgeCloudEventExtension = ExtensionProvider.getInstance().parseExtension(BridgeCloudEventExtension.class, cloudEvent);
+        // The result only completes once the broker has acknowledged the event
+        assertThat(result.toCompletableFuture()).isNotDone();
+        sentMessages.get(0).ack();
+        assertThat(result.toCompletableFuture().join()).isNull();
+    }
 
-        assertThat(bridgeCloudEventExtension.getBridgeId()).isEqualTo(bridgeId);
+    @Test
+    void testEventIsTraced() throws IOException {
+        producer.traceSampleRate = 1;
+        producer.init(null);
+        InMemorySpanExporter exporter = (InMemorySpanExporter) producer.getTracing().getExporter();
+
+        producer.sendEvent("myBridge", TestUtils.buildTestCloudEvent());
+        assertThat(exporter.getFinishedSpans()).isEmpty();
+
+        sentMessages.get(0).ack();
+        assertThat(exporter.getFinishedSpans()).hasSize(1);
+        assertThat(exporter.getFinishedSpans().get(0).getAttributes()).doesNotContainKey("buffered");
+    }
+
+    @Test
+    void testEventBufferedInTheWriteAheadLogIsTracedAsBuffered() throws IOException {
+        producer.traceSampleRate = 1;
+        producer.walEnabled = true;
+        producer.init(null);
+        InMemorySpanExporter exporter = (InMemorySpanExporter) producer.getTracing().getExporter();
+
+        CompletableFuture<Void> result = producer.sendEvent("myBridge", TestUtils.buildTestCloudEvent()).toCompletableFuture();
+        sentMessages.get(0).nack(new TimeoutException("Broker unreachable"));
+        assertThat(result.join()).isNull();
+
+        assertThat(exporter.getFinishedSpans()).hasSize(1);
+        assertThat(exporter.getFinishedSpans().get(0).getAttributes()).containsEntry("buffered", true);
+    }
+
+    @Test
+    void testTraceIsPropagated() throws IOException {
+        producer.traceSampleRate = 1;
+        producer.init(null);
+        InMemorySpanExporter exporter = (InMemorySpanExporter) producer.getTracing().getExporter();
+        TraceContext parent = TraceContext.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01", null);
+
+        producer.sendEvent("myBridge", TestUtils.buildTestCloudEvent());
+        producer.sendEvent("myBridge", parent.writeTo(CloudEventBuilder.v1(TestUtils.buildTestCloudEvent())).build());
+        assertThat(exporter.getFinishedSpans()).isEmpty();
+
+        sentMessages.forEach(Message::ack);
+        List<Span> spans = exporter.getFinishedSpans();
+        assertThat(spans).hasSize(2);
+        for (int i = 0; i < 2; i++) {
+            // The event and the record carry the context of the span of the ingress
+            TraceContext context = spans.get(i).getContext();
+            assertThat(TraceContext.fromEvent(sentMessages.get(i).getPayload()).getTraceparent()).isEqualTo(context.getTraceparent());
+            assertThat(new String(metadataOf(sentMessages.get(i)).getHeaders().lastHeader(TraceContext.TRACEPARENT).value(), StandardCharsets.UTF_8))
+                    .isEqualTo(context.getTraceparent());
+            assertThat(spans.get(i).getAttributes()).containsEntry(Span.BRIDGE_ATTRIBUTE, "myBridge");
+        }
+        assertThat(spans.get(0).getParentSpanId()).isNull();
+        assertThat(spans.get(1).getContext().getTraceId()).isEqualTo(parent.getTraceId());
+        assertThat(spans.get(1).getParentSpanId()).isEqualTo(parent.getSpanId());
+    }
+
+    @Test
+    void testEventIsNotTracedByDefault() throws IOException {
+        producer.sendEvent("myBridge", TestUtils.buildTestCloudEvent());
+
+        assertThat(sentMessages.get(0).getPayload().getExtension(TraceContext.TRACEPARENT)).isNull();
+        assertThat(metadataOf(sentMessages.get(0)).getHeaders()).isNull();
+    }
+
+    @Test
+    void testEventIsKeyedByAttribute() throws IOException {
+        producer.keyAttribute = "subject";
+        producer.sendEvent("myBridge", TestUtils.buildTestCloudEvent());
+        producer.keyAttribute = "myextension";
+        producer.sendEvent("myBridge", CloudEventBuilder.v1(TestUtils.buildTestCloudEvent()).withExtension("myextension", "myValue").build());
+
+        assertThat(keyOf(sentMessages.get(0))).isEqualTo("subject");
+        assertThat(keyOf(sentMessages.get(1))).isEqualTo("myValue");
+    }
+
+    @Test
+    void testEventWithoutKeyAttributeIsKeyedByBridge() throws IOException {
+        producer.keyAttribute = "myextension";
+        producer.sendEvent("myBridge", TestUtils.buildTestCloudEvent());
+
+        assertThat(keyOf(sentMessages.get(0))).isEqualTo("myBridge");
     }
 
     @Test
     void testEventIsNotProducedIfInputContainsReservedAttributes() throws IOException {
         String bridgeId = "myBridge";
-        AssertSubscriber<String> subscriber = AssertSubscriber.create(1);
-
-        KafkaEventPublisher producer = new KafkaEventPublisher();
-        producer.getEventPublisher().subscribe(subscriber);
 
         CloudEvent inputEvent = TestUtils.buildTestCloudEventWithReservedAttributes();
         assertThatExceptionOfType(BadRequestException.class).isThrownBy(() -> producer.sendEvent(bridgeId, inputEvent));
 
-        List<String> sentEvents = subscriber.getItems();
-        assertThat(sentEvents.size()).isZero();
+        assertThat(sentMessages).isEmpty();
+    }
+
+    @Test
+    void testEventIsRejectedWhenTooManyEventsAreInFlight() throws IOException {
+        for (int i = 0; i < MAX_IN_FLIGHT; i++) {
+            producer.sendEvent("myBridge", TestUtils.buildTestCloudEvent());
+        }
+
+        CloudEvent cloudEvent = TestUtils.buildTestCloudEvent();
+        assertThatExceptionOfType(TooManyRequestsException.class).isThrownBy(() -> producer.sendEvent("myBridge", cloudEvent));
+
+        // The acknowledgements free the in-flight window
+        sentMessages.forEach(Message::ack);
+        producer.sendEvent("myBridge", cloudEvent);
+    }
+
+    @Test
+    void testEventRejectedByTheBroker() throws IOException {
+        CompletableFuture<Void> result = producer.sendEvent("myBridge", TestUtils.buildTestCloudEvent()).toCompletableFuture();
+        sentMessages.get(0).nack(new IllegalStateException("Broker failure"));
+
+        assertThatExceptionOfType(ExecutionException.class).isThrownBy(result::get).withCauseInstanceOf(ServiceUnavailableException.class);
+    }
+
+    @Test
+    void testEventRejectedByTheBrokerIsBufferedInTheWriteAheadLog() throws IOException {
+        producer.walEnabled = true;
+        producer.init(null);
+
+        CompletableFuture<Void> result = producer.sendEvent("myBridge", TestUtils.buildTestCloudEvent()).toCompletableFuture();
+        sentMessages.get(0).nack(new TimeoutException("Broker unreachable"));
+        assertThat(result.join()).isNull();
+
+        // The following events are buffered as well, to keep the order of the events
+        assertThat(producer.sendEvent("myBridge", TestUtils.buildTestCloudEvent()).toCompletableFuture().join()).isNull();
+        assertThat(producer.sendEvents("myBridge", Arrays.asList(TestUtils.buildTestCloudEvent(), TestUtils.buildTestCloudEvent())))
+                .allSatisfy(r -> assertThat(r.toCompletableFuture().join()).isNull());
+        assertThat(producer.registry.get(MetricsConstants.WAL_BACKLOG_EVENTS_METRIC_NAME).gauge().value()).isEqualTo(4);
+
+        // The buffered events are sent again until the broker acknowledges them
+        Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> {
+            sentMessages.forEach(Message::ack);
+            return producer.registry.get(MetricsConstants.WAL_BACKLOG_EVENTS_METRIC_NAME).gauge().value() == 0;
+        });
+        BridgeCloudEventExtension bridgeCloudEventExtension = ExtensionProvider.getInstance().parseExtension(BridgeCloudEventExtension.class,
+                sentMessages.get(sentMessages.size() - 1).getPayload());
+        assertThat(bridgeCloudEventExtension.getBridgeId()).isEqualTo("myBridge");
+        assertThat(keyOf(sentMessages.get(sentMessages.size() - 1))).isEqualTo("myBridge");
+    }
+
+    @Test
+    void testEventRejectedForGoodIsNotBufferedInTheWriteAheadLog() throws IOException {
+        producer.walEnabled = true;
+        producer.init(null);
+
+        CompletableFuture<Void> result = producer.sendEvent("myBridge", TestUtils.buildTestCloudEvent()).toCompletableFuture();
+        sentMessages.get(0).nack(new RecordTooLargeException("Event too large"));
+
+        assertThatExceptionOfType(ExecutionException.class).isThrownBy(result::get).withCauseInstanceOf(ServiceUnavailableException.class);
+        assertThat(producer.registry.get(MetricsConstants.WAL_BACKLOG_EVENTS_METRIC_NAME).gauge().value()).isZero();
+    }
+
+    @Test
+    void testBatchIsProduced() throws IOException {
+        List<CloudEvent> batch = Arrays.asList(TestUtils.buildTestCloudEvent(), TestUtils.buildTestCloudEventWithReservedAttributes(), TestUtils.buildTestCloudEvent(),
+                TestUtils.buildTestCloudEvent());
+
+        List<CompletionStage<Void>> results = producer.sendEvents("myBridge", batch);
+
+        // The invalid event does not take a place in the in-flight window, the last one does not fit in it
+        assertThat(sentMessages).hasSize(MAX_IN_FLIGHT);
+        assertThat(results).hasSize(4);
+        assertThat(results.get(0).toCompletableFuture()).isNotDone();
+        assertThatExceptionOfType(ExecutionException.class).isThrownBy(results.get(1).toCompletableFuture()::get).withCauseInstanceOf(BadRequestException.class);
+        assertThat(results.get(2).toCompletableFuture()).isNotDone();
+        assertThatExceptionOfType(ExecutionException.class).isThrownBy(results.get(3).toCompletableFuture()::get).withCauseInstanceOf(TooManyRequestsException.class);
+    }
+
+    private static String keyOf(Message<CloudEvent> message) {
+        return metadataOf(message).getKey();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static OutgoingKafkaRecordMetadata<String> metadataOf(Message<CloudEvent> message) {
+        return (OutgoingKafkaRecordMetadata<String>) message.getMetadata(OutgoingKafkaRecordMetadata.class).get();
     }
 }
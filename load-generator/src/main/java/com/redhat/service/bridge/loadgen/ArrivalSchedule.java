@@ -0,0 +1,70 @@
+package com.redhat.service.bridge.loadgen;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The times at which the requests of a workload are intended to be sent.
+ *
+ * The schedule is fixed in advance and does not depend on the responses (an open model): a slow server does not slow
+ * down the arrivals, as it would with clients waiting for a response before sending the next request. The latency of
+ * a request is measured from its intended time, so that the time a request waited to be sent is accounted for (the
+ * correction of the coordinated omission).
+ */
+public class ArrivalSchedule {
+
+    private final double meanIntervalNanos;
+    private final Random random;
+    private double next;
+
+    private ArrivalSchedule(double ratePerSecond, long startNanos, Random random) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("The rate must be positive");
+        }
+        this.meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        this.random = random;
+        this.next = startNanos;
+        if (random != null) {
+            next += interval();
+        }
+    }
+
+    /**
+     * @param ratePerSecond - The number of requests per second.
+     * @param startNanos - The time of the first request, as given by {@link System#nanoTime()}.
+     * @return - A schedule with evenly spaced requests.
+     */
+    public static ArrivalSchedule constant(double ratePerSecond, long startNanos) {
+        return new ArrivalSchedule(ratePerSecond, startNanos, null);
+    }
+
+    /**
+     * @param ratePerSecond - The average number of requests per second.
+     * @param startNanos - The start of the schedule, as given by {@link System#nanoTime()}.
+     * @param random - The source of the intervals between the requests.
+     * @return - A schedule with exponentially distributed intervals between the requests, as for independent clients.
+     */
+    public static ArrivalSchedule poisson(double ratePerSecond, long startNanos, Random random) {
+        return new ArrivalSchedule(ratePerSecond, startNanos, random);
+    }
+
+    /**
+     * @return - The intended time of the next request.
+     */
+    public long peek() {
+        return (long) next;
+    }
+
+    /**
+     * @return - The intended time of the next request, moving on to the following one.
+     */
+    public long next() {
+        long intended = (long) next;
+        next += interval();
+        return intended;
+    }
+
+    private double interval() {
+        return random == null ? meanIntervalNanos : -Math.log(1 - random.nextDouble()) * meanIntervalNanos;
+    }
+}
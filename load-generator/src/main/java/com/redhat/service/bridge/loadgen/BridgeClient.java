@@ -0,0 +1,167 @@
+package com.redhat.service.bridge.loadgen;
+
+import java.time.Instant;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.HttpRequest;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.WebClientOptions;
+
+/**
+ * Sends the requests of the load generator to the manager and to the ingress, authenticated with a token from Keycloak
+ * when it is configured.
+ *
+ * The requests can be sent from any thread, but the bodies of the events are generated with a {@link Random} that is
+ * not shared: the events must be sent from a single thread.
+ */
+public class BridgeClient {
+
+    static final String BRIDGES_PATH = "/api/v1/bridges";
+    static final String CLOUD_EVENTS_JSON = "application/cloudevents+json";
+
+    // The value of data.api the filters of the Processors match
+    private static final String MATCHING_API = "PutBlockList";
+
+    private final Vertx vertx;
+    private final LoadGeneratorConfig config;
+    private final WebClient client;
+    private final Random random;
+    private volatile String bearerToken;
+
+    public BridgeClient(Vertx vertx, LoadGeneratorConfig config, Random random) {
+        this.vertx = vertx;
+        this.config = config;
+        this.random = random;
+        this.client = WebClient.create(vertx, new WebClientOptions()
+                .setMaxPoolSize(config.connections)
+                .setKeepAlive(true)
+                .setUserAgent("event-bridge-load-generator"));
+    }
+
+    /**
+     * Gets a token from Keycloak and renews it before it expires. Does nothing if Keycloak is not configured.
+     *
+     * @return - Completes once a token is available.
+     */
+    public Future<Void> authenticate() {
+        if (config.keycloakUrl == null) {
+            return Future.succeededFuture();
+        }
+        return client.postAbs(config.keycloakUrl + "/auth/realms/event-bridge-fm/protocol/openid-connect/token")
+                .timeout(config.requestTimeoutMillis)
+                .sendForm(MultiMap.caseInsensitiveMultiMap()
+                        .add("grant_type", "password")
+                        .add("username", config.username)
+                        .add("password", config.password)
+                        .add("client_id", "event-bridge")
+                        .add("client_secret", "secret"))
+                .compose(response -> {
+                    if (response.statusCode() != 200) {
+                        return Future.failedFuture("Failed to authenticate to Keycloak: " + response.statusCode() + " " + response.bodyAsString());
+                    }
+                    JsonObject token = response.bodyAsJsonObject();
+                    bearerToken = token.getString("access_token");
+                    // Renew the token halfway through its lifetime
+                    long renewMillis = Math.max(1L, TimeUnit.SECONDS.toMillis(token.getLong("expires_in", 60L)) / 2);
+                    vertx.setTimer(renewMillis, id -> authenticate().onFailure(t -> System.err.println("[load-generator] " + t.getMessage())));
+                    return Future.succeededFuture();
+                });
+    }
+
+    public Future<HttpResponse<Buffer>> createBridge(boolean valid) {
+        JsonObject body = new JsonObject().put("name", valid ? "load-" + UUID.randomUUID() : "");
+        return send(client.postAbs(config.managerUrl + BRIDGES_PATH), body);
+    }
+
+    public Future<HttpResponse<Buffer>> getBridge(String bridgeId) {
+        return send(client.getAbs(config.managerUrl + BRIDGES_PATH + "/" + bridgeId), null);
+    }
+
+    public Future<HttpResponse<Buffer>> deleteBridge(String bridgeId) {
+        return send(client.deleteAbs(config.managerUrl + BRIDGES_PATH + "/" + bridgeId), null);
+    }
+
+    public Future<HttpResponse<Buffer>> createProcessor(String bridgeId, boolean valid) {
+        JsonObject body = new JsonObject().put("name", "load-" + UUID.randomUUID());
+        if (valid) {
+            body.put("action", new JsonObject()
+                    .put("name", "loadAction")
+                    .put("type", "KafkaTopicAction")
+                    .put("parameters", new JsonObject().put("topic", "loadTopic")))
+                    .put("filters", new JsonArray().add(new JsonObject()
+                            .put("key", "data.api")
+                            .put("type", "StringEquals")
+                            .put("value", MATCHING_API)))
+                    .put("transformationTemplate", "{\"api\": \"{data.api}\"}");
+        }
+        return send(client.postAbs(config.managerUrl + BRIDGES_PATH + "/" + bridgeId + "/processors"), body);
+    }
+
+    public Future<HttpResponse<Buffer>> getProcessor(String bridgeId, String processorId) {
+        return send(client.getAbs(config.managerUrl + BRIDGES_PATH + "/" + bridgeId + "/processors/" + processorId), null);
+    }
+
+    public Future<HttpResponse<Buffer>> deleteProcessor(String bridgeId, String processorId) {
+        return send(client.deleteAbs(config.managerUrl + BRIDGES_PATH + "/" + bridgeId + "/processors/" + processorId), null);
+    }
+
+    /**
+     * @param bridgeId - The Bridge, whose ingress is named after its id.
+     * @param valid - false to send a body that is not a CloudEvent.
+     * @return - The response of the ingress.
+     */
+    public Future<HttpResponse<Buffer>> sendEvent(String bridgeId, boolean valid) {
+        JsonObject body = valid ? event() : new JsonObject().put("name", "not a cloud event");
+        HttpRequest<Buffer> request = client.postAbs(config.ingressUrl + "/ingress/events/" + bridgeId).putHeader("Content-Type", CLOUD_EVENTS_JSON);
+        return send(request, body);
+    }
+
+    public void close() {
+        client.close();
+    }
+
+    private Future<HttpResponse<Buffer>> send(HttpRequest<Buffer> request, JsonObject body) {
+        request.timeout(config.requestTimeoutMillis);
+        String token = bearerToken;
+        if (token != null) {
+            request.bearerTokenAuthentication(token);
+        }
+        if (body == null) {
+            return request.send();
+        }
+        if (!request.headers().contains("Content-Type")) {
+            request.putHeader("Content-Type", "application/json");
+        }
+        return request.sendBuffer(body.toBuffer());
+    }
+
+    private JsonObject event() {
+        String api = random.nextDouble() < config.matchFilterRate ? MATCHING_API : "OtherOperation";
+        return new JsonObject()
+                .put("specversion", "1.0")
+                .put("type", "Microsoft.Storage.BlobCreated")
+                .put("source", "load-generator")
+                .put("id", UUID.randomUUID().toString())
+                .put("time", Instant.now().toString())
+                .put("subject", "blobServices/default/containers/load/blobs/file")
+                .put("datacontenttype", "application/json")
+                .put("data", new JsonObject()
+                        .put("api", api)
+                        .put("clientRequestId", UUID.randomUUID().toString())
+                        .put("eTag", "0x8D76C39E4407333")
+                        .put("contentType", "image/png")
+                        .put("contentLength", 30699)
+                        .put("blobType", "BlockBlob")
+                        .put("url", "https://gridtesting.blob.core.windows.net/testcontainer/file")
+                        .put("storageDiagnostics", new JsonObject().put("batchId", "681fe319-3006-00a8-0022-9e7cde000000")));
+    }
+}
@@ -0,0 +1,112 @@
+package com.redhat.service.bridge.loadgen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.web.client.HttpResponse;
+
+/**
+ * Sends the requests of the workloads at the times given by their {@link ArrivalSchedule}, without waiting for the
+ * responses, and records their latency in the {@link EndpointStats} of each workload.
+ *
+ * A request sent late, e.g. because the dispatcher was not scheduled on time or because all the connections are busy,
+ * is recorded from the time it was intended to be sent.
+ */
+public class Dispatcher {
+
+    private final List<Workload> workloads = new ArrayList<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * @param stats - Where the requests are recorded.
+     * @param schedule - When the requests are sent.
+     * @param request - Sends a request. Called from the dispatcher thread only.
+     * @param onResponse - Called with the responses, e.g. to send a follow-up request, or null.
+     */
+    public void add(EndpointStats stats, ArrivalSchedule schedule, Supplier<Future<HttpResponse<Buffer>>> request, Consumer<HttpResponse<Buffer>> onResponse) {
+        workloads.add(new Workload(stats, schedule, request, onResponse));
+    }
+
+    /**
+     * Sends the requests intended before the end, on the calling thread.
+     *
+     * @param endNanos - The end of the run, as given by {@link System#nanoTime()}.
+     */
+    public void run(long endNanos) {
+        while (!Thread.currentThread().isInterrupted()) {
+            Workload next = null;
+            for (Workload workload : workloads) {
+                if (next == null || workload.schedule.peek() < next.schedule.peek()) {
+                    next = workload;
+                }
+            }
+            if (next == null || next.schedule.peek() >= endNanos) {
+                return;
+            }
+            long wait = next.schedule.peek() - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+                continue;
+            }
+            send(next, next.schedule.next());
+        }
+    }
+
+    /**
+     * Waits for the responses of the requests sent.
+     *
+     * @param timeoutMillis - The maximum time to wait.
+     * @return - The number of requests still waiting for a response.
+     */
+    public int awaitResponses(long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return inFlight.get();
+    }
+
+    private void send(Workload workload, long intendedNanos) {
+        inFlight.incrementAndGet();
+        long sentNanos = System.nanoTime();
+        Future<HttpResponse<Buffer>> response;
+        try {
+            response = workload.request.get();
+        } catch (RuntimeException e) {
+            response = Future.failedFuture(e);
+        }
+        response.onComplete(result -> {
+            long endNanos = System.nanoTime();
+            workload.stats.record(intendedNanos, sentNanos, endNanos, result.succeeded() ? result.result().statusCode() : -1);
+            try {
+                if (result.succeeded() && workload.onResponse != null) {
+                    workload.onResponse.accept(result.result());
+                }
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+    }
+
+    private static class Workload {
+
+        private final EndpointStats stats;
+        private final ArrivalSchedule schedule;
+        private final Supplier<Future<HttpResponse<Buffer>>> request;
+        private final Consumer<HttpResponse<Buffer>> onResponse;
+
+        Workload(EndpointStats stats, ArrivalSchedule schedule, Supplier<Future<HttpResponse<Buffer>>> request, Consumer<HttpResponse<Buffer>> onResponse) {
+            this.stats = stats;
+            this.schedule = schedule;
+            this.request = request;
+            this.onResponse = onResponse;
+        }
+    }
+}
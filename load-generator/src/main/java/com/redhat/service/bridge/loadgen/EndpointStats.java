@@ -0,0 +1,112 @@
+package com.redhat.service.bridge.loadgen;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * The latencies and the outcomes of the requests sent to an endpoint.
+ *
+ * Two latencies are recorded, in microseconds: the response time, from the time the request was intended to be sent
+ * to the response, and the service time, from the time it was handed to the HTTP client. Both include the time waiting
+ * for a connection, but only the response time includes the time the load generator itself was late: the service time
+ * is only reported for comparison, a large difference means the load generator could not keep up with the rate.
+ */
+public class EndpointStats {
+
+    // Latencies up to one hour, with 3 significant digits
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final String name;
+    private final Recorder responseTime = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Recorder serviceTime = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Histogram totalResponseTime = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Histogram totalServiceTime = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private Histogram intervalResponseTime;
+
+    public EndpointStats(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records a request. Can be called from any thread.
+     *
+     * @param intendedNanos - The time the request was intended to be sent.
+     * @param sentNanos - The time the request was handed to the HTTP client.
+     * @param endNanos - The time the response was received or the request failed.
+     * @param status - The status code of the response, or -1 if there is none.
+     */
+    public void record(long intendedNanos, long sentNanos, long endNanos, int status) {
+        responseTime.recordValue(toMicros(endNanos - intendedNanos));
+        serviceTime.recordValue(toMicros(endNanos - sentNanos));
+        if (status < 0) {
+            failures.increment();
+        } else if (status >= 500) {
+            serverErrors.increment();
+        } else if (status >= 400) {
+            clientErrors.increment();
+        } else {
+            successes.increment();
+        }
+    }
+
+    /**
+     * Ends the current interval and adds it to the totals, unless it is discarded. Must be called from a single thread.
+     *
+     * @param discard - true to discard the requests of the interval, e.g. during the warm-up.
+     * @return - The response times of the interval.
+     */
+    public Histogram endInterval(boolean discard) {
+        intervalResponseTime = responseTime.getIntervalHistogram(intervalResponseTime);
+        Histogram intervalServiceTime = serviceTime.getIntervalHistogram();
+        if (discard) {
+            successes.reset();
+            clientErrors.reset();
+            serverErrors.reset();
+            failures.reset();
+        } else {
+            totalResponseTime.add(intervalResponseTime);
+            totalServiceTime.add(intervalServiceTime);
+        }
+        return intervalResponseTime;
+    }
+
+    public Histogram getTotalResponseTime() {
+        return totalResponseTime;
+    }
+
+    public Histogram getTotalServiceTime() {
+        return totalServiceTime;
+    }
+
+    public long getSuccesses() {
+        return successes.sum();
+    }
+
+    public long getClientErrors() {
+        return clientErrors.sum();
+    }
+
+    public long getServerErrors() {
+        return serverErrors.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(HIGHEST_TRACKABLE_MICROS, Math.max(0L, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+}
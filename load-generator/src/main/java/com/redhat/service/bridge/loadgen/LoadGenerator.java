@@ -0,0 +1,323 @@
+package com.redhat.service.bridge.loadgen;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.HttpResponse;
+
+/**
+ * Generates load on the manager and on the ingress, e.g. against the <code>runner</code> all-in-one application:
+ *
+ * <pre>
+ * java -jar load-generator/target/load-generator.jar --manager=http://localhost:8080 --keycloak=http://localhost:8180 \
+ *     --username=kermit --password=thefrog --events-rate=500 --duration=120
+ * </pre>
+ *
+ * The Bridges and their Processors are created first, and the load is generated once they are available. The requests
+ * of each endpoint arrive at a configured rate whatever the latency of the responses (see {@link ArrivalSchedule}), and
+ * the percentiles of their latency are reported periodically and at the end of the run.
+ */
+public class LoadGenerator {
+
+    static final String EVENTS = "POST /ingress/events/{name}";
+    static final String GET_BRIDGE = "GET /api/v1/bridges/{id}";
+    static final String CREATE_PROCESSOR = "POST /api/v1/bridges/{id}/processors";
+    static final String DELETE_PROCESSOR = "DELETE /api/v1/bridges/{id}/processors/{id}";
+
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+    private final LoadGeneratorConfig config;
+    private final BridgeClient client;
+    private final Random random;
+    private final PrintStream out;
+    private final List<String> bridgeIds = new ArrayList<>();
+    private final Map<String, List<String>> processorIds = new LinkedHashMap<>();
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    private HistogramLogWriter histogramLog;
+    private int nextBridge;
+    private boolean warmedUp;
+
+    public LoadGenerator(Vertx vertx, LoadGeneratorConfig config, PrintStream out) {
+        this.config = config;
+        this.random = new Random(config.seed);
+        this.client = new BridgeClient(vertx, config, random);
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains("--help")) {
+            System.out.println("Usage: java -jar load-generator.jar [--option=value...]");
+            System.out.print(new LoadGeneratorConfig().usage());
+            return;
+        }
+        LoadGeneratorConfig config;
+        try {
+            config = LoadGeneratorConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(new LoadGeneratorConfig().usage());
+            System.exit(2);
+            return;
+        }
+
+        Vertx vertx = Vertx.vertx();
+        int exitCode;
+        try {
+            exitCode = new LoadGenerator(vertx, config, System.out).run();
+        } finally {
+            vertx.close();
+        }
+        System.exit(exitCode);
+    }
+
+    /**
+     * @return - 0 if the load has been generated, 1 if the Bridges or the Processors could not be set up.
+     */
+    public int run() throws Exception {
+        out.printf("[load-generator] Seed %d, %s arrivals%n", config.seed, config.poisson ? "poisson" : "constant");
+        try {
+            await(client.authenticate());
+            setup();
+        } catch (Exception e) {
+            out.println("[load-generator] Failed to set up the Bridges and Processors: " + e.getMessage());
+            cleanup();
+            return 1;
+        }
+        try {
+            generateLoad();
+        } finally {
+            cleanup();
+            client.close();
+        }
+        report();
+        return 0;
+    }
+
+    private void setup() throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.setupTimeoutSeconds);
+        for (int i = 0; i < config.bridges; i++) {
+            bridgeIds.add(created(await(client.createBridge(true)), "Bridge"));
+        }
+        for (String bridgeId : bridgeIds) {
+            awaitAvailable(() -> client.getBridge(bridgeId), "Bridge " + bridgeId, deadline);
+        }
+        for (String bridgeId : bridgeIds) {
+            List<String> ids = new ArrayList<>();
+            processorIds.put(bridgeId, ids);
+            for (int i = 0; i < config.processorsPerBridge; i++) {
+                ids.add(created(await(client.createProcessor(bridgeId, true)), "Processor"));
+            }
+        }
+        for (Map.Entry<String, List<String>> processors : processorIds.entrySet()) {
+            for (String processorId : processors.getValue()) {
+                awaitAvailable(() -> client.getProcessor(processors.getKey(), processorId), "Processor " + processorId, deadline);
+            }
+        }
+        out.printf("[load-generator] %d Bridges with %d Processors each are available%n", config.bridges, config.processorsPerBridge);
+    }
+
+    private void generateLoad() throws Exception {
+        if (config.histogramLog != null) {
+            openHistogramLog();
+        }
+
+        long start = System.nanoTime();
+        long measurementStart = start + TimeUnit.SECONDS.toNanos(config.warmupSeconds);
+        long end = measurementStart + TimeUnit.SECONDS.toNanos(config.durationSeconds);
+        Dispatcher dispatcher = new Dispatcher();
+        if (config.eventsRate > 0) {
+            dispatcher.add(stats(EVENTS), schedule(config.eventsRate, start), () -> client.sendEvent(bridgeIds.get(nextBridge++ % bridgeIds.size()), valid()), null);
+        }
+        if (config.bridgeReadsRate > 0) {
+            dispatcher.add(stats(GET_BRIDGE), schedule(config.bridgeReadsRate, start), () -> client.getBridge(valid() ? randomBridge() : "unknown-bridge"), null);
+        }
+        if (config.processorChurnRate > 0) {
+            EndpointStats deletes = stats(DELETE_PROCESSOR);
+            dispatcher.add(stats(CREATE_PROCESSOR), schedule(config.processorChurnRate, start), () -> {
+                String bridgeId = randomBridge();
+                return client.createProcessor(bridgeId, valid()).map(response -> {
+                    if (response.statusCode() == 201) {
+                        deleteProcessor(bridgeId, response.bodyAsJsonObject().getString("id"), deletes);
+                    }
+                    return response;
+                });
+            }, null);
+        }
+
+        out.printf("[load-generator] Warming up for %d s, then measuring for %d s%n", config.warmupSeconds, config.durationSeconds);
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "load-generator-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(this::endInterval, measurementStart - System.nanoTime(), TimeUnit.SECONDS.toNanos(config.reportIntervalSeconds), TimeUnit.NANOSECONDS);
+        try {
+            dispatcher.run(end);
+            int pending = dispatcher.awaitResponses(config.requestTimeoutMillis);
+            if (pending > 0) {
+                out.printf("[load-generator] %d requests did not complete%n", pending);
+            }
+        } finally {
+            reporter.shutdownNow();
+            reporter.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        endInterval();
+        if (histogramLog != null) {
+            histogramLog.close();
+        }
+    }
+
+    private void deleteProcessor(String bridgeId, String processorId, EndpointStats deletes) {
+        long sent = System.nanoTime();
+        client.deleteProcessor(bridgeId, processorId).onComplete(result -> deletes.record(sent, sent, System.nanoTime(), result.succeeded() ? result.result().statusCode() : -1));
+    }
+
+    // Runs on the reporter thread, then on the main thread once the reporter has been stopped
+    private void endInterval() {
+        boolean discard = !warmedUp;
+        warmedUp = true;
+        for (EndpointStats endpoint : stats.values()) {
+            Histogram interval = endpoint.endInterval(discard);
+            if (discard || interval.getTotalCount() == 0) {
+                continue;
+            }
+            double seconds = (interval.getEndTimeStamp() - interval.getStartTimeStamp()) / 1000.0;
+            out.printf("[load-generator] %-45s %8d req %9.1f/s  p50 %9.2f ms  p99 %9.2f ms  max %9.2f ms%n", endpoint.getName(), interval.getTotalCount(),
+                    seconds > 0 ? interval.getTotalCount() / seconds : 0, millis(interval.getValueAtPercentile(50)), millis(interval.getValueAtPercentile(99)),
+                    millis(interval.getMaxValue()));
+            if (histogramLog != null) {
+                interval.setTag(endpoint.getName().replace(' ', '_'));
+                histogramLog.outputIntervalHistogram(interval);
+            }
+        }
+    }
+
+    private void report() {
+        out.println();
+        out.printf("[load-generator] Results over %d s%n", config.durationSeconds);
+        for (EndpointStats endpoint : stats.values()) {
+            Histogram responseTime = endpoint.getTotalResponseTime();
+            out.println();
+            out.println(endpoint.getName());
+            out.printf("  requests: %d, %.1f/s (2xx/3xx: %d, 4xx: %d, 5xx: %d, failed: %d)%n", responseTime.getTotalCount(), (double) responseTime.getTotalCount() / config.durationSeconds,
+                    endpoint.getSuccesses(), endpoint.getClientErrors(), endpoint.getServerErrors(), endpoint.getFailures());
+            if (responseTime.getTotalCount() == 0) {
+                continue;
+            }
+            out.println("  response time, from the intended send time: " + summary(responseTime));
+            out.println("  service time, from the actual send time:    " + summary(endpoint.getTotalServiceTime()));
+            out.println("  response time distribution (ms):");
+            responseTime.outputPercentileDistribution(out, 5, 1000.0);
+        }
+    }
+
+    private void cleanup() {
+        if (!config.cleanup || bridgeIds.isEmpty()) {
+            return;
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.setupTimeoutSeconds);
+        try {
+            for (Map.Entry<String, List<String>> processors : processorIds.entrySet()) {
+                for (String processorId : processors.getValue()) {
+                    await(client.deleteProcessor(processors.getKey(), processorId));
+                }
+            }
+            // The Processors created by the churn must be gone as well before the Bridges can be deleted
+            for (String bridgeId : bridgeIds) {
+                while (await(client.deleteBridge(bridgeId)).statusCode() == 400 && System.nanoTime() < deadline) {
+                    Thread.sleep(1000);
+                }
+            }
+            out.println("[load-generator] The Bridges and Processors have been deleted");
+        } catch (Exception e) {
+            out.println("[load-generator] Failed to delete the Bridges and Processors: " + e.getMessage());
+        }
+    }
+
+    private EndpointStats stats(String endpoint) {
+        return stats.computeIfAbsent(endpoint, EndpointStats::new);
+    }
+
+    private ArrivalSchedule schedule(double rate, long start) {
+        return config.poisson ? ArrivalSchedule.poisson(rate, start, random) : ArrivalSchedule.constant(rate, start);
+    }
+
+    private boolean valid() {
+        return config.badRequestRate == 0 || random.nextDouble() >= config.badRequestRate;
+    }
+
+    private String randomBridge() {
+        return bridgeIds.get(random.nextInt(bridgeIds.size()));
+    }
+
+    private void openHistogramLog() throws FileNotFoundException {
+        histogramLog = new HistogramLogWriter(config.histogramLog);
+        histogramLog.outputComment("Response times in microseconds of the requests of the Event Bridge load generator, tagged with their endpoint");
+        histogramLog.outputLogFormatVersion();
+        long now = System.currentTimeMillis();
+        histogramLog.outputStartTime(now);
+        histogramLog.setBaseTime(now);
+        histogramLog.outputLegend();
+    }
+
+    private String created(HttpResponse<Buffer> response, String what) {
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException(what + " could not be created: " + response.statusCode() + " " + response.bodyAsString());
+        }
+        return response.bodyAsJsonObject().getString("id");
+    }
+
+    private void awaitAvailable(Supplier<Future<HttpResponse<Buffer>>> get, String what, long deadline) throws Exception {
+        while (true) {
+            HttpResponse<Buffer> response = await(get.get());
+            JsonObject body = response.statusCode() == 200 ? response.bodyAsJsonObject() : null;
+            String status = body == null ? null : body.getString("status");
+            if ("AVAILABLE".equals(status)) {
+                return;
+            }
+            if ("FAILED".equals(status)) {
+                throw new IllegalStateException(what + " failed to be deployed");
+            }
+            if (System.nanoTime() > deadline) {
+                throw new TimeoutException(what + " is not available yet (" + (status == null ? response.statusCode() : status) + ")");
+            }
+            Thread.sleep(1000);
+        }
+    }
+
+    private <T> T await(Future<T> future) throws InterruptedException, ExecutionException, TimeoutException {
+        return future.toCompletionStage().toCompletableFuture().get(config.requestTimeoutMillis + 1000L, TimeUnit.MILLISECONDS);
+    }
+
+    private static String summary(Histogram histogram) {
+        StringBuilder summary = new StringBuilder();
+        for (double percentile : PERCENTILES) {
+            summary.append(String.format("p%s %.2f ms  ", percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile),
+                    millis(histogram.getValueAtPercentile(percentile))));
+        }
+        return summary.append(String.format("max %.2f ms", millis(histogram.getMaxValue()))).toString();
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,176 @@
+package com.redhat.service.bridge.loadgen;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * The options of the load generator, given on the command line as <code>--option=value</code>.
+ */
+public class LoadGeneratorConfig {
+
+    String managerUrl = "http://localhost:8080";
+    String ingressUrl;
+    String keycloakUrl;
+    String username;
+    String password;
+    int bridges = 2;
+    int processorsPerBridge = 2;
+    double eventsRate = 100;
+    double bridgeReadsRate = 1;
+    double processorChurnRate = 0.1;
+    double matchFilterRate = 0.8;
+    double badRequestRate;
+    boolean poisson = true;
+    long durationSeconds = 60;
+    long warmupSeconds = 10;
+    long reportIntervalSeconds = 10;
+    int connections = 64;
+    long requestTimeoutMillis = 30000;
+    long setupTimeoutSeconds = 300;
+    String histogramLog;
+    boolean cleanup = true;
+    long seed = System.nanoTime();
+
+    private final Map<String, Option> options = new LinkedHashMap<>();
+
+    public LoadGeneratorConfig() {
+        option("manager", "The URL of the manager", "http://localhost:8080", v -> managerUrl = v);
+        option("ingress", "The URL of the ingress", "the URL of the manager", v -> ingressUrl = v);
+        option("keycloak", "The URL of Keycloak, the requests are not authenticated if it is not set", null, v -> keycloakUrl = v);
+        option("username", "The user to authenticate with", null, v -> username = v);
+        option("password", "The password of the user", null, v -> password = v);
+        option("bridges", "The number of Bridges to create", "2", v -> bridges = positiveInt("bridges", v));
+        option("processors", "The number of Processors to create on each Bridge", "2", v -> processorsPerBridge = nonNegativeInt("processors", v));
+        option("events-rate", "The number of events per second sent to the ingress, spread over the Bridges", "100", v -> eventsRate = rate("events-rate", v));
+        option("bridge-reads-rate", "The number of Bridges per second read from the manager", "1", v -> bridgeReadsRate = rate("bridge-reads-rate", v));
+        option("processor-churn-rate", "The number of Processors per second created and then deleted", "0.1", v -> processorChurnRate = rate("processor-churn-rate", v));
+        option("match-filter-rate", "The fraction of the events matching the filters of the Processors", "0.8", v -> matchFilterRate = fraction("match-filter-rate", v));
+        option("bad-request-rate", "The fraction of the requests that are invalid", "0", v -> badRequestRate = fraction("bad-request-rate", v));
+        option("arrivals", "How the requests arrive: poisson, or constant for evenly spaced requests", "poisson", v -> poisson = arrivals(v));
+        option("duration", "The duration of the measurement in seconds", "60", v -> durationSeconds = positiveInt("duration", v));
+        option("warmup", "The duration of the warm-up in seconds, not included in the results", "10", v -> warmupSeconds = nonNegativeInt("warmup", v));
+        option("report-interval", "The interval in seconds between the intermediate reports", "10", v -> reportIntervalSeconds = positiveInt("report-interval", v));
+        option("connections", "The maximum number of connections to each server", "64", v -> connections = positiveInt("connections", v));
+        option("request-timeout", "The timeout of a request in milliseconds", "30000", v -> requestTimeoutMillis = positiveInt("request-timeout", v));
+        option("setup-timeout", "The maximum time in seconds to wait for the Bridges and Processors to be ready", "300", v -> setupTimeoutSeconds = positiveInt("setup-timeout", v));
+        option("histogram-log", "A file where the latency histograms of each interval are written, in the HdrHistogram log format", null, v -> histogramLog = v);
+        option("cleanup", "Whether to delete the Bridges and Processors at the end", "true", v -> cleanup = Boolean.parseBoolean(v));
+        option("seed", "The seed of the random arrivals and requests", "random", v -> seed = Long.parseLong(v));
+    }
+
+    /**
+     * @param args - The command line arguments.
+     * @return - The options.
+     * @throws IllegalArgumentException - If an option is unknown or has an invalid value.
+     */
+    public static LoadGeneratorConfig parse(String... args) {
+        LoadGeneratorConfig config = new LoadGeneratorConfig();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Invalid argument '" + arg + "', expected --option=value");
+            }
+            Option option = config.options.get(arg.substring(2, separator));
+            if (option == null) {
+                throw new IllegalArgumentException("Unknown option '" + arg.substring(0, separator) + "'");
+            }
+            option.setter.accept(arg.substring(separator + 1));
+        }
+        if (config.keycloakUrl != null && (config.username == null || config.password == null)) {
+            throw new IllegalArgumentException("--username and --password are required with --keycloak");
+        }
+        if (config.ingressUrl == null) {
+            config.ingressUrl = config.managerUrl;
+        }
+        return config;
+    }
+
+    /**
+     * @return - The description of the options.
+     */
+    public String usage() {
+        StringBuilder usage = new StringBuilder("Options:\n");
+        for (Map.Entry<String, Option> option : options.entrySet()) {
+            usage.append(String.format("  --%-22s %s", option.getKey(), option.getValue().description));
+            if (option.getValue().defaultValue != null) {
+                usage.append(" (default: ").append(option.getValue().defaultValue).append(')');
+            }
+            usage.append('\n');
+        }
+        return usage.toString();
+    }
+
+    private void option(String name, String description, String defaultValue, Consumer<String> setter) {
+        options.put(name, new Option(description, defaultValue, setter));
+    }
+
+    private static int positiveInt(String name, String value) {
+        int parsed = nonNegativeInt(name, value);
+        if (parsed == 0) {
+            throw new IllegalArgumentException("--" + name + " must be positive");
+        }
+        return parsed;
+    }
+
+    private static int nonNegativeInt(String name, String value) {
+        int parsed;
+        try {
+            parsed = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + name + " must be an integer", e);
+        }
+        if (parsed < 0) {
+            throw new IllegalArgumentException("--" + name + " must not be negative");
+        }
+        return parsed;
+    }
+
+    private static double rate(String name, String value) {
+        double parsed = parseDouble(name, value);
+        if (parsed < 0) {
+            throw new IllegalArgumentException("--" + name + " must not be negative");
+        }
+        return parsed;
+    }
+
+    private static double fraction(String name, String value) {
+        double parsed = parseDouble(name, value);
+        if (parsed < 0 || parsed > 1) {
+            throw new IllegalArgumentException("--" + name + " must be between 0 and 1");
+        }
+        return parsed;
+    }
+
+    private static double parseDouble(String name, String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + name + " must be a number", e);
+        }
+    }
+
+    private static boolean arrivals(String value) {
+        switch (value) {
+            case "poisson":
+                return true;
+            case "constant":
+                return false;
+            default:
+                throw new IllegalArgumentException("--arrivals must be poisson or constant");
+        }
+    }
+
+    private static class Option {
+
+        private final String description;
+        private final String defaultValue;
+        private final Consumer<String> setter;
+
+        Option(String description, String defaultValue, Consumer<String> setter) {
+            this.description = description;
+            this.defaultValue = defaultValue;
+            this.setter = setter;
+        }
+    }
+}
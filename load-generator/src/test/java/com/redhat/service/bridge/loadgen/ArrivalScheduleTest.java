@@ -0,0 +1,62 @@
+package com.redhat.service.bridge.loadgen;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.within;
+
+public class ArrivalScheduleTest {
+
+    @Test
+    public void testConstantArrivalsAreEvenlySpaced() {
+        ArrivalSchedule schedule = ArrivalSchedule.constant(4, 1000L);
+
+        assertThat(schedule.peek()).isEqualTo(1000L);
+        assertThat(schedule.next()).isEqualTo(1000L);
+        assertThat(schedule.next()).isEqualTo(1000L + TimeUnit.MILLISECONDS.toNanos(250));
+        assertThat(schedule.peek()).isEqualTo(1000L + TimeUnit.MILLISECONDS.toNanos(500));
+    }
+
+    @Test
+    public void testConstantArrivalsDoNotDrift() {
+        ArrivalSchedule schedule = ArrivalSchedule.constant(3, 0L);
+
+        long last = 0;
+        for (int i = 0; i <= 3000; i++) {
+            last = schedule.next();
+        }
+
+        assertThat(last).isCloseTo(TimeUnit.SECONDS.toNanos(1000), within(1L));
+    }
+
+    @Test
+    public void testPoissonArrivalsHaveTheConfiguredRate() {
+        ArrivalSchedule schedule = ArrivalSchedule.poisson(100, 0L, new Random(42));
+
+        long previous = 0;
+        int count = 0;
+        long shortIntervals = 0;
+        while (schedule.peek() < TimeUnit.SECONDS.toNanos(100)) {
+            long next = schedule.next();
+            assertThat(next).isGreaterThanOrEqualTo(previous);
+            if (next - previous < TimeUnit.MILLISECONDS.toNanos(10)) {
+                shortIntervals++;
+            }
+            previous = next;
+            count++;
+        }
+
+        assertThat(count).isBetween(9500, 10500);
+        // The intervals are exponentially distributed: 1 - 1/e of them are shorter than the mean
+        assertThat((double) shortIntervals / count).isCloseTo(1 - Math.exp(-1), within(0.02));
+    }
+
+    @Test
+    public void testRateMustBePositive() {
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> ArrivalSchedule.constant(0, 0L));
+    }
+}
@@ -0,0 +1,100 @@
+package com.redhat.service.bridge.loadgen;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.WebClientOptions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DispatcherTest {
+
+    private static final long SERVICE_MILLIS = 100;
+
+    private Vertx vertx;
+    private HttpServer server;
+    private WebClient client;
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        vertx = Vertx.vertx();
+        CompletableFuture<HttpServer> started = new CompletableFuture<>();
+        vertx.createHttpServer()
+                .requestHandler(request -> vertx.setTimer(SERVICE_MILLIS, id -> request.response().setStatusCode(request.path().equals("/fail") ? 503 : 200).end()))
+                .listen(0, "localhost", result -> {
+                    if (result.succeeded()) {
+                        started.complete(result.result());
+                    } else {
+                        started.completeExceptionally(result.cause());
+                    }
+                });
+        server = started.get(10, TimeUnit.SECONDS);
+        // A single connection: the requests wait for the previous ones, as with a saturated server
+        client = WebClient.create(vertx, new WebClientOptions().setMaxPoolSize(1));
+    }
+
+    @AfterEach
+    public void stopServer() {
+        client.close();
+        vertx.close();
+    }
+
+    @Test
+    public void testLatencyIncludesTheTimeWaitingToBeSent() throws Exception {
+        EndpointStats stats = new EndpointStats("GET /");
+        Dispatcher dispatcher = new Dispatcher();
+        long start = System.nanoTime();
+        // Twice as many requests as the server can handle
+        dispatcher.add(stats, ArrivalSchedule.constant(2 * 1000.0 / SERVICE_MILLIS, start), () -> client.get(server.actualPort(), "localhost", "/").send(), null);
+
+        dispatcher.run(start + TimeUnit.SECONDS.toNanos(1));
+        assertThat(dispatcher.awaitResponses(10000)).isZero();
+
+        Histogram responseTime = stats.endInterval(false);
+        assertThat(responseTime.getTotalCount()).isEqualTo(20);
+        assertThat(stats.getSuccesses()).isEqualTo(20);
+        // The last request waited for the 19 previous ones, while it was intended to be sent after 950 ms
+        assertThat(responseTime.getMaxValue()).isGreaterThan(TimeUnit.MILLISECONDS.toMicros(20 * SERVICE_MILLIS - 950 - 50));
+    }
+
+    @Test
+    public void testLatencyIncludesTheTimeTheDispatcherWasLate() throws Exception {
+        EndpointStats stats = new EndpointStats("GET /");
+        Dispatcher dispatcher = new Dispatcher();
+        // The dispatcher starts 500 ms after the first request was intended to be sent, as after a pause
+        long start = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(500);
+        dispatcher.add(stats, ArrivalSchedule.constant(1, start), () -> client.get(server.actualPort(), "localhost", "/").send(), null);
+
+        dispatcher.run(start + TimeUnit.MILLISECONDS.toNanos(900));
+        assertThat(dispatcher.awaitResponses(10000)).isZero();
+
+        assertThat(stats.endInterval(false).getTotalCount()).isEqualTo(1);
+        assertThat(stats.getTotalResponseTime().getMinValue()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toMicros(500 + SERVICE_MILLIS));
+        assertThat(stats.getTotalServiceTime().getMaxValue()).isLessThan(TimeUnit.MILLISECONDS.toMicros(500));
+    }
+
+    @Test
+    public void testOutcomesAreCounted() throws Exception {
+        EndpointStats stats = new EndpointStats("GET /fail");
+        Dispatcher dispatcher = new Dispatcher();
+        long start = System.nanoTime();
+        dispatcher.add(stats, ArrivalSchedule.constant(5, start), () -> client.get(server.actualPort(), "localhost", "/fail").send(), null);
+        dispatcher.add(stats, ArrivalSchedule.constant(5, start), () -> client.get(1, "localhost", "/").send(), null);
+
+        dispatcher.run(start + TimeUnit.SECONDS.toNanos(1));
+        assertThat(dispatcher.awaitResponses(10000)).isZero();
+
+        assertThat(stats.endInterval(false).getTotalCount()).isEqualTo(10);
+        assertThat(stats.getServerErrors()).isEqualTo(5);
+        assertThat(stats.getFailures()).isEqualTo(5);
+        assertThat(stats.getSuccesses()).isZero();
+    }
+}
@@ -0,0 +1,45 @@
+package com.redhat.service.bridge.loadgen;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class EndpointStatsTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void testRecord() {
+        EndpointStats stats = new EndpointStats("POST /ingress/events/{name}");
+        stats.record(0, 10 * MILLI, 12 * MILLI, 200);
+        stats.record(0, 0, 3 * MILLI, 404);
+        stats.record(0, 0, 4 * MILLI, 503);
+        stats.record(0, 0, 5 * MILLI, -1);
+
+        assertThat(stats.endInterval(false).getTotalCount()).isEqualTo(4);
+        assertThat(stats.getTotalResponseTime().getMaxValue()).isCloseTo(12000L, within(12L));
+        assertThat(stats.getTotalServiceTime().getMaxValue()).isCloseTo(5000L, within(5L));
+        assertThat(stats.getSuccesses()).isEqualTo(1);
+        assertThat(stats.getClientErrors()).isEqualTo(1);
+        assertThat(stats.getServerErrors()).isEqualTo(1);
+        assertThat(stats.getFailures()).isEqualTo(1);
+    }
+
+    @Test
+    public void testDiscardedIntervalIsNotCounted() {
+        EndpointStats stats = new EndpointStats("POST /ingress/events/{name}");
+        stats.record(0, 0, MILLI, 200);
+        assertThat(stats.endInterval(true).getTotalCount()).isEqualTo(1);
+
+        stats.record(0, 0, 2 * MILLI, 200);
+        stats.record(0, 0, 3 * MILLI, 200);
+        assertThat(stats.endInterval(false).getTotalCount()).isEqualTo(2);
+
+        assertThat(stats.getTotalResponseTime().getTotalCount()).isEqualTo(2);
+        assertThat(stats.getTotalResponseTime().getMinValue()).isCloseTo(2000L, within(2L));
+        assertThat(stats.getSuccesses()).isEqualTo(2);
+    }
+}
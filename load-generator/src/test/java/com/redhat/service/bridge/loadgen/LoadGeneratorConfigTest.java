@@ -0,0 +1,52 @@
+package com.redhat.service.bridge.loadgen;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class LoadGeneratorConfigTest {
+
+    @Test
+    public void testDefaults() {
+        LoadGeneratorConfig config = LoadGeneratorConfig.parse();
+
+        assertThat(config.managerUrl).isEqualTo("http://localhost:8080");
+        assertThat(config.ingressUrl).isEqualTo(config.managerUrl);
+        assertThat(config.keycloakUrl).isNull();
+        assertThat(config.eventsRate).isEqualTo(100);
+        assertThat(config.poisson).isTrue();
+    }
+
+    @Test
+    public void testParse() {
+        LoadGeneratorConfig config = LoadGeneratorConfig.parse("--manager=http://manager:8080", "--ingress=http://ingress:8080", "--keycloak=http://keycloak:8180",
+                "--username=kermit", "--password=thefrog", "--events-rate=2500.5", "--arrivals=constant", "--bad-request-rate=0.2", "--duration=5", "--cleanup=false");
+
+        assertThat(config.managerUrl).isEqualTo("http://manager:8080");
+        assertThat(config.ingressUrl).isEqualTo("http://ingress:8080");
+        assertThat(config.keycloakUrl).isEqualTo("http://keycloak:8180");
+        assertThat(config.username).isEqualTo("kermit");
+        assertThat(config.password).isEqualTo("thefrog");
+        assertThat(config.eventsRate).isEqualTo(2500.5);
+        assertThat(config.poisson).isFalse();
+        assertThat(config.badRequestRate).isEqualTo(0.2);
+        assertThat(config.durationSeconds).isEqualTo(5);
+        assertThat(config.cleanup).isFalse();
+    }
+
+    @Test
+    public void testInvalidOptions() {
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> LoadGeneratorConfig.parse("--unknown=1"));
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> LoadGeneratorConfig.parse("--events-rate"));
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> LoadGeneratorConfig.parse("--events-rate=fast"));
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> LoadGeneratorConfig.parse("--match-filter-rate=2"));
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> LoadGeneratorConfig.parse("--duration=0"));
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> LoadGeneratorConfig.parse("--keycloak=http://keycloak:8180"));
+    }
+
+    @Test
+    public void testUsageListsTheOptions() {
+        assertThat(new LoadGeneratorConfig().usage()).contains("--events-rate", "(default: 100)", "--keycloak");
+    }
+}